@@ -0,0 +1,159 @@
+package org.semanticweb.rulewerk.benchmarks;
+
+
+/*-
+ * #%L
+ * Rulewerk Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openrdf.model.Model;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.RDF;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.owlapi.OwlToRulesConverter;
+import org.semanticweb.rulewerk.rdf.RdfModelConverter;
+
+/**
+ * Measures the conversion of RDF models and OWL ontologies into Rulewerk
+ * facts and rules. Both inputs are built from the facts of a {@link Workload}:
+ * binary facts become triples or object property assertions, and unary facts
+ * become type or class assertions. The ontology also contains a small TBox in
+ * the style of LUBM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConversionBenchmark {
+
+	private static final String PREFIX = "https://example.org/";
+
+	@Param({ "RANDOM_GRAPH", "LUBM" })
+	public Workload workload;
+
+	@Param({ "100000" })
+	public int scale;
+
+	private Model model;
+	private OWLOntology ontology;
+
+	@Setup
+	public void setUp() throws OWLOntologyCreationException {
+		final List<Fact> facts = this.workload.createFacts(this.scale);
+		this.model = createModel(facts);
+		this.ontology = createOntology(facts);
+	}
+
+	@Benchmark
+	public Set<Fact> rdfModelToFacts() {
+		return new RdfModelConverter().rdfModelToFacts(this.model);
+	}
+
+	@Benchmark
+	public OwlToRulesConverter owlToRules() {
+		final OwlToRulesConverter converter = new OwlToRulesConverter(false);
+		converter.addOntology(this.ontology);
+		return converter;
+	}
+
+	static Model createModel(final List<Fact> facts) {
+		final ValueFactory valueFactory = ValueFactoryImpl.getInstance();
+		final Model model = new LinkedHashModel();
+		for (final Fact fact : facts) {
+			final String subject = fact.getArguments().get(0).getName();
+			final String predicate = PREFIX + fact.getPredicate().getName();
+			if (fact.getArguments().size() == 1) {
+				model.add(valueFactory.createURI(subject), RDF.TYPE, valueFactory.createURI(predicate));
+			} else {
+				model.add(valueFactory.createURI(subject), valueFactory.createURI(predicate),
+						valueFactory.createURI(fact.getArguments().get(1).getName()));
+			}
+		}
+		return model;
+	}
+
+	static OWLOntology createOntology(final List<Fact> facts) throws OWLOntologyCreationException {
+		final OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+		final OWLDataFactory dataFactory = manager.getOWLDataFactory();
+		final Set<OWLAxiom> axioms = new HashSet<>();
+
+		final OWLClass faculty = dataFactory.getOWLClass(IRI.create(PREFIX + "Faculty"));
+		final OWLClass person = dataFactory.getOWLClass(IRI.create(PREFIX + "Person"));
+		final OWLClass university = dataFactory.getOWLClass(IRI.create(PREFIX + "University"));
+		final OWLObjectProperty degreeFrom = dataFactory.getOWLObjectProperty(IRI.create(PREFIX + "degreeFrom"));
+		axioms.add(dataFactory.getOWLSubClassOfAxiom(dataFactory.getOWLClass(IRI.create(PREFIX + "FullProfessor")),
+				faculty));
+		axioms.add(dataFactory.getOWLSubClassOfAxiom(dataFactory.getOWLClass(IRI.create(PREFIX + "Lecturer")),
+				faculty));
+		axioms.add(dataFactory.getOWLSubClassOfAxiom(faculty, person));
+		axioms.add(dataFactory.getOWLSubClassOfAxiom(dataFactory.getOWLClass(IRI.create(PREFIX + "Student")), person));
+		axioms.add(dataFactory.getOWLSubClassOfAxiom(faculty,
+				dataFactory.getOWLObjectSomeValuesFrom(degreeFrom, university)));
+		axioms.add(dataFactory.getOWLTransitiveObjectPropertyAxiom(
+				dataFactory.getOWLObjectProperty(IRI.create(PREFIX + "subOrganizationOf"))));
+		axioms.add(dataFactory.getOWLSubObjectPropertyOfAxiom(
+				dataFactory.getOWLObjectProperty(IRI.create(PREFIX + "worksFor")),
+				dataFactory.getOWLObjectProperty(IRI.create(PREFIX + "memberOf"))));
+		axioms.add(dataFactory
+				.getOWLTransitiveObjectPropertyAxiom(dataFactory.getOWLObjectProperty(IRI.create(PREFIX + "edge"))));
+
+		for (final Fact fact : facts) {
+			final OWLNamedIndividual subject = dataFactory
+					.getOWLNamedIndividual(IRI.create(fact.getArguments().get(0).getName()));
+			final IRI predicate = IRI.create(PREFIX + fact.getPredicate().getName());
+			if (fact.getArguments().size() == 1) {
+				axioms.add(dataFactory.getOWLClassAssertionAxiom(dataFactory.getOWLClass(predicate), subject));
+			} else {
+				axioms.add(dataFactory.getOWLObjectPropertyAssertionAxiom(dataFactory.getOWLObjectProperty(predicate),
+						subject, dataFactory.getOWLNamedIndividual(IRI.create(fact.getArguments().get(1).getName()))));
+			}
+		}
+		return manager.createOntology(axioms);
+	}
+
+}
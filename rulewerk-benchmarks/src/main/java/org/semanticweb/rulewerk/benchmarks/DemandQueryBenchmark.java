@@ -0,0 +1,122 @@
+package org.semanticweb.rulewerk.benchmarks;
+
+
+/*-
+ * #%L
+ * Rulewerk Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.FactStorage;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.LogLevel;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
+
+/**
+ * Compares answering a point query, which asks for all vertices reachable from
+ * one vertex, after full materialisation and with
+ * {@link VLogReasoner#answerQueryOnDemand(PositiveLiteral, boolean)}. Each
+ * invocation uses a new reasoner, except for
+ * {@link #answerQueriesOnDemand(Blackhole)}, which asks for a different vertex
+ * in each invocation with the same reasoner, so that the data is only loaded
+ * once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DemandQueryBenchmark {
+
+	@Param({ "CHAIN", "TREE", "RANDOM_GRAPH" })
+	public Workload workload;
+
+	@Param({ "1000" })
+	public int scale;
+
+	private KnowledgeBase knowledgeBase;
+	private PositiveLiteral query;
+	private VLogReasoner demandReasoner;
+	private int vertex;
+
+	@Setup
+	public void setUp() {
+		this.knowledgeBase = this.workload.createKnowledgeBase(this.scale, true, FactStorage.COLUMNAR);
+		this.query = Expressions.makePositiveLiteral("path", Workload.vertex(this.scale / 2),
+				Expressions.makeUniversalVariable("Y"));
+		this.demandReasoner = new VLogReasoner(this.knowledgeBase);
+		this.demandReasoner.setLogLevel(LogLevel.ERROR);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.demandReasoner.close();
+	}
+
+	@Benchmark
+	public void reasonAndAnswerQuery(final Blackhole blackhole) throws IOException {
+		try (VLogReasoner reasoner = new VLogReasoner(this.knowledgeBase)) {
+			reasoner.setLogLevel(LogLevel.ERROR);
+			reasoner.reason();
+			consume(reasoner.answerQuery(this.query, true), blackhole);
+		}
+	}
+
+	@Benchmark
+	public void answerQueryOnDemand(final Blackhole blackhole) throws IOException {
+		try (VLogReasoner reasoner = new VLogReasoner(this.knowledgeBase)) {
+			reasoner.setLogLevel(LogLevel.ERROR);
+			consume(reasoner.answerQueryOnDemand(this.query, true), blackhole);
+		}
+	}
+
+	@Benchmark
+	public void answerQueriesOnDemand(final Blackhole blackhole) throws IOException {
+		this.vertex = (this.vertex + 1) % this.scale;
+		consume(this.demandReasoner.answerQueryOnDemand(Expressions.makePositiveLiteral("path",
+				Workload.vertex(this.vertex), Expressions.makeUniversalVariable("Y")), true), blackhole);
+	}
+
+	private static void consume(final QueryResultIterator answers, final Blackhole blackhole) {
+		try (QueryResultIterator iterator = answers) {
+			while (iterator.hasNext()) {
+				blackhole.consume(iterator.next());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+package org.semanticweb.rulewerk.benchmarks;
+
+
+/*-
+ * #%L
+ * Rulewerk Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.parser.ParallelRuleParser;
+import org.semanticweb.rulewerk.parser.ParsingException;
+import org.semanticweb.rulewerk.parser.RuleParser;
+
+/**
+ * Measures how many ground facts per second are parsed by {@link RuleParser}
+ * and by {@link ParallelRuleParser} in the calling thread, with and without
+ * fast fact parsing. Facts have the form
+ * {@code ex:p(<iri>, "lit"^^<dt>, ex:name) .}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FactParseBenchmark {
+
+	static final int FACTS = 100000;
+
+	private String input;
+	private byte[] inputBytes;
+
+	@Setup
+	public void setUp() {
+		final StringBuilder builder = new StringBuilder("@prefix ex: <https://example.org/> .\n");
+		for (int i = 0; i < FACTS; i++) {
+			builder.append("ex:p(<https://example.org/entity/").append(i).append(">, \"").append(i % 1000)
+					.append("\"^^<http://www.w3.org/2001/XMLSchema#integer>, ex:name").append(i % 100)
+					.append(") .\n");
+		}
+		this.input = builder.toString();
+		this.inputBytes = this.input.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(FACTS)
+	public KnowledgeBase ruleParser() throws ParsingException {
+		return RuleParser.parse(this.input);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(FACTS)
+	public KnowledgeBase javaCCChunks() throws ParsingException {
+		return new ParallelRuleParser().setFastFactParsing(false).parse(new ByteArrayInputStream(this.inputBytes));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(FACTS)
+	public KnowledgeBase fastFactParsing() throws ParsingException {
+		return new ParallelRuleParser().setFastFactParsing(true).parse(new ByteArrayInputStream(this.inputBytes));
+	}
+
+}
@@ -0,0 +1,77 @@
+package org.semanticweb.rulewerk.benchmarks;
+
+
+/*-
+ * #%L
+ * Rulewerk Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.reasoner.FactStorage;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+
+/**
+ * Measures how long {@link KnowledgeBase#addStatements(java.util.Collection)}
+ * takes for the facts of a {@link Workload}, for each {@link FactStorage}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class KnowledgeBaseBenchmark {
+
+	@Param({ "RANDOM_GRAPH", "LUBM" })
+	public Workload workload;
+
+	@Param({ "100000" })
+	public int scale;
+
+	@Param({ "STATEMENTS", "COLUMNAR" })
+	public FactStorage factStorage;
+
+	private List<Fact> facts;
+
+	@Setup
+	public void setUp() {
+		this.facts = this.workload.createFacts(this.scale);
+	}
+
+	@Benchmark
+	public KnowledgeBase addStatements() {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase(this.factStorage);
+		knowledgeBase.addStatements(this.facts);
+		return knowledgeBase;
+	}
+
+}
@@ -0,0 +1,96 @@
+package org.semanticweb.rulewerk.benchmarks;
+
+
+/*-
+ * #%L
+ * Rulewerk Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.parser.ParallelRuleParser;
+import org.semanticweb.rulewerk.parser.ParsingException;
+import org.semanticweb.rulewerk.parser.RuleParser;
+
+/**
+ * Measures how long {@link RuleParser#parse(String)} and
+ * {@link ParallelRuleParser} take for the rls serialisation of a
+ * {@link Workload}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParseBenchmark {
+
+	@Param({ "CHAIN", "RANDOM_GRAPH", "LUBM" })
+	public Workload workload;
+
+	@Param({ "100000" })
+	public int scale;
+
+	@Param({ "4" })
+	public int threads;
+
+	private String input;
+	private byte[] inputBytes;
+	private ExecutorService executor;
+
+	@Setup
+	public void setUp() {
+		this.input = this.workload.createRlsText(this.scale);
+		this.inputBytes = this.input.getBytes(StandardCharsets.UTF_8);
+		this.executor = Executors.newFixedThreadPool(this.threads);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.executor.shutdown();
+	}
+
+	@Benchmark
+	public KnowledgeBase parse() throws ParsingException {
+		return RuleParser.parse(this.input);
+	}
+
+	@Benchmark
+	public KnowledgeBase parseParallel() throws ParsingException {
+		return new ParallelRuleParser().setExecutor(this.executor).setChunkSize(1 << 16)
+				.parse(new ByteArrayInputStream(this.inputBytes));
+	}
+
+}
@@ -0,0 +1,195 @@
+package org.semanticweb.rulewerk.benchmarks;
+
+
+/*-
+ * #%L
+ * Rulewerk Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.FactStorage;
+import org.semanticweb.rulewerk.core.reasoner.IdQueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.InferenceExporter;
+import org.semanticweb.rulewerk.core.reasoner.LogLevel;
+import org.semanticweb.rulewerk.core.reasoner.QueryAnswerCount;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogQueryCache;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
+
+/**
+ * Measures query answering and exporting inferences on a materialised
+ * {@link VLogReasoner}, which is set up once per trial, with and without a
+ * {@link VLogQueryCache}. Batches of point lookups, which bind the first
+ * argument of the query to each of its answers, compare answering queries one
+ * by one with {@link VLogReasoner#countQueryAnswers(java.util.Collection)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QueryBenchmark {
+
+	/**
+	 * Writer that discards all output.
+	 */
+	static class NullWriter extends Writer {
+		@Override
+		public void write(final char[] chars, final int offset, final int length) {
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	/**
+	 * Output stream that discards all output.
+	 */
+	static class NullOutputStream extends OutputStream {
+		@Override
+		public void write(final int b) {
+		}
+
+		@Override
+		public void write(final byte[] bytes, final int offset, final int length) {
+		}
+	}
+
+	@Param({ "TREE", "RANDOM_GRAPH", "LUBM" })
+	public Workload workload;
+
+	@Param({ "1000" })
+	public int scale;
+
+	@Param({ "false", "true" })
+	public boolean queryCache;
+
+	private static final int MAX_LOOKUPS = 10000;
+
+	private VLogReasoner reasoner;
+	private PositiveLiteral query;
+	private final List<PositiveLiteral> lookups = new ArrayList<>();
+
+	@Setup
+	public void setUp() throws IOException {
+		this.reasoner = new VLogReasoner(this.workload.createKnowledgeBase(this.scale, true, FactStorage.COLUMNAR));
+		this.reasoner.setLogLevel(LogLevel.ERROR);
+		if (this.queryCache) {
+			this.reasoner.setQueryCache(new VLogQueryCache());
+		}
+		this.reasoner.reason();
+		this.query = this.workload.getQuery();
+
+		final List<Term> arguments = this.query.getArguments();
+		try (QueryResultIterator answers = this.reasoner.answerQuery(this.query, true)) {
+			while (answers.hasNext() && this.lookups.size() < MAX_LOOKUPS) {
+				final QueryResult answer = answers.next();
+				final List<Term> lookupArguments = new ArrayList<>(arguments);
+				lookupArguments.set(0, answer.getTerms().get(0));
+				this.lookups.add(Expressions.makePositiveLiteral(this.query.getPredicate(), lookupArguments));
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.reasoner.close();
+	}
+
+	@Benchmark
+	public void answerQuery(final Blackhole blackhole) {
+		try (QueryResultIterator answers = this.reasoner.answerQuery(this.query, true)) {
+			while (answers.hasNext()) {
+				blackhole.consume(answers.next());
+			}
+		}
+	}
+
+	@Benchmark
+	public void answerQueryIds(final Blackhole blackhole) {
+		try (IdQueryResultIterator answers = this.reasoner.answerQueryIds(this.query, true)) {
+			while (answers.hasNext()) {
+				blackhole.consume(answers.next());
+			}
+		}
+	}
+
+	@Benchmark
+	public long countQueryAnswers() {
+		return this.reasoner.countQueryAnswers(this.query, true).getCount();
+	}
+
+	@Benchmark
+	public long countLookupAnswers() {
+		long count = 0;
+		for (final PositiveLiteral lookup : this.lookups) {
+			count += this.reasoner.countQueryAnswers(lookup, true).getCount();
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long countLookupAnswersInBatch() {
+		long count = 0;
+		for (final QueryAnswerCount answerCount : this.reasoner.countQueryAnswers(this.lookups)) {
+			count += answerCount.getCount();
+		}
+		return count;
+	}
+
+	@Benchmark
+	public Correctness writeInferences() throws IOException {
+		return this.reasoner.writeInferences(new NullWriter());
+	}
+
+	@Benchmark
+	public long exportInferences() throws IOException {
+		return new InferenceExporter(this.reasoner).export(new NullOutputStream()).getFactCount();
+	}
+
+}
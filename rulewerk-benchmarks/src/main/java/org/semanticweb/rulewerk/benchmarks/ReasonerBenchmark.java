@@ -0,0 +1,92 @@
+package org.semanticweb.rulewerk.benchmarks;
+
+
+/*-
+ * #%L
+ * Rulewerk Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.rulewerk.core.reasoner.FactStorage;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.LogLevel;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
+
+/**
+ * Measures loading and reasoning with {@link VLogReasoner}. Each invocation
+ * uses a new reasoner, so that results include the time for starting VLog.
+ * Loading is measured by reasoning on the facts of a {@link Workload} without
+ * any rules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReasonerBenchmark {
+
+	@Param({ "CHAIN", "TREE", "RANDOM_GRAPH", "LUBM" })
+	public Workload workload;
+
+	@Param({ "1000" })
+	public int scale;
+
+	@Param({ "COLUMNAR" })
+	public FactStorage factStorage;
+
+	private KnowledgeBase facts;
+	private KnowledgeBase factsAndRules;
+
+	@Setup
+	public void setUp() {
+		this.facts = this.workload.createKnowledgeBase(this.scale, false, this.factStorage);
+		this.factsAndRules = this.workload.createKnowledgeBase(this.scale, true, this.factStorage);
+	}
+
+	@Benchmark
+	public boolean load() throws IOException {
+		return reason(this.facts);
+	}
+
+	@Benchmark
+	public boolean reason() throws IOException {
+		return reason(this.factsAndRules);
+	}
+
+	private static boolean reason(final KnowledgeBase knowledgeBase) throws IOException {
+		try (VLogReasoner reasoner = new VLogReasoner(knowledgeBase)) {
+			reasoner.setLogLevel(LogLevel.ERROR);
+			return reasoner.reason();
+		}
+	}
+
+}
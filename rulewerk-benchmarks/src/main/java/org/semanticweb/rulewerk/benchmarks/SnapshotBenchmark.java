@@ -0,0 +1,95 @@
+package org.semanticweb.rulewerk.benchmarks;
+
+/*-
+ * #%L
+ * Rulewerk Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.rulewerk.core.reasoner.FactStorage;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBaseSnapshot;
+import org.semanticweb.rulewerk.parser.ParsingException;
+import org.semanticweb.rulewerk.parser.RuleParser;
+
+/**
+ * Compares loading a {@link Workload} from Rulewerk syntax with
+ * {@link RuleParser#parseInto(KnowledgeBase, String)} to loading it from a
+ * {@link KnowledgeBaseSnapshot}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SnapshotBenchmark {
+
+	@Param({ "RANDOM_GRAPH", "LUBM" })
+	public Workload workload;
+
+	@Param({ "100000" })
+	public int scale;
+
+	@Param({ "STATEMENTS", "COLUMNAR" })
+	public FactStorage factStorage;
+
+	private String rlsText;
+	private File snapshotFile;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.rlsText = this.workload.createRlsText(this.scale);
+		this.snapshotFile = File.createTempFile("rulewerk-benchmark", ".rwkb");
+		KnowledgeBaseSnapshot.write(this.workload.createKnowledgeBase(this.scale, true, FactStorage.COLUMNAR),
+				this.snapshotFile);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.snapshotFile.delete();
+	}
+
+	@Benchmark
+	public KnowledgeBase parseInto() throws ParsingException {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase(this.factStorage);
+		RuleParser.parseInto(knowledgeBase, this.rlsText);
+		return knowledgeBase;
+	}
+
+	@Benchmark
+	public KnowledgeBase loadSnapshot() throws IOException {
+		return KnowledgeBaseSnapshot.open(this.snapshotFile).toKnowledgeBase(this.factStorage);
+	}
+
+}
@@ -0,0 +1,255 @@
+package org.semanticweb.rulewerk.benchmarks;
+
+
+/*-
+ * #%L
+ * Rulewerk Benchmarks
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.FactStorage;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.parser.ParsingException;
+import org.semanticweb.rulewerk.parser.RuleParser;
+
+/**
+ * Synthetic knowledge bases that are used by all benchmarks. Each workload
+ * generates facts for a given scale, which is roughly the number of input
+ * facts, and provides rules and a query that cover typical reasoning tasks.
+ * Generation is deterministic, so that results of different runs are
+ * comparable.
+ */
+public enum Workload {
+
+	/**
+	 * A single path of {@code edge} facts, with transitive closure rules. The
+	 * materialisation is quadratic in the scale.
+	 */
+	CHAIN(Workload.TRANSITIVE_CLOSURE_RULES, "path(?X, ?Y)") {
+		@Override
+		public List<Fact> createFacts(final int scale) {
+			final List<Fact> facts = new ArrayList<>(scale);
+			for (int i = 0; i < scale; i++) {
+				facts.add(Expressions.makeFact(EDGE, vertex(i), vertex(i + 1)));
+			}
+			return facts;
+		}
+	},
+	/**
+	 * A complete tree with branching factor {@value #TREE_BRANCHING}, given as
+	 * {@code edge} facts from parents to children, with transitive closure rules.
+	 */
+	TREE(Workload.TRANSITIVE_CLOSURE_RULES, "path(?X, ?Y)") {
+		@Override
+		public List<Fact> createFacts(final int scale) {
+			final List<Fact> facts = new ArrayList<>(scale);
+			for (int child = 1; child <= scale; child++) {
+				facts.add(Expressions.makeFact(EDGE, vertex((child - 1) / TREE_BRANCHING), vertex(child)));
+			}
+			return facts;
+		}
+	},
+	/**
+	 * A random graph with {@code scale} edges over {@code scale / 2} vertices,
+	 * with transitive closure rules.
+	 */
+	RANDOM_GRAPH(Workload.TRANSITIVE_CLOSURE_RULES, "path(?X, ?Y)") {
+		@Override
+		public List<Fact> createFacts(final int scale) {
+			final int vertexCount = Math.max(2, scale / 2);
+			final Random random = new Random(SEED);
+			final List<Fact> facts = new ArrayList<>(scale);
+			for (int i = 0; i < scale; i++) {
+				facts.add(Expressions.makeFact(EDGE, vertex(random.nextInt(vertexCount)),
+						vertex(random.nextInt(vertexCount))));
+			}
+			return facts;
+		}
+	},
+	/**
+	 * Data in the style of the Lehigh University Benchmark (LUBM): universities
+	 * with departments, research groups, faculty, students, and courses, and rules
+	 * with joins, recursion, and existential quantifiers.
+	 */
+	LUBM(Workload.LUBM_RULES, "memberOf(?X, ?Y)") {
+		@Override
+		public List<Fact> createFacts(final int scale) {
+			final List<Fact> facts = new ArrayList<>(scale);
+			final Random random = new Random(SEED);
+			// about 120 facts per department, 10 departments per university
+			final int departmentCount = Math.max(1, scale / 120);
+			for (int d = 0; d < departmentCount; d++) {
+				final Constant university = iri("university", d / 10);
+				final Constant department = iri("department", d);
+				if (d % 10 == 0) {
+					facts.add(Expressions.makeFact("University", university));
+				}
+				facts.add(Expressions.makeFact("Department", department));
+				facts.add(Expressions.makeFact("subOrganizationOf", department, university));
+				for (int g = 0; g < 3; g++) {
+					final Constant group = iri("group", 3 * d + g);
+					facts.add(Expressions.makeFact("ResearchGroup", group));
+					facts.add(Expressions.makeFact("subOrganizationOf", group, department));
+				}
+
+				final Constant[] faculty = new Constant[10];
+				final Constant[] courses = new Constant[15];
+				for (int f = 0; f < faculty.length; f++) {
+					faculty[f] = iri("faculty", faculty.length * d + f);
+					facts.add(Expressions.makeFact(f == 0 ? "FullProfessor" : "Lecturer", faculty[f]));
+					facts.add(Expressions.makeFact("worksFor", faculty[f], f % 4 == 0 ? department
+							: iri("group", 3 * d + f % 3)));
+				}
+				for (int c = 0; c < courses.length; c++) {
+					courses[c] = iri("course", courses.length * d + c);
+					facts.add(Expressions.makeFact("Course", courses[c]));
+					facts.add(Expressions.makeFact("teacherOf", faculty[c % faculty.length], courses[c]));
+				}
+				for (int s = 0; s < 20; s++) {
+					final Constant student = iri("student", 20 * d + s);
+					facts.add(Expressions.makeFact("Student", student));
+					facts.add(Expressions.makeFact("memberOf", student, department));
+					facts.add(Expressions.makeFact("advisor", student, faculty[random.nextInt(faculty.length)]));
+					facts.add(Expressions.makeFact("takesCourse", student, courses[random.nextInt(courses.length)]));
+				}
+			}
+			return facts;
+		}
+	};
+
+	static final String TRANSITIVE_CLOSURE_RULES = "path(?X, ?Y) :- edge(?X, ?Y) .\n"
+			+ "path(?X, ?Z) :- path(?X, ?Y), edge(?Y, ?Z) .\n";
+
+	static final String LUBM_RULES = "Faculty(?X) :- FullProfessor(?X) .\n" //
+			+ "Faculty(?X) :- Lecturer(?X) .\n" //
+			+ "Person(?X) :- Faculty(?X) .\n" //
+			+ "Person(?X) :- Student(?X) .\n" //
+			+ "Organization(?X) :- University(?X) .\n" //
+			+ "Organization(?X) :- Department(?X) .\n" //
+			+ "Organization(?X) :- ResearchGroup(?X) .\n" //
+			+ "subOrganizationOf(?X, ?Z) :- subOrganizationOf(?X, ?Y), subOrganizationOf(?Y, ?Z) .\n" //
+			+ "memberOf(?X, ?Y) :- worksFor(?X, ?Y) .\n" //
+			+ "memberOf(?X, ?Z) :- memberOf(?X, ?Y), subOrganizationOf(?Y, ?Z) .\n" //
+			+ "taughtBy(?S, ?F) :- takesCourse(?S, ?C), teacherOf(?F, ?C) .\n" //
+			+ "degreeFrom(?X, !U), University(!U) :- Faculty(?X) .\n";
+
+	static final int TREE_BRANCHING = 3;
+
+	static final long SEED = 42;
+
+	static final Predicate EDGE = Expressions.makePredicate("edge", 2);
+
+	private static final String PREFIX = "https://example.org/";
+
+	private final String rules;
+	private final String query;
+
+	private Workload(final String rules, final String query) {
+		this.rules = rules;
+		this.query = query;
+	}
+
+	/**
+	 * Generates the facts of this workload.
+	 *
+	 * @param scale approximate number of facts to generate
+	 * @return new list of {@link Fact}s
+	 */
+	public abstract List<Fact> createFacts(int scale);
+
+	/**
+	 * Returns the rules of this workload.
+	 *
+	 * @return list of {@link Rule}s
+	 */
+	public List<Rule> getRules() {
+		try {
+			return RuleParser.parse(this.rules).getRules();
+		} catch (final ParsingException e) {
+			throw new IllegalStateException("Invalid workload rules: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Returns a query over the inferences of this workload.
+	 *
+	 * @return query literal
+	 */
+	public PositiveLiteral getQuery() {
+		try {
+			return RuleParser.parsePositiveLiteral(this.query);
+		} catch (final ParsingException e) {
+			throw new IllegalStateException("Invalid workload query: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Creates a knowledge base with the facts of this workload, and optionally its
+	 * rules.
+	 *
+	 * @param scale       approximate number of facts
+	 * @param withRules   whether to add the rules of this workload
+	 * @param factStorage how the knowledge base stores facts
+	 * @return new {@link KnowledgeBase}
+	 */
+	public KnowledgeBase createKnowledgeBase(final int scale, final boolean withRules,
+			final FactStorage factStorage) {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase(factStorage);
+		knowledgeBase.addStatements(createFacts(scale));
+		if (withRules) {
+			knowledgeBase.addStatements(getRules());
+		}
+		return knowledgeBase;
+	}
+
+	/**
+	 * Serialises the facts and rules of this workload in Rulewerk syntax.
+	 *
+	 * @param scale approximate number of facts
+	 * @return the knowledge base as rls text
+	 */
+	public String createRlsText(final int scale) {
+		final StringWriter writer = new StringWriter();
+		try {
+			createKnowledgeBase(scale, true, FactStorage.STATEMENTS).writeKnowledgeBase(writer);
+		} catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return writer.toString();
+	}
+
+	static Constant vertex(final int i) {
+		return iri("vertex", i);
+	}
+
+	static Constant iri(final String type, final int i) {
+		return Expressions.makeAbstractConstant(PREFIX + type + "/" + i);
+	}
+
+}
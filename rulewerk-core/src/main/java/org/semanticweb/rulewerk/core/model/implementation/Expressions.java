@@ -40,7 +40,8 @@ import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
 
 /**
  * This utilities class provides static methods for creating terms and formulas
- * in Rulewerk.
+ * in Rulewerk. Terms and predicates are interned in the global
+ * {@link TermPool}, so that equal objects created here are identical.
  *
  * @author Markus Krötzsch
  *
@@ -61,7 +62,7 @@ public final class Expressions {
 	 * @return a {@link UniversalVariable} corresponding to the input.
 	 */
 	public static UniversalVariable makeUniversalVariable(String name) {
-		return new UniversalVariableImpl(name);
+		return TermPool.getGlobalPool().getUniversalVariable(name);
 	}
 
 	/**
@@ -71,7 +72,7 @@ public final class Expressions {
 	 * @return a {@link ExistentialVariable} corresponding to the input.
 	 */
 	public static ExistentialVariable makeExistentialVariable(String name) {
-		return new ExistentialVariableImpl(name);
+		return TermPool.getGlobalPool().getExistentialVariable(name);
 	}
 
 	/**
@@ -81,7 +82,7 @@ public final class Expressions {
 	 * @return an {@link AbstractConstant} corresponding to the input.
 	 */
 	public static AbstractConstant makeAbstractConstant(String name) {
-		return new AbstractConstantImpl(name);
+		return TermPool.getGlobalPool().getAbstractConstant(name);
 	}
 
 	/**
@@ -92,7 +93,7 @@ public final class Expressions {
 	 * @return a {@link DatatypeConstant} corresponding to the input.
 	 */
 	public static DatatypeConstant makeDatatypeConstant(String lexicalValue, String datatypeIri) {
-		return new DatatypeConstantImpl(lexicalValue, datatypeIri);
+		return TermPool.getGlobalPool().getDatatypeConstant(lexicalValue, datatypeIri);
 	}
 
 	/**
@@ -104,7 +105,7 @@ public final class Expressions {
 	 * @return a {@link LanguageStringConstant} corresponding to the input.
 	 */
 	public static LanguageStringConstant makeLanguageStringConstant(String string, String languageTag) {
-		return new LanguageStringConstantImpl(string, languageTag);
+		return TermPool.getGlobalPool().getLanguageStringConstant(string, languageTag);
 	}
 
 	/**
@@ -115,7 +116,7 @@ public final class Expressions {
 	 * @return a {@link Predicate} corresponding to the input.
 	 */
 	public static Predicate makePredicate(String name, int arity) {
-		return new PredicateImpl(name, arity);
+		return TermPool.getGlobalPool().getPredicate(name, arity);
 	}
 
 	/**
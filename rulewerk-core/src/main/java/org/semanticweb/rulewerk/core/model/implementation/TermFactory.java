@@ -34,6 +34,8 @@ import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
  * Class for creating various kinds of terms. Instances of this class maintain
  * an internal cache that allows them to re-use the generated objects, which is
  * useful to safe memory since the same term is often needed in multiple places.
+ * Objects that are not found in the cache are obtained from a {@link TermPool},
+ * so that terms remain shared across factories.
  * 
  * @author Markus Kroetzsch
  *
@@ -68,12 +70,25 @@ public class TermFactory {
 	final private SimpleLruMap<String, ExistentialVariable> existentialVariables;
 	final private SimpleLruMap<String, UniversalVariable> universalVariables;
 	final private SimpleLruMap<String, Predicate> predicates;
+	final private TermPool termPool;
 
 	public TermFactory() {
 		this(65536);
 	}
 
 	public TermFactory(int cacheSize) {
+		this(cacheSize, TermPool.getGlobalPool());
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param cacheSize maximal number of abstract constants to keep in the local
+	 *                  cache
+	 * @param termPool  the {@link TermPool} from which new objects are obtained
+	 */
+	public TermFactory(int cacheSize, TermPool termPool) {
+		this.termPool = termPool;
 		abstractConstants = new SimpleLruMap<>(256, cacheSize);
 		existentialVariables = new SimpleLruMap<>(64, 1024);
 		universalVariables = new SimpleLruMap<>(64, 1024);
@@ -90,7 +105,7 @@ public class TermFactory {
 		if (universalVariables.containsKey(name)) {
 			return universalVariables.get(name);
 		} else {
-			UniversalVariable result = new UniversalVariableImpl(name);
+			UniversalVariable result = this.termPool.getUniversalVariable(name);
 			universalVariables.put(name, result);
 			return result;
 		}
@@ -106,7 +121,7 @@ public class TermFactory {
 		if (existentialVariables.containsKey(name)) {
 			return existentialVariables.get(name);
 		} else {
-			ExistentialVariable result = new ExistentialVariableImpl(name);
+			ExistentialVariable result = this.termPool.getExistentialVariable(name);
 			existentialVariables.put(name, result);
 			return result;
 		}
@@ -122,7 +137,7 @@ public class TermFactory {
 		if (abstractConstants.containsKey(name)) {
 			return abstractConstants.get(name);
 		} else {
-			AbstractConstant result = new AbstractConstantImpl(name);
+			AbstractConstant result = this.termPool.getAbstractConstant(name);
 			abstractConstants.put(name, result);
 			return result;
 		}
@@ -136,7 +151,7 @@ public class TermFactory {
 	 * @return a {@link DatatypeConstant} corresponding to the input.
 	 */
 	public DatatypeConstant makeDatatypeConstant(String lexicalValue, String datatypeIri) {
-		return new DatatypeConstantImpl(lexicalValue, datatypeIri);
+		return this.termPool.getDatatypeConstant(lexicalValue, datatypeIri);
 	}
 
 	/**
@@ -148,7 +163,7 @@ public class TermFactory {
 	 * @return a {@link LanguageStringConstant} corresponding to the input.
 	 */
 	public LanguageStringConstant makeLanguageStringConstant(String string, String languageTag) {
-		return new LanguageStringConstantImpl(string, languageTag);
+		return this.termPool.getLanguageStringConstant(string, languageTag);
 	}
 
 	/**
@@ -163,7 +178,7 @@ public class TermFactory {
 		if (predicates.containsKey(key)) {
 			return predicates.get(key);
 		} else {
-			Predicate result = new PredicateImpl(name, arity);
+			Predicate result = this.termPool.getPredicate(name, arity);
 			predicates.put(key, result);
 			return result;
 		}
@@ -0,0 +1,287 @@
+package org.semanticweb.rulewerk.core.model.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
+import org.semanticweb.rulewerk.core.model.api.DatatypeConstant;
+import org.semanticweb.rulewerk.core.model.api.ExistentialVariable;
+import org.semanticweb.rulewerk.core.model.api.LanguageStringConstant;
+import org.semanticweb.rulewerk.core.model.api.NamedNull;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
+
+/**
+ * Thread-safe pool for interning {@link Term}s and {@link Predicate}s. The
+ * pool only keeps weak references to its entries, so that objects that are no
+ * longer used anywhere else can be garbage collected. Objects obtained from the
+ * same pool are equal if and only if they are identical, which makes the
+ * identity check at the start of {@code equals} effective.
+ *
+ * A global pool that is used by {@link Expressions} and {@link TermFactory} is
+ * available via {@link #getGlobalPool()}.
+ */
+public class TermPool {
+
+	/**
+	 * Weak interning map for objects of one type. Keys and values of the
+	 * underlying map are the same {@link WeakEntry}, so that a lookup for an
+	 * equal object yields the canonical instance.
+	 *
+	 * @param <T> type of interned objects
+	 */
+	static class WeakInterner<T> {
+
+		static final class WeakEntry<T> extends WeakReference<T> {
+			private final int hash;
+
+			WeakEntry(final T referent, final ReferenceQueue<T> queue) {
+				super(referent, queue);
+				this.hash = referent.hashCode();
+			}
+
+			@Override
+			public int hashCode() {
+				return this.hash;
+			}
+
+			@Override
+			public boolean equals(final Object obj) {
+				if (this == obj) {
+					return true;
+				}
+				if (!(obj instanceof WeakEntry)) {
+					return false;
+				}
+				final WeakEntry<?> other = (WeakEntry<?>) obj;
+				if (this.hash != other.hash) {
+					return false;
+				}
+				final T referent = this.get();
+				return referent != null && referent.equals(other.get());
+			}
+		}
+
+		private final ConcurrentHashMap<WeakEntry<T>, WeakEntry<T>> map = new ConcurrentHashMap<>();
+		private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+		T intern(final T object, final LongAdder hits) {
+			expungeStaleEntries();
+			final WeakEntry<T> entry = new WeakEntry<>(object, this.queue);
+			while (true) {
+				final WeakEntry<T> existing = this.map.putIfAbsent(entry, entry);
+				if (existing == null) {
+					return object;
+				}
+				final T result = existing.get();
+				if (result != null) {
+					entry.clear();
+					hits.increment();
+					return result;
+				}
+				// entry was cleared concurrently; drop it and try again
+				this.map.remove(existing, existing);
+			}
+		}
+
+		int size() {
+			expungeStaleEntries();
+			return this.map.size();
+		}
+
+		void clear() {
+			this.map.clear();
+		}
+
+		private void expungeStaleEntries() {
+			Object stale;
+			while ((stale = this.queue.poll()) != null) {
+				this.map.remove(stale, stale);
+			}
+		}
+	}
+
+	private static final TermPool GLOBAL_POOL = new TermPool();
+
+	private final WeakInterner<AbstractConstant> abstractConstants = new WeakInterner<>();
+	private final WeakInterner<DatatypeConstant> datatypeConstants = new WeakInterner<>();
+	private final WeakInterner<LanguageStringConstant> languageStringConstants = new WeakInterner<>();
+	private final WeakInterner<NamedNull> namedNulls = new WeakInterner<>();
+	private final WeakInterner<UniversalVariable> universalVariables = new WeakInterner<>();
+	private final WeakInterner<ExistentialVariable> existentialVariables = new WeakInterner<>();
+	private final WeakInterner<Predicate> predicates = new WeakInterner<>();
+
+	private final LongAdder lookups = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+
+	/**
+	 * Returns the global pool that is shared by {@link Expressions},
+	 * {@link TermFactory}, and other components that create terms.
+	 *
+	 * @return the global {@link TermPool}
+	 */
+	public static TermPool getGlobalPool() {
+		return GLOBAL_POOL;
+	}
+
+	/**
+	 * Returns the canonical {@link AbstractConstant} with the given name.
+	 *
+	 * @param name name of the constant
+	 * @return an interned {@link AbstractConstant}
+	 */
+	public AbstractConstant getAbstractConstant(final String name) {
+		return intern(this.abstractConstants, new AbstractConstantImpl(name));
+	}
+
+	/**
+	 * Returns the canonical {@link DatatypeConstant} for the given input.
+	 *
+	 * @param lexicalValue the lexical representation of the data value
+	 * @param datatypeIri  the full absolute IRI of the datatype of this literal
+	 * @return an interned {@link DatatypeConstant}
+	 */
+	public DatatypeConstant getDatatypeConstant(final String lexicalValue, final String datatypeIri) {
+		return intern(this.datatypeConstants, new DatatypeConstantImpl(lexicalValue, datatypeIri));
+	}
+
+	/**
+	 * Returns the canonical {@link LanguageStringConstant} for the given input.
+	 *
+	 * @param string      the string value of the constant
+	 * @param languageTag the BCP 47 language tag of the constant
+	 * @return an interned {@link LanguageStringConstant}
+	 */
+	public LanguageStringConstant getLanguageStringConstant(final String string, final String languageTag) {
+		return intern(this.languageStringConstants, new LanguageStringConstantImpl(string, languageTag));
+	}
+
+	/**
+	 * Returns the canonical {@link NamedNull} with the given name.
+	 *
+	 * @param name name of the named null
+	 * @return an interned {@link NamedNull}
+	 */
+	public NamedNull getNamedNull(final String name) {
+		return intern(this.namedNulls, new NamedNullImpl(name));
+	}
+
+	/**
+	 * Returns the canonical {@link UniversalVariable} with the given name.
+	 *
+	 * @param name name of the variable
+	 * @return an interned {@link UniversalVariable}
+	 */
+	public UniversalVariable getUniversalVariable(final String name) {
+		return intern(this.universalVariables, new UniversalVariableImpl(name));
+	}
+
+	/**
+	 * Returns the canonical {@link ExistentialVariable} with the given name.
+	 *
+	 * @param name name of the variable
+	 * @return an interned {@link ExistentialVariable}
+	 */
+	public ExistentialVariable getExistentialVariable(final String name) {
+		return intern(this.existentialVariables, new ExistentialVariableImpl(name));
+	}
+
+	/**
+	 * Returns the canonical {@link Predicate} with the given name and arity.
+	 *
+	 * @param name  non-blank predicate name
+	 * @param arity predicate arity, strictly greater than 0
+	 * @return an interned {@link Predicate}
+	 */
+	public Predicate getPredicate(final String name, final int arity) {
+		return intern(this.predicates, new PredicateImpl(name, arity));
+	}
+
+	/**
+	 * Returns the number of objects that are currently held in the pool. Entries
+	 * whose objects have been garbage collected are not counted.
+	 *
+	 * @return number of live pool entries
+	 */
+	public int size() {
+		return this.abstractConstants.size() + this.datatypeConstants.size() + this.languageStringConstants.size()
+				+ this.namedNulls.size() + this.universalVariables.size() + this.existentialVariables.size()
+				+ this.predicates.size();
+	}
+
+	/**
+	 * Returns the number of lookups that have been made in this pool.
+	 *
+	 * @return number of lookups
+	 */
+	public long getLookupCount() {
+		return this.lookups.sum();
+	}
+
+	/**
+	 * Returns the number of lookups that returned an object that was already in
+	 * the pool.
+	 *
+	 * @return number of hits
+	 */
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Returns the fraction of lookups that returned an object that was already in
+	 * the pool, or 0 if there were no lookups yet.
+	 *
+	 * @return hit rate between 0 and 1
+	 */
+	public double getHitRate() {
+		final long lookupCount = getLookupCount();
+		return lookupCount == 0 ? 0.0 : (double) getHitCount() / lookupCount;
+	}
+
+	/**
+	 * Removes all entries from the pool and resets its counters. Objects obtained
+	 * before remain valid, but will no longer be identical to objects obtained
+	 * afterwards.
+	 */
+	public void clear() {
+		this.abstractConstants.clear();
+		this.datatypeConstants.clear();
+		this.languageStringConstants.clear();
+		this.namedNulls.clear();
+		this.universalVariables.clear();
+		this.existentialVariables.clear();
+		this.predicates.clear();
+		this.lookups.reset();
+		this.hits.reset();
+	}
+
+	private <T> T intern(final WeakInterner<T> interner, final T object) {
+		this.lookups.increment();
+		return interner.intern(object, this.hits);
+	}
+
+}
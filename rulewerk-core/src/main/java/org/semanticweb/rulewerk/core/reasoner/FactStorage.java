@@ -0,0 +1,40 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Ways in which a {@link KnowledgeBase} can store its facts.
+ */
+public enum FactStorage {
+	/**
+	 * Facts are stored as {@link org.semanticweb.rulewerk.core.model.api.Fact}
+	 * objects, together with all other statements and in their original order
+	 */
+	STATEMENTS,
+	/**
+	 * Facts are stored dictionary-encoded, in one table of numeric ids per
+	 * predicate, using a
+	 * {@link org.semanticweb.rulewerk.core.reasoner.implementation.ColumnarFactStore}.
+	 * This uses much less memory for large numbers of facts, but facts are no
+	 * longer kept in their original order relative to other statements.
+	 */
+	COLUMNAR
+}
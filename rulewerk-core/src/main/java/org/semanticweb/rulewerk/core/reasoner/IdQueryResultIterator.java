@@ -0,0 +1,48 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Iterator;
+
+import org.semanticweb.rulewerk.core.model.api.Term;
+
+/**
+ * Iterator for query answers in the internal representation of a
+ * {@link Reasoner}, where each answer is an array of numeric term ids. No
+ * {@link Term} objects are created for the answers; ids can be converted to
+ * terms on demand using {@link Reasoner#getTerm(long)}.
+ *
+ * Ids are only meaningful for the reasoner that returned them, and only until
+ * that reasoner is reset or reloads its knowledge base.
+ */
+public interface IdQueryResultIterator extends Iterator<long[]>, AutoCloseable {
+
+	/**
+	 * Returns the correctness of the query result, as explained in
+	 * {@link QueryResultIterator#getCorrectness()}.
+	 *
+	 * @return query result correctness
+	 */
+	public Correctness getCorrectness();
+
+	@Override
+	public void close();
+}
@@ -0,0 +1,702 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
+import org.semanticweb.rulewerk.core.model.api.DatatypeConstant;
+import org.semanticweb.rulewerk.core.model.api.LanguageStringConstant;
+import org.semanticweb.rulewerk.core.model.api.NamedNull;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+
+/**
+ * Exports all inferences of a {@link Reasoner} to an {@link OutputStream} in
+ * one of several {@link Format}s, optionally compressed. If an executor is set,
+ * the inferences of different predicates are read and serialised in parallel,
+ * each into its own buffer, and finished buffers are merged into the output.
+ * With compression, each buffer is compressed by the worker that filled it,
+ * into a separate gzip member or zstd frame, so that compression runs in
+ * parallel as well. Standard decompressors read such concatenated members as
+ * one stream.
+ *
+ * In ordered mode, the output contains the inferences grouped by predicate,
+ * in a fixed predicate order, like a sequential export. Buffers of predicates
+ * that finish before all earlier predicates are kept in memory until their
+ * turn. In unordered mode, buffers are written as soon as they are full, so
+ * that memory use is bounded by the number of workers times the buffer size.
+ *
+ * Example:
+ *
+ * <pre>
+ * new InferenceExporter(reasoner).setFormat(Format.NTRIPLES).setCompression(Compression.GZIP)
+ * 		.setExecutor(executor).export("inferences.nt.gz");
+ * </pre>
+ */
+public class InferenceExporter {
+
+	/**
+	 * Output formats for inferences.
+	 */
+	public enum Format {
+		/**
+		 * Rulewerk rule syntax, with one fact per line and prefix declarations of
+		 * the knowledge base used for abbreviating IRIs.
+		 */
+		RLS,
+		/**
+		 * N-Triples. Facts of binary predicates p(s, o) are written as triples with
+		 * predicate p, facts of ternary predicates as the triple (s, p, o). Named
+		 * nulls become blank nodes. Characters that are not allowed in IRIs are
+		 * escaped. Facts of other arities, and facts that do not form valid triples,
+		 * e.g., because some predicate or constant name is not an absolute IRI, are
+		 * skipped.
+		 */
+		NTRIPLES,
+		/**
+		 * Comma-separated values, one record per fact, with the predicate name in
+		 * the first column.
+		 */
+		CSV,
+		/**
+		 * Tab-separated values, one record per fact, with the predicate name in the
+		 * first column.
+		 */
+		TSV
+	}
+
+	/**
+	 * Compression of the output.
+	 */
+	public enum Compression {
+		NONE, GZIP,
+		/**
+		 * Zstandard compression, which requires the optional dependency
+		 * {@code com.github.luben:zstd-jni} on the class path.
+		 */
+		ZSTD
+	}
+
+	/**
+	 * Result of an export, with throughput metrics.
+	 */
+	public static class ExportStatistics {
+		private final Correctness correctness;
+		private final long factCount;
+		private final long skippedFactCount;
+		private final long uncompressedBytes;
+		private final long writtenBytes;
+		private final long elapsedNanos;
+
+		ExportStatistics(final Correctness correctness, final long factCount, final long skippedFactCount,
+				final long uncompressedBytes, final long writtenBytes, final long elapsedNanos) {
+			this.correctness = correctness;
+			this.factCount = factCount;
+			this.skippedFactCount = skippedFactCount;
+			this.uncompressedBytes = uncompressedBytes;
+			this.writtenBytes = writtenBytes;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		/**
+		 * @return the correctness of the exported inferences
+		 */
+		public Correctness getCorrectness() {
+			return this.correctness;
+		}
+
+		/**
+		 * @return number of facts that have been written
+		 */
+		public long getFactCount() {
+			return this.factCount;
+		}
+
+		/**
+		 * @return number of facts that could not be represented in the output format
+		 */
+		public long getSkippedFactCount() {
+			return this.skippedFactCount;
+		}
+
+		/**
+		 * @return number of bytes of serialised facts before compression
+		 */
+		public long getUncompressedBytes() {
+			return this.uncompressedBytes;
+		}
+
+		/**
+		 * @return number of bytes written to the output stream
+		 */
+		public long getWrittenBytes() {
+			return this.writtenBytes;
+		}
+
+		/**
+		 * @return duration of the export in nanoseconds
+		 */
+		public long getElapsedNanos() {
+			return this.elapsedNanos;
+		}
+
+		/**
+		 * @return written facts per second
+		 */
+		public double getFactsPerSecond() {
+			return perSecond(this.factCount);
+		}
+
+		/**
+		 * @return bytes of serialised facts (before compression) per second
+		 */
+		public double getBytesPerSecond() {
+			return perSecond(this.uncompressedBytes);
+		}
+
+		private double perSecond(final long count) {
+			return this.elapsedNanos == 0 ? 0.0 : count * 1e9 / this.elapsedNanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d facts (%d skipped), %d bytes (%d written) in %d ms: %.0f facts/s, %.0f bytes/s",
+					this.factCount, this.skippedFactCount, this.uncompressedBytes, this.writtenBytes,
+					this.elapsedNanos / 1000000, getFactsPerSecond(), getBytesPerSecond());
+		}
+	}
+
+	/**
+	 * Default size of the per-worker buffers, in characters.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+	private final Reasoner reasoner;
+	private Format format = Format.RLS;
+	private Compression compression = Compression.NONE;
+	private ExecutorService executor;
+	private boolean ordered = true;
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+	private final LongAdder factCount = new LongAdder();
+	private final LongAdder skippedFactCount = new LongAdder();
+	private final LongAdder uncompressedBytes = new LongAdder();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param reasoner the reasoner whose inferences should be exported; it must
+	 *                 have loaded its knowledge base
+	 */
+	public InferenceExporter(final Reasoner reasoner) {
+		Validate.notNull(reasoner, "Reasoner cannot be null.");
+		this.reasoner = reasoner;
+	}
+
+	/**
+	 * Sets the output format. The default is {@link Format#RLS}.
+	 *
+	 * @param format the output {@link Format}
+	 * @return this exporter
+	 */
+	public InferenceExporter setFormat(final Format format) {
+		Validate.notNull(format, "Format cannot be null.");
+		this.format = format;
+		return this;
+	}
+
+	/**
+	 * Sets the compression of the output. The default is
+	 * {@link Compression#NONE}.
+	 *
+	 * @param compression the output {@link Compression}
+	 * @return this exporter
+	 */
+	public InferenceExporter setCompression(final Compression compression) {
+		Validate.notNull(compression, "Compression cannot be null.");
+		this.compression = compression;
+		return this;
+	}
+
+	/**
+	 * Sets the executor used for exporting the inferences of different predicates
+	 * in parallel. If null (the default), all work is done in the calling thread.
+	 *
+	 * @param executor an {@link ExecutorService}, or null
+	 * @return this exporter
+	 */
+	public InferenceExporter setExecutor(final ExecutorService executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Sets whether the output should be grouped by predicate in a fixed order
+	 * (true, the default), or whether buffers of different predicates may be
+	 * interleaved (false).
+	 *
+	 * @param ordered true for ordered output
+	 * @return this exporter
+	 */
+	public InferenceExporter setOrdered(final boolean ordered) {
+		this.ordered = ordered;
+		return this;
+	}
+
+	/**
+	 * Sets the number of characters that each worker serialises before its
+	 * buffer is handed over for output.
+	 *
+	 * @param bufferSize buffer size, greater than 0
+	 * @return this exporter
+	 */
+	public InferenceExporter setBufferSize(final int bufferSize) {
+		Validate.isTrue(bufferSize > 0, "Buffer size must be greater than zero: %d", bufferSize);
+		this.bufferSize = bufferSize;
+		return this;
+	}
+
+	/**
+	 * Exports all inferences to the file at the given path, which is overwritten
+	 * if it exists.
+	 *
+	 * @param filePath path of the output file
+	 * @return statistics of the export
+	 * @throws IOException
+	 */
+	public ExportStatistics export(final String filePath) throws IOException {
+		try (final OutputStream outputStream = new FileOutputStream(filePath)) {
+			return this.export(outputStream);
+		}
+	}
+
+	/**
+	 * Exports all inferences to the given stream, which is not closed.
+	 *
+	 * @param outputStream the stream to write to
+	 * @return statistics of the export
+	 * @throws IOException
+	 */
+	public ExportStatistics export(final OutputStream outputStream) throws IOException {
+		final long startTime = System.nanoTime();
+		this.factCount.reset();
+		this.skippedFactCount.reset();
+		this.uncompressedBytes.reset();
+
+		final List<Predicate> predicates = new ArrayList<>(this.reasoner.getInferencePredicates());
+		final OutputMerger merger = new OutputMerger(outputStream, predicates.size(), this.ordered);
+
+		if (this.format == Format.RLS) {
+			final StringWriter header = new StringWriter();
+			final PrefixDeclarationRegistry prefixDeclarationRegistry = this.reasoner.getKnowledgeBase()
+					.getPrefixDeclarationRegistry();
+			new Serializer(header, prefixDeclarationRegistry).writePrefixDeclarationRegistry(prefixDeclarationRegistry);
+			if (header.getBuffer().length() > 0) {
+				merger.writeHeader(this.encode(header.getBuffer()));
+			}
+		}
+
+		if (this.executor == null) {
+			for (int i = 0; i < predicates.size(); i++) {
+				this.exportPredicate(predicates.get(i), i, merger);
+			}
+		} else {
+			this.exportInParallel(predicates, merger);
+		}
+		outputStream.flush();
+
+		return new ExportStatistics(this.reasoner.getCorrectness(), this.factCount.sum(), this.skippedFactCount.sum(),
+				this.uncompressedBytes.sum(), merger.writtenBytes, System.nanoTime() - startTime);
+	}
+
+	private void exportInParallel(final List<Predicate> predicates, final OutputMerger merger) throws IOException {
+		final List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < predicates.size(); i++) {
+			final Predicate predicate = predicates.get(i);
+			final int index = i;
+			futures.add(this.executor.submit(() -> {
+				this.exportPredicate(predicate, index, merger);
+				return null;
+			}));
+		}
+
+		try {
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RulewerkRuntimeException("Interrupted while exporting inferences.", e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else {
+				throw new RulewerkRuntimeException(cause);
+			}
+		} finally {
+			for (final Future<?> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	private void exportPredicate(final Predicate predicate, final int index, final OutputMerger merger)
+			throws IOException {
+		final StringBuilderWriter buffer = new StringBuilderWriter();
+		final FactWriter factWriter = this.createFactWriter(buffer);
+
+		final List<Term> variables = new ArrayList<>(predicate.getArity());
+		for (int i = 0; i < predicate.getArity(); i++) {
+			variables.add(Expressions.makeUniversalVariable("X" + i));
+		}
+		final PositiveLiteral query = Expressions.makePositiveLiteral(predicate, variables);
+
+		try (final QueryResultIterator answers = this.reasoner.answerQuery(query, true)) {
+			while (answers.hasNext()) {
+				final QueryResult answer = answers.next();
+				if (factWriter.write(predicate, answer.getTerms())) {
+					this.factCount.increment();
+				} else {
+					this.skippedFactCount.increment();
+				}
+				if (buffer.builder.length() >= this.bufferSize) {
+					merger.write(index, this.encode(buffer.builder));
+					buffer.builder.setLength(0);
+				}
+			}
+		}
+		if (buffer.builder.length() > 0) {
+			merger.write(index, this.encode(buffer.builder));
+		}
+		merger.finish(index);
+	}
+
+	/**
+	 * Converts serialised facts to bytes, compressing them if required.
+	 */
+	private byte[] encode(final CharSequence chars) throws IOException {
+		final byte[] bytes = chars.toString().getBytes(StandardCharsets.UTF_8);
+		this.uncompressedBytes.add(bytes.length);
+		switch (this.compression) {
+		case GZIP:
+			final ByteArrayOutputStream gzipBytes = new ByteArrayOutputStream(bytes.length / 4 + 64);
+			try (final GZIPOutputStream gzipStream = new GZIPOutputStream(gzipBytes)) {
+				gzipStream.write(bytes);
+			}
+			return gzipBytes.toByteArray();
+		case ZSTD:
+			try {
+				return com.github.luben.zstd.Zstd.compress(bytes);
+			} catch (final NoClassDefFoundError e) {
+				throw new RulewerkRuntimeException(
+						"Zstandard compression requires com.github.luben:zstd-jni on the class path.", e);
+			}
+		default:
+			return bytes;
+		}
+	}
+
+	@FunctionalInterface
+	private interface FactWriter {
+		/**
+		 * @return false if the fact could not be written in the output format
+		 */
+		boolean write(Predicate predicate, List<Term> terms) throws IOException;
+	}
+
+	private FactWriter createFactWriter(final StringBuilderWriter buffer) throws IOException {
+		switch (this.format) {
+		case NTRIPLES:
+			final StringBuilder builder = buffer.builder;
+			return (predicate, terms) -> writeTriple(builder, predicate, terms);
+		case CSV:
+		case TSV:
+			final CSVPrinter printer = new CSVPrinter(buffer,
+					this.format == Format.CSV ? CSVFormat.DEFAULT : CSVFormat.TDF);
+			return (predicate, terms) -> {
+				final List<String> record = new ArrayList<>(terms.size() + 1);
+				record.add(predicate.getName());
+				for (final Term term : terms) {
+					record.add(getPlainValue(term));
+				}
+				printer.printRecord(record);
+				return true;
+			};
+		case RLS:
+		default:
+			final Serializer serializer = new Serializer(buffer,
+					this.reasoner.getKnowledgeBase().getPrefixDeclarationRegistry());
+			return (predicate, terms) -> {
+				serializer.writePositiveLiteral(predicate, terms);
+				buffer.write(" .\n");
+				return true;
+			};
+		}
+	}
+
+	private static boolean writeTriple(final StringBuilder builder, final Predicate predicate, final List<Term> terms) {
+		final Term subject;
+		final String property;
+		final Term object;
+		if (terms.size() == 2) {
+			subject = terms.get(0);
+			property = predicate.getName();
+			object = terms.get(1);
+		} else if (terms.size() == 3 && terms.get(1) instanceof AbstractConstant) {
+			subject = terms.get(0);
+			property = terms.get(1).getName();
+			object = terms.get(2);
+		} else {
+			return false;
+		}
+		if (!(subject instanceof AbstractConstant || subject instanceof NamedNull) || !isAbsoluteIri(property)
+				|| (subject instanceof AbstractConstant && !isAbsoluteIri(subject.getName()))
+				|| (object instanceof AbstractConstant && !isAbsoluteIri(object.getName()))) {
+			return false;
+		}
+
+		writeNTriplesTerm(builder, subject);
+		builder.append(' ');
+		appendNTriplesIri(builder, property);
+		builder.append(' ');
+		writeNTriplesTerm(builder, object);
+		builder.append(" .\n");
+		return true;
+	}
+
+	private static void writeNTriplesTerm(final StringBuilder builder, final Term term) {
+		if (term instanceof AbstractConstant) {
+			appendNTriplesIri(builder, term.getName());
+		} else if (term instanceof NamedNull) {
+			builder.append("_:").append(term.getName());
+		} else if (term instanceof LanguageStringConstant) {
+			final LanguageStringConstant constant = (LanguageStringConstant) term;
+			appendNTriplesString(builder, constant.getString());
+			builder.append('@').append(constant.getLanguageTag());
+		} else if (term instanceof DatatypeConstant) {
+			final DatatypeConstant constant = (DatatypeConstant) term;
+			appendNTriplesString(builder, constant.getLexicalValue());
+			if (!PrefixDeclarationRegistry.XSD_STRING.equals(constant.getDatatype())) {
+				builder.append("^^");
+				appendNTriplesIri(builder, constant.getDatatype());
+			}
+		} else {
+			throw new IllegalArgumentException("Inferences cannot contain variables: " + term);
+		}
+	}
+
+	/**
+	 * Checks if the given name starts with a URI scheme followed by a colon, as
+	 * required for IRIs in N-Triples.
+	 */
+	static boolean isAbsoluteIri(final String name) {
+		if (name.isEmpty() || !isAsciiLetter(name.charAt(0))) {
+			return false;
+		}
+		for (int i = 1; i < name.length(); i++) {
+			final char c = name.charAt(i);
+			if (c == ':') {
+				return true;
+			} else if (!isAsciiLetter(c) && !(c >= '0' && c <= '9') && c != '+' && c != '-' && c != '.') {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isAsciiLetter(final char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	/**
+	 * Writes an IRI in angle brackets, escaping characters that N-Triples does not
+	 * allow in IRIs as numeric escapes (UCHAR in the N-Triples grammar).
+	 */
+	private static void appendNTriplesIri(final StringBuilder builder, final String iri) {
+		builder.append('<');
+		for (int i = 0; i < iri.length(); i++) {
+			final char c = iri.charAt(i);
+			if (c <= ' ' || c == '<' || c == '>' || c == '"' || c == '{' || c == '}' || c == '|' || c == '^'
+					|| c == '`' || c == '\\') {
+				builder.append("\\u").append(String.format("%04X", (int) c));
+			} else {
+				builder.append(c);
+			}
+		}
+		builder.append('>');
+	}
+
+	private static void appendNTriplesString(final StringBuilder builder, final String string) {
+		builder.append('"');
+		for (int i = 0; i < string.length(); i++) {
+			final char c = string.charAt(i);
+			switch (c) {
+			case '"':
+				builder.append("\\\"");
+				break;
+			case '\\':
+				builder.append("\\\\");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\r':
+				builder.append("\\r");
+				break;
+			default:
+				builder.append(c);
+			}
+		}
+		builder.append('"');
+	}
+
+	private static String getPlainValue(final Term term) {
+		if (term instanceof LanguageStringConstant) {
+			return ((LanguageStringConstant) term).getString();
+		} else if (term instanceof DatatypeConstant) {
+			return ((DatatypeConstant) term).getLexicalValue();
+		} else if (term instanceof NamedNull) {
+			return "_:" + term.getName();
+		} else {
+			return term.getName();
+		}
+	}
+
+	/**
+	 * Unsynchronised alternative to {@link StringWriter}.
+	 */
+	private static class StringBuilderWriter extends Writer {
+		final StringBuilder builder = new StringBuilder();
+
+		@Override
+		public void write(final char[] chars, final int offset, final int length) {
+			this.builder.append(chars, offset, length);
+		}
+
+		@Override
+		public void write(final String string) {
+			this.builder.append(string);
+		}
+
+		@Override
+		public void write(final int c) {
+			this.builder.append((char) c);
+		}
+
+		@Override
+		public Writer append(final CharSequence chars) {
+			this.builder.append(chars);
+			return this;
+		}
+
+		@Override
+		public void flush() {
+			// nothing to do
+		}
+
+		@Override
+		public void close() {
+			// nothing to do
+		}
+	}
+
+	/**
+	 * Writes encoded buffers to the output, in predicate order if required.
+	 */
+	private static class OutputMerger {
+		private final OutputStream outputStream;
+		private final boolean ordered;
+		private final boolean[] finished;
+		private final Map<Integer, List<byte[]>> pending = new HashMap<>();
+		/**
+		 * Index of the first predicate that has not been finished yet.
+		 */
+		private int head = 0;
+		long writtenBytes = 0;
+
+		OutputMerger(final OutputStream outputStream, final int predicateCount, final boolean ordered) {
+			this.outputStream = outputStream;
+			this.ordered = ordered;
+			this.finished = new boolean[predicateCount];
+		}
+
+		synchronized void writeHeader(final byte[] bytes) throws IOException {
+			this.writeBytes(bytes);
+		}
+
+		synchronized void write(final int index, final byte[] bytes) throws IOException {
+			if (!this.ordered || index == this.head) {
+				this.writeBytes(bytes);
+			} else {
+				this.pending.computeIfAbsent(index, i -> new ArrayList<>()).add(bytes);
+			}
+		}
+
+		synchronized void finish(final int index) throws IOException {
+			this.finished[index] = true;
+			while (this.head < this.finished.length && this.finished[this.head]) {
+				this.head++;
+				if (this.head < this.finished.length) {
+					final List<byte[]> buffers = this.pending.remove(this.head);
+					if (buffers != null) {
+						for (final byte[] bytes : buffers) {
+							this.writeBytes(bytes);
+						}
+					}
+				}
+			}
+		}
+
+		private void writeBytes(final byte[] bytes) throws IOException {
+			this.outputStream.write(bytes);
+			this.writtenBytes += bytes.length;
+		}
+	}
+
+}
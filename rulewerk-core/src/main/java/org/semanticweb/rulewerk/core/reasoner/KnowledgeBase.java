@@ -25,9 +25,13 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -45,7 +49,6 @@ import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.exceptions.RulewerkException;
 import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
 import org.semanticweb.rulewerk.core.model.api.Fact;
-import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
 import org.semanticweb.rulewerk.core.model.api.Rule;
@@ -53,6 +56,7 @@ import org.semanticweb.rulewerk.core.model.api.Statement;
 import org.semanticweb.rulewerk.core.model.api.StatementVisitor;
 import org.semanticweb.rulewerk.core.model.implementation.MergingPrefixDeclarationRegistry;
 import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ColumnarFactStore;
 
 /**
  * A knowledge base with rules, facts, and declarations for loading data from
@@ -61,6 +65,11 @@ import org.semanticweb.rulewerk.core.model.implementation.Serializer;
  * needed to ensure faithful re-serialisation of knowledge bases loaded from
  * files (e.g., preserving order).
  *
+ * How facts are stored is determined by the {@link FactStorage} given on
+ * construction. With {@link FactStorage#COLUMNAR}, facts are kept in a
+ * dictionary-encoded {@link ColumnarFactStore}, and all facts are returned
+ * after all other statements, grouped by predicate.
+ *
  * @author Markus Kroetzsch
  *
  */
@@ -186,7 +195,7 @@ public class KnowledgeBase implements Iterable<Statement> {
 	/**
 	 * Index structure that organises all facts by their predicate.
 	 */
-	private final Map<Predicate, Set<PositiveLiteral>> factsByPredicate = new HashMap<>();
+	private final Map<Predicate, Set<Fact>> factsByPredicate = new HashMap<>();
 
 	/**
 	 * Index structure that holds all data source declarations of this knowledge
@@ -194,6 +203,54 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 */
 	private final Set<DataSourceDeclaration> dataSourceDeclarations = new HashSet<>();
 
+	private final FactStorage factStorage;
+
+	/**
+	 * Storage for facts if {@link FactStorage#COLUMNAR} is used, null otherwise.
+	 * In this case, facts are neither contained in {@link #statements} nor in
+	 * {@link #factsByPredicate}.
+	 */
+	private final ColumnarFactStore columnarFactStore;
+
+	/**
+	 * Creates an empty knowledge base that stores facts as
+	 * {@link FactStorage#STATEMENTS}.
+	 */
+	public KnowledgeBase() {
+		this(FactStorage.STATEMENTS);
+	}
+
+	/**
+	 * Creates an empty knowledge base.
+	 *
+	 * @param factStorage the way in which facts are stored
+	 */
+	public KnowledgeBase(final FactStorage factStorage) {
+		Validate.notNull(factStorage, "Fact storage cannot be null!");
+		this.factStorage = factStorage;
+		this.columnarFactStore = factStorage == FactStorage.COLUMNAR ? new ColumnarFactStore() : null;
+	}
+
+	/**
+	 * Returns the way in which this knowledge base stores its facts.
+	 *
+	 * @return the {@link FactStorage} of this knowledge base
+	 */
+	public FactStorage getFactStorage() {
+		return this.factStorage;
+	}
+
+	/**
+	 * Returns the storage for facts if {@link FactStorage#COLUMNAR} is used. It
+	 * gives access to the encoded facts, e.g., for converting them without
+	 * creating {@link Fact} objects, and must not be modified directly.
+	 *
+	 * @return the {@link ColumnarFactStore}, or null
+	 */
+	public ColumnarFactStore getColumnarFactStore() {
+		return this.columnarFactStore;
+	}
+
 	/**
 	 * Registers a listener for changes on the knowledge base
 	 *
@@ -231,6 +288,9 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 */
 	boolean doAddStatement(final Statement statement) {
 		Validate.notNull(statement, "Statement cannot be Null!");
+		if (this.columnarFactStore != null && statement instanceof Fact) {
+			return this.columnarFactStore.add((Fact) statement);
+		}
 		if (!this.statements.contains(statement) && statement.accept(this.addStatementVisitor)) {
 			this.statements.add(statement);
 			return true;
@@ -296,6 +356,9 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 */
 	boolean doRemoveStatement(final Statement statement) {
 		Validate.notNull(statement, "Statement cannot be Null!");
+		if (this.columnarFactStore != null && statement instanceof Fact) {
+			return this.columnarFactStore.remove((Fact) statement);
+		}
 
 		if (this.statements.contains(statement) && statement.accept(this.removeStatementVisitor)) {
 			this.statements.remove(statement);
@@ -387,9 +450,42 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 * @return list of {@link Fact}s
 	 */
 	public List<Fact> getFacts() {
+		if (this.columnarFactStore != null) {
+			return Collections.unmodifiableList(this.columnarFactStore.getFacts());
+		}
 		return this.getStatementsByType(Fact.class);
 	}
 
+	/**
+	 * Get all facts of the given predicate that have been added to the knowledge
+	 * base. The collection is read-only and cannot be modified to add or delete
+	 * facts.
+	 *
+	 * @param predicate a {@link Predicate}
+	 * @return collection of {@link Fact}s, empty if there are no facts for the
+	 *         predicate
+	 */
+	public Collection<Fact> getFacts(final Predicate predicate) {
+		if (this.columnarFactStore != null) {
+			return Collections.unmodifiableList(this.columnarFactStore.getFacts(predicate));
+		}
+		final Set<Fact> facts = this.factsByPredicate.get(predicate);
+		return facts == null ? Collections.emptySet() : Collections.unmodifiableSet(facts);
+	}
+
+	/**
+	 * Get the set of all predicates for which facts have been added to the
+	 * knowledge base. The set is read-only.
+	 *
+	 * @return set of {@link Predicate}s
+	 */
+	public Set<Predicate> getFactPredicates() {
+		if (this.columnarFactStore != null) {
+			return this.columnarFactStore.getPredicates();
+		}
+		return Collections.unmodifiableSet(this.factsByPredicate.keySet());
+	}
+
 	/**
 	 * Get the list of all data source declarations that have been added to the
 	 * knowledge base. The list is read-only and cannot be modified to add or delete
@@ -429,7 +525,7 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 */
 	void removeFact(final Fact fact) {
 		final Predicate predicate = fact.getPredicate();
-		final Set<PositiveLiteral> facts = this.factsByPredicate.get(predicate);
+		final Set<Fact> facts = this.factsByPredicate.get(predicate);
 		facts.remove(fact);
 		if (facts.isEmpty()) {
 			this.factsByPredicate.remove(predicate);
@@ -440,21 +536,103 @@ public class KnowledgeBase implements Iterable<Statement> {
 	 * Returns all {@link Statement}s of this knowledge base.
 	 *
 	 * The result can be iterated over and will return statements in the original
-	 * order. The collection is read-only and cannot be modified to add or delete
-	 * statements.
+	 * order (but see {@link FactStorage#COLUMNAR}). The collection is read-only
+	 * and cannot be modified to add or delete statements.
 	 *
 	 * @return a collection of statements
 	 */
 	public Collection<Statement> getStatements() {
+		if (this.columnarFactStore != null) {
+			return new AbstractCollection<Statement>() {
+				@Override
+				public Iterator<Statement> iterator() {
+					return KnowledgeBase.this.iterator();
+				}
+
+				@Override
+				public int size() {
+					return (int) Math.min(Integer.MAX_VALUE,
+							KnowledgeBase.this.statements.size() + KnowledgeBase.this.columnarFactStore.size());
+				}
+			};
+		}
 		return Collections.unmodifiableCollection(this.statements);
 	}
 
 	@Override
 	public Iterator<Statement> iterator() {
-		return Collections.unmodifiableCollection(this.statements).iterator();
-	}
+		final Iterator<Statement> statementIterator = Collections.unmodifiableCollection(this.statements).iterator();
+		if (this.columnarFactStore == null) {
+			return statementIterator;
+		}
+		final Iterator<Fact> factIterator = this.columnarFactStore.iterator();
+		return new Iterator<Statement>() {
+			@Override
+			public boolean hasNext() {
+				return statementIterator.hasNext() || factIterator.hasNext();
+			}
 
-	Map<Predicate, Set<PositiveLiteral>> getFactsByPredicate() {
+			@Override
+			public Statement next() {
+				return statementIterator.hasNext() ? statementIterator.next() : factIterator.next();
+			}
+		};
+	}
+
+	/**
+	 * Returns the facts of the knowledge base grouped by predicate. With
+	 * {@link FactStorage#COLUMNAR}, the result is a read-only view of the
+	 * {@link ColumnarFactStore}, which creates {@link Fact} objects only while
+	 * the facts of a predicate are iterated over.
+	 *
+	 * @return map from predicates to their facts
+	 */
+	Map<Predicate, Set<Fact>> getFactsByPredicate() {
+		if (this.columnarFactStore != null) {
+			return new AbstractMap<Predicate, Set<Fact>>() {
+				@Override
+				public Set<Entry<Predicate, Set<Fact>>> entrySet() {
+					return new AbstractSet<Entry<Predicate, Set<Fact>>>() {
+						@Override
+						public Iterator<Entry<Predicate, Set<Fact>>> iterator() {
+							final Iterator<Predicate> predicates = KnowledgeBase.this.columnarFactStore.getPredicates()
+									.iterator();
+							return new Iterator<Entry<Predicate, Set<Fact>>>() {
+								@Override
+								public boolean hasNext() {
+									return predicates.hasNext();
+								}
+
+								@Override
+								public Entry<Predicate, Set<Fact>> next() {
+									final Predicate predicate = predicates.next();
+									return new SimpleImmutableEntry<>(predicate,
+											KnowledgeBase.this.columnarFactStore.getFactSet(predicate));
+								}
+							};
+						}
+
+						@Override
+						public int size() {
+							return KnowledgeBase.this.columnarFactStore.getPredicates().size();
+						}
+					};
+				}
+
+				@Override
+				public Set<Fact> get(final Object key) {
+					if (!KnowledgeBase.this.columnarFactStore.getPredicates().contains(key)) {
+						return null;
+					}
+					return KnowledgeBase.this.columnarFactStore.getFactSet((Predicate) key);
+				}
+
+				@Override
+				public boolean containsKey(final Object key) {
+					return KnowledgeBase.this.columnarFactStore.getPredicates().contains(key);
+				}
+			};
+		}
 		return this.factsByPredicate;
 	}
 
@@ -622,6 +800,22 @@ public class KnowledgeBase implements Iterable<Statement> {
 		}
 	}
 
+	/**
+	 * Serialise the KnowledgeBase to the {@link OutputStream} in the binary
+	 * snapshot format, which can be loaded much faster than Rulewerk syntax by
+	 * {@link KnowledgeBaseSnapshot#open(File)}.
+	 *
+	 * @param stream the {@link OutputStream} to serialise to, which is not closed.
+	 *
+	 * @throws IOException              if an I/O error occurs while writing to
+	 *                                  given output stream
+	 * @throws IllegalArgumentException if some data source cannot be stored in
+	 *                                  snapshots, such as in-memory data sources
+	 */
+	public void writeKnowledgeBaseSnapshot(OutputStream stream) throws IOException {
+		KnowledgeBaseSnapshot.write(this, stream);
+	}
+
 	/**
 	 * Serialise the KnowledgeBase to the given {@link File}.
 	 *
@@ -0,0 +1,995 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
+import org.semanticweb.rulewerk.core.model.api.DatatypeConstant;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.LanguageStringConstant;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.MergingPrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.TermPool;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ColumnarFactStore;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFilesDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.HdtDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ParquetFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.FactTable;
+import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.TermDictionary;
+import org.semanticweb.rulewerk.core.reasoner.implementation.TridentDataSource;
+
+/**
+ * Compact binary snapshot of a {@link KnowledgeBase}, which can be loaded much
+ * faster than the same knowledge base in Rulewerk syntax. All terms are stored
+ * once in a dictionary, and the facts of each predicate are stored as columns
+ * of term ids. Snapshots are written with
+ * {@link KnowledgeBase#writeKnowledgeBaseSnapshot(OutputStream)} and read with
+ * {@link #open(File)}.
+ *
+ * A snapshot file consists of the following parts, where all numbers are
+ * big-endian, and "varint" denotes an unsigned LEB128 number:
+ * <ol>
+ * <li>a header with a magic number and the format version (two ints),</li>
+ * <li>the terms, ordered by id, each as a type byte and one or two strings
+ * (varint length and UTF-8 bytes),</li>
+ * <li>the term index, with the position of each term (longs),</li>
+ * <li>the predicates, each as varint arity and name,</li>
+ * <li>the base IRI, the prefix declarations, the data source declarations, and
+ * the rules, using varint ids for terms and predicates,</li>
+ * <li>the fact tables, each consisting of one column of int term ids per
+ * argument position,</li>
+ * <li>the table directory, with predicate id, number of rows, and position of
+ * each fact table, and</li>
+ * <li>a trailer with the positions of the term index, predicates, declarations,
+ * and table directory, the number of terms, and the magic number.</li>
+ * </ol>
+ *
+ * Snapshots are read from memory-mapped files. Opening a snapshot only decodes
+ * predicates, rules, and declarations; terms are decoded on demand, and term
+ * ids of facts are read directly from the mapped file. Instances are
+ * immutable and can be used by several threads.
+ */
+public final class KnowledgeBaseSnapshot {
+
+	static final int MAGIC = 0x52574B42; // "RWKB"
+	static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 8;
+	private static final int TRAILER_SIZE = 5 * 8 + 4;
+
+	private static final byte ABSTRACT_CONSTANT = 0;
+	private static final byte DATATYPE_CONSTANT = 1;
+	private static final byte LANGSTRING_CONSTANT = 2;
+	private static final byte NAMED_NULL = 3;
+	private static final byte UNIVERSAL_VARIABLE = 4;
+	private static final byte EXISTENTIAL_VARIABLE = 5;
+
+	private static final byte CSV_FILE_SOURCE = 0;
+	private static final byte RDF_FILE_SOURCE = 1;
+	private static final byte TRIDENT_SOURCE = 2;
+	private static final byte SPARQL_SOURCE = 3;
+	private static final byte CSV_FILES_SOURCE = 4;
+	private static final byte PARQUET_FILE_SOURCE = 5;
+	private static final byte HDT_SOURCE = 6;
+	private static final byte RDF_FILE_SELECTION_SOURCE = 7;
+	private static final byte TRIDENT_SELECTION_SOURCE = 8;
+
+	/**
+	 * Position and size of the facts of one predicate in the snapshot.
+	 */
+	private static final class TableInfo {
+		final int rowCount;
+		final long position;
+
+		TableInfo(final int rowCount, final long position) {
+			this.rowCount = rowCount;
+			this.position = position;
+		}
+	}
+
+	private final MappedInput input;
+	private final long termIndexPosition;
+	private final int termCount;
+	private final List<Predicate> predicates = new ArrayList<>();
+	private final String baseIri;
+	private final Map<String, String> prefixes = new LinkedHashMap<>();
+	private final List<DataSourceDeclaration> dataSourceDeclarations = new ArrayList<>();
+	private final List<Rule> rules = new ArrayList<>();
+	private final Map<Predicate, TableInfo> tables = new LinkedHashMap<>();
+
+	private KnowledgeBaseSnapshot(final MappedInput input) throws IOException {
+		this.input = input;
+		if (input.size() < HEADER_SIZE + TRAILER_SIZE || input.getInt(0) != MAGIC
+				|| input.getInt(input.size() - 4) != MAGIC) {
+			throw new IOException("Not a knowledge base snapshot.");
+		}
+		if (input.getInt(4) != VERSION) {
+			throw new IOException("Unsupported knowledge base snapshot version: " + input.getInt(4));
+		}
+
+		final Cursor trailer = new Cursor(input, input.size() - TRAILER_SIZE);
+		this.termIndexPosition = trailer.readLong();
+		final long termCountValue = trailer.readLong();
+		final long predicatesPosition = trailer.readLong();
+		final long declarationsPosition = trailer.readLong();
+		final long tableDirectoryPosition = trailer.readLong();
+		if (termCountValue < 0 || termCountValue > Integer.MAX_VALUE) {
+			throw new IOException("Invalid number of terms in knowledge base snapshot: " + termCountValue);
+		}
+		this.termCount = (int) termCountValue;
+
+		final Cursor cursor = new Cursor(input, predicatesPosition);
+		final int predicateCount = cursor.readVarInt();
+		for (int i = 0; i < predicateCount; i++) {
+			final int arity = cursor.readVarInt();
+			this.predicates.add(Expressions.makePredicate(cursor.readString(), arity));
+		}
+
+		cursor.seek(declarationsPosition);
+		this.baseIri = cursor.readString();
+		final int prefixCount = cursor.readVarInt();
+		for (int i = 0; i < prefixCount; i++) {
+			this.prefixes.put(cursor.readString(), cursor.readString());
+		}
+		final int dataSourceCount = cursor.readVarInt();
+		for (int i = 0; i < dataSourceCount; i++) {
+			final Predicate predicate = this.readPredicate(cursor);
+			this.dataSourceDeclarations.add(new DataSourceDeclarationImpl(predicate, readDataSource(cursor)));
+		}
+		final int ruleCount = cursor.readVarInt();
+		for (int i = 0; i < ruleCount; i++) {
+			this.rules.add(this.readRule(cursor));
+		}
+
+		cursor.seek(tableDirectoryPosition);
+		final int tableCount = cursor.readVarInt();
+		for (int i = 0; i < tableCount; i++) {
+			final Predicate predicate = this.readPredicate(cursor);
+			final int rowCount = cursor.readVarInt();
+			this.tables.put(predicate, new TableInfo(rowCount, cursor.readLong()));
+		}
+	}
+
+	/**
+	 * Opens a snapshot file. The file is mapped into memory, and can be modified or
+	 * deleted only after the returned object is no longer used.
+	 *
+	 * @param file a file written by
+	 *             {@link KnowledgeBase#writeKnowledgeBaseSnapshot(OutputStream)}
+	 * @return the snapshot
+	 * @throws IOException if the file cannot be read or is not a valid snapshot
+	 */
+	public static KnowledgeBaseSnapshot open(final File file) throws IOException {
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+				FileChannel channel = randomAccessFile.getChannel()) {
+			return new KnowledgeBaseSnapshot(new MappedInput(channel));
+		} catch (final IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new IOException("Invalid knowledge base snapshot: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Creates a new {@link KnowledgeBase} with all prefix declarations and
+	 * statements of this snapshot.
+	 *
+	 * @param factStorage the way in which the knowledge base stores its facts;
+	 *                    with {@link FactStorage#COLUMNAR}, facts are copied
+	 *                    without creating {@link Fact} objects
+	 * @return the knowledge base
+	 */
+	public KnowledgeBase toKnowledgeBase(final FactStorage factStorage) {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase(factStorage);
+		knowledgeBase.mergePrefixDeclarations(this.getPrefixDeclarationRegistry());
+		knowledgeBase.addStatements(this.dataSourceDeclarations);
+
+		final Term[] terms = this.getTerms();
+		final ColumnarFactStore columnarFactStore = knowledgeBase.getColumnarFactStore();
+		if (columnarFactStore != null) {
+			final TermDictionary termDictionary = columnarFactStore.getTermDictionary();
+			final long[] ids = new long[terms.length];
+			Arrays.fill(ids, -1);
+			for (final Entry<Predicate, TableInfo> entry : this.tables.entrySet()) {
+				final long[] tuple = new long[entry.getKey().getArity()];
+				for (int row = 0; row < entry.getValue().rowCount; row++) {
+					for (int column = 0; column < tuple.length; column++) {
+						final int id = this.getTermId(entry.getValue(), row, column);
+						if (ids[id] < 0) {
+							ids[id] = termDictionary.getOrAddId(terms[id]);
+						}
+						tuple[column] = ids[id];
+					}
+					columnarFactStore.add(entry.getKey(), tuple);
+				}
+			}
+		} else {
+			for (final Predicate predicate : this.tables.keySet()) {
+				this.addFacts(predicate, terms, knowledgeBase);
+			}
+		}
+
+		knowledgeBase.addStatements(this.rules);
+		return knowledgeBase;
+	}
+
+	/**
+	 * Creates a new {@link KnowledgeBase} that stores facts as
+	 * {@link FactStorage#COLUMNAR}, with all prefix declarations and statements of
+	 * this snapshot.
+	 *
+	 * @return the knowledge base
+	 */
+	public KnowledgeBase toKnowledgeBase() {
+		return this.toKnowledgeBase(FactStorage.COLUMNAR);
+	}
+
+	/**
+	 * Returns the base IRI and prefix declarations of this snapshot.
+	 *
+	 * @return a new {@link PrefixDeclarationRegistry}
+	 */
+	public PrefixDeclarationRegistry getPrefixDeclarationRegistry() {
+		final MergingPrefixDeclarationRegistry prefixDeclarationRegistry = new MergingPrefixDeclarationRegistry();
+		if (!PrefixDeclarationRegistry.EMPTY_BASE.equals(this.baseIri)) {
+			prefixDeclarationRegistry.setBaseIri(this.baseIri);
+		}
+		for (final Entry<String, String> prefix : this.prefixes.entrySet()) {
+			prefixDeclarationRegistry.setPrefixIri(prefix.getKey(), prefix.getValue());
+		}
+		return prefixDeclarationRegistry;
+	}
+
+	/**
+	 * Returns the rules of this snapshot.
+	 *
+	 * @return read-only list of {@link Rule}s
+	 */
+	public List<Rule> getRules() {
+		return Collections.unmodifiableList(this.rules);
+	}
+
+	/**
+	 * Returns the data source declarations of this snapshot.
+	 *
+	 * @return read-only list of {@link DataSourceDeclaration}s
+	 */
+	public List<DataSourceDeclaration> getDataSourceDeclarations() {
+		return Collections.unmodifiableList(this.dataSourceDeclarations);
+	}
+
+	/**
+	 * Returns the predicates for which there are facts in this snapshot.
+	 *
+	 * @return read-only set of predicates
+	 */
+	public Set<Predicate> getFactPredicates() {
+		return Collections.unmodifiableSet(this.tables.keySet());
+	}
+
+	/**
+	 * Returns the number of facts of the given predicate.
+	 *
+	 * @param predicate a {@link Predicate}
+	 * @return number of facts, 0 if there are no facts for the predicate
+	 */
+	public int getFactCount(final Predicate predicate) {
+		final TableInfo table = this.tables.get(predicate);
+		return table == null ? 0 : table.rowCount;
+	}
+
+	/**
+	 * Returns the id of an argument of a fact, read directly from the snapshot
+	 * file.
+	 *
+	 * @param predicate the predicate of the fact
+	 * @param row       number of the fact, between 0 and
+	 *                  {@link #getFactCount(Predicate)} - 1
+	 * @param column    argument position, between 0 and the arity of the
+	 *                  predicate - 1
+	 * @return the id of the term, which can be resolved with {@link #getTerm(int)}
+	 */
+	public int getTermId(final Predicate predicate, final int row, final int column) {
+		final TableInfo table = this.tables.get(predicate);
+		Validate.isTrue(table != null, "No facts for predicate %s", predicate);
+		Validate.isTrue(row >= 0 && row < table.rowCount, "Row index out of bounds: %d", row);
+		Validate.isTrue(column >= 0 && column < predicate.getArity(), "Column index out of bounds: %d", column);
+		return this.getTermId(table, row, column);
+	}
+
+	/**
+	 * Returns the number of terms in the dictionary of this snapshot.
+	 *
+	 * @return number of terms
+	 */
+	public int getTermCount() {
+		return this.termCount;
+	}
+
+	/**
+	 * Decodes the term with the given id.
+	 *
+	 * @param id a term id between 0 and {@link #getTermCount()} - 1
+	 * @return the {@link Term}
+	 */
+	public Term getTerm(final int id) {
+		Validate.isTrue(id >= 0 && id < this.termCount, "Unknown term id %d", id);
+		return readTerm(new Cursor(this.input, this.input.getLong(this.termIndexPosition + 8L * id)));
+	}
+
+	/**
+	 * Returns a new list of all facts of the given predicate.
+	 *
+	 * @param predicate a {@link Predicate}
+	 * @return list of {@link Fact}s
+	 */
+	public List<Fact> getFacts(final Predicate predicate) {
+		final TableInfo table = this.tables.get(predicate);
+		if (table == null) {
+			return new ArrayList<>();
+		}
+		final List<Fact> facts = new ArrayList<>(table.rowCount);
+		for (int row = 0; row < table.rowCount; row++) {
+			final List<Term> arguments = new ArrayList<>(predicate.getArity());
+			for (int column = 0; column < predicate.getArity(); column++) {
+				arguments.add(this.getTerm(this.getTermId(table, row, column)));
+			}
+			facts.add(Expressions.makeFact(predicate, arguments));
+		}
+		return facts;
+	}
+
+	/**
+	 * Writes a snapshot of the given knowledge base.
+	 *
+	 * @param knowledgeBase the knowledge base
+	 * @param stream        the output, which is not closed
+	 * @throws IOException              if writing fails
+	 * @throws IllegalArgumentException if the knowledge base contains data
+	 *                                  sources that cannot be stored in snapshots,
+	 *                                  such as in-memory data sources
+	 */
+	public static void write(final KnowledgeBase knowledgeBase, final OutputStream stream) throws IOException {
+		new SnapshotWriter(knowledgeBase, stream).write();
+	}
+
+	/**
+	 * Writes a snapshot of the given knowledge base to a file.
+	 *
+	 * @param knowledgeBase the knowledge base
+	 * @param file          the file to write to
+	 * @throws IOException              if writing fails
+	 * @throws IllegalArgumentException if the knowledge base contains data
+	 *                                  sources that cannot be stored in snapshots,
+	 *                                  such as in-memory data sources
+	 */
+	public static void write(final KnowledgeBase knowledgeBase, final File file) throws IOException {
+		try (OutputStream stream = new FileOutputStream(file)) {
+			write(knowledgeBase, stream);
+		}
+	}
+
+	private int getTermId(final TableInfo table, final int row, final int column) {
+		return this.input.getInt(table.position + 4L * ((long) column * table.rowCount + row));
+	}
+
+	/**
+	 * Decodes all terms, reading the term records one after the other.
+	 */
+	private Term[] getTerms() {
+		final Term[] terms = new Term[this.termCount];
+		if (this.termCount > 0) {
+			final Cursor cursor = new Cursor(this.input, this.input.getLong(this.termIndexPosition));
+			for (int id = 0; id < this.termCount; id++) {
+				terms[id] = readTerm(cursor);
+			}
+		}
+		return terms;
+	}
+
+	private void addFacts(final Predicate predicate, final Term[] terms, final KnowledgeBase knowledgeBase) {
+		final TableInfo table = this.tables.get(predicate);
+		for (int row = 0; row < table.rowCount; row++) {
+			final List<Term> arguments = new ArrayList<>(predicate.getArity());
+			for (int column = 0; column < predicate.getArity(); column++) {
+				arguments.add(terms[this.getTermId(table, row, column)]);
+			}
+			knowledgeBase.addStatement(Expressions.makeFact(predicate, arguments));
+		}
+	}
+
+	private Predicate readPredicate(final Cursor cursor) {
+		return this.predicates.get(cursor.readVarInt());
+	}
+
+	private Rule readRule(final Cursor cursor) {
+		final int headSize = cursor.readVarInt();
+		final List<PositiveLiteral> head = new ArrayList<>(headSize);
+		for (int i = 0; i < headSize; i++) {
+			head.add((PositiveLiteral) this.readLiteral(cursor));
+		}
+		final int bodySize = cursor.readVarInt();
+		final List<Literal> body = new ArrayList<>(bodySize);
+		for (int i = 0; i < bodySize; i++) {
+			body.add(this.readLiteral(cursor));
+		}
+		return Expressions.makeRule(Expressions.makePositiveConjunction(head), Expressions.makeConjunction(body));
+	}
+
+	private Literal readLiteral(final Cursor cursor) {
+		final boolean negated = cursor.readByte() != 0;
+		final Predicate predicate = this.readPredicate(cursor);
+		final List<Term> arguments = new ArrayList<>(predicate.getArity());
+		for (int i = 0; i < predicate.getArity(); i++) {
+			arguments.add(this.getTerm(cursor.readVarInt()));
+		}
+		return negated ? Expressions.makeNegativeLiteral(predicate, arguments)
+				: Expressions.makePositiveLiteral(predicate, arguments);
+	}
+
+	private static Term readTerm(final Cursor cursor) {
+		final byte type = cursor.readByte();
+		switch (type) {
+		case ABSTRACT_CONSTANT:
+			return Expressions.makeAbstractConstant(cursor.readString());
+		case DATATYPE_CONSTANT:
+			return Expressions.makeDatatypeConstant(cursor.readString(), cursor.readString());
+		case LANGSTRING_CONSTANT:
+			return Expressions.makeLanguageStringConstant(cursor.readString(), cursor.readString());
+		case NAMED_NULL:
+			return TermPool.getGlobalPool().getNamedNull(cursor.readString());
+		case UNIVERSAL_VARIABLE:
+			return Expressions.makeUniversalVariable(cursor.readString());
+		case EXISTENTIAL_VARIABLE:
+			return Expressions.makeExistentialVariable(cursor.readString());
+		default:
+			throw new IllegalArgumentException("Unknown term type " + type);
+		}
+	}
+
+	private static DataSource readDataSource(final Cursor cursor) throws IOException {
+		final byte type = cursor.readByte();
+		switch (type) {
+		case CSV_FILE_SOURCE:
+			return new CsvFileDataSource(cursor.readString());
+		case CSV_FILES_SOURCE:
+			return new CsvFilesDataSource(cursor.readString());
+		case PARQUET_FILE_SOURCE:
+			return readParquetFileDataSource(cursor);
+		case HDT_SOURCE:
+			return readHdtDataSource(cursor);
+		case RDF_FILE_SOURCE:
+			return new RdfFileDataSource(cursor.readString());
+		case RDF_FILE_SELECTION_SOURCE:
+			return readRdfFileDataSource(cursor);
+		case TRIDENT_SOURCE:
+			return new TridentDataSource(cursor.readString());
+		case TRIDENT_SELECTION_SOURCE:
+			return readTridentDataSource(cursor);
+		case SPARQL_SOURCE:
+			return new SparqlQueryResultDataSource(new URL(cursor.readString()), cursor.readString(),
+					cursor.readString());
+		default:
+			throw new IOException("Unknown data source type " + type);
+		}
+	}
+
+	private static ParquetFileDataSource readParquetFileDataSource(final Cursor cursor) throws IOException {
+		final String path = cursor.readString();
+		final int columnCount = cursor.readVarInt();
+		final List<String> columns = new ArrayList<>(columnCount);
+		for (int i = 0; i < columnCount; i++) {
+			columns.add(cursor.readString());
+		}
+		final int filterCount = cursor.readVarInt();
+		final Map<String, String> filters = new LinkedHashMap<>();
+		for (int i = 0; i < filterCount; i++) {
+			filters.put(cursor.readString(), cursor.readString());
+		}
+		return new ParquetFileDataSource(path, columns, filters);
+	}
+
+	private static HdtDataSource readHdtDataSource(final Cursor cursor) throws IOException {
+		final String path = cursor.readString();
+		final int boundCount = cursor.readVarInt();
+		final String property = boundCount > 0 ? cursor.readString() : null;
+		final String object = boundCount > 1 ? cursor.readString() : null;
+		return new HdtDataSource(path, property, object);
+	}
+
+	private static RdfFileDataSource readRdfFileDataSource(final Cursor cursor) throws IOException {
+		final String path = cursor.readString();
+		final int boundCount = cursor.readVarInt();
+		final String property = boundCount > 0 ? cursor.readString() : null;
+		final String object = boundCount > 1 ? cursor.readString() : null;
+		return new RdfFileDataSource(path, property, object);
+	}
+
+	private static TridentDataSource readTridentDataSource(final Cursor cursor) throws IOException {
+		final String path = cursor.readString();
+		final int boundCount = cursor.readVarInt();
+		final String property = boundCount > 0 ? cursor.readString() : null;
+		final String object = boundCount > 1 ? cursor.readString() : null;
+		return new TridentDataSource(path, property, object);
+	}
+
+	/**
+	 * Writes the parts of a snapshot in the order in which they appear in the
+	 * file.
+	 */
+	private static final class SnapshotWriter {
+		private final KnowledgeBase knowledgeBase;
+		private final SnapshotOutput output;
+		private final ColumnarFactStore columnarFactStore;
+		private final TermDictionary termDictionary = new TermDictionary();
+		private final Map<Predicate, Integer> predicateIds = new LinkedHashMap<>();
+
+		SnapshotWriter(final KnowledgeBase knowledgeBase, final OutputStream stream) {
+			this.knowledgeBase = knowledgeBase;
+			this.output = new SnapshotOutput(stream);
+			this.columnarFactStore = knowledgeBase.getColumnarFactStore();
+		}
+
+		void write() throws IOException {
+			this.collectTermsAndPredicates();
+
+			this.output.writeInt(MAGIC);
+			this.output.writeInt(VERSION);
+
+			final long[] termPositions = new long[this.termDictionary.size()];
+			for (int id = 0; id < termPositions.length; id++) {
+				termPositions[id] = this.output.getPosition();
+				this.writeTerm(this.termDictionary.getTerm(id));
+			}
+			final long termIndexPosition = this.output.getPosition();
+			for (final long termPosition : termPositions) {
+				this.output.writeLong(termPosition);
+			}
+
+			final long predicatesPosition = this.output.getPosition();
+			this.output.writeVarInt(this.predicateIds.size());
+			for (final Predicate predicate : this.predicateIds.keySet()) {
+				this.output.writeVarInt(predicate.getArity());
+				this.output.writeString(predicate.getName());
+			}
+
+			final long declarationsPosition = this.output.getPosition();
+			this.writeDeclarations();
+
+			final Set<Predicate> factPredicates = this.knowledgeBase.getFactPredicates();
+			final List<Long> tablePositions = new ArrayList<>();
+			final List<Integer> rowCounts = new ArrayList<>();
+			for (final Predicate predicate : factPredicates) {
+				tablePositions.add(this.output.getPosition());
+				rowCounts.add(this.writeFactTable(predicate));
+			}
+
+			final long tableDirectoryPosition = this.output.getPosition();
+			this.output.writeVarInt(factPredicates.size());
+			int table = 0;
+			for (final Predicate predicate : factPredicates) {
+				this.output.writeVarInt(this.predicateIds.get(predicate));
+				this.output.writeVarInt(rowCounts.get(table));
+				this.output.writeLong(tablePositions.get(table));
+				table++;
+			}
+
+			this.output.writeLong(termIndexPosition);
+			this.output.writeLong(termPositions.length);
+			this.output.writeLong(predicatesPosition);
+			this.output.writeLong(declarationsPosition);
+			this.output.writeLong(tableDirectoryPosition);
+			this.output.writeInt(MAGIC);
+			this.output.flush();
+		}
+
+		/**
+		 * Assigns ids to all terms and predicates. Terms of a
+		 * {@link ColumnarFactStore} keep their ids, so that its fact tables can be
+		 * written as they are.
+		 */
+		private void collectTermsAndPredicates() {
+			if (this.columnarFactStore != null) {
+				final TermDictionary storeDictionary = this.columnarFactStore.getTermDictionary();
+				for (int id = 0; id < storeDictionary.size(); id++) {
+					this.termDictionary.getOrAddId(storeDictionary.getTerm(id));
+				}
+			}
+			for (final Predicate predicate : this.knowledgeBase.getFactPredicates()) {
+				this.addPredicate(predicate);
+				if (this.columnarFactStore == null) {
+					for (final Fact fact : this.knowledgeBase.getFacts(predicate)) {
+						for (final Term term : fact.getArguments()) {
+							this.termDictionary.getOrAddId(term);
+						}
+					}
+				}
+			}
+			for (final DataSourceDeclaration dataSourceDeclaration : this.knowledgeBase.getDataSourceDeclarations()) {
+				this.addPredicate(dataSourceDeclaration.getPredicate());
+			}
+			for (final Rule rule : this.knowledgeBase.getRules()) {
+				for (final Literal literal : getLiterals(rule)) {
+					this.addPredicate(literal.getPredicate());
+					for (final Term term : literal.getArguments()) {
+						this.termDictionary.getOrAddId(term);
+					}
+				}
+			}
+		}
+
+		private void addPredicate(final Predicate predicate) {
+			if (!this.predicateIds.containsKey(predicate)) {
+				this.predicateIds.put(predicate, this.predicateIds.size());
+			}
+		}
+
+		private void writeTerm(final Term term) throws IOException {
+			switch (term.getType()) {
+			case ABSTRACT_CONSTANT:
+				this.output.writeByte(ABSTRACT_CONSTANT);
+				this.output.writeString(term.getName());
+				break;
+			case DATATYPE_CONSTANT:
+				final DatatypeConstant datatypeConstant = (DatatypeConstant) term;
+				this.output.writeByte(DATATYPE_CONSTANT);
+				this.output.writeString(datatypeConstant.getLexicalValue());
+				this.output.writeString(datatypeConstant.getDatatype());
+				break;
+			case LANGSTRING_CONSTANT:
+				final LanguageStringConstant languageStringConstant = (LanguageStringConstant) term;
+				this.output.writeByte(LANGSTRING_CONSTANT);
+				this.output.writeString(languageStringConstant.getString());
+				this.output.writeString(languageStringConstant.getLanguageTag());
+				break;
+			case NAMED_NULL:
+				this.output.writeByte(NAMED_NULL);
+				this.output.writeString(term.getName());
+				break;
+			case UNIVERSAL_VARIABLE:
+				this.output.writeByte(UNIVERSAL_VARIABLE);
+				this.output.writeString(term.getName());
+				break;
+			case EXISTENTIAL_VARIABLE:
+				this.output.writeByte(EXISTENTIAL_VARIABLE);
+				this.output.writeString(term.getName());
+				break;
+			default:
+				throw new IllegalArgumentException("Unsupported term type " + term.getType());
+			}
+		}
+
+		private void writeDeclarations() throws IOException {
+			final PrefixDeclarationRegistry prefixDeclarationRegistry = this.knowledgeBase
+					.getPrefixDeclarationRegistry();
+			this.output.writeString(prefixDeclarationRegistry.getBaseIri());
+			final List<Entry<String, String>> prefixes = new ArrayList<>();
+			final Iterator<Entry<String, String>> prefixIterator = prefixDeclarationRegistry.iterator();
+			while (prefixIterator.hasNext()) {
+				prefixes.add(prefixIterator.next());
+			}
+			this.output.writeVarInt(prefixes.size());
+			for (final Entry<String, String> prefix : prefixes) {
+				this.output.writeString(prefix.getKey());
+				this.output.writeString(prefix.getValue());
+			}
+
+			final List<DataSourceDeclaration> dataSourceDeclarations = this.knowledgeBase
+					.getDataSourceDeclarations();
+			this.output.writeVarInt(dataSourceDeclarations.size());
+			for (final DataSourceDeclaration dataSourceDeclaration : dataSourceDeclarations) {
+				this.output.writeVarInt(this.predicateIds.get(dataSourceDeclaration.getPredicate()));
+				this.writeDataSource(dataSourceDeclaration.getDataSource());
+			}
+
+			final List<Rule> rules = this.knowledgeBase.getRules();
+			this.output.writeVarInt(rules.size());
+			for (final Rule rule : rules) {
+				this.writeLiterals(rule.getHead().getLiterals());
+				this.writeLiterals(rule.getBody().getLiterals());
+			}
+		}
+
+		private void writeDataSource(final DataSource dataSource) throws IOException {
+			if (dataSource instanceof CsvFileDataSource) {
+				this.output.writeByte(CSV_FILE_SOURCE);
+				this.output.writeString(((CsvFileDataSource) dataSource).getPath());
+			} else if (dataSource instanceof CsvFilesDataSource) {
+				this.output.writeByte(CSV_FILES_SOURCE);
+				this.output.writeString(((CsvFilesDataSource) dataSource).getPath());
+			} else if (dataSource instanceof ParquetFileDataSource) {
+				final ParquetFileDataSource parquetDataSource = (ParquetFileDataSource) dataSource;
+				this.output.writeByte(PARQUET_FILE_SOURCE);
+				this.output.writeString(parquetDataSource.getPath());
+				this.output.writeVarInt(parquetDataSource.getColumns().size());
+				for (final String column : parquetDataSource.getColumns()) {
+					this.output.writeString(column);
+				}
+				this.output.writeVarInt(parquetDataSource.getFilters().size());
+				for (final Entry<String, String> filter : parquetDataSource.getFilters().entrySet()) {
+					this.output.writeString(filter.getKey());
+					this.output.writeString(filter.getValue());
+				}
+			} else if (dataSource instanceof HdtDataSource) {
+				final HdtDataSource hdtDataSource = (HdtDataSource) dataSource;
+				this.output.writeByte(HDT_SOURCE);
+				this.output.writeString(hdtDataSource.getPath());
+				this.writeSelection(hdtDataSource.getProperty(), hdtDataSource.getObject());
+			} else if (dataSource instanceof RdfFileDataSource) {
+				final RdfFileDataSource rdfFileDataSource = (RdfFileDataSource) dataSource;
+				if (rdfFileDataSource.getProperty() == null) {
+					this.output.writeByte(RDF_FILE_SOURCE);
+					this.output.writeString(rdfFileDataSource.getPath());
+				} else {
+					this.output.writeByte(RDF_FILE_SELECTION_SOURCE);
+					this.output.writeString(rdfFileDataSource.getPath());
+					this.writeSelection(rdfFileDataSource.getProperty(), rdfFileDataSource.getObject());
+				}
+			} else if (dataSource instanceof TridentDataSource) {
+				final TridentDataSource tridentDataSource = (TridentDataSource) dataSource;
+				if (tridentDataSource.getProperty() == null) {
+					this.output.writeByte(TRIDENT_SOURCE);
+					this.output.writeString(tridentDataSource.getPath());
+				} else {
+					this.output.writeByte(TRIDENT_SELECTION_SOURCE);
+					this.output.writeString(tridentDataSource.getPath());
+					this.writeSelection(tridentDataSource.getProperty(), tridentDataSource.getObject());
+				}
+			} else if (dataSource instanceof SparqlQueryResultDataSource) {
+				final SparqlQueryResultDataSource sparqlDataSource = (SparqlQueryResultDataSource) dataSource;
+				this.output.writeByte(SPARQL_SOURCE);
+				this.output.writeString(sparqlDataSource.getEndpoint().toString());
+				this.output.writeString(sparqlDataSource.getQueryVariables());
+				this.output.writeString(sparqlDataSource.getQueryBody());
+			} else {
+				throw new IllegalArgumentException(
+						"Data sources of type " + dataSource.getClass().getName() + " cannot be stored in snapshots.");
+			}
+		}
+
+		/**
+		 * Writes the number of given positions of a triple selection, followed by
+		 * the property and object if given.
+		 */
+		private void writeSelection(final String property, final String object) throws IOException {
+			this.output.writeVarInt(property == null ? 0 : object == null ? 1 : 2);
+			if (property != null) {
+				this.output.writeString(property);
+			}
+			if (object != null) {
+				this.output.writeString(object);
+			}
+		}
+
+		private void writeLiterals(final List<? extends Literal> literals) throws IOException {
+			this.output.writeVarInt(literals.size());
+			for (final Literal literal : literals) {
+				this.output.writeByte(literal.isNegated() ? 1 : 0);
+				this.output.writeVarInt(this.predicateIds.get(literal.getPredicate()));
+				for (final Term term : literal.getArguments()) {
+					this.output.writeVarInt(this.termDictionary.getId(term));
+				}
+			}
+		}
+
+		/**
+		 * Writes the facts of the given predicate column by column.
+		 *
+		 * @return the number of facts
+		 */
+		private int writeFactTable(final Predicate predicate) throws IOException {
+			if (this.columnarFactStore != null) {
+				final FactTable factTable = this.columnarFactStore.getFactTable(predicate);
+				for (int column = 0; column < factTable.getArity(); column++) {
+					for (int row = 0; row < factTable.size(); row++) {
+						this.output.writeInt((int) factTable.get(row, column));
+					}
+				}
+				return factTable.size();
+			}
+			final List<Fact> facts = new ArrayList<>(this.knowledgeBase.getFacts(predicate));
+			for (int column = 0; column < predicate.getArity(); column++) {
+				for (final Fact fact : facts) {
+					this.output.writeInt((int) this.termDictionary.getId(fact.getArguments().get(column)));
+				}
+			}
+			return facts.size();
+		}
+
+		private static List<Literal> getLiterals(final Rule rule) {
+			final List<Literal> literals = new ArrayList<>(rule.getHead().getLiterals());
+			literals.addAll(rule.getBody().getLiterals());
+			return literals;
+		}
+	}
+
+	/**
+	 * Output stream that keeps track of the current position and supports
+	 * varints.
+	 */
+	private static final class SnapshotOutput {
+		private final DataOutputStream stream;
+		private long position = 0;
+
+		SnapshotOutput(final OutputStream stream) {
+			this.stream = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+		}
+
+		long getPosition() {
+			return this.position;
+		}
+
+		void writeByte(final int value) throws IOException {
+			this.stream.writeByte(value);
+			this.position++;
+		}
+
+		void writeInt(final int value) throws IOException {
+			this.stream.writeInt(value);
+			this.position += 4;
+		}
+
+		void writeLong(final long value) throws IOException {
+			this.stream.writeLong(value);
+			this.position += 8;
+		}
+
+		void writeVarInt(long value) throws IOException {
+			while ((value & ~0x7FL) != 0) {
+				this.writeByte((int) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			this.writeByte((int) value);
+		}
+
+		void writeString(final String string) throws IOException {
+			final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			this.writeVarInt(bytes.length);
+			this.stream.write(bytes);
+			this.position += bytes.length;
+		}
+
+		void flush() throws IOException {
+			this.stream.flush();
+		}
+	}
+
+	/**
+	 * Read-only view of a file that is mapped into memory in windows of at most
+	 * 1 GiB, which overlap by eight bytes, so that every int or long is contained
+	 * in a single window. Only absolute reads are used, so that the view can be
+	 * shared by several threads.
+	 */
+	private static final class MappedInput {
+		private static final int WINDOW_BITS = 30;
+		private static final long WINDOW_SIZE = 1L << WINDOW_BITS;
+		private static final int OVERLAP = 8;
+
+		private final ByteBuffer[] windows;
+		private final long size;
+
+		MappedInput(final FileChannel channel) throws IOException {
+			this.size = channel.size();
+			this.windows = new ByteBuffer[(int) ((this.size + WINDOW_SIZE - 1) >>> WINDOW_BITS)];
+			for (int i = 0; i < this.windows.length; i++) {
+				final long start = i * WINDOW_SIZE;
+				this.windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+						Math.min(this.size - start, WINDOW_SIZE + OVERLAP));
+			}
+		}
+
+		long size() {
+			return this.size;
+		}
+
+		byte getByte(final long position) {
+			return this.windows[(int) (position >>> WINDOW_BITS)].get((int) (position & (WINDOW_SIZE - 1)));
+		}
+
+		int getInt(final long position) {
+			return this.windows[(int) (position >>> WINDOW_BITS)].getInt((int) (position & (WINDOW_SIZE - 1)));
+		}
+
+		long getLong(final long position) {
+			return this.windows[(int) (position >>> WINDOW_BITS)].getLong((int) (position & (WINDOW_SIZE - 1)));
+		}
+	}
+
+	/**
+	 * Sequential reader for a {@link MappedInput}.
+	 */
+	private static final class Cursor {
+		private final MappedInput input;
+		private long position;
+
+		Cursor(final MappedInput input, final long position) {
+			this.input = input;
+			this.position = position;
+		}
+
+		void seek(final long position) {
+			this.position = position;
+		}
+
+		byte readByte() {
+			return this.input.getByte(this.position++);
+		}
+
+		long readLong() {
+			final long value = this.input.getLong(this.position);
+			this.position += 8;
+			return value;
+		}
+
+		int readVarInt() {
+			long value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = this.readByte();
+				value |= (long) (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0 && shift < 64);
+			Validate.isTrue(value >= 0 && value <= Integer.MAX_VALUE, "Invalid number in snapshot: %d", value);
+			return (int) value;
+		}
+
+		String readString() {
+			final byte[] bytes = new byte[this.readVarInt()];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = this.input.getByte(this.position + i);
+			}
+			this.position += bytes.length;
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	}
+
+}
@@ -0,0 +1,257 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFilesDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.FileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.TridentDataSource;
+
+/**
+ * Materialisation of a {@link KnowledgeBase} that has been saved to a directory
+ * by {@link Reasoner#saveMaterialisation(Path)}. The directory contains all
+ * inferences as a {@link KnowledgeBaseSnapshot}, and a properties file with
+ * the fingerprint of the knowledge base and the {@link Algorithm} that were
+ * used for reasoning.
+ *
+ * A saved materialisation only {@link #matches(KnowledgeBase, Algorithm)} a
+ * knowledge base with the same statements, in any order. The fingerprint
+ * includes size and modification time of files of {@link FileDataSource}s and
+ * {@link CsvFilesDataSource}s, but changes of SPARQL endpoints or Trident
+ * databases are not detected.
+ */
+public final class MaterialisationCheckpoint {
+
+	static final String INFERENCES_FILE = "inferences.rwkb";
+	static final String PROPERTIES_FILE = "materialisation.properties";
+
+	private static final String FORMAT_VERSION = "1";
+	private static final String FORMAT_VERSION_PROPERTY = "formatVersion";
+	private static final String FINGERPRINT_PROPERTY = "fingerprint";
+	private static final String ALGORITHM_PROPERTY = "algorithm";
+	private static final String NAMED_NULLS_PROPERTY = "containsNamedNulls";
+
+	private final Path directory;
+	private final String fingerprint;
+	private final Algorithm algorithm;
+	private final boolean containsNamedNulls;
+
+	private MaterialisationCheckpoint(final Path directory, final String fingerprint, final Algorithm algorithm,
+			final boolean containsNamedNulls) {
+		this.directory = directory;
+		this.fingerprint = fingerprint;
+		this.algorithm = algorithm;
+		this.containsNamedNulls = containsNamedNulls;
+	}
+
+	/**
+	 * Saves all inferences of the given reasoner, which must have completed
+	 * materialisation, to the given directory. The directory is created if
+	 * necessary, and a previously saved materialisation is replaced.
+	 *
+	 * @param reasoner  a reasoner with {@link Correctness#SOUND_AND_COMPLETE}
+	 *                  inferences
+	 * @param directory the directory to write to
+	 * @throws IOException              if writing fails
+	 * @throws IllegalArgumentException if the knowledge base uses data sources
+	 *                                  whose content cannot be fingerprinted,
+	 *                                  such as in-memory data sources
+	 */
+	public static void write(final Reasoner reasoner, final Path directory) throws IOException {
+		final String fingerprint = computeFingerprint(reasoner.getKnowledgeBase());
+
+		final KnowledgeBase inferences = new KnowledgeBase(FactStorage.COLUMNAR);
+		final boolean[] containsNamedNulls = { false };
+		reasoner.forEachInference((predicate, terms) -> {
+			for (final Term term : terms) {
+				containsNamedNulls[0] |= term.getType() == TermType.NAMED_NULL;
+			}
+			inferences.addStatement(Expressions.makeFact(predicate, terms));
+		});
+
+		Files.createDirectories(directory);
+		// remove the old properties first, so that an interrupted write cannot leave
+		// a valid checkpoint with the wrong inferences
+		Files.deleteIfExists(directory.resolve(PROPERTIES_FILE));
+		KnowledgeBaseSnapshot.write(inferences, directory.resolve(INFERENCES_FILE).toFile());
+
+		final Properties properties = new Properties();
+		properties.setProperty(FORMAT_VERSION_PROPERTY, FORMAT_VERSION);
+		properties.setProperty(FINGERPRINT_PROPERTY, fingerprint);
+		properties.setProperty(ALGORITHM_PROPERTY, reasoner.getAlgorithm().name());
+		properties.setProperty(NAMED_NULLS_PROPERTY, Boolean.toString(containsNamedNulls[0]));
+		try (OutputStream stream = Files.newOutputStream(directory.resolve(PROPERTIES_FILE))) {
+			properties.store(stream, "Rulewerk materialisation");
+		}
+	}
+
+	/**
+	 * Reads the description of a saved materialisation.
+	 *
+	 * @param directory a directory written by {@link #write(Reasoner, Path)}
+	 * @return the checkpoint
+	 * @throws IOException if the directory does not contain a saved
+	 *                     materialisation
+	 */
+	public static MaterialisationCheckpoint read(final Path directory) throws IOException {
+		final Properties properties = new Properties();
+		try (InputStream stream = Files.newInputStream(directory.resolve(PROPERTIES_FILE))) {
+			properties.load(stream);
+		}
+		if (!FORMAT_VERSION.equals(properties.getProperty(FORMAT_VERSION_PROPERTY))) {
+			throw new IOException("Unsupported materialisation format version: "
+					+ properties.getProperty(FORMAT_VERSION_PROPERTY));
+		}
+		final String fingerprint = properties.getProperty(FINGERPRINT_PROPERTY);
+		final String algorithm = properties.getProperty(ALGORITHM_PROPERTY);
+		if (fingerprint == null || algorithm == null) {
+			throw new IOException("Incomplete materialisation properties in " + directory);
+		}
+		try {
+			return new MaterialisationCheckpoint(directory, fingerprint, Algorithm.valueOf(algorithm),
+					Boolean.parseBoolean(properties.getProperty(NAMED_NULLS_PROPERTY)));
+		} catch (final IllegalArgumentException e) {
+			throw new IOException("Unknown reasoning algorithm: " + algorithm, e);
+		}
+	}
+
+	/**
+	 * Checks if this materialisation was computed for the given knowledge base
+	 * and algorithm.
+	 *
+	 * @param knowledgeBase the knowledge base
+	 * @param algorithm     the reasoning algorithm
+	 * @return true if the inferences of this checkpoint are the inferences of the
+	 *         knowledge base
+	 */
+	public boolean matches(final KnowledgeBase knowledgeBase, final Algorithm algorithm) {
+		try {
+			return this.algorithm == algorithm && this.fingerprint.equals(computeFingerprint(knowledgeBase));
+		} catch (final IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns true if some inference contains a named null.
+	 *
+	 * @return true if there are named nulls
+	 */
+	public boolean containsNamedNulls() {
+		return this.containsNamedNulls;
+	}
+
+	/**
+	 * Opens the saved inferences.
+	 *
+	 * @return snapshot of a knowledge base that contains all inferences as facts
+	 * @throws IOException if the inferences cannot be read
+	 */
+	public KnowledgeBaseSnapshot openInferences() throws IOException {
+		return KnowledgeBaseSnapshot.open(this.directory.resolve(INFERENCES_FILE).toFile());
+	}
+
+	/**
+	 * Computes a fingerprint of the statements of a knowledge base, which does
+	 * not depend on their order. Each statement is hashed with SHA-256, and the
+	 * first 128 bits of all hashes are added up.
+	 *
+	 * @param knowledgeBase the knowledge base
+	 * @return hexadecimal fingerprint
+	 * @throws IllegalArgumentException if the knowledge base uses data sources
+	 *                                  whose content cannot be fingerprinted,
+	 *                                  such as in-memory data sources
+	 */
+	public static String computeFingerprint(final KnowledgeBase knowledgeBase) {
+		final MessageDigest digest = createDigest();
+		long count = 0;
+		long high = 0;
+		long low = 0;
+		for (final Statement statement : knowledgeBase) {
+			final byte[] hash = digest.digest(getFingerprintString(statement).getBytes(StandardCharsets.UTF_8));
+			high += toLong(hash, 0);
+			low += toLong(hash, 8);
+			count++;
+		}
+		return String.format("%016x%016x%016x", count, high, low);
+	}
+
+	private static String getFingerprintString(final Statement statement) {
+		if (!(statement instanceof DataSourceDeclaration)) {
+			return statement.toString();
+		}
+		final DataSource dataSource = ((DataSourceDeclaration) statement).getDataSource();
+		if (dataSource instanceof FileDataSource) {
+			final File file = ((FileDataSource) dataSource).getFile();
+			return statement.toString() + " % " + file.length() + " " + file.lastModified();
+		} else if (dataSource instanceof CsvFilesDataSource) {
+			final StringBuilder fingerprint = new StringBuilder(statement.toString());
+			try {
+				for (final Path file : ((CsvFilesDataSource) dataSource).getFiles()) {
+					fingerprint.append(" % ").append(file).append(' ').append(Files.size(file)).append(' ')
+							.append(Files.getLastModifiedTime(file).toMillis());
+				}
+			} catch (final IOException e) {
+				throw new RulewerkRuntimeException("Could not list the files of " + dataSource + ".", e);
+			}
+			return fingerprint.toString();
+		} else if (dataSource instanceof SparqlQueryResultDataSource || dataSource instanceof TridentDataSource) {
+			return statement.toString();
+		}
+		throw new IllegalArgumentException("The content of data sources of type " + dataSource.getClass().getName()
+				+ " cannot be fingerprinted.");
+	}
+
+	private static long toLong(final byte[] bytes, final int offset) {
+		long value = 0;
+		for (int i = offset; i < offset + 8; i++) {
+			value = (value << 8) | (bytes[i] & 0xFF);
+		}
+		return value;
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) { // every Java platform supports SHA-256
+			throw new RulewerkRuntimeException(e);
+		}
+	}
+
+}
@@ -0,0 +1,533 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+
+/**
+ * Dependencies between the predicates of a set of {@link Rule}s. A predicate
+ * depends on each predicate in the body of a rule that has it in the head,
+ * negatively if the body literal is negated.
+ *
+ * The predicates are partitioned into strongly connected {@link Component}s,
+ * which are returned in an order where each component comes after all
+ * components it depends on. The head predicates of a rule always belong to the
+ * same component, since a rule derives all of its head literals at once. The
+ * rules are stratified if no predicate depends negatively on a predicate of its
+ * own component. Components that do not depend on each other can be evaluated
+ * independently, which {@link #getEvaluationLevels()} and
+ * {@link #forEachComponent(ComponentAction, ExecutorService)} make use of.
+ *
+ * The graph is immutable and does not reflect later changes of the rules it has
+ * been built from.
+ */
+public final class PredicateDependencyGraph {
+
+	/**
+	 * Strongly connected component of the graph, together with the rules that
+	 * derive its predicates.
+	 */
+	public static final class Component {
+		private final int index;
+		private final Set<Predicate> predicates = new LinkedHashSet<>();
+		private final List<Rule> rules = new ArrayList<>();
+		private final Set<Component> dependencies = new LinkedHashSet<>();
+		private boolean recursive;
+		private int stratum;
+		private int level;
+
+		private Component(final int index) {
+			this.index = index;
+		}
+
+		/**
+		 * Returns the position of the component in
+		 * {@link PredicateDependencyGraph#getComponents()}.
+		 *
+		 * @return the index of the component
+		 */
+		public int getIndex() {
+			return this.index;
+		}
+
+		/**
+		 * Returns the predicates of the component.
+		 *
+		 * @return non-empty set of predicates
+		 */
+		public Set<Predicate> getPredicates() {
+			return Collections.unmodifiableSet(this.predicates);
+		}
+
+		/**
+		 * Returns the rules that have predicates of the component in their head.
+		 *
+		 * @return the rules, empty if the predicates only have explicit facts
+		 */
+		public List<Rule> getRules() {
+			return Collections.unmodifiableList(this.rules);
+		}
+
+		/**
+		 * Returns the other components that predicates of this component depend on
+		 * directly.
+		 *
+		 * @return components that come before this component
+		 */
+		public Set<Component> getDependencies() {
+			return Collections.unmodifiableSet(this.dependencies);
+		}
+
+		/**
+		 * Returns true if some rule of the component uses a predicate of the
+		 * component in its body, so that its rules have to be applied until a
+		 * fixpoint is reached. The rules of a non-recursive component only need to
+		 * be applied once.
+		 *
+		 * @return true if the component is recursive
+		 */
+		public boolean isRecursive() {
+			return this.recursive;
+		}
+
+		/**
+		 * Returns the stratum of the component with respect to negation: the
+		 * smallest number that is at least the stratum of every component it
+		 * depends on, and greater than the stratum of every component it depends on
+		 * negatively.
+		 *
+		 * @return the stratum, starting from 0
+		 */
+		public int getStratum() {
+			return this.stratum;
+		}
+
+		/**
+		 * Returns the evaluation level of the component: 0 if it depends on no other
+		 * component, and otherwise one more than the largest level of the
+		 * components it depends on.
+		 *
+		 * @return the level, starting from 0
+		 */
+		public int getLevel() {
+			return this.level;
+		}
+
+		@Override
+		public String toString() {
+			return "Component " + this.index + " " + this.predicates;
+		}
+	}
+
+	/**
+	 * Action to be performed for a component of the graph.
+	 */
+	@FunctionalInterface
+	public interface ComponentAction {
+		void accept(Component component) throws IOException;
+	}
+
+	private final List<Rule> rules;
+	private final Map<Predicate, List<Rule>> rulesByHeadPredicate = new HashMap<>();
+	private final Map<Predicate, Set<Predicate>> dependencies = new LinkedHashMap<>();
+	private final Map<Predicate, Set<Predicate>> negativeDependencies = new HashMap<>();
+	private final Map<Predicate, Component> componentsByPredicate = new HashMap<>();
+	private final List<Component> components = new ArrayList<>();
+	private final List<List<Component>> evaluationLevels = new ArrayList<>();
+	private boolean stratified = true;
+
+	/**
+	 * Builds the dependency graph of the given rules.
+	 *
+	 * @param rules the rules, without duplicates
+	 */
+	public PredicateDependencyGraph(final Collection<? extends Rule> rules) {
+		Validate.noNullElements(rules, "Null rules are not allowed! The list contains a null at position [%d].");
+		this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+
+		for (final Rule rule : this.rules) {
+			for (final PositiveLiteral headLiteral : rule.getHead()) {
+				final Predicate head = headLiteral.getPredicate();
+				final List<Rule> headRules = this.rulesByHeadPredicate.computeIfAbsent(head,
+						predicate -> new ArrayList<>());
+				if (headRules.isEmpty() || headRules.get(headRules.size() - 1) != rule) {
+					headRules.add(rule);
+				}
+				final Set<Predicate> headDependencies = this.addPredicate(head);
+				for (final Literal literal : rule.getBody()) {
+					this.addPredicate(literal.getPredicate());
+					headDependencies.add(literal.getPredicate());
+					if (literal.isNegated()) {
+						this.negativeDependencies.computeIfAbsent(head, predicate -> new LinkedHashSet<>())
+								.add(literal.getPredicate());
+					}
+				}
+			}
+		}
+
+		this.computeComponents();
+		this.computeStrata();
+	}
+
+	private Set<Predicate> addPredicate(final Predicate predicate) {
+		return this.dependencies.computeIfAbsent(predicate, p -> new LinkedHashSet<>());
+	}
+
+	/**
+	 * Successors of a predicate for computing components: the predicates it
+	 * depends on, and the other head predicates of its rules.
+	 */
+	private List<Predicate> getSuccessors(final Predicate predicate) {
+		final List<Predicate> successors = new ArrayList<>(this.dependencies.get(predicate));
+		for (final Rule rule : this.getRules(predicate)) {
+			for (final PositiveLiteral headLiteral : rule.getHead()) {
+				successors.add(headLiteral.getPredicate());
+			}
+		}
+		return successors;
+	}
+
+	/**
+	 * Computes the strongly connected components with an iterative version of
+	 * Tarjan's algorithm, which finishes each component after all components
+	 * reachable from it, that is, after all components it depends on.
+	 */
+	private void computeComponents() {
+		final Map<Predicate, Integer> indexes = new HashMap<>();
+		final Map<Predicate, Integer> lowLinks = new HashMap<>();
+		final Deque<Predicate> stack = new ArrayDeque<>();
+		final Set<Predicate> onStack = new LinkedHashSet<>();
+		final Deque<Predicate> callStack = new ArrayDeque<>();
+		final Deque<Iterator<Predicate>> successorStack = new ArrayDeque<>();
+
+		for (final Predicate root : this.dependencies.keySet()) {
+			if (indexes.containsKey(root)) {
+				continue;
+			}
+			this.visit(root, indexes, lowLinks, stack, onStack, callStack, successorStack);
+			while (!callStack.isEmpty()) {
+				final Predicate predicate = callStack.peek();
+				final Iterator<Predicate> successors = successorStack.peek();
+				if (successors.hasNext()) {
+					final Predicate successor = successors.next();
+					if (!indexes.containsKey(successor)) {
+						this.visit(successor, indexes, lowLinks, stack, onStack, callStack, successorStack);
+					} else if (onStack.contains(successor)) {
+						lowLinks.put(predicate, Math.min(lowLinks.get(predicate), indexes.get(successor)));
+					}
+					continue;
+				}
+
+				callStack.pop();
+				successorStack.pop();
+				if (!callStack.isEmpty()) {
+					final Predicate caller = callStack.peek();
+					lowLinks.put(caller, Math.min(lowLinks.get(caller), lowLinks.get(predicate)));
+				}
+				if (lowLinks.get(predicate).equals(indexes.get(predicate))) {
+					final Component component = new Component(this.components.size());
+					Predicate member;
+					do {
+						member = stack.pop();
+						onStack.remove(member);
+						component.predicates.add(member);
+						this.componentsByPredicate.put(member, component);
+					} while (!member.equals(predicate));
+					this.components.add(component);
+				}
+			}
+		}
+	}
+
+	private void visit(final Predicate predicate, final Map<Predicate, Integer> indexes,
+			final Map<Predicate, Integer> lowLinks, final Deque<Predicate> stack, final Set<Predicate> onStack,
+			final Deque<Predicate> callStack, final Deque<Iterator<Predicate>> successorStack) {
+		indexes.put(predicate, indexes.size());
+		lowLinks.put(predicate, indexes.get(predicate));
+		stack.push(predicate);
+		onStack.add(predicate);
+		callStack.push(predicate);
+		successorStack.push(this.getSuccessors(predicate).iterator());
+	}
+
+	/**
+	 * Collects the rules and dependencies of each component, and computes strata
+	 * and evaluation levels in the order of the components.
+	 */
+	private void computeStrata() {
+		for (final Rule rule : this.rules) {
+			this.componentsByPredicate.get(rule.getHead().getLiterals().get(0).getPredicate()).rules.add(rule);
+		}
+
+		for (final Component component : this.components) {
+			int stratum = 0;
+			int level = 0;
+			for (final Predicate predicate : component.predicates) {
+				final Set<Predicate> negative = this.negativeDependencies.getOrDefault(predicate,
+						Collections.emptySet());
+				for (final Predicate dependency : this.dependencies.get(predicate)) {
+					final Component dependencyComponent = this.componentsByPredicate.get(dependency);
+					final boolean isNegative = negative.contains(dependency);
+					if (dependencyComponent == component) {
+						component.recursive = true;
+						if (isNegative) {
+							this.stratified = false;
+						}
+					} else {
+						component.dependencies.add(dependencyComponent);
+						stratum = Math.max(stratum, dependencyComponent.stratum + (isNegative ? 1 : 0));
+						level = Math.max(level, dependencyComponent.level + 1);
+					}
+				}
+			}
+			component.stratum = stratum;
+			component.level = level;
+
+			if (level == this.evaluationLevels.size()) {
+				this.evaluationLevels.add(new ArrayList<>());
+			}
+			this.evaluationLevels.get(level).add(component);
+		}
+	}
+
+	/**
+	 * Returns the rules of the graph.
+	 *
+	 * @return the rules in the order in which they were given
+	 */
+	public List<Rule> getRules() {
+		return this.rules;
+	}
+
+	/**
+	 * Returns the rules that have the given predicate in their head.
+	 *
+	 * @param predicate a predicate
+	 * @return the rules, empty if the predicate does not occur in any rule head
+	 */
+	public List<Rule> getRules(final Predicate predicate) {
+		return Collections.unmodifiableList(this.rulesByHeadPredicate.getOrDefault(predicate, Collections.emptyList()));
+	}
+
+	/**
+	 * Returns all predicates that occur in the rules.
+	 *
+	 * @return the predicates
+	 */
+	public Set<Predicate> getPredicates() {
+		return Collections.unmodifiableSet(this.dependencies.keySet());
+	}
+
+	/**
+	 * Returns the predicates that the given predicate depends on directly, that
+	 * is, the predicates in the bodies of rules with the predicate in the head.
+	 *
+	 * @param predicate a predicate
+	 * @return the dependencies, empty if the predicate does not occur in any rule
+	 *         head
+	 */
+	public Set<Predicate> getDependencies(final Predicate predicate) {
+		return Collections.unmodifiableSet(this.dependencies.getOrDefault(predicate, Collections.emptySet()));
+	}
+
+	/**
+	 * Returns the predicates that the given predicate depends on negatively, that
+	 * is, the predicates in negated body literals of rules with the predicate in
+	 * the head.
+	 *
+	 * @param predicate a predicate
+	 * @return the negative dependencies, a subset of
+	 *         {@link #getDependencies(Predicate)}
+	 */
+	public Set<Predicate> getNegativeDependencies(final Predicate predicate) {
+		return Collections
+				.unmodifiableSet(this.negativeDependencies.getOrDefault(predicate, Collections.emptySet()));
+	}
+
+	/**
+	 * Returns the strongly connected components, each after all components it
+	 * depends on.
+	 *
+	 * @return the components in topological order
+	 */
+	public List<Component> getComponents() {
+		return Collections.unmodifiableList(this.components);
+	}
+
+	/**
+	 * Returns the component of the given predicate.
+	 *
+	 * @param predicate a predicate
+	 * @return the component, or null if the predicate does not occur in the rules
+	 */
+	public Component getComponent(final Predicate predicate) {
+		return this.componentsByPredicate.get(predicate);
+	}
+
+	/**
+	 * Returns true if no predicate depends negatively on a predicate of its own
+	 * component, that is, if the rules can be evaluated stratum by stratum.
+	 *
+	 * @return true if the rules are stratified
+	 */
+	public boolean isStratified() {
+		return this.stratified;
+	}
+
+	/**
+	 * Returns the components grouped by {@link Component#getLevel()}. The
+	 * components of one level do not depend on each other, and can be evaluated
+	 * in parallel once all components of the previous levels have been
+	 * evaluated.
+	 *
+	 * @return the components of each level, starting with level 0
+	 */
+	public List<List<Component>> getEvaluationLevels() {
+		final List<List<Component>> levels = new ArrayList<>(this.evaluationLevels.size());
+		for (final List<Component> level : this.evaluationLevels) {
+			levels.add(Collections.unmodifiableList(level));
+		}
+		return Collections.unmodifiableList(levels);
+	}
+
+	/**
+	 * Returns the predicates whose facts can contribute to facts of the given
+	 * predicates: the given predicates and all predicates they depend on,
+	 * directly or indirectly.
+	 *
+	 * @param predicates the predicates of interest
+	 * @return the relevant predicates
+	 */
+	public Set<Predicate> getRelevantPredicates(final Collection<Predicate> predicates) {
+		Validate.notNull(predicates, "Predicates cannot be null.");
+		final Set<Predicate> relevantPredicates = new LinkedHashSet<>(predicates);
+		final Deque<Predicate> queue = new ArrayDeque<>(predicates);
+		while (!queue.isEmpty()) {
+			for (final Predicate dependency : this.getDependencies(queue.poll())) {
+				if (relevantPredicates.add(dependency)) {
+					queue.add(dependency);
+				}
+			}
+		}
+		return relevantPredicates;
+	}
+
+	/**
+	 * Returns the rules that can contribute to facts of the given predicates:
+	 * all rules with a {@linkplain #getRelevantPredicates(Collection) relevant}
+	 * predicate in their head. Other rules can be removed without changing the
+	 * facts of the given predicates.
+	 *
+	 * @param predicates the predicates of interest
+	 * @return the relevant rules in the order of {@link #getRules()}
+	 */
+	public List<Rule> getRelevantRules(final Collection<Predicate> predicates) {
+		final Set<Predicate> relevantPredicates = this.getRelevantPredicates(predicates);
+		final List<Rule> relevantRules = new ArrayList<>();
+		for (final Rule rule : this.rules) {
+			if (rule.getHead().getLiterals().stream()
+					.anyMatch(literal -> relevantPredicates.contains(literal.getPredicate()))) {
+				relevantRules.add(rule);
+			}
+		}
+		return relevantRules;
+	}
+
+	/**
+	 * Performs the given action for each component, after it has been performed
+	 * for all components the component depends on. The components of each
+	 * evaluation level are processed by tasks of the given executor, so that
+	 * independent components are processed in parallel, and the action must
+	 * therefore be thread-safe. The method returns when the action has been
+	 * performed for all components.
+	 *
+	 * @param action   the action to perform for each component
+	 * @param executor the executor for running the tasks, or null to process all
+	 *                 components in the order of {@link #getComponents()} in the
+	 *                 calling thread
+	 * @throws IOException if the action throws an {@link IOException}, in which
+	 *                     case no components of later levels are processed
+	 */
+	public void forEachComponent(final ComponentAction action, final ExecutorService executor) throws IOException {
+		Validate.notNull(action, "Action cannot be null.");
+		if (executor == null) {
+			for (final Component component : this.components) {
+				action.accept(component);
+			}
+			return;
+		}
+
+		for (final List<Component> level : this.evaluationLevels) {
+			final List<Future<?>> futures = new ArrayList<>();
+			for (final Component component : level) {
+				futures.add(executor.submit(() -> {
+					action.accept(component);
+					return null;
+				}));
+			}
+
+			try {
+				for (final Future<?> future : futures) {
+					future.get();
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RulewerkRuntimeException("Interrupted while processing components.", e);
+			} catch (final ExecutionException e) {
+				final Throwable cause = e.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				} else if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else {
+					throw new RulewerkRuntimeException(cause);
+				}
+			} finally {
+				for (final Future<?> future : futures) {
+					future.cancel(true);
+				}
+			}
+		}
+	}
+
+}
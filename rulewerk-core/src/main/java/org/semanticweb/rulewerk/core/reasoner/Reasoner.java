@@ -26,15 +26,24 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
+import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
 import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.Conjunction;
 import org.semanticweb.rulewerk.core.model.api.Constant;
 import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
 import org.semanticweb.rulewerk.core.model.api.ExistentialVariable;
 import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Literal;
 import org.semanticweb.rulewerk.core.model.api.NamedNull;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
@@ -46,6 +55,8 @@ import org.semanticweb.rulewerk.core.model.api.TermType;
 import org.semanticweb.rulewerk.core.model.api.Variable;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.model.implementation.Serializer;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ConjunctiveQueryEvaluator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ListQueryResultIterator;
 
 /**
  * Interface that exposes the (existential) rule reasoning capabilities of a
@@ -110,6 +121,53 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 */
 	Correctness forEachInference(InferenceAction action) throws IOException;
 
+	/**
+	 * Returns the predicates that can have inferences, in a fixed order: those of
+	 * rule heads, data sources, and facts of the {@link KnowledgeBase}.
+	 * Implementations that do not use all rules for reasoning leave out the head
+	 * predicates of unused rules, since their inferences are not computed.
+	 * Exporting all inferences amounts to exporting the inferences of each of
+	 * these predicates.
+	 *
+	 * @return set of predicates, in a fixed order
+	 */
+	default Set<Predicate> getInferencePredicates() {
+		final KnowledgeBase knowledgeBase = this.getKnowledgeBase();
+		final Set<Predicate> predicates = new LinkedHashSet<>();
+		for (final Rule rule : knowledgeBase.getRules()) {
+			for (final Literal literal : rule.getHead()) {
+				predicates.add(literal.getPredicate());
+			}
+		}
+		for (final DataSourceDeclaration dataSourceDeclaration : knowledgeBase.getDataSourceDeclarations()) {
+			predicates.add(dataSourceDeclaration.getPredicate());
+		}
+		predicates.addAll(knowledgeBase.getFactPredicates());
+		return predicates;
+	}
+
+	/**
+	 * Performs the given action for each inference, using the given executor to
+	 * obtain inferences in parallel. The action may be called concurrently from
+	 * several threads and must therefore be thread-safe. Inferences of the same
+	 * predicate are passed to the action in the same order as by
+	 * {@link #forEachInference(InferenceAction)}, but inferences of different
+	 * predicates may be interleaved arbitrarily. The method returns when all
+	 * inferences have been processed.
+	 *
+	 * Implementations that do not support parallel processing may ignore the
+	 * executor; this is what the default implementation does.
+	 *
+	 * @param action   The thread-safe action to be performed for each inference.
+	 * @param executor the executor for running the tasks that obtain inferences
+	 * @return the correctness of the inferences, depending on the state of the
+	 *         reasoning (materialisation) and its {@link KnowledgeBase}.
+	 * @throws IOException
+	 */
+	default Correctness forEachInference(InferenceAction action, ExecutorService executor) throws IOException {
+		return this.forEachInference(action);
+	}
+
 	/**
 	 * Performs the given action for each inference, swallowing checked exceptions.
 	 *
@@ -147,7 +205,10 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	}
 
 	/**
-	 * Return a stream of all inferences.
+	 * Return a stream of all inferences. Implementations may compute the stream
+	 * lazily, in which case it should be closed after use, and must be consumed
+	 * before the reasoner or its knowledge base change. The default
+	 * implementation collects all inferences in memory first.
 	 *
 	 * @return a {@link Stream} of {@link Fact} objects corresponding to all
 	 *         inferences.
@@ -376,6 +437,37 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 */
 	boolean reason() throws IOException;
 
+	/**
+	 * Saves the inferences of a completed materialisation to the given directory,
+	 * together with a fingerprint of the {@link KnowledgeBase} and the
+	 * {@link Algorithm}, so that they can be restored by
+	 * {@link Reasoner#restoreMaterialisation(Path)} after a restart. See
+	 * {@link MaterialisationCheckpoint} for the stored data.
+	 *
+	 * @param directory the directory to save to; created if it does not exist
+	 * @throws IOException if an I/O error occurs while writing
+	 * @throws ReasonerStateException if materialisation has not completed, or the
+	 *                                knowledge base has changed since.
+	 */
+	void saveMaterialisation(Path directory) throws IOException;
+
+	/**
+	 * Restores a materialisation saved by
+	 * {@link Reasoner#saveMaterialisation(Path)}, if it matches the current
+	 * {@link KnowledgeBase} and {@link Algorithm}. Then the reasoner is in state
+	 * {@link ReasonerState#MATERIALISED} with correctness
+	 * {@link Correctness#SOUND_AND_COMPLETE}, without running
+	 * {@link Reasoner#reason()}. Otherwise, the reasoner is not changed.
+	 *
+	 * @param directory a directory written by
+	 *                  {@link Reasoner#saveMaterialisation(Path)}
+	 * @return {@code true} if the materialisation has been restored, {@code false}
+	 *         if it does not match the knowledge base or cannot be restored by
+	 *         this reasoner
+	 * @throws IOException if the saved materialisation cannot be read
+	 */
+	boolean restoreMaterialisation(Path directory) throws IOException;
+
 	// TODO add examples to query javadoc
 	/**
 	 * Evaluates an atomic query ({@code query}) on the implicit facts loaded into
@@ -431,6 +523,96 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 */
 	QueryResultIterator answerQuery(PositiveLiteral query, boolean includeNulls);
 
+	/**
+	 * Evaluates an atomic ({@code query}) over the current {@link KnowledgeBase}
+	 * in a goal-directed way, without computing the full materialisation. Only
+	 * the rules and facts that are relevant for the query are used, and the rules
+	 * are rewritten with magic sets so that only facts relevant for the bound
+	 * arguments of the query are derived (see {@link
+	 * org.semanticweb.rulewerk.core.reasoner.implementation.MagicSetTransformation}).
+	 * This is much faster than {@link #reason()} for point queries on large
+	 * knowledge bases.
+	 *
+	 * The materialisation and the {@link ReasonerState} of this reasoner are not
+	 * affected, and the method can be used before {@link #reason()} was called.
+	 * All answers are computed before this method returns.
+	 *
+	 * @param query        a {@link PositiveLiteral} representing the query to be
+	 *                     answered.
+	 * @param includeNulls if {@code true}, answers containing {@link NamedNull}s
+	 *                     will be included.
+	 * @return QueryResultIterator that iterates over distinct answers to the query.
+	 *         Its {@link Correctness} is {@link Correctness#SOUND_AND_COMPLETE} for
+	 *         the current knowledge base, unless goal-directed reasoning did not
+	 *         complete (for example, due to a timeout).
+	 * @throws IOException if reasoning fails to read data sources
+	 */
+	QueryResultIterator answerQueryOnDemand(PositiveLiteral query, boolean includeNulls) throws IOException;
+
+	/**
+	 * Evaluates an atomic ({@code query}) like
+	 * {@link #answerQuery(PositiveLiteral, boolean)}, but returns the answers as
+	 * arrays of internal term ids instead of {@link QueryResult}s. This avoids
+	 * creating {@link Term} objects for answers that are only joined, counted, or
+	 * passed on in encoded form. Ids can be converted to terms using
+	 * {@link #getTerm(long)}, as long as the reasoner is not reset and its
+	 * knowledge base is not reloaded.
+	 *
+	 * @param query        a {@link PositiveLiteral} representing the query to be
+	 *                     answered.
+	 * @param includeNulls if {@code true}, answers containing {@link NamedNull}s
+	 *                     will be included.
+	 * @return IdQueryResultIterator that iterates over distinct answers to the
+	 *         query. It also contains the {@link Correctness} of the query
+	 *         answers.
+	 */
+	IdQueryResultIterator answerQueryIds(PositiveLiteral query, boolean includeNulls);
+
+	/**
+	 * Interface for actions to perform on id-level query answers.
+	 *
+	 * Essentially a {@link java.util.function.Consumer}, but with a more
+	 * permissive Exception spec.
+	 */
+	@FunctionalInterface
+	public interface IdAnswerAction {
+		void accept(long[] ids) throws IOException;
+	}
+
+	/**
+	 * Performs the given action for each answer of the given query, given as an
+	 * array of internal term ids. See
+	 * {@link #answerQueryIds(PositiveLiteral, boolean)}.
+	 *
+	 * @param query        a {@link PositiveLiteral} representing the query to be
+	 *                     answered.
+	 * @param includeNulls if {@code true}, answers containing {@link NamedNull}s
+	 *                     will be included.
+	 * @param action       The action to be performed for each answer.
+	 * @return the correctness of the query answers
+	 * @throws IOException
+	 */
+	default Correctness forEachAnswer(final PositiveLiteral query, final boolean includeNulls,
+			final IdAnswerAction action) throws IOException {
+		try (final IdQueryResultIterator answers = this.answerQueryIds(query, includeNulls)) {
+			while (answers.hasNext()) {
+				action.accept(answers.next());
+			}
+			return answers.getCorrectness();
+		}
+	}
+
+	/**
+	 * Returns the term for an internal id that was returned by
+	 * {@link #answerQueryIds(PositiveLiteral, boolean)}. The result is only
+	 * defined if the reasoner has not been reset and has not reloaded its
+	 * knowledge base since the id was obtained.
+	 *
+	 * @param id an internal term id
+	 * @return the {@link Term} with this id
+	 */
+	Term getTerm(long id);
+
 	/**
 	 * * Evaluates an atomic ({@code query}), and counts the number of query answer
 	 * implicit facts loaded into the reasoner and the number of query answer
@@ -503,6 +685,135 @@ public interface Reasoner extends AutoCloseable, KnowledgeBaseListener {
 	 */
 	QueryAnswerCount countQueryAnswers(PositiveLiteral query, boolean includeNulls);
 
+	/**
+	 * Evaluates a batch of atomic queries, see
+	 * {@link #answerQuery(PositiveLiteral, boolean)}. Implementations can share
+	 * the work of converting queries, answer queries that are equal up to
+	 * renaming of variables only once, and evaluate queries concurrently, which
+	 * makes this considerably faster than answering many small queries, such as
+	 * point lookups, one by one.
+	 *
+	 * All answers are computed before this method returns, so that the returned
+	 * iterators do not hold resources of the reasoner and need not be closed.
+	 *
+	 * @param queries      the queries to be answered
+	 * @param includeNulls if {@code true}, answers containing {@link NamedNull}s
+	 *                     will be included.
+	 * @return one {@link QueryResultIterator} for each query, in the order of the
+	 *         given queries
+	 */
+	default List<QueryResultIterator> answerQueries(final Collection<? extends PositiveLiteral> queries,
+			final boolean includeNulls) {
+		final List<QueryResultIterator> results = new ArrayList<>(queries.size());
+		for (final PositiveLiteral query : queries) {
+			try (final QueryResultIterator answers = this.answerQuery(query, includeNulls)) {
+				final List<QueryResult> queryResults = new ArrayList<>();
+				answers.forEachRemaining(queryResults::add);
+				results.add(new ListQueryResultIterator(queryResults, answers.getCorrectness()));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Evaluates a batch of atomic queries like
+	 * {@link #answerQueries(Collection, boolean)}, using the given executor to
+	 * evaluate queries concurrently.
+	 *
+	 * Implementations that do not support parallel query answering may ignore the
+	 * executor; this is what the default implementation does.
+	 *
+	 * @param queries      the queries to be answered
+	 * @param includeNulls if {@code true}, answers containing {@link NamedNull}s
+	 *                     will be included.
+	 * @param executor     the executor for running the tasks that evaluate queries
+	 * @return one {@link QueryResultIterator} for each query, in the order of the
+	 *         given queries
+	 */
+	default List<QueryResultIterator> answerQueries(final Collection<? extends PositiveLiteral> queries,
+			final boolean includeNulls, final ExecutorService executor) {
+		return this.answerQueries(queries, includeNulls);
+	}
+
+	/**
+	 * Counts the answers of a batch of atomic queries, including answers with
+	 * {@link NamedNull}s. See {@link #countQueryAnswers(Collection, boolean)}.
+	 *
+	 * @param queries the queries to be answered
+	 * @return one {@link QueryAnswerCount} for each query, in the order of the
+	 *         given queries
+	 */
+	default List<QueryAnswerCount> countQueryAnswers(final Collection<? extends PositiveLiteral> queries) {
+		return this.countQueryAnswers(queries, true);
+	}
+
+	/**
+	 * Counts the answers of a batch of atomic queries, see
+	 * {@link #countQueryAnswers(PositiveLiteral, boolean)}. As for
+	 * {@link #answerQueries(Collection, boolean)}, implementations can share work
+	 * between the queries of a batch.
+	 *
+	 * @param queries      the queries to be answered
+	 * @param includeNulls if {@code true}, facts with {@link TermType#NAMED_NULL}
+	 *                     terms will be counted.
+	 * @return one {@link QueryAnswerCount} for each query, in the order of the
+	 *         given queries
+	 */
+	default List<QueryAnswerCount> countQueryAnswers(final Collection<? extends PositiveLiteral> queries,
+			final boolean includeNulls) {
+		final List<QueryAnswerCount> results = new ArrayList<>(queries.size());
+		for (final PositiveLiteral query : queries) {
+			results.add(this.countQueryAnswers(query, includeNulls));
+		}
+		return results;
+	}
+
+	/**
+	 * Counts the answers of a batch of atomic queries like
+	 * {@link #countQueryAnswers(Collection, boolean)}, using the given executor
+	 * to evaluate queries concurrently. Implementations that do not support
+	 * parallel query answering may ignore the executor.
+	 *
+	 * @param queries      the queries to be answered
+	 * @param includeNulls if {@code true}, facts with {@link TermType#NAMED_NULL}
+	 *                     terms will be counted.
+	 * @param executor     the executor for running the tasks that evaluate queries
+	 * @return one {@link QueryAnswerCount} for each query, in the order of the
+	 *         given queries
+	 */
+	default List<QueryAnswerCount> countQueryAnswers(final Collection<? extends PositiveLiteral> queries,
+			final boolean includeNulls, final ExecutorService executor) {
+		return this.countQueryAnswers(queries, includeNulls);
+	}
+
+	/**
+	 * Evaluates a conjunctive query over the current materialisation, without
+	 * adding a rule for the query to the knowledge base, which would require
+	 * reasoning again. An answer is a list of terms for the given
+	 * {@code answerTerms}, such that all literals of the query become facts of the
+	 * materialisation for some values of the variables that are not answer
+	 * variables. Each distinct answer is returned once.
+	 *
+	 * The default implementation uses a {@link ConjunctiveQueryEvaluator}, which
+	 * joins the answers of the query literals as obtained by
+	 * {@link #answerQueryIds(PositiveLiteral, boolean)}. Answers are computed
+	 * before this method returns, and the returned iterator need not be closed.
+	 *
+	 * @param query        the literals of the conjunctive query
+	 * @param answerTerms  the terms of each answer: variables that occur in the
+	 *                     query, or other terms that are part of every answer
+	 * @param includeNulls if {@code true}, answers containing {@link NamedNull}s
+	 *                     will be included. Named nulls are always used for
+	 *                     matching variables that are not answer variables.
+	 * @return QueryResultIterator that iterates over distinct answers to the query.
+	 *         Its {@link Correctness} is the weakest correctness of the answers of
+	 *         the query literals.
+	 */
+	default QueryResultIterator answerConjunctiveQuery(final Conjunction<PositiveLiteral> query,
+			final List<? extends Term> answerTerms, final boolean includeNulls) {
+		return new ConjunctiveQueryEvaluator(this).evaluate(query, answerTerms, includeNulls);
+	}
+
 	// TODO add examples to query javadoc
 	/**
 	 * Evaluates an atomic query ({@code query}) on the implicit facts loaded into
@@ -0,0 +1,320 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+/**
+ * Dictionary-encoded storage for {@link Fact}s. All terms are mapped to numeric
+ * ids by a single {@link TermDictionary}, and the facts of each predicate are
+ * stored as tuples of ids in a {@link FactTable}. Fact objects are only created
+ * when facts are read, so that the memory needed per fact is essentially the
+ * memory needed for its ids.
+ *
+ * Facts are returned grouped by predicate, with predicates in the order in
+ * which they were first used. Terms remain in the dictionary when facts are
+ * removed.
+ *
+ * This class is not thread-safe.
+ */
+public class ColumnarFactStore implements Iterable<Fact> {
+
+	private final TermDictionary termDictionary = new TermDictionary();
+	private final Map<Predicate, FactTable> factTables = new LinkedHashMap<>();
+	private long size = 0;
+
+	/**
+	 * Adds a fact to the store, unless it is already contained.
+	 *
+	 * @param fact the fact to add
+	 * @return true if the store has changed
+	 */
+	public boolean add(final Fact fact) {
+		final Predicate predicate = fact.getPredicate();
+		FactTable factTable = this.factTables.get(predicate);
+		if (factTable == null) {
+			factTable = new FactTable(predicate.getArity());
+			this.factTables.put(predicate, factTable);
+		}
+
+		final List<Term> arguments = fact.getArguments();
+		final long[] tuple = new long[arguments.size()];
+		for (int i = 0; i < tuple.length; i++) {
+			tuple[i] = this.termDictionary.getOrAddId(arguments.get(i));
+		}
+
+		if (factTable.add(tuple)) {
+			this.size++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds an encoded fact to the store, unless it is already contained. This
+	 * avoids creating {@link Fact} objects when facts are copied in bulk.
+	 *
+	 * @param predicate the predicate of the fact
+	 * @param tuple     ids of the arguments of the fact, which must have been
+	 *                  assigned by {@link #getTermDictionary()}
+	 * @return true if the store has changed
+	 */
+	public boolean add(final Predicate predicate, final long[] tuple) {
+		Validate.isTrue(tuple.length == predicate.getArity(), "Tuple length %d does not match arity of predicate %s",
+				tuple.length, predicate);
+		FactTable factTable = this.factTables.get(predicate);
+		if (factTable == null) {
+			factTable = new FactTable(predicate.getArity());
+			this.factTables.put(predicate, factTable);
+		}
+		if (factTable.add(tuple)) {
+			this.size++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes a fact from the store.
+	 *
+	 * @param fact the fact to remove
+	 * @return true if the store has changed
+	 */
+	public boolean remove(final Fact fact) {
+		final Predicate predicate = fact.getPredicate();
+		final FactTable factTable = this.factTables.get(predicate);
+		final long[] tuple = encode(fact);
+		if (factTable == null || tuple == null || !factTable.remove(tuple)) {
+			return false;
+		}
+		if (factTable.size() == 0) {
+			this.factTables.remove(predicate);
+		}
+		this.size--;
+		return true;
+	}
+
+	/**
+	 * Checks if the store contains the given fact.
+	 *
+	 * @param fact the fact to look for
+	 * @return true if the fact is contained
+	 */
+	public boolean contains(final Fact fact) {
+		final FactTable factTable = this.factTables.get(fact.getPredicate());
+		final long[] tuple = encode(fact);
+		return factTable != null && tuple != null && factTable.contains(tuple);
+	}
+
+	/**
+	 * Returns the number of facts in the store.
+	 *
+	 * @return number of facts
+	 */
+	public long size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the predicates for which there are facts in this store.
+	 *
+	 * @return read-only set of predicates
+	 */
+	public Set<Predicate> getPredicates() {
+		return Collections.unmodifiableSet(this.factTables.keySet());
+	}
+
+	/**
+	 * Returns the encoded facts of the given predicate.
+	 *
+	 * @param predicate a {@link Predicate}
+	 * @return the {@link FactTable} of the predicate, or null if there are no
+	 *         facts for it
+	 */
+	public FactTable getFactTable(final Predicate predicate) {
+		return this.factTables.get(predicate);
+	}
+
+	/**
+	 * Returns the dictionary that is used to encode the terms of all facts.
+	 *
+	 * @return the {@link TermDictionary} of this store
+	 */
+	public TermDictionary getTermDictionary() {
+		return this.termDictionary;
+	}
+
+	/**
+	 * Returns a new list of all facts in this store.
+	 *
+	 * @return list of {@link Fact}s
+	 */
+	public List<Fact> getFacts() {
+		final List<Fact> facts = new ArrayList<>((int) Math.min(this.size, Integer.MAX_VALUE));
+		for (final Fact fact : this) {
+			facts.add(fact);
+		}
+		return facts;
+	}
+
+	/**
+	 * Returns a new list of all facts of the given predicate.
+	 *
+	 * @param predicate a {@link Predicate}
+	 * @return list of {@link Fact}s
+	 */
+	public List<Fact> getFacts(final Predicate predicate) {
+		final FactTable factTable = this.factTables.get(predicate);
+		if (factTable == null) {
+			return new ArrayList<>();
+		}
+		final List<Fact> facts = new ArrayList<>(factTable.size());
+		for (int row = 0; row < factTable.size(); row++) {
+			facts.add(decode(predicate, factTable, row));
+		}
+		return facts;
+	}
+
+	/**
+	 * Returns a read-only view of the facts of the given predicate, which creates
+	 * {@link Fact} objects on the fly when it is iterated over. The view reflects
+	 * later changes of the store, but its iterators must not be used after the
+	 * store has been modified.
+	 *
+	 * @param predicate a {@link Predicate}
+	 * @return set of {@link Fact}s, empty if there are no facts for the predicate
+	 */
+	public Set<Fact> getFactSet(final Predicate predicate) {
+		return new AbstractSet<Fact>() {
+			@Override
+			public Iterator<Fact> iterator() {
+				final FactTable factTable = ColumnarFactStore.this.factTables.get(predicate);
+				if (factTable == null) {
+					return Collections.emptyIterator();
+				}
+				return new Iterator<Fact>() {
+					int row = 0;
+
+					@Override
+					public boolean hasNext() {
+						return this.row < factTable.size();
+					}
+
+					@Override
+					public Fact next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						return decode(predicate, factTable, this.row++);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				final FactTable factTable = ColumnarFactStore.this.factTables.get(predicate);
+				return factTable == null ? 0 : factTable.size();
+			}
+
+			@Override
+			public boolean contains(final Object object) {
+				return object instanceof Fact && predicate.equals(((Fact) object).getPredicate())
+						&& ColumnarFactStore.this.contains((Fact) object);
+			}
+		};
+	}
+
+	/**
+	 * Iterates over all facts, creating {@link Fact} objects on the fly. The
+	 * iterator must not be used after the store has been modified.
+	 */
+	@Override
+	public Iterator<Fact> iterator() {
+		final Iterator<Map.Entry<Predicate, FactTable>> tableIterator = this.factTables.entrySet().iterator();
+		return new Iterator<Fact>() {
+			Predicate predicate;
+			FactTable factTable;
+			int row = 0;
+
+			@Override
+			public boolean hasNext() {
+				while (this.factTable == null || this.row >= this.factTable.size()) {
+					if (!tableIterator.hasNext()) {
+						return false;
+					}
+					final Map.Entry<Predicate, FactTable> entry = tableIterator.next();
+					this.predicate = entry.getKey();
+					this.factTable = entry.getValue();
+					this.row = 0;
+				}
+				return true;
+			}
+
+			@Override
+			public Fact next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return decode(this.predicate, this.factTable, this.row++);
+			}
+		};
+	}
+
+	private Fact decode(final Predicate predicate, final FactTable factTable, final int row) {
+		final List<Term> terms = new ArrayList<>(factTable.getArity());
+		for (int column = 0; column < factTable.getArity(); column++) {
+			terms.add(this.termDictionary.getTerm(factTable.get(row, column)));
+		}
+		return Expressions.makeFact(predicate, terms);
+	}
+
+	/**
+	 * Encodes the arguments of a fact without adding new terms to the dictionary.
+	 *
+	 * @return array of ids, or null if some term is not in the dictionary
+	 */
+	private long[] encode(final Fact fact) {
+		final List<Term> arguments = fact.getArguments();
+		final long[] tuple = new long[arguments.size()];
+		for (int i = 0; i < tuple.length; i++) {
+			tuple[i] = this.termDictionary.getId(arguments.get(i));
+			if (tuple[i] < 0) {
+				return null;
+			}
+		}
+		return tuple;
+	}
+
+}
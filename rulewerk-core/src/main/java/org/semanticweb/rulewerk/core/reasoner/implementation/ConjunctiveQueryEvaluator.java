@@ -0,0 +1,318 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Conjunction;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.IdQueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.QueryAnswerCount;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
+
+/**
+ * Evaluates conjunctive queries over the current materialisation of a
+ * {@link Reasoner}, without adding rules to its knowledge base. The literals of
+ * a query are answered as atomic queries using
+ * {@link Reasoner#answerQueryIds(PositiveLiteral, boolean)}, and their answers
+ * are combined by hash joins over arrays of term ids. The join order is chosen
+ * greedily: starting with the literal with the fewest answers according to
+ * {@link Reasoner#countQueryAnswers(java.util.Collection, boolean)}, the next
+ * literal is always the one with the fewest answers among the literals that
+ * share a variable with the literals joined so far. Variables that are not
+ * needed for the remaining joins or the answer are dropped as early as
+ * possible.
+ *
+ * Only the final answers are converted to {@link Term}s, so that the reasoner
+ * need not create terms for intermediate results.
+ */
+public class ConjunctiveQueryEvaluator {
+
+	/**
+	 * Tuple of term ids, used as a hash key.
+	 */
+	private static final class IdTuple {
+		private final long[] ids;
+		private final int hashCode;
+
+		IdTuple(final long[] ids) {
+			this.ids = ids;
+			this.hashCode = Arrays.hashCode(ids);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof IdTuple)) {
+				return false;
+			}
+			final IdTuple other = (IdTuple) obj;
+			return this.hashCode == other.hashCode && Arrays.equals(this.ids, other.ids);
+		}
+	}
+
+	/**
+	 * Intermediate result: rows of term ids for the given variables.
+	 */
+	private static final class Relation {
+		final List<Variable> columns;
+		final List<long[]> rows;
+		final Correctness correctness;
+
+		Relation(final List<Variable> columns, final List<long[]> rows, final Correctness correctness) {
+			this.columns = columns;
+			this.rows = rows;
+			this.correctness = correctness;
+		}
+	}
+
+	private final Reasoner reasoner;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param reasoner the reasoner whose materialisation is queried
+	 */
+	public ConjunctiveQueryEvaluator(final Reasoner reasoner) {
+		Validate.notNull(reasoner, "Reasoner cannot be null.");
+		this.reasoner = reasoner;
+	}
+
+	/**
+	 * Computes the answers of a conjunctive query. See
+	 * {@link Reasoner#answerConjunctiveQuery(Conjunction, List, boolean)}.
+	 *
+	 * @param query        the literals of the query
+	 * @param answerTerms  the terms of each answer: variables of the query, or
+	 *                     other terms that are part of every answer
+	 * @param includeNulls if {@code true}, answers containing named nulls will be
+	 *                     included.
+	 * @return the distinct answers
+	 */
+	public QueryResultIterator evaluate(final Conjunction<PositiveLiteral> query,
+			final List<? extends Term> answerTerms, final boolean includeNulls) {
+		Validate.notNull(query, "Query cannot be null.");
+		Validate.notNull(answerTerms, "Answer terms cannot be null.");
+		Validate.notEmpty(query.getLiterals(), "Query must contain at least one literal.");
+		final Set<Variable> queryVariables = query.getVariables().collect(Collectors.toSet());
+		final Set<Variable> answerVariables = new HashSet<>();
+		for (final Term term : answerTerms) {
+			Validate.notNull(term, "Answer terms cannot be null.");
+			if (term.isVariable()) {
+				Validate.isTrue(queryVariables.contains(term), "Answer variable %s does not occur in query %s.", term,
+						query);
+				answerVariables.add((Variable) term);
+			}
+		}
+
+		final List<PositiveLiteral> literals = new ArrayList<>(new LinkedHashSet<>(query.getLiterals()));
+		final List<QueryAnswerCount> counts = this.reasoner.countQueryAnswers(literals, true);
+		Correctness correctness = Correctness.SOUND_AND_COMPLETE;
+		final Map<PositiveLiteral, Long> answerCounts = new HashMap<>();
+		for (int i = 0; i < literals.size(); i++) {
+			correctness = combine(correctness, counts.get(i).getCorrectness());
+			answerCounts.put(literals.get(i), counts.get(i).getCount());
+		}
+		if (answerCounts.containsValue(0L)) {
+			return new ListQueryResultIterator(Collections.emptyList(), correctness);
+		}
+
+		Relation relation = new Relation(Collections.emptyList(), Collections.singletonList(new long[0]), correctness);
+		final List<PositiveLiteral> remaining = new ArrayList<>(literals);
+		while (!remaining.isEmpty() && !relation.rows.isEmpty()) {
+			final PositiveLiteral literal = selectNext(remaining, relation.columns, answerCounts);
+			remaining.remove(literal);
+
+			final Set<Variable> neededVariables = new HashSet<>(answerVariables);
+			for (final PositiveLiteral remainingLiteral : remaining) {
+				remainingLiteral.getVariables().forEach(neededVariables::add);
+			}
+			// answers with nulls in answer variables will be dropped anyway
+			final boolean scanNulls = includeNulls
+					|| !literal.getVariables().allMatch(answerVariables::contains);
+
+			relation = this.join(relation, literal, scanNulls, neededVariables);
+		}
+
+		return new ListQueryResultIterator(this.toQueryResults(relation, answerTerms, includeNulls),
+				relation.correctness);
+	}
+
+	/**
+	 * Selects the literal with the fewest answers among the literals that share a
+	 * variable with the given columns, or among all literals if there are none.
+	 */
+	private static PositiveLiteral selectNext(final List<PositiveLiteral> literals, final List<Variable> columns,
+			final Map<PositiveLiteral, Long> answerCounts) {
+		PositiveLiteral best = null;
+		boolean bestConnected = false;
+		for (final PositiveLiteral literal : literals) {
+			final boolean connected = literal.getVariables().anyMatch(columns::contains);
+			if (best == null || (connected && !bestConnected)
+					|| (connected == bestConnected && answerCounts.get(literal) < answerCounts.get(best))) {
+				best = literal;
+				bestConnected = connected;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Joins the given rows with the answers of a literal. The rows are put into a
+	 * hash table on the variables they share with the literal, which is probed
+	 * with each answer of the literal.
+	 *
+	 * @return the joined rows, restricted to the needed variables
+	 */
+	private Relation join(final Relation relation, final PositiveLiteral literal, final boolean scanNulls,
+			final Set<Variable> neededVariables) {
+		final List<Variable> columns = relation.columns;
+		final List<Term> arguments = literal.getArguments();
+		final List<Integer> sharedColumns = new ArrayList<>();
+		final List<Integer> sharedPositions = new ArrayList<>();
+		final List<Integer> newPositions = new ArrayList<>();
+		final Set<Variable> seen = new HashSet<>();
+		for (int position = 0; position < arguments.size(); position++) {
+			final Term term = arguments.get(position);
+			if (term.isVariable() && seen.add((Variable) term)) {
+				final int column = columns.indexOf(term);
+				if (column >= 0) {
+					sharedColumns.add(column);
+					sharedPositions.add(position);
+				} else if (neededVariables.contains(term)) {
+					newPositions.add(position);
+				}
+			}
+		}
+
+		final List<Variable> joinedColumns = new ArrayList<>();
+		final List<Integer> keptColumns = new ArrayList<>();
+		for (int column = 0; column < columns.size(); column++) {
+			if (neededVariables.contains(columns.get(column))) {
+				keptColumns.add(column);
+				joinedColumns.add(columns.get(column));
+			}
+		}
+		for (final int position : newPositions) {
+			joinedColumns.add((Variable) arguments.get(position));
+		}
+		final boolean projected = keptColumns.size() < columns.size() || newPositions.size() < seen.size()
+				- sharedPositions.size();
+
+		final Map<IdTuple, List<long[]>> hashTable = new HashMap<>();
+		for (final long[] row : relation.rows) {
+			final long[] key = new long[sharedColumns.size()];
+			for (int i = 0; i < key.length; i++) {
+				key[i] = row[sharedColumns.get(i)];
+			}
+			hashTable.computeIfAbsent(new IdTuple(key), k -> new ArrayList<>(1)).add(row);
+		}
+
+		final List<long[]> joinedRows = new ArrayList<>();
+		final Set<IdTuple> distinct = projected ? new HashSet<>() : null;
+		try (final IdQueryResultIterator answers = this.reasoner.answerQueryIds(literal, scanNulls)) {
+			while (answers.hasNext()) {
+				final long[] answer = answers.next();
+				final long[] key = new long[sharedPositions.size()];
+				for (int i = 0; i < key.length; i++) {
+					key[i] = answer[sharedPositions.get(i)];
+				}
+				final List<long[]> matches = hashTable.get(new IdTuple(key));
+				if (matches == null) {
+					continue;
+				}
+				for (final long[] row : matches) {
+					final long[] joined = new long[joinedColumns.size()];
+					int i = 0;
+					for (final int column : keptColumns) {
+						joined[i++] = row[column];
+					}
+					for (final int position : newPositions) {
+						joined[i++] = answer[position];
+					}
+					if (distinct == null || distinct.add(new IdTuple(joined))) {
+						joinedRows.add(joined);
+					}
+				}
+			}
+			return new Relation(joinedColumns, joinedRows, combine(relation.correctness, answers.getCorrectness()));
+		}
+	}
+
+	private List<QueryResult> toQueryResults(final Relation relation, final List<? extends Term> answerTerms,
+			final boolean includeNulls) {
+		final Map<Long, Term> terms = new HashMap<>();
+		final List<QueryResult> results = new ArrayList<>(relation.rows.size());
+		rows: for (final long[] row : relation.rows) {
+			final List<Term> answer = new ArrayList<>(answerTerms.size());
+			for (final Term answerTerm : answerTerms) {
+				if (!answerTerm.isVariable()) {
+					answer.add(answerTerm);
+					continue;
+				}
+				final long id = row[relation.columns.indexOf(answerTerm)];
+				final Term term = terms.computeIfAbsent(id, this.reasoner::getTerm);
+				if (!includeNulls && term.getType() == TermType.NAMED_NULL) {
+					continue rows;
+				}
+				answer.add(term);
+			}
+			results.add(new QueryResultImpl(answer));
+		}
+		return results;
+	}
+
+	/**
+	 * Returns the weaker of two correctness guarantees.
+	 */
+	private static Correctness combine(final Correctness first, final Correctness second) {
+		if (first == Correctness.INCORRECT || second == Correctness.INCORRECT) {
+			return Correctness.INCORRECT;
+		} else if (first == Correctness.SOUND_BUT_INCOMPLETE || second == Correctness.SOUND_BUT_INCOMPLETE) {
+			return Correctness.SOUND_BUT_INCOMPLETE;
+		}
+		return Correctness.SOUND_AND_COMPLETE;
+	}
+
+}
@@ -0,0 +1,179 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+/**
+ * A {@code CsvFilesDataSource} stores facts in one or more CSV or TSV files,
+ * such as the shards of a large export. The path given to the constructor is
+ * either a single file, a directory, of which all files with a supported
+ * extension are used, or a glob pattern such as {@code data/part-*.csv.gz} in
+ * its last path segment.
+ * <p>
+ * Files with the extension {@code .csv} contain comma-separated values, where
+ * values may be enclosed in double quotes as specified in RFC 4180. Files with
+ * the extension {@code .tsv} contain tab-separated values without quoting.
+ * Files may be compressed with gzip ({@code .gz}), Zstandard ({@code .zst}), or
+ * bzip2 ({@code .bz2}); the latter two require {@code com.github.luben:zstd-jni}
+ * and {@code org.apache.commons:commons-compress} on the class path. Each value
+ * is read as the name of a constant, as for
+ * {@link InMemoryDataSource#addTuple(String...)}.
+ * <p>
+ * Unlike {@link CsvFileDataSource}, which is read by the reasoner backend, the
+ * files are read with {@link CsvFilesReader}, which parses several files in
+ * parallel.
+ */
+public class CsvFilesDataSource implements ReasonerDataSource {
+
+	/**
+	 * The name of the predicate used for declarations of data sources of this type.
+	 */
+	public static final String declarationPredicateName = "load-csv-files";
+
+	private static final List<String> formatExtensions = Arrays.asList(".csv", ".tsv");
+	private static final List<String> compressionExtensions = Arrays.asList("", ".gz", ".zst", ".bz2");
+
+	private final String path;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param path path to a file, a directory, or a glob pattern for files
+	 */
+	public CsvFilesDataSource(final String path) {
+		Validate.notBlank(path, "Data source path cannot be blank!");
+		this.path = path;
+	}
+
+	/**
+	 * Returns the path as given to the constructor.
+	 *
+	 * @return path to a file, a directory, or a glob pattern
+	 */
+	public String getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Returns the files of this data source, in lexicographic order.
+	 *
+	 * @return the files with a supported extension that match the path
+	 * @throws IOException if the directory of the files cannot be listed
+	 */
+	public List<Path> getFiles() throws IOException {
+		final Path filePath = Paths.get(this.path);
+		final Path fileName = filePath.getFileName();
+		final List<Path> files = new ArrayList<>();
+		if (Files.isDirectory(filePath)) {
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(filePath)) {
+				stream.forEach(files::add);
+			}
+		} else if (fileName != null && isGlobPattern(fileName.toString())) {
+			final Path directory = filePath.getParent() == null ? Paths.get("") : filePath.getParent();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toAbsolutePath(),
+					fileName.toString())) {
+				stream.forEach(files::add);
+			}
+		} else {
+			if (!isSupportedFile(filePath)) {
+				throw new IllegalArgumentException("Expected a file with one of the extensions .csv or .tsv, "
+						+ "optionally followed by .gz, .zst, or .bz2: " + this.path + ".");
+			}
+			return Collections.singletonList(filePath);
+		}
+
+		files.removeIf(file -> !Files.isRegularFile(file) || !isSupportedFile(file));
+		Collections.sort(files);
+		return files;
+	}
+
+	private static boolean isGlobPattern(final String fileName) {
+		return fileName.indexOf('*') >= 0 || fileName.indexOf('?') >= 0 || fileName.indexOf('[') >= 0
+				|| fileName.indexOf('{') >= 0;
+	}
+
+	/**
+	 * Returns true if the given file has a supported extension.
+	 *
+	 * @param file a file
+	 * @return true if the file is a possibly compressed CSV or TSV file
+	 */
+	public static boolean isSupportedFile(final Path file) {
+		final String fileName = file.getFileName().toString();
+		for (final String formatExtension : formatExtensions) {
+			for (final String compressionExtension : compressionExtensions) {
+				if (fileName.endsWith(formatExtension + compressionExtension)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Fact getDeclarationFact() {
+		final Predicate predicate = Expressions.makePredicate(declarationPredicateName, 1);
+		return Expressions.makeFact(predicate,
+				Expressions.makeDatatypeConstant(this.path, PrefixDeclarationRegistry.XSD_STRING));
+	}
+
+	@Override
+	public void accept(final DataSourceConfigurationVisitor visitor) throws IOException {
+		visitor.visit(this);
+	}
+
+	@Override
+	public String toString() {
+		return "CsvFilesDataSource [path=" + this.path + "]";
+	}
+
+	@Override
+	public int hashCode() {
+		return this.path.hashCode();
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CsvFilesDataSource)) {
+			return false;
+		}
+		return this.path.equals(((CsvFilesDataSource) obj).path);
+	}
+
+}
@@ -0,0 +1,452 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+
+/**
+ * Reads the tuples of CSV and TSV files, as described for
+ * {@link CsvFilesDataSource}, and passes them in batches to a
+ * {@link TupleBatchConsumer}. Files are decompressed and parsed by separate
+ * tasks of an {@link ExecutorService}, so that a data source with many files is
+ * read in parallel. Bytes are read into NIO buffers and parsed without
+ * decoding lines into strings first.
+ *
+ * Terms are dictionary-encoded while reading: each task caches the terms of
+ * recently read byte sequences, so that repeated values are not decoded again,
+ * and all tasks share a bounded dictionary, so that all occurrences of a term
+ * are represented by the same {@link String} instance. Repeated terms therefore
+ * need no additional memory in the tuples passed to the consumer.
+ */
+public class CsvFilesReader {
+
+	/**
+	 * Default maximal number of tuples in one batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1 << 14;
+
+	/**
+	 * Default maximal number of terms in the shared dictionary. Terms that are
+	 * read after the dictionary is full are not shared between tasks.
+	 */
+	public static final int DEFAULT_MAX_DICTIONARY_SIZE = 1 << 22;
+
+	private static final int BUFFER_SIZE = 1 << 20;
+	private static final int CACHE_SIZE = 1 << 16;
+
+	/**
+	 * Action for processing a batch of tuples.
+	 */
+	@FunctionalInterface
+	public interface TupleBatchConsumer {
+		/**
+		 * Processes a batch of tuples, which are not used by the reader afterwards.
+		 *
+		 * @param tuples non-empty array of tuples of the arity of the reader
+		 * @throws IOException
+		 */
+		void accept(String[][] tuples) throws IOException;
+	}
+
+	private final int arity;
+	private final int maxDictionarySize;
+	private final ConcurrentHashMap<String, String> dictionary = new ConcurrentHashMap<>();
+	private UnaryOperator<String> termConverter = UnaryOperator.identity();
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	/**
+	 * Creates a reader with a dictionary of at most
+	 * {@link #DEFAULT_MAX_DICTIONARY_SIZE} terms.
+	 *
+	 * @param arity the number of values in each line of the files
+	 */
+	public CsvFilesReader(final int arity) {
+		this(arity, DEFAULT_MAX_DICTIONARY_SIZE);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param arity             the number of values in each line of the files
+	 * @param maxDictionarySize the maximal number of terms in the shared
+	 *                          dictionary, at least 0
+	 */
+	public CsvFilesReader(final int arity, final int maxDictionarySize) {
+		Validate.isTrue(arity > 0, "Arity must be greater than 0: %d", arity);
+		Validate.isTrue(maxDictionarySize >= 0, "Maximal dictionary size must not be negative: %d",
+				maxDictionarySize);
+		this.arity = arity;
+		this.maxDictionarySize = maxDictionarySize;
+	}
+
+	/**
+	 * Sets a function that converts each value that is read into the term that is
+	 * passed to the consumer. The function is applied once per distinct value
+	 * and task, and must be thread-safe. By default, values are passed
+	 * unchanged.
+	 *
+	 * @param termConverter the conversion of values
+	 */
+	public void setTermConverter(final UnaryOperator<String> termConverter) {
+		Validate.notNull(termConverter, "Term converter cannot be null.");
+		this.termConverter = termConverter;
+	}
+
+	/**
+	 * Sets the maximal number of tuples in one batch.
+	 *
+	 * @param batchSize the batch size, greater than 0
+	 */
+	public void setBatchSize(final int batchSize) {
+		Validate.isTrue(batchSize > 0, "Batch size must be greater than 0: %d", batchSize);
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Returns the number of terms in the shared dictionary.
+	 *
+	 * @return the dictionary size
+	 */
+	public int getDictionarySize() {
+		return this.dictionary.size();
+	}
+
+	/**
+	 * Reads all files of the given data source.
+	 *
+	 * @see #read(List, TupleBatchConsumer, ExecutorService)
+	 */
+	public long read(final CsvFilesDataSource dataSource, final TupleBatchConsumer consumer,
+			final ExecutorService executor) throws IOException {
+		Validate.notNull(dataSource, "Data source cannot be null.");
+		return this.read(dataSource.getFiles(), consumer, executor);
+	}
+
+	/**
+	 * Reads the given files, using one task of the given executor per file. The
+	 * consumer may be called concurrently from several threads and must therefore
+	 * be thread-safe. Tuples of the same file are passed to the consumer in the
+	 * order of the file. The method returns when all files have been read.
+	 *
+	 * @param files    CSV or TSV files, as described for
+	 *                 {@link CsvFilesDataSource}
+	 * @param consumer the thread-safe action for each batch of tuples
+	 * @param executor the executor for running the tasks, or null to read all
+	 *                 files in the calling thread
+	 * @return the number of tuples read
+	 * @throws IOException if a file cannot be read, or contains a line with a
+	 *                     number of values other than the arity
+	 */
+	public long read(final List<Path> files, final TupleBatchConsumer consumer, final ExecutorService executor)
+			throws IOException {
+		Validate.noNullElements(files, "Null files are not allowed! The list contains a null at position [%d].");
+		Validate.notNull(consumer, "Consumer cannot be null.");
+
+		long tuples = 0;
+		if (executor == null) {
+			for (final Path file : files) {
+				tuples += new FileParser(file, consumer).parse();
+			}
+			return tuples;
+		}
+
+		final List<Future<Long>> futures = new ArrayList<>();
+		for (final Path file : files) {
+			futures.add(executor.submit(() -> new FileParser(file, consumer).parse()));
+		}
+		try {
+			for (final Future<Long> future : futures) {
+				tuples += future.get();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RulewerkRuntimeException("Interrupted while reading files.", e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else {
+				throw new RulewerkRuntimeException(cause);
+			}
+		} finally {
+			for (final Future<Long> future : futures) {
+				future.cancel(true);
+			}
+		}
+		return tuples;
+	}
+
+	/**
+	 * Opens a channel for reading the decompressed content of a file, depending
+	 * on the extension of the file.
+	 *
+	 * @param file a file
+	 * @return the channel
+	 * @throws IOException if the file cannot be opened
+	 */
+	static ReadableByteChannel openChannel(final Path file) throws IOException {
+		final String fileName = file.getFileName().toString();
+		if (!fileName.endsWith(".gz") && !fileName.endsWith(".zst") && !fileName.endsWith(".bz2")) {
+			return FileChannel.open(file, StandardOpenOption.READ);
+		}
+
+		final InputStream input = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+		try {
+			if (fileName.endsWith(".gz")) {
+				return Channels.newChannel(new GZIPInputStream(input, 1 << 16));
+			} else if (fileName.endsWith(".zst")) {
+				try {
+					return Channels.newChannel(Decompressors.zstd(input));
+				} catch (final NoClassDefFoundError e) {
+					throw new RulewerkRuntimeException(
+							"Reading Zstandard-compressed files requires com.github.luben:zstd-jni on the class path.",
+							e);
+				}
+			} else {
+				try {
+					return Channels.newChannel(Decompressors.bzip2(input));
+				} catch (final NoClassDefFoundError e) {
+					throw new RulewerkRuntimeException(
+							"Reading bzip2-compressed files requires org.apache.commons:commons-compress on the class path.",
+							e);
+				}
+			}
+		} catch (final IOException | RuntimeException e) {
+			input.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Decompressors from optional dependencies. They are kept in a separate class
+	 * so that this class can be loaded without them.
+	 */
+	private static final class Decompressors {
+		static InputStream zstd(final InputStream input) throws IOException {
+			return new com.github.luben.zstd.ZstdInputStream(input);
+		}
+
+		static InputStream bzip2(final InputStream input) throws IOException {
+			return new org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream(input, true);
+		}
+	}
+
+	/**
+	 * Parser for the content of one file.
+	 */
+	private final class FileParser {
+		private final Path file;
+		private final TupleBatchConsumer consumer;
+		private final boolean quoting;
+		private final byte delimiter;
+
+		private byte[] field = new byte[256];
+		private int fieldLength = 0;
+		private boolean fieldQuoted = false;
+		private boolean inQuotes = false;
+		private boolean afterQuote = false;
+
+		private String[] tuple = new String[CsvFilesReader.this.arity];
+		private int column = 0;
+		private String[][] batch = new String[CsvFilesReader.this.batchSize][];
+		private int batchLength = 0;
+		private long tuples = 0;
+		private long line = 1;
+		private long recordLine = 1;
+
+		private final byte[][] cacheKeys = new byte[CACHE_SIZE][];
+		private final String[] cacheTerms = new String[CACHE_SIZE];
+
+		FileParser(final Path file, final TupleBatchConsumer consumer) {
+			this.file = file;
+			this.consumer = consumer;
+			final String fileName = file.getFileName().toString();
+			this.quoting = !fileName.matches(".*\\.tsv(\\.gz|\\.zst|\\.bz2)?");
+			this.delimiter = this.quoting ? (byte) ',' : (byte) '\t';
+		}
+
+		long parse() throws IOException {
+			try (ReadableByteChannel channel = openChannel(this.file)) {
+				final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+				final byte[] bytes = buffer.array();
+				int read;
+				while ((read = channel.read(buffer)) != -1) {
+					if (read > 0) {
+						this.parse(bytes, buffer.position());
+						buffer.clear();
+					}
+				}
+			}
+			if (this.inQuotes) {
+				throw new IOException(this.file + ": unterminated quoted value in line " + this.recordLine + ".");
+			}
+			if (this.column > 0 || this.fieldLength > 0 || this.fieldQuoted) {
+				this.endRecord();
+			}
+			if (this.batchLength > 0) {
+				this.consumer.accept(Arrays.copyOf(this.batch, this.batchLength));
+			}
+			return this.tuples;
+		}
+
+		private void parse(final byte[] bytes, final int length) throws IOException {
+			for (int i = 0; i < length; i++) {
+				final byte b = bytes[i];
+				if (this.inQuotes) {
+					if (b == '"') {
+						this.inQuotes = false;
+						this.afterQuote = true;
+					} else {
+						if (b == '\n') {
+							this.line++;
+						}
+						this.append(b);
+					}
+					continue;
+				}
+				if (this.afterQuote) {
+					this.afterQuote = false;
+					if (b == '"') { // escaped quote
+						this.append(b);
+						this.inQuotes = true;
+						continue;
+					}
+				}
+
+				if (b == this.delimiter) {
+					this.endField();
+				} else if (b == '\n') {
+					if (this.column > 0 || this.fieldLength > 0 || this.fieldQuoted) {
+						this.endRecord();
+					}
+					this.line++;
+					this.recordLine = this.line;
+				} else if (b == '\r') {
+					// ignore carriage returns of Windows line breaks
+				} else if (b == '"' && this.quoting && this.fieldLength == 0 && !this.fieldQuoted) {
+					this.inQuotes = true;
+					this.fieldQuoted = true;
+				} else {
+					this.append(b);
+				}
+			}
+		}
+
+		private void append(final byte b) {
+			if (this.fieldLength == this.field.length) {
+				this.field = Arrays.copyOf(this.field, this.field.length * 2);
+			}
+			this.field[this.fieldLength++] = b;
+		}
+
+		private void endField() {
+			if (this.column < this.tuple.length) {
+				this.tuple[this.column] = this.getTerm();
+			}
+			this.column++;
+			this.fieldLength = 0;
+			this.fieldQuoted = false;
+		}
+
+		private void endRecord() throws IOException {
+			this.endField();
+			if (this.column != this.tuple.length) {
+				throw new IOException(this.file + ": line " + this.recordLine + " has " + this.column
+						+ " values, but expected " + this.tuple.length + ".");
+			}
+			this.batch[this.batchLength++] = this.tuple;
+			this.tuple = new String[this.tuple.length];
+			this.column = 0;
+			this.tuples++;
+			if (this.batchLength == this.batch.length) {
+				this.consumer.accept(this.batch);
+				this.batch = new String[this.batch.length][];
+				this.batchLength = 0;
+			}
+		}
+
+		/**
+		 * Returns the term for the current field, from the cache of this parser or
+		 * the shared dictionary if possible.
+		 */
+		private String getTerm() {
+			int hash = 1;
+			for (int i = 0; i < this.fieldLength; i++) {
+				hash = 31 * hash + this.field[i];
+			}
+			final int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+			final byte[] cacheKey = this.cacheKeys[slot];
+			if (cacheKey != null && cacheKey.length == this.fieldLength && equalBytes(cacheKey, this.field)) {
+				return this.cacheTerms[slot];
+			}
+
+			String term = CsvFilesReader.this.termConverter
+					.apply(new String(this.field, 0, this.fieldLength, StandardCharsets.UTF_8));
+			final ConcurrentHashMap<String, String> dictionary = CsvFilesReader.this.dictionary;
+			final String knownTerm = dictionary.get(term);
+			if (knownTerm != null) {
+				term = knownTerm;
+			} else if (dictionary.size() < CsvFilesReader.this.maxDictionarySize) {
+				final String previousTerm = dictionary.putIfAbsent(term, term);
+				if (previousTerm != null) {
+					term = previousTerm;
+				}
+			}
+			this.cacheKeys[slot] = Arrays.copyOf(this.field, this.fieldLength);
+			this.cacheTerms[slot] = term;
+			return term;
+		}
+
+		private boolean equalBytes(final byte[] cacheKey, final byte[] field) {
+			for (int i = 0; i < cacheKey.length; i++) {
+				if (cacheKey[i] != field[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+}
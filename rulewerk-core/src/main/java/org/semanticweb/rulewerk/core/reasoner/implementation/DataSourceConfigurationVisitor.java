@@ -37,6 +37,30 @@ public interface DataSourceConfigurationVisitor {
 	 */
 	public void visit(CsvFileDataSource dataSource) throws IOException;
 
+	/**
+	 * Configure the reasoner for a {@link CsvFilesDataSource}.
+	 *
+	 * @param dataSource the data source to configure
+	 * @throws IOexception when an IO error occurs during configuration
+	 */
+	public void visit(CsvFilesDataSource dataSource) throws IOException;
+
+	/**
+	 * Configure the reasoner for a {@link ParquetFileDataSource}.
+	 *
+	 * @param dataSource the data source to configure
+	 * @throws IOexception when an IO error occurs during configuration
+	 */
+	public void visit(ParquetFileDataSource dataSource) throws IOException;
+
+	/**
+	 * Configure the reasoner for a {@link HdtDataSource}.
+	 *
+	 * @param dataSource the data source to configure
+	 * @throws IOexception when an IO error occurs during configuration
+	 */
+	public void visit(HdtDataSource dataSource) throws IOException;
+
 	/**
 	 * Configure the reasoner for a {@link RdfFileDataSource}.
 	 *
@@ -0,0 +1,257 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Set of fixed-length tuples of {@code long} ids, as used for storing the facts
+ * of one predicate in dictionary-encoded form. Tuples are stored row by row in
+ * a single {@code long[]}, and duplicates are detected with an open-addressing
+ * hash index over row numbers. Rows are kept in insertion order, except that
+ * removing a tuple moves the last row into its place.
+ *
+ * This class is not thread-safe.
+ */
+public class FactTable {
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	/**
+	 * Largest array length that all common JVMs can allocate.
+	 */
+	private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+	private final int arity;
+
+	/**
+	 * Tuple data, row by row. Since its length is an int, offsets
+	 * {@code row * arity} of rows in the table do not overflow.
+	 */
+	private long[] rows;
+	/**
+	 * Hash table of row numbers plus one; 0 marks an empty slot. Its length is
+	 * always a power of two and at least twice the row capacity.
+	 */
+	private int[] slots;
+	private int size = 0;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param arity the length of all tuples in this table, strictly greater than 0
+	 */
+	public FactTable(final int arity) {
+		Validate.isTrue(arity > 0, "Arity must be greater than zero: %d", arity);
+		this.arity = arity;
+		this.rows = new long[INITIAL_CAPACITY * arity];
+		this.slots = new int[2 * INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Returns the length of the tuples in this table.
+	 *
+	 * @return arity
+	 */
+	public int getArity() {
+		return this.arity;
+	}
+
+	/**
+	 * Returns the number of tuples in this table.
+	 *
+	 * @return number of tuples
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Adds a tuple to the table, unless it is already contained.
+	 *
+	 * @param tuple array of ids, of length {@link #getArity()}
+	 * @return true if the table has changed
+	 */
+	public boolean add(final long[] tuple) {
+		validateTuple(tuple);
+		int slot = findSlot(tuple);
+		if (this.slots[slot] != 0) {
+			return false;
+		}
+		if (this.size * this.arity == this.rows.length) {
+			grow();
+			slot = findSlot(tuple);
+		}
+		System.arraycopy(tuple, 0, this.rows, this.size * this.arity, this.arity);
+		this.slots[slot] = ++this.size;
+		return true;
+	}
+
+	/**
+	 * Checks if the table contains the given tuple.
+	 *
+	 * @param tuple array of ids, of length {@link #getArity()}
+	 * @return true if the tuple is contained
+	 */
+	public boolean contains(final long[] tuple) {
+		validateTuple(tuple);
+		return this.slots[findSlot(tuple)] != 0;
+	}
+
+	/**
+	 * Removes a tuple from the table. The last row of the table takes the place of
+	 * the removed tuple.
+	 *
+	 * @param tuple array of ids, of length {@link #getArity()}
+	 * @return true if the table has changed
+	 */
+	public boolean remove(final long[] tuple) {
+		validateTuple(tuple);
+		final int slot = findSlot(tuple);
+		if (this.slots[slot] == 0) {
+			return false;
+		}
+		final int row = this.slots[slot] - 1;
+		deleteSlot(slot);
+
+		final int lastRow = this.size - 1;
+		if (row != lastRow) {
+			final int lastSlot = findRowSlot(lastRow);
+			System.arraycopy(this.rows, lastRow * this.arity, this.rows, row * this.arity, this.arity);
+			this.slots[lastSlot] = row + 1;
+		}
+		this.size--;
+		return true;
+	}
+
+	/**
+	 * Returns a single id from this table.
+	 *
+	 * @param row    row number, between 0 and {@link #size()} - 1
+	 * @param column column number, between 0 and {@link #getArity()} - 1
+	 * @return the id stored at the given position
+	 */
+	public long get(final int row, final int column) {
+		Validate.isTrue(row >= 0 && row < this.size, "Row index out of bounds: %d", row);
+		Validate.isTrue(column >= 0 && column < this.arity, "Column index out of bounds: %d", column);
+		return this.rows[row * this.arity + column];
+	}
+
+	/**
+	 * Copies a row of this table into the given array.
+	 *
+	 * @param row    row number, between 0 and {@link #size()} - 1
+	 * @param target array of length at least {@link #getArity()}
+	 */
+	public void getRow(final int row, final long[] target) {
+		Validate.isTrue(row >= 0 && row < this.size, "Row index out of bounds: %d", row);
+		System.arraycopy(this.rows, row * this.arity, target, 0, this.arity);
+	}
+
+	private void validateTuple(final long[] tuple) {
+		Validate.isTrue(tuple.length == this.arity, "Tuple length %d does not match arity %d", tuple.length,
+				this.arity);
+	}
+
+	private int hash(final long[] data, final int offset) {
+		long h = 0;
+		for (int i = offset; i < offset + this.arity; i++) {
+			h = 31 * h + data[i];
+		}
+		return TermDictionary.mix((int) (h ^ (h >>> 32)));
+	}
+
+	private boolean rowEquals(final int row, final long[] tuple) {
+		final int offset = row * this.arity;
+		for (int i = 0; i < this.arity; i++) {
+			if (this.rows[offset + i] != tuple[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int findSlot(final long[] tuple) {
+		final int mask = this.slots.length - 1;
+		int slot = hash(tuple, 0) & mask;
+		while (this.slots[slot] != 0 && !rowEquals(this.slots[slot] - 1, tuple)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private int findRowSlot(final int row) {
+		final int mask = this.slots.length - 1;
+		int slot = hash(this.rows, row * this.arity) & mask;
+		while (this.slots[slot] != row + 1) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Empties the given slot, shifting back later entries of the same probe
+	 * sequence so that no tombstones are needed.
+	 */
+	private void deleteSlot(int slot) {
+		final int mask = this.slots.length - 1;
+		int next = (slot + 1) & mask;
+		while (this.slots[next] != 0) {
+			final int home = hash(this.rows, (this.slots[next] - 1) * this.arity) & mask;
+			// move entry back if its home slot is not in the cyclic range (slot, next]
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				this.slots[slot] = this.slots[next];
+				slot = next;
+			}
+			next = (next + 1) & mask;
+		}
+		this.slots[slot] = 0;
+	}
+
+	private void grow() {
+		final int capacity = this.rows.length / this.arity;
+		this.rows = Arrays.copyOf(this.rows, grownRowsLength(capacity, this.arity));
+		this.slots = new int[4 * capacity];
+		final int mask = this.slots.length - 1;
+		for (int row = 0; row < this.size; row++) {
+			int slot = hash(this.rows, row * this.arity) & mask;
+			while (this.slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			this.slots[slot] = row + 1;
+		}
+	}
+
+	/**
+	 * Returns the length of the tuple data after doubling the given row capacity.
+	 *
+	 * @throws IllegalStateException if the tuple data or the hash table would
+	 *                               exceed the maximal array length
+	 */
+	static int grownRowsLength(final int capacity, final int arity) {
+		final long length = 2L * capacity * arity;
+		Validate.validState(capacity <= MAX_ARRAY_LENGTH / 4 && length <= MAX_ARRAY_LENGTH, "Fact table is full.");
+		return (int) length;
+	}
+
+}
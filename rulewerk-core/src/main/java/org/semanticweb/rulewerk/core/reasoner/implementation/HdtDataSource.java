@@ -0,0 +1,203 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+/**
+ * An {@code HdtDataSource} stores facts in the triples of an RDF HDT file
+ * (Header, Dictionary, Triples). Without further arguments, each triple is read
+ * as a ternary fact with subject, predicate, and object. If a property is
+ * given, only triples with this property are read, as binary facts with
+ * subject and object. If a property and an object are given, only triples with
+ * this property and object are read, as unary facts with the subject; for
+ * example, the instances of a class are obtained with the property
+ * {@code rdf:type} and the class as object.
+ * <p>
+ * The property and the object are given as in the dictionary of the file: IRIs
+ * without angle brackets, and literals in N-Triples syntax without escapes,
+ * such as {@code "chat"@fr}. IRIs are read as abstract constants, literals as
+ * datatype or language-tagged string constants, and blank nodes as skolem
+ * constants that are different for each time the file is read.
+ * <p>
+ * The file is read with {@link HdtFileReader}, which maps the dictionary and
+ * the triples into memory and compares dictionary ids instead of strings, so
+ * that triples that do not match are never decompressed.
+ */
+public class HdtDataSource extends FileDataSource {
+
+	/**
+	 * The name of the predicate used for declarations of data sources of this type.
+	 */
+	public static final String declarationPredicateName = "load-hdt";
+
+	private static final Iterable<String> possibleExtensions = Collections.singletonList(".hdt");
+
+	private final String property;
+	private final String object;
+
+	/**
+	 * Creates a data source for all triples of the given file.
+	 *
+	 * @param hdtFile path to an HDT file
+	 * @throws IOException if the path of the file is invalid
+	 */
+	public HdtDataSource(final String hdtFile) throws IOException {
+		this(hdtFile, null, null);
+	}
+
+	/**
+	 * Creates a data source for the subjects and objects of the triples with the
+	 * given property.
+	 *
+	 * @param hdtFile  path to an HDT file
+	 * @param property the IRI of the property
+	 * @throws IOException if the path of the file is invalid
+	 */
+	public HdtDataSource(final String hdtFile, final String property) throws IOException {
+		this(hdtFile, property, null);
+		Validate.notBlank(property, "Property cannot be blank.");
+	}
+
+	/**
+	 * Creates a data source for the subjects of the triples with the given
+	 * property and object. If the object is null, the data source contains the
+	 * subjects and objects of the triples with the given property; if also the
+	 * property is null, it contains all triples.
+	 *
+	 * @param hdtFile  path to an HDT file
+	 * @param property the IRI of the property, or null
+	 * @param object   the object as in the dictionary of the file, or null
+	 * @throws IOException if the path of the file is invalid
+	 */
+	public HdtDataSource(final String hdtFile, final String property, final String object) throws IOException {
+		super(hdtFile, possibleExtensions);
+		Validate.isTrue(property != null || object == null, "An object can only be given together with a property.");
+		Validate.isTrue(property == null || !property.isEmpty(), "Property cannot be empty.");
+		Validate.isTrue(object == null || !object.isEmpty(), "Object cannot be empty.");
+		this.property = property;
+		this.object = object;
+	}
+
+	/**
+	 * Returns the property of the triples of this data source.
+	 *
+	 * @return the IRI of the property, or null if all triples are read
+	 */
+	public String getProperty() {
+		return this.property;
+	}
+
+	/**
+	 * Returns the object of the triples of this data source.
+	 *
+	 * @return the object, or null if the objects of the triples are read
+	 */
+	public String getObject() {
+		return this.object;
+	}
+
+	/**
+	 * Returns the arity of the facts of this data source, which is the number of
+	 * positions of a triple that are not fixed.
+	 *
+	 * @return 3, 2, or 1
+	 */
+	public int getArity() {
+		if (this.property == null) {
+			return 3;
+		} else if (this.object == null) {
+			return 2;
+		} else {
+			return 1;
+		}
+	}
+
+	@Override
+	public Optional<Integer> getRequiredArity() {
+		return Optional.of(this.getArity());
+	}
+
+	@Override
+	public void accept(final DataSourceConfigurationVisitor visitor) throws IOException {
+		visitor.visit(this);
+	}
+
+	@Override
+	String getDeclarationPredicateName() {
+		return declarationPredicateName;
+	}
+
+	/**
+	 * Returns a fact whose arguments are the path, and the property and object if
+	 * given.
+	 */
+	@Override
+	public Fact getDeclarationFact() {
+		final List<Term> arguments = new ArrayList<>();
+		arguments.add(Expressions.makeDatatypeConstant(getPath(), PrefixDeclarationRegistry.XSD_STRING));
+		if (this.property != null) {
+			arguments.add(Expressions.makeDatatypeConstant(this.property, PrefixDeclarationRegistry.XSD_STRING));
+		}
+		if (this.object != null) {
+			arguments.add(Expressions.makeDatatypeConstant(this.object, PrefixDeclarationRegistry.XSD_STRING));
+		}
+		final Predicate predicate = Expressions.makePredicate(declarationPredicateName, arguments.size());
+		return Expressions.makeFact(predicate, arguments);
+	}
+
+	@Override
+	public String toString() {
+		return "HdtDataSource [hdtFile=" + this.getFile() + ", property=" + this.property + ", object=" + this.object
+				+ "]";
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * super.hashCode() + Objects.hashCode(this.property)) + Objects.hashCode(this.object);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof HdtDataSource)) {
+			return false;
+		}
+		final HdtDataSource other = (HdtDataSource) obj;
+		return this.getFile().equals(other.getFile()) && Objects.equals(this.property, other.property)
+				&& Objects.equals(this.object, other.object);
+	}
+
+}
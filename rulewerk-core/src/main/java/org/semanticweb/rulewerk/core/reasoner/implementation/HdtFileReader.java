@@ -0,0 +1,803 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFilesReader.TupleBatchConsumer;
+
+/**
+ * Reads the facts of an {@link HdtDataSource} and passes them in batches to a
+ * {@link TupleBatchConsumer}. The file is mapped into memory, and the
+ * dictionary and the triples are read from the mapped file without loading
+ * them first. The property and object of the data source are looked up in the
+ * dictionary once, and triples are then selected by comparing dictionary ids,
+ * so that only the strings of matching triples are decompressed. The subjects
+ * are split into ranges that are read by separate tasks of an
+ * {@link ExecutorService}.
+ * <p>
+ * The reader supports HDT files as written by hdt-java and hdt-cpp with the
+ * four-section dictionary of plain front coded strings and bitmap triples in
+ * subject-predicate-object order. Checksums are not verified, and additional
+ * indexes in {@code .hdt.index} files are not used.
+ */
+public class HdtFileReader {
+
+	/**
+	 * Default maximal number of tuples in one batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = CsvFilesReader.DEFAULT_BATCH_SIZE;
+
+	private static final byte[] COOKIE = { '$', 'H', 'D', 'T' };
+
+	private static final int TYPE_GLOBAL = 1;
+	private static final int TYPE_HEADER = 2;
+	private static final int TYPE_DICTIONARY = 3;
+	private static final int TYPE_TRIPLES = 4;
+
+	private static final String DICTIONARY_FOUR = "<http://purl.org/HDT/hdt#dictionaryFour>";
+	private static final String TRIPLES_BITMAP = "<http://purl.org/HDT/hdt#triplesBitmap>";
+	private static final String ORDER_SPO = "1";
+
+	private static final int SECTION_PFC = 2;
+	private static final int SEQUENCE_LOG64 = 1;
+	private static final int BITMAP_PLAIN = 1;
+
+	/**
+	 * Number of positions of the triples index per task.
+	 */
+	private static final long MIN_TASK_SIZE = 1 << 16;
+
+	private static final int CACHE_SIZE = 1 << 12;
+
+	private final HdtDataSource dataSource;
+	private final int arity;
+	private UnaryOperator<String> termConverter = UnaryOperator.identity();
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataSource the data source to read
+	 * @param arity      the arity of the facts that is expected
+	 */
+	public HdtFileReader(final HdtDataSource dataSource, final int arity) {
+		Validate.notNull(dataSource, "Data source cannot be null.");
+		Validate.isTrue(arity == dataSource.getArity(), "Data source %s has arity %d, but expected %d.", dataSource,
+				dataSource.getArity(), arity);
+		this.dataSource = dataSource;
+		this.arity = arity;
+	}
+
+	/**
+	 * Sets a function that converts the name of each constant that is read into
+	 * the term that is passed to the consumer. The function must be thread-safe.
+	 * By default, names are passed unchanged.
+	 *
+	 * @param termConverter the conversion of constant names
+	 */
+	public void setTermConverter(final UnaryOperator<String> termConverter) {
+		Validate.notNull(termConverter, "Term converter cannot be null.");
+		this.termConverter = termConverter;
+	}
+
+	/**
+	 * Sets the maximal number of tuples in one batch.
+	 *
+	 * @param batchSize the batch size, greater than 0
+	 */
+	public void setBatchSize(final int batchSize) {
+		Validate.isTrue(batchSize > 0, "Batch size must be greater than 0: %d", batchSize);
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Reads the matching triples of the file of the data source, using several
+	 * tasks of the given executor for large files. The consumer may be called
+	 * concurrently from several threads and must therefore be thread-safe. The
+	 * method returns when the file has been read.
+	 *
+	 * @param consumer the thread-safe action for each batch of tuples
+	 * @param executor the executor for running the tasks, or null to read the
+	 *                 file in the calling thread
+	 * @return the number of tuples read
+	 * @throws IOException if the file cannot be read or is not a supported HDT
+	 *                     file
+	 */
+	public long read(final TupleBatchConsumer consumer, final ExecutorService executor) throws IOException {
+		Validate.notNull(consumer, "Consumer cannot be null.");
+
+		final MappedFile file;
+		try (FileChannel channel = FileChannel.open(this.dataSource.getFile().toPath(), StandardOpenOption.READ)) {
+			file = new MappedFile(channel);
+		}
+		final Cursor cursor = new Cursor(file, 0);
+		this.readControlInformation(cursor, TYPE_GLOBAL);
+		final Map<String, String> headerProperties = this.readControlInformation(cursor, TYPE_HEADER);
+		cursor.position += this.parseLong(headerProperties, "length");
+
+		final Map<String, String> dictionaryProperties = this.readControlInformation(cursor, TYPE_DICTIONARY);
+		if (!DICTIONARY_FOUR.equals(dictionaryProperties.get(null))) {
+			throw new IOException(this.dataSource.getFile() + ": the dictionary type "
+					+ dictionaryProperties.get(null) + " is not supported.");
+		}
+		final Dictionary dictionary = new Dictionary(this.readSection(cursor), this.readSection(cursor),
+				this.readSection(cursor), this.readSection(cursor));
+
+		final Map<String, String> triplesProperties = this.readControlInformation(cursor, TYPE_TRIPLES);
+		if (!TRIPLES_BITMAP.equals(triplesProperties.get(null))) {
+			throw new IOException(this.dataSource.getFile() + ": the triples type " + triplesProperties.get(null)
+					+ " is not supported.");
+		}
+		if (!ORDER_SPO.equals(triplesProperties.get("order"))) {
+			throw new IOException(this.dataSource.getFile() + ": the triple order " + triplesProperties.get("order")
+					+ " is not supported, only subject-predicate-object order is.");
+		}
+		final Bitmap bitmapY = this.readBitmap(cursor);
+		final Bitmap bitmapZ = this.readBitmap(cursor);
+		final LogArray arrayY = this.readLogArray(cursor);
+		final LogArray arrayZ = this.readLogArray(cursor);
+		if (bitmapY.length != arrayY.length || bitmapZ.length != arrayZ.length) {
+			throw new IOException(this.dataSource.getFile() + ": inconsistent lengths of the triples index.");
+		}
+
+		long predicateId = 0;
+		long objectId = 0;
+		if (this.dataSource.getProperty() != null) {
+			predicateId = dictionary.predicates.locate(this.dataSource.getProperty());
+			if (predicateId == 0) {
+				return 0;
+			}
+		}
+		if (this.dataSource.getObject() != null) {
+			objectId = dictionary.locateObject(this.dataSource.getObject());
+			if (objectId == 0) {
+				return 0;
+			}
+		}
+
+		final Triples triples = new Triples(bitmapY, bitmapZ, arrayY, arrayZ, predicateId, objectId);
+		final Skolemization skolemization = new Skolemization();
+		final int tasks = executor == null ? 1
+				: (int) Math.max(1, Math.min(arrayY.length / MIN_TASK_SIZE,
+						4L * Runtime.getRuntime().availableProcessors()));
+		final List<long[]> ranges = triples.split(tasks);
+
+		if (executor == null) {
+			long tuples = 0;
+			for (final long[] range : ranges) {
+				tuples += new RangeReader(dictionary, triples, range, skolemization, consumer).read();
+			}
+			return tuples;
+		}
+
+		final List<Future<Long>> futures = new ArrayList<>();
+		for (final long[] range : ranges) {
+			futures.add(executor
+					.submit(() -> new RangeReader(dictionary, triples, range, skolemization, consumer).read()));
+		}
+		long tuples = 0;
+		try {
+			for (final Future<Long> future : futures) {
+				tuples += future.get();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RulewerkRuntimeException("Interrupted while reading file.", e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else {
+				throw new RulewerkRuntimeException(cause);
+			}
+		} finally {
+			for (final Future<Long> future : futures) {
+				future.cancel(true);
+			}
+		}
+		return tuples;
+	}
+
+	/**
+	 * Reads control information of the given type, and returns its properties.
+	 * The format is stored with key {@code null}.
+	 */
+	private Map<String, String> readControlInformation(final Cursor cursor, final int type) throws IOException {
+		for (final byte b : COOKIE) {
+			if (cursor.readByte() != b) {
+				throw new IOException(this.dataSource.getFile() + " is not an HDT file.");
+			}
+		}
+		final int actualType = cursor.readByte();
+		if (actualType != type) {
+			throw new IOException(this.dataSource.getFile() + ": expected control information of type " + type
+					+ ", but found " + actualType + ".");
+		}
+		final Map<String, String> properties = new HashMap<>();
+		properties.put(null, cursor.readCString());
+		for (final String property : cursor.readCString().split(";")) {
+			final int separator = property.indexOf('=');
+			if (separator > 0) {
+				properties.put(property.substring(0, separator), property.substring(separator + 1));
+			}
+		}
+		cursor.position += 2; // CRC16
+		return properties;
+	}
+
+	private long parseLong(final Map<String, String> properties, final String key) throws IOException {
+		try {
+			return Long.parseLong(properties.get(key));
+		} catch (final NumberFormatException e) {
+			throw new IOException(this.dataSource.getFile() + ": invalid value of " + key + ".", e);
+		}
+	}
+
+	private Section readSection(final Cursor cursor) throws IOException {
+		final int type = cursor.readByte();
+		if (type != SECTION_PFC) {
+			throw new IOException(
+					this.dataSource.getFile() + ": the dictionary section type " + type + " is not supported.");
+		}
+		final long count = cursor.readVByte();
+		final long size = cursor.readVByte();
+		final long blockSize = cursor.readVByte();
+		cursor.position += 1; // CRC8
+		final LogArray blocks = this.readLogArray(cursor);
+		final long data = cursor.position;
+		cursor.position += size + 4; // data and CRC32
+		if (count > 0 && blockSize <= 0) {
+			throw new IOException(this.dataSource.getFile() + ": invalid block size " + blockSize + ".");
+		}
+		return new Section(cursor.file, count, (int) blockSize, blocks, data);
+	}
+
+	private LogArray readLogArray(final Cursor cursor) throws IOException {
+		final int type = cursor.readByte();
+		if (type != SEQUENCE_LOG64) {
+			throw new IOException(this.dataSource.getFile() + ": the sequence type " + type + " is not supported.");
+		}
+		final int bits = cursor.readByte();
+		final long length = cursor.readVByte();
+		cursor.position += 1; // CRC8
+		if (bits > 64) {
+			throw new IOException(this.dataSource.getFile() + ": invalid number of bits " + bits + ".");
+		}
+		final LogArray array = new LogArray(cursor.file, bits, length, cursor.position);
+		cursor.position += (bits * length + 7) / 8 + 4; // data and CRC32
+		return array;
+	}
+
+	private Bitmap readBitmap(final Cursor cursor) throws IOException {
+		final int type = cursor.readByte();
+		if (type != BITMAP_PLAIN) {
+			throw new IOException(this.dataSource.getFile() + ": the bitmap type " + type + " is not supported.");
+		}
+		final long length = cursor.readVByte();
+		cursor.position += 1; // CRC8
+		final Bitmap bitmap = new Bitmap(cursor.file, length, cursor.position);
+		cursor.position += (length + 7) / 8 + 4; // data and CRC32
+		return bitmap;
+	}
+
+	/**
+	 * Converts a string of the dictionary into the name of a constant, with
+	 * literals written as for {@link InMemoryDataSource#addTuple(String...)}.
+	 */
+	private String toConstantName(final String value, final Skolemization skolemization) {
+		final String name;
+		if (value.startsWith("\"")) {
+			final int end = value.lastIndexOf('"');
+			if (end <= 0) {
+				name = Expressions.makeDatatypeConstant(value, PrefixDeclarationRegistry.XSD_STRING)
+						.getRdfLiteralString(false);
+			} else {
+				final String lexicalValue = value.substring(1, end);
+				final String suffix = value.substring(end + 1);
+				if (suffix.startsWith("@")) {
+					name = Expressions.makeLanguageStringConstant(lexicalValue, suffix.substring(1)).getName();
+				} else if (suffix.startsWith("^^<") && suffix.endsWith(">")) {
+					name = Expressions.makeDatatypeConstant(lexicalValue, suffix.substring(3, suffix.length() - 1))
+							.getRdfLiteralString(false);
+				} else {
+					name = Expressions.makeDatatypeConstant(lexicalValue, PrefixDeclarationRegistry.XSD_STRING)
+							.getRdfLiteralString(false);
+				}
+			}
+		} else if (value.startsWith("_:")) {
+			name = skolemization.getSkolemConstantName(value.substring(2));
+		} else {
+			name = value;
+		}
+		return this.termConverter.apply(name);
+	}
+
+	/**
+	 * Reads the triples of one range of subjects.
+	 */
+	private final class RangeReader {
+		private final Dictionary dictionary;
+		private final Triples triples;
+		private final long[] range;
+		private final Skolemization skolemization;
+		private final TupleBatchConsumer consumer;
+
+		private final Cache subjects = new Cache();
+		private final Cache predicates = new Cache();
+		private final Cache objects = new Cache();
+
+		private String[][] batch;
+		private int batchLength = 0;
+		private long tuples = 0;
+
+		RangeReader(final Dictionary dictionary, final Triples triples, final long[] range,
+				final Skolemization skolemization, final TupleBatchConsumer consumer) {
+			this.dictionary = dictionary;
+			this.triples = triples;
+			this.range = range;
+			this.skolemization = skolemization;
+			this.consumer = consumer;
+			this.batch = new String[HdtFileReader.this.batchSize][];
+		}
+
+		long read() throws IOException {
+			final Triples t = this.triples;
+			long subject = this.range[2];
+			long z = this.range[3];
+			for (long y = this.range[0]; y < this.range[1]; y++) {
+				final long predicate = t.arrayY.get(y);
+				if (t.predicateId == 0 || predicate == t.predicateId) {
+					boolean last;
+					do {
+						final long object = t.arrayZ.get(z);
+						if (t.objectId == 0 || object == t.objectId) {
+							this.add(subject, predicate, object);
+						}
+						last = t.bitmapZ.get(z);
+						z++;
+					} while (!last);
+				} else {
+					z = t.bitmapZ.next(z) + 1;
+				}
+				if (t.bitmapY.get(y)) {
+					subject++;
+				}
+			}
+			this.flush();
+			return this.tuples;
+		}
+
+		private void add(final long subject, final long predicate, final long object) throws IOException {
+			final String[] tuple = new String[HdtFileReader.this.arity];
+			tuple[0] = this.subjects.get(subject, this.dictionary::extractSubject);
+			if (HdtFileReader.this.arity == 3) {
+				tuple[1] = this.predicates.get(predicate, this.dictionary.predicates::extract);
+				tuple[2] = this.objects.get(object, this.dictionary::extractObject);
+			} else if (HdtFileReader.this.arity == 2) {
+				tuple[1] = this.objects.get(object, this.dictionary::extractObject);
+			}
+			this.batch[this.batchLength++] = tuple;
+			if (this.batchLength == this.batch.length) {
+				this.flush();
+			}
+		}
+
+		private void flush() throws IOException {
+			if (this.batchLength > 0) {
+				this.consumer.accept(this.batchLength == this.batch.length ? this.batch
+						: Arrays.copyOf(this.batch, this.batchLength));
+				this.tuples += this.batchLength;
+				this.batch = new String[HdtFileReader.this.batchSize][];
+				this.batchLength = 0;
+			}
+		}
+
+		/**
+		 * Direct-mapped cache of converted terms by dictionary id.
+		 */
+		private final class Cache {
+			private final long[] ids = new long[CACHE_SIZE];
+			private final String[] names = new String[CACHE_SIZE];
+
+			String get(final long id, final Extractor extractor) throws IOException {
+				final int slot = (int) (id & (CACHE_SIZE - 1));
+				if (this.ids[slot] != id || this.names[slot] == null) {
+					this.ids[slot] = id;
+					this.names[slot] = HdtFileReader.this.toConstantName(extractor.extract(id),
+							RangeReader.this.skolemization);
+				}
+				return this.names[slot];
+			}
+		}
+	}
+
+	@FunctionalInterface
+	private interface Extractor {
+		String extract(long id) throws IOException;
+	}
+
+	/**
+	 * The bitmap triples index, restricted to a predicate and an object id, where
+	 * 0 means no restriction.
+	 */
+	private static final class Triples {
+		private final Bitmap bitmapY;
+		private final Bitmap bitmapZ;
+		private final LogArray arrayY;
+		private final LogArray arrayZ;
+		private final long predicateId;
+		private final long objectId;
+
+		Triples(final Bitmap bitmapY, final Bitmap bitmapZ, final LogArray arrayY, final LogArray arrayZ,
+				final long predicateId, final long objectId) {
+			this.bitmapY = bitmapY;
+			this.bitmapZ = bitmapZ;
+			this.arrayY = arrayY;
+			this.arrayZ = arrayZ;
+			this.predicateId = predicateId;
+			this.objectId = objectId;
+		}
+
+		/**
+		 * Splits the positions of the predicate array into at most the given number
+		 * of ranges that start with a new subject, in one pass over the bitmaps.
+		 *
+		 * @return ranges of start and end position in the predicate array, and the
+		 *         first subject id and position in the object array
+		 */
+		List<long[]> split(final int parts) {
+			final List<long[]> ranges = new ArrayList<>();
+			final long length = this.arrayY.length;
+			if (parts == 1) {
+				ranges.add(new long[] { 0, length, 1, 0 });
+				return ranges;
+			}
+			long y = 0;
+			long subject = 1;
+			long z = 0;
+			for (int part = 1; part <= parts && y < length; part++) {
+				final long[] range = { y, 0, subject, z };
+				final long target = part == parts ? length : Math.max(y + 1, length / parts * part);
+				while (y < length && (y < target || !this.bitmapY.get(y - 1))) {
+					if (this.bitmapY.get(y)) {
+						subject++;
+					}
+					z = this.bitmapZ.next(z) + 1;
+					y++;
+				}
+				range[1] = y;
+				ranges.add(range);
+			}
+			return ranges;
+		}
+	}
+
+	/**
+	 * The four sections of the dictionary. Subject ids up to the number of shared
+	 * terms refer to the shared section, and larger ones to the subject section;
+	 * likewise for objects.
+	 */
+	private static final class Dictionary {
+		private final Section shared;
+		private final Section subjects;
+		private final Section predicates;
+		private final Section objects;
+
+		Dictionary(final Section shared, final Section subjects, final Section predicates, final Section objects) {
+			this.shared = shared;
+			this.subjects = subjects;
+			this.predicates = predicates;
+			this.objects = objects;
+		}
+
+		String extractSubject(final long id) throws IOException {
+			return id <= this.shared.count ? this.shared.extract(id) : this.subjects.extract(id - this.shared.count);
+		}
+
+		String extractObject(final long id) throws IOException {
+			return id <= this.shared.count ? this.shared.extract(id) : this.objects.extract(id - this.shared.count);
+		}
+
+		long locateObject(final String value) throws IOException {
+			final long id = this.shared.locate(value);
+			if (id != 0) {
+				return id;
+			}
+			final long objectId = this.objects.locate(value);
+			return objectId == 0 ? 0 : objectId + this.shared.count;
+		}
+	}
+
+	/**
+	 * A dictionary section of sorted strings with plain front coding: strings are
+	 * stored in blocks, where the first string of a block is stored completely,
+	 * and each other string as the length of the prefix that it shares with the
+	 * previous string, followed by the rest of the string. All strings end with a
+	 * zero byte.
+	 */
+	private static final class Section {
+		private final MappedFile file;
+		private final long count;
+		private final int blockSize;
+		private final LogArray blocks;
+		private final long data;
+
+		Section(final MappedFile file, final long count, final int blockSize, final LogArray blocks,
+				final long data) {
+			this.file = file;
+			this.count = count;
+			this.blockSize = blockSize;
+			this.blocks = blocks;
+			this.data = data;
+		}
+
+		/**
+		 * Returns the string with the given id, counting from 1.
+		 */
+		String extract(final long id) throws IOException {
+			if (id < 1 || id > this.count) {
+				throw new IOException("Invalid dictionary id " + id + ".");
+			}
+			final long block = (id - 1) / this.blockSize;
+			final int index = (int) ((id - 1) % this.blockSize);
+			final Cursor cursor = new Cursor(this.file, this.data + this.blocks.get(block));
+			byte[] value = cursor.readCBytes(null, 0);
+			for (int i = 0; i < index; i++) {
+				value = cursor.readCBytes(value, (int) cursor.readVByte());
+			}
+			return new String(value, StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * Returns the id of the given string, or 0 if the section does not contain
+		 * it.
+		 */
+		long locate(final String value) throws IOException {
+			if (this.count == 0) {
+				return 0;
+			}
+			final byte[] target = value.getBytes(StandardCharsets.UTF_8);
+			// find the last block whose first string is not greater than the target
+			long low = 0;
+			long high = (this.count - 1) / this.blockSize;
+			while (low < high) {
+				final long middle = (low + high + 1) >>> 1;
+				final Cursor cursor = new Cursor(this.file, this.data + this.blocks.get(middle));
+				if (compare(cursor.readCBytes(null, 0), target) <= 0) {
+					low = middle;
+				} else {
+					high = middle - 1;
+				}
+			}
+			final Cursor cursor = new Cursor(this.file, this.data + this.blocks.get(low));
+			final long first = low * this.blockSize + 1;
+			final long last = Math.min(first + this.blockSize - 1, this.count);
+			byte[] current = cursor.readCBytes(null, 0);
+			for (long id = first; id <= last; id++) {
+				if (id > first) {
+					current = cursor.readCBytes(current, (int) cursor.readVByte());
+				}
+				final int comparison = compare(current, target);
+				if (comparison == 0) {
+					return id;
+				} else if (comparison > 0) {
+					return 0;
+				}
+			}
+			return 0;
+		}
+
+		private static int compare(final byte[] first, final byte[] second) {
+			final int length = Math.min(first.length, second.length);
+			for (int i = 0; i < length; i++) {
+				final int difference = (first[i] & 0xff) - (second[i] & 0xff);
+				if (difference != 0) {
+					return difference;
+				}
+			}
+			return first.length - second.length;
+		}
+	}
+
+	/**
+	 * An array of integers of a fixed number of bits, stored in little-endian
+	 * order.
+	 */
+	private static final class LogArray {
+		private final MappedFile file;
+		private final int bits;
+		private final long length;
+		private final long data;
+
+		LogArray(final MappedFile file, final int bits, final long length, final long data) {
+			this.file = file;
+			this.bits = bits;
+			this.length = length;
+			this.data = data;
+		}
+
+		long get(final long index) {
+			if (this.bits == 0) {
+				return 0;
+			}
+			final long bitPosition = index * this.bits;
+			long position = this.data + (bitPosition >>> 3);
+			int offset = (int) (bitPosition & 7);
+			long value = 0;
+			int read = 0;
+			while (read < this.bits) {
+				value |= (long) ((this.file.get(position++) & 0xff) >>> offset) << read;
+				read += 8 - offset;
+				offset = 0;
+			}
+			return this.bits == 64 ? value : value & ((1L << this.bits) - 1);
+		}
+	}
+
+	/**
+	 * A sequence of bits, stored in little-endian order.
+	 */
+	private static final class Bitmap {
+		private final MappedFile file;
+		private final long length;
+		private final long data;
+
+		Bitmap(final MappedFile file, final long length, final long data) {
+			this.file = file;
+			this.length = length;
+			this.data = data;
+		}
+
+		boolean get(final long index) {
+			return (this.file.get(this.data + (index >>> 3)) & (1 << (index & 7))) != 0;
+		}
+
+		/**
+		 * Returns the position of the first set bit at or after the given position.
+		 */
+		long next(final long index) {
+			long position = index >>> 3;
+			int bits = (this.file.get(this.data + position) & 0xff) >>> (index & 7);
+			if (bits != 0) {
+				return index + Integer.numberOfTrailingZeros(bits);
+			}
+			final long end = (this.length + 7) >>> 3;
+			while (++position < end) {
+				bits = this.file.get(this.data + position) & 0xff;
+				if (bits != 0) {
+					return (position << 3) + Integer.numberOfTrailingZeros(bits);
+				}
+			}
+			return this.length;
+		}
+	}
+
+	/**
+	 * A file mapped into memory in segments of at most 1 GiB.
+	 */
+	private static final class MappedFile {
+		private static final int SEGMENT_BITS = 30;
+
+		private final ByteBuffer[] segments;
+		private final long size;
+
+		MappedFile(final FileChannel channel) throws IOException {
+			this.size = channel.size();
+			this.segments = new ByteBuffer[(int) ((this.size + (1L << SEGMENT_BITS) - 1) >>> SEGMENT_BITS)];
+			for (int i = 0; i < this.segments.length; i++) {
+				final long start = (long) i << SEGMENT_BITS;
+				this.segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+						Math.min(1L << SEGMENT_BITS, this.size - start));
+			}
+		}
+
+		byte get(final long position) {
+			if (position < 0 || position >= this.size) {
+				throw new RulewerkRuntimeException("Unexpected end of HDT file at position " + position + ".");
+			}
+			return this.segments[(int) (position >>> SEGMENT_BITS)].get((int) (position & ((1 << SEGMENT_BITS) - 1)));
+		}
+	}
+
+	/**
+	 * A position in a mapped file for reading values one after the other.
+	 */
+	private static final class Cursor {
+		private final MappedFile file;
+		private long position;
+
+		Cursor(final MappedFile file, final long position) {
+			this.file = file;
+			this.position = position;
+		}
+
+		int readByte() {
+			return this.file.get(this.position++) & 0xff;
+		}
+
+		/**
+		 * Reads a variable-length integer, stored in groups of 7 bits, where the
+		 * highest bit marks the last byte.
+		 */
+		long readVByte() throws IOException {
+			long value = 0;
+			int shift = 0;
+			int b = this.readByte();
+			while ((b & 0x80) == 0) {
+				if (shift > 56) {
+					throw new IOException("Invalid variable-length integer.");
+				}
+				value |= (long) (b & 0x7f) << shift;
+				shift += 7;
+				b = this.readByte();
+			}
+			return value | (long) (b & 0x7f) << shift;
+		}
+
+		/**
+		 * Reads bytes up to a zero byte, and returns them after the given number of
+		 * bytes of the given prefix.
+		 */
+		byte[] readCBytes(final byte[] prefix, final int prefixLength) throws IOException {
+			long end = this.position;
+			while (this.file.get(end) != 0) {
+				end++;
+			}
+			if (prefixLength > 0 && (prefix == null || prefixLength > prefix.length)) {
+				throw new IOException("Invalid prefix length " + prefixLength + ".");
+			}
+			final byte[] bytes = new byte[Math.toIntExact(prefixLength + end - this.position)];
+			if (prefixLength > 0) {
+				System.arraycopy(prefix, 0, bytes, 0, prefixLength);
+			}
+			for (int i = prefixLength; i < bytes.length; i++) {
+				bytes[i] = this.file.get(this.position++);
+			}
+			this.position++;
+			return bytes;
+		}
+
+		String readCString() throws IOException {
+			return new String(this.readCBytes(null, 0), StandardCharsets.UTF_8);
+		}
+	}
+
+}
@@ -0,0 +1,436 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Literal;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.PredicateDependencyGraph;
+
+/**
+ * Goal-directed rewriting of a {@link KnowledgeBase} for answering a single
+ * atomic query. Only rules that can contribute to facts of the query predicate
+ * are kept, and only facts and data sources of predicates used by these rules.
+ *
+ * If the query has a constant argument, and the relevant rules contain neither
+ * existential variables nor negation, the rules are additionally rewritten with the magic sets technique: each derived
+ * predicate is <em>adorned</em> with the arguments that are bound (b) or free
+ * (f) when it is used, and <em>magic</em> predicates collect the bound
+ * arguments for which facts are needed, starting from the constants of the
+ * query. Bindings are passed from left to right through rule bodies. The
+ * materialisation of the rewritten knowledge base then only contains facts
+ * that are relevant for the query, and answering the rewritten query on it
+ * yields the answers of the original query on the original knowledge base.
+ *
+ * Magic sets are not applied to existential rules or rules with negation, since
+ * restricting the chase with magic predicates may change the answers of such
+ * rules. For these, only irrelevant rules are removed.
+ *
+ * The rewritten rules only depend on the predicate and the adornment of the
+ * query, and the constants of the query only occur in the magic fact of the
+ * query. A rewriting can therefore be reused for other queries with the same
+ * adornment by {@link #forQuery(PositiveLiteral)}.
+ */
+public final class MagicSetTransformation {
+
+	private static final String ADORNED_SEPARATOR = "#demand_";
+	private static final String MAGIC_SEPARATOR = "#magic_";
+
+	private final KnowledgeBase source;
+	private final PositiveLiteral query;
+	private final String queryAdornment;
+	private final boolean magicSetsApplied;
+	private final List<Rule> rules;
+	private final List<Fact> facts;
+	private final Fact magicSeed;
+	/**
+	 * Predicates whose facts and data sources are used by the rules.
+	 */
+	private final Set<Predicate> dataPredicates;
+
+	private KnowledgeBase knowledgeBase;
+
+	private MagicSetTransformation(final KnowledgeBase source, final PositiveLiteral query,
+			final String queryAdornment, final boolean magicSetsApplied, final List<Rule> rules,
+			final List<Fact> facts, final Fact magicSeed, final Set<Predicate> dataPredicates) {
+		this.source = source;
+		this.query = query;
+		this.queryAdornment = queryAdornment;
+		this.magicSetsApplied = magicSetsApplied;
+		this.rules = rules;
+		this.facts = facts;
+		this.magicSeed = magicSeed;
+		this.dataPredicates = dataPredicates;
+	}
+
+	/**
+	 * Returns the rewritten knowledge base, which contains the relevant facts of
+	 * the original knowledge base. It is created when this method is first
+	 * called, copying all relevant facts.
+	 *
+	 * @return the knowledge base to reason with
+	 */
+	public KnowledgeBase getKnowledgeBase() {
+		if (this.knowledgeBase == null) {
+			this.knowledgeBase = new KnowledgeBase(this.source.getFactStorage());
+			this.knowledgeBase.addStatements(this.rules);
+			if (this.magicSeed != null) {
+				this.knowledgeBase.addStatement(this.magicSeed);
+			}
+			this.knowledgeBase.addStatements(this.facts);
+			addFacts(this.source, this.dataPredicates, this.knowledgeBase);
+		}
+		return this.knowledgeBase;
+	}
+
+	/**
+	 * Returns the query to be answered over the materialisation of
+	 * {@link #getKnowledgeBase()}. Its terms are the terms of the original query,
+	 * but its predicate may be an adorned predicate.
+	 *
+	 * @return the rewritten query
+	 */
+	public PositiveLiteral getQuery() {
+		return this.query;
+	}
+
+	/**
+	 * Returns true if the rules have been rewritten with magic sets, and false if
+	 * irrelevant rules have only been removed.
+	 *
+	 * @return true if magic sets have been applied
+	 */
+	public boolean isMagicSetsApplied() {
+		return this.magicSetsApplied;
+	}
+
+	/**
+	 * Returns the rewritten rules. They only depend on the predicate and the
+	 * adornment of the query, and not on its constants.
+	 *
+	 * @return the rules of the rewritten knowledge base
+	 */
+	public List<Rule> getRules() {
+		return Collections.unmodifiableList(this.rules);
+	}
+
+	/**
+	 * Returns the facts for magic predicates that stem from constants in the
+	 * rules. Like the rules, they do not depend on the constants of the query.
+	 * Facts of the original knowledge base are not included.
+	 *
+	 * @return the magic facts of the rules
+	 */
+	public List<Fact> getMagicFacts() {
+		return Collections.unmodifiableList(this.facts);
+	}
+
+	/**
+	 * Returns the fact for the magic predicate of the query, which holds the
+	 * constants of the query, or null if magic sets have not been applied.
+	 *
+	 * @return the magic fact of the query, or null
+	 */
+	public Fact getMagicSeed() {
+		return this.magicSeed;
+	}
+
+	/**
+	 * Returns the predicates whose facts and data sources in the original
+	 * knowledge base are used by the rewritten rules.
+	 *
+	 * @return the predicates of the used data
+	 */
+	public Set<Predicate> getDataPredicates() {
+		return Collections.unmodifiableSet(this.dataPredicates);
+	}
+
+	/**
+	 * Returns the rewriting for another query with the same predicate and
+	 * adornment, which shares the rules of this rewriting and only differs in
+	 * the query and its magic fact.
+	 *
+	 * @param otherQuery a query with the same predicate and adornment as the
+	 *                   query this rewriting was created for
+	 * @return the rewriting for the other query
+	 */
+	public MagicSetTransformation forQuery(final PositiveLiteral otherQuery) {
+		Validate.notNull(otherQuery, "Query atom must not be null!");
+		final String otherAdornment = getAdornment(otherQuery);
+		Validate.isTrue(otherAdornment.equals(this.queryAdornment),
+				"Query %s does not have the adornment %s of this rewriting.", otherQuery, this.queryAdornment);
+		if (!this.magicSetsApplied) {
+			Validate.isTrue(this.query.getPredicate().equals(otherQuery.getPredicate()),
+					"Query %s does not have the predicate of this rewriting.", otherQuery);
+			return new MagicSetTransformation(this.source, otherQuery, this.queryAdornment, false, this.rules,
+					this.facts, null, this.dataPredicates);
+		}
+		final String adornedName = otherQuery.getPredicate().getName() + ADORNED_SEPARATOR + otherAdornment;
+		Validate.isTrue(this.query.getPredicate().getName().equals(adornedName)
+				&& this.query.getPredicate().getArity() == otherQuery.getPredicate().getArity(),
+				"Query %s does not have the predicate of this rewriting.", otherQuery);
+		final Fact otherSeed = Expressions.makeFact(this.magicSeed.getPredicate(),
+				boundTerms(otherQuery, otherAdornment));
+		return new MagicSetTransformation(this.source,
+				Expressions.makePositiveLiteral(this.query.getPredicate(), otherQuery.getArguments()),
+				this.queryAdornment, true, this.rules, this.facts, otherSeed, this.dataPredicates);
+	}
+
+	/**
+	 * Returns the adornment of a query: b for each constant argument, f for each
+	 * variable. Queries with the same predicate and adornment have the same
+	 * rewritten rules.
+	 *
+	 * @param query the atomic query
+	 * @return the adornment of the query
+	 */
+	public static String getAdornment(final PositiveLiteral query) {
+		return adornment(query.getArguments(), Collections.emptySet());
+	}
+
+	/**
+	 * Rewrites a knowledge base for answering the given query. The facts of the
+	 * knowledge base are only copied when {@link #getKnowledgeBase()} is called.
+	 *
+	 * @param knowledgeBase the knowledge base
+	 * @param query         the atomic query
+	 * @return the rewriting
+	 */
+	public static MagicSetTransformation rewrite(final KnowledgeBase knowledgeBase, final PositiveLiteral query) {
+		Validate.notNull(knowledgeBase, "Knowledge base cannot be null.");
+		Validate.notNull(query, "Query atom must not be null!");
+
+		final PredicateDependencyGraph graph = new PredicateDependencyGraph(knowledgeBase.getRules());
+		final Set<Predicate> queryPredicates = Collections.singleton(query.getPredicate());
+		final List<Rule> relevantRules = graph.getRelevantRules(queryPredicates);
+
+		final String queryAdornment = getAdornment(query);
+		final boolean applyMagicSets = queryAdornment.contains("b") && !relevantRules.isEmpty()
+				&& relevantRules.stream().allMatch(rule -> !rule.getExistentialVariables().findAny().isPresent()
+						&& rule.getBody().getLiterals().stream().noneMatch(Literal::isNegated));
+		if (!applyMagicSets) {
+			return new MagicSetTransformation(knowledgeBase, query, queryAdornment, false, relevantRules,
+					Collections.emptyList(), null, graph.getRelevantPredicates(queryPredicates));
+		}
+
+		final Rewriter rewriter = new Rewriter(knowledgeBase, graph);
+		rewriter.enqueue(query.getPredicate(), queryAdornment);
+		rewriter.run();
+
+		final Fact magicSeed = Expressions.makeFact(rewriter.magicPredicate(query.getPredicate(), queryAdornment),
+				boundTerms(query, queryAdornment));
+		return new MagicSetTransformation(knowledgeBase,
+				Expressions.makePositiveLiteral(rewriter.adornedPredicate(query.getPredicate(), queryAdornment),
+						query.getArguments()),
+				queryAdornment, true, rewriter.rules, rewriter.facts, magicSeed, rewriter.basePredicates);
+	}
+
+	/**
+	 * Adds the facts and data source declarations of the given predicates.
+	 */
+	private static void addFacts(final KnowledgeBase knowledgeBase, final Set<Predicate> predicates,
+			final KnowledgeBase rewritten) {
+		for (final Predicate predicate : predicates) {
+			rewritten.addStatements(knowledgeBase.getFacts(predicate));
+		}
+		for (final DataSourceDeclaration declaration : knowledgeBase.getDataSourceDeclarations()) {
+			if (predicates.contains(declaration.getPredicate())) {
+				rewritten.addStatement(declaration);
+			}
+		}
+	}
+
+	/**
+	 * Computes the adornment of a literal: b for arguments that are constants or
+	 * bound variables, f for other arguments.
+	 */
+	private static String adornment(final List<Term> arguments, final Set<Variable> boundVariables) {
+		final StringBuilder adornment = new StringBuilder(arguments.size());
+		for (final Term term : arguments) {
+			adornment.append(!term.isVariable() || boundVariables.contains(term) ? 'b' : 'f');
+		}
+		return adornment.toString();
+	}
+
+	private static List<Term> boundTerms(final Literal literal, final String adornment) {
+		final List<Term> terms = new ArrayList<>();
+		for (int i = 0; i < adornment.length(); i++) {
+			if (adornment.charAt(i) == 'b') {
+				terms.add(literal.getArguments().get(i));
+			}
+		}
+		return terms;
+	}
+
+	/**
+	 * Computes the adorned rules, processing adorned predicates breadth-first.
+	 */
+	private static final class Rewriter {
+		final KnowledgeBase knowledgeBase;
+		final PredicateDependencyGraph graph;
+		final Set<String> processed = new HashSet<>();
+		final Deque<Predicate> predicateQueue = new ArrayDeque<>();
+		final Deque<String> adornmentQueue = new ArrayDeque<>();
+
+		final List<Rule> rules = new ArrayList<>();
+		final List<Fact> facts = new ArrayList<>();
+		/**
+		 * Predicates whose facts and data sources are used by the adorned rules.
+		 */
+		final Set<Predicate> basePredicates = new HashSet<>();
+
+		Rewriter(final KnowledgeBase knowledgeBase, final PredicateDependencyGraph graph) {
+			this.knowledgeBase = knowledgeBase;
+			this.graph = graph;
+		}
+
+		void enqueue(final Predicate predicate, final String adornment) {
+			if (this.processed.add(predicate.getName() + '/' + predicate.getArity() + '/' + adornment)) {
+				this.predicateQueue.add(predicate);
+				this.adornmentQueue.add(adornment);
+			}
+		}
+
+		void run() {
+			while (!this.predicateQueue.isEmpty()) {
+				this.rewrite(this.predicateQueue.poll(), this.adornmentQueue.poll());
+			}
+		}
+
+		Predicate adornedPredicate(final Predicate predicate, final String adornment) {
+			return Expressions.makePredicate(predicate.getName() + ADORNED_SEPARATOR + adornment,
+					predicate.getArity());
+		}
+
+		/**
+		 * Returns the magic predicate for the given adornment, or null if no
+		 * argument is bound.
+		 */
+		Predicate magicPredicate(final Predicate predicate, final String adornment) {
+			final int boundCount = adornment.replace("f", "").length();
+			if (boundCount == 0) {
+				return null;
+			}
+			return Expressions.makePredicate(predicate.getName() + MAGIC_SEPARATOR + adornment, boundCount);
+		}
+
+		private PositiveLiteral magicLiteral(final Literal literal, final String adornment) {
+			final Predicate magicPredicate = this.magicPredicate(literal.getPredicate(), adornment);
+			return magicPredicate == null ? null
+					: Expressions.makePositiveLiteral(magicPredicate, boundTerms(literal, adornment));
+		}
+
+		private void rewrite(final Predicate predicate, final String adornment) {
+			final Predicate adornedPredicate = this.adornedPredicate(predicate, adornment);
+
+			// explicit facts of the predicate
+			final boolean hasFacts = !this.knowledgeBase.getFacts(predicate).isEmpty() || this.knowledgeBase
+					.getDataSourceDeclarations().stream().anyMatch(d -> d.getPredicate().equals(predicate));
+			if (hasFacts) {
+				final List<Term> variables = new ArrayList<>();
+				for (int i = 1; i <= predicate.getArity(); i++) {
+					variables.add(Expressions.makeUniversalVariable("X" + i));
+				}
+				final PositiveLiteral baseLiteral = Expressions.makePositiveLiteral(predicate, variables);
+				final List<Literal> body = new ArrayList<>();
+				final PositiveLiteral magicLiteral = this.magicLiteral(baseLiteral, adornment);
+				if (magicLiteral != null) {
+					body.add(magicLiteral);
+				}
+				body.add(baseLiteral);
+				this.rules.add(Expressions.makeRule(Expressions.makePositiveLiteral(adornedPredicate, variables),
+						body.toArray(new Literal[0])));
+				this.basePredicates.add(predicate);
+			}
+
+			for (final Rule rule : this.graph.getRules(predicate)) {
+				for (final PositiveLiteral headLiteral : rule.getHead()) {
+					if (headLiteral.getPredicate().equals(predicate)) {
+						this.rewrite(rule, headLiteral, adornedPredicate, adornment);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Rewrites a rule with a single head literal for the given adornment of its
+		 * head. Rules with several head literals are split, which does not change
+		 * their consequences since they have no existential variables.
+		 */
+		private void rewrite(final Rule rule, final PositiveLiteral headLiteral, final Predicate adornedPredicate,
+				final String adornment) {
+			final Set<Variable> boundVariables = new HashSet<>();
+			for (final Term term : boundTerms(headLiteral, adornment)) {
+				if (term.isVariable()) {
+					boundVariables.add((Variable) term);
+				}
+			}
+
+			final List<Literal> body = new ArrayList<>();
+			final PositiveLiteral headMagicLiteral = this.magicLiteral(headLiteral, adornment);
+			if (headMagicLiteral != null) {
+				body.add(headMagicLiteral);
+			}
+			for (final Literal literal : rule.getBody()) {
+				final Predicate predicate = literal.getPredicate();
+				if (!this.graph.getRules(predicate).isEmpty()) {
+					final String literalAdornment = adornment(literal.getArguments(), boundVariables);
+					this.enqueue(predicate, literalAdornment);
+					final PositiveLiteral magicLiteral = this.magicLiteral(literal, literalAdornment);
+					if (magicLiteral != null) {
+						if (body.isEmpty()) {
+							// all bound arguments are constants
+							this.facts.add(Expressions.makeFact(magicLiteral.getPredicate(), magicLiteral.getArguments()));
+						} else {
+							this.rules.add(Expressions.makeRule(magicLiteral, body.toArray(new Literal[0])));
+						}
+					}
+					body.add(Expressions.makePositiveLiteral(this.adornedPredicate(predicate, literalAdornment),
+							literal.getArguments()));
+				} else {
+					body.add(literal);
+					this.basePredicates.add(predicate);
+				}
+				literal.getVariables().forEach(boundVariables::add);
+			}
+			this.rules.add(Expressions.makeRule(
+					Expressions.makePositiveLiteral(adornedPredicate, headLiteral.getArguments()),
+					body.toArray(new Literal[0])));
+		}
+	}
+
+}
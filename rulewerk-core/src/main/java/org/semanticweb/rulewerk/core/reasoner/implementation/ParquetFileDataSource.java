@@ -0,0 +1,200 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+/**
+ * A {@code ParquetFileDataSource} stores facts in the rows of an Apache Parquet
+ * file. Each fact consists of the values of the selected columns of one row, in
+ * the given order; if no columns are selected, all columns of the file are used
+ * in the order of its schema. Rows with a null value in a selected column are
+ * ignored.
+ * <p>
+ * Rows can be restricted to those in which a column has a given value. Such
+ * filters are evaluated by the reader before the selected columns are decoded,
+ * and row groups whose statistics exclude the value are not read at all.
+ * <p>
+ * Values of {@code BYTE_ARRAY} columns are read as the names of constants, as
+ * for {@link InMemoryDataSource#addTuple(String...)}. Values of numeric and
+ * boolean columns are read as datatype constants of type {@code xsd:integer},
+ * {@code xsd:float}, {@code xsd:double}, or {@code xsd:boolean}. The file is
+ * read with {@link ParquetFileReader}, which supports flat schemas with
+ * uncompressed, Snappy, gzip, or Zstandard compressed pages. The latter
+ * requires {@code com.github.luben:zstd-jni} on the class path.
+ */
+public class ParquetFileDataSource extends FileDataSource {
+
+	/**
+	 * The name of the predicate used for declarations of data sources of this type.
+	 */
+	public static final String declarationPredicateName = "parquet";
+
+	private static final Iterable<String> possibleExtensions = Collections.singletonList(".parquet");
+
+	private final List<String> columns;
+	private final Map<String, String> filters;
+
+	/**
+	 * Creates a data source for all columns of the given file.
+	 *
+	 * @param parquetFile path to a Parquet file
+	 * @throws IOException if the path of the file is invalid
+	 */
+	public ParquetFileDataSource(final String parquetFile) throws IOException {
+		this(parquetFile, Collections.emptyList());
+	}
+
+	/**
+	 * Creates a data source for the given columns of the given file.
+	 *
+	 * @param parquetFile path to a Parquet file
+	 * @param columns     names of the columns that form the facts, or none for
+	 *                    all columns of the file
+	 * @throws IOException if the path of the file is invalid
+	 */
+	public ParquetFileDataSource(final String parquetFile, final String... columns) throws IOException {
+		this(parquetFile, Arrays.asList(columns));
+	}
+
+	/**
+	 * Creates a data source for the given columns of the given file.
+	 *
+	 * @param parquetFile path to a Parquet file
+	 * @param columns     names of the columns that form the facts, or an empty
+	 *                    list for all columns of the file
+	 * @throws IOException if the path of the file is invalid
+	 */
+	public ParquetFileDataSource(final String parquetFile, final List<String> columns) throws IOException {
+		this(parquetFile, columns, Collections.emptyMap());
+	}
+
+	/**
+	 * Creates a data source for the given columns of the rows of the given file
+	 * that match the given filters.
+	 *
+	 * @param parquetFile path to a Parquet file
+	 * @param columns     names of the columns that form the facts, or an empty
+	 *                    list for all columns of the file
+	 * @param filters     map from names of columns to the value that the column
+	 *                    must have in a row, given as the string representation
+	 *                    of the value before it is converted to a constant
+	 * @throws IOException if the path of the file is invalid
+	 */
+	public ParquetFileDataSource(final String parquetFile, final List<String> columns,
+			final Map<String, String> filters) throws IOException {
+		super(parquetFile, possibleExtensions);
+		Validate.noNullElements(columns, "Null columns are not allowed! The list contains a null at position [%d].");
+		Validate.notNull(filters, "Filters cannot be null.");
+		for (final Entry<String, String> filter : filters.entrySet()) {
+			Validate.notBlank(filter.getKey(), "Filtered column name cannot be blank.");
+			Validate.notNull(filter.getValue(), "Filter value cannot be null.");
+		}
+		this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+		this.filters = Collections.unmodifiableMap(new LinkedHashMap<>(filters));
+	}
+
+	/**
+	 * Returns the names of the selected columns.
+	 *
+	 * @return the column names, empty if all columns are selected
+	 */
+	public List<String> getColumns() {
+		return this.columns;
+	}
+
+	/**
+	 * Returns the filters that rows must match.
+	 *
+	 * @return map from column names to the required values
+	 */
+	public Map<String, String> getFilters() {
+		return this.filters;
+	}
+
+	@Override
+	public void accept(final DataSourceConfigurationVisitor visitor) throws IOException {
+		visitor.visit(this);
+	}
+
+	@Override
+	String getDeclarationPredicateName() {
+		return declarationPredicateName;
+	}
+
+	/**
+	 * Returns a fact whose arguments are the path, the selected columns, and the
+	 * filters in the form {@code column=value}.
+	 */
+	@Override
+	public Fact getDeclarationFact() {
+		final List<Term> arguments = new ArrayList<>();
+		arguments.add(Expressions.makeDatatypeConstant(getPath(), PrefixDeclarationRegistry.XSD_STRING));
+		for (final String column : this.columns) {
+			arguments.add(Expressions.makeDatatypeConstant(column, PrefixDeclarationRegistry.XSD_STRING));
+		}
+		for (final Entry<String, String> filter : this.filters.entrySet()) {
+			arguments.add(Expressions.makeDatatypeConstant(filter.getKey() + "=" + filter.getValue(),
+					PrefixDeclarationRegistry.XSD_STRING));
+		}
+		final Predicate predicate = Expressions.makePredicate(declarationPredicateName, arguments.size());
+		return Expressions.makeFact(predicate, arguments);
+	}
+
+	@Override
+	public String toString() {
+		return "ParquetFileDataSource [parquetFile=" + this.getFile() + ", columns=" + this.columns + ", filters="
+				+ this.filters + "]";
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * super.hashCode() + this.columns.hashCode()) + this.filters.hashCode();
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ParquetFileDataSource)) {
+			return false;
+		}
+		final ParquetFileDataSource other = (ParquetFileDataSource) obj;
+		return this.getFile().equals(other.getFile()) && this.columns.equals(other.columns)
+				&& this.filters.equals(other.filters);
+	}
+
+}
@@ -0,0 +1,1238 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFilesReader.TupleBatchConsumer;
+
+/**
+ * Reads the facts of a {@link ParquetFileDataSource} and passes them in batches
+ * to a {@link TupleBatchConsumer}. Only the column chunks of selected and
+ * filtered columns are read from the file, and each row group is decoded by a
+ * separate task of an {@link ExecutorService}.
+ * <p>
+ * Filters are pushed down: row groups whose column statistics exclude a
+ * filtered value are skipped without reading them, and the selected columns of
+ * a row group are only decoded if some row matches all filters. Pages are
+ * decoded column by column into arrays of values. Dictionary-encoded values are
+ * converted into terms once per dictionary entry, so that all occurrences of a
+ * value in a column chunk share the same {@link String} instance.
+ * <p>
+ * The reader supports flat schemas of required and optional columns of the
+ * physical types {@code BOOLEAN}, {@code INT32}, {@code INT64}, {@code FLOAT},
+ * {@code DOUBLE}, and {@code BYTE_ARRAY}, in data pages of version 1 or 2 with
+ * plain or dictionary encoding.
+ */
+public class ParquetFileReader {
+
+	/**
+	 * Default maximal number of tuples in one batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = CsvFilesReader.DEFAULT_BATCH_SIZE;
+
+	private static final byte[] MAGIC = { 'P', 'A', 'R', '1' };
+
+	private static final int TYPE_BOOLEAN = 0;
+	private static final int TYPE_INT32 = 1;
+	private static final int TYPE_INT64 = 2;
+	private static final int TYPE_FLOAT = 4;
+	private static final int TYPE_DOUBLE = 5;
+	private static final int TYPE_BYTE_ARRAY = 6;
+
+	private static final int REPETITION_OPTIONAL = 1;
+	private static final int REPETITION_REPEATED = 2;
+
+	private static final int ENCODING_PLAIN = 0;
+	private static final int ENCODING_PLAIN_DICTIONARY = 2;
+	private static final int ENCODING_RLE_DICTIONARY = 8;
+
+	private static final int CODEC_UNCOMPRESSED = 0;
+	private static final int CODEC_SNAPPY = 1;
+	private static final int CODEC_GZIP = 2;
+	private static final int CODEC_ZSTD = 6;
+
+	private static final int PAGE_DATA = 0;
+	private static final int PAGE_DICTIONARY = 2;
+	private static final int PAGE_DATA_V2 = 3;
+
+	private final ParquetFileDataSource dataSource;
+	private final int arity;
+	private UnaryOperator<String> termConverter = UnaryOperator.identity();
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private final AtomicInteger skippedRowGroups = new AtomicInteger();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataSource the data source to read
+	 * @param arity      the number of selected columns that is expected
+	 */
+	public ParquetFileReader(final ParquetFileDataSource dataSource, final int arity) {
+		Validate.notNull(dataSource, "Data source cannot be null.");
+		Validate.isTrue(arity > 0, "Arity must be greater than 0: %d", arity);
+		this.dataSource = dataSource;
+		this.arity = arity;
+	}
+
+	/**
+	 * Sets a function that converts the name of each constant that is read into
+	 * the term that is passed to the consumer. The function must be thread-safe.
+	 * By default, names are passed unchanged.
+	 *
+	 * @param termConverter the conversion of constant names
+	 */
+	public void setTermConverter(final UnaryOperator<String> termConverter) {
+		Validate.notNull(termConverter, "Term converter cannot be null.");
+		this.termConverter = termConverter;
+	}
+
+	/**
+	 * Sets the maximal number of tuples in one batch.
+	 *
+	 * @param batchSize the batch size, greater than 0
+	 */
+	public void setBatchSize(final int batchSize) {
+		Validate.isTrue(batchSize > 0, "Batch size must be greater than 0: %d", batchSize);
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Returns the number of row groups that were skipped so far, because their
+	 * statistics showed that they contain no row that matches the filters.
+	 *
+	 * @return the number of skipped row groups
+	 */
+	public int getSkippedRowGroups() {
+		return this.skippedRowGroups.get();
+	}
+
+	/**
+	 * Reads the file of the data source, using one task of the given executor per
+	 * row group. The consumer may be called concurrently from several threads and
+	 * must therefore be thread-safe. Tuples of the same row group are passed to
+	 * the consumer in the order of the file. The method returns when the file has
+	 * been read.
+	 *
+	 * @param consumer the thread-safe action for each batch of tuples
+	 * @param executor the executor for running the tasks, or null to read all row
+	 *                 groups in the calling thread
+	 * @return the number of tuples read
+	 * @throws IOException if the file cannot be read, is not a supported Parquet
+	 *                     file, or does not have the selected columns
+	 */
+	public long read(final TupleBatchConsumer consumer, final ExecutorService executor) throws IOException {
+		Validate.notNull(consumer, "Consumer cannot be null.");
+
+		try (FileChannel channel = FileChannel.open(this.dataSource.getFile().toPath(), StandardOpenOption.READ)) {
+			final FileMetaData metaData = this.readFileMetaData(channel);
+			final List<Column> columns = this.selectColumns(metaData);
+			final List<Column> filterColumns = new ArrayList<>();
+			final List<String> filterValues = new ArrayList<>();
+			for (final Entry<String, String> filter : this.dataSource.getFilters().entrySet()) {
+				filterColumns.add(this.findColumn(metaData, filter.getKey()));
+				filterValues.add(filter.getValue());
+			}
+
+			long tuples = 0;
+			if (executor == null) {
+				for (final RowGroup rowGroup : metaData.rowGroups) {
+					tuples += new RowGroupReader(channel, rowGroup, columns, filterColumns, filterValues, consumer)
+							.read();
+				}
+				return tuples;
+			}
+
+			final List<Future<Long>> futures = new ArrayList<>();
+			for (final RowGroup rowGroup : metaData.rowGroups) {
+				futures.add(executor.submit(
+						() -> new RowGroupReader(channel, rowGroup, columns, filterColumns, filterValues, consumer)
+								.read()));
+			}
+			try {
+				for (final Future<Long> future : futures) {
+					tuples += future.get();
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RulewerkRuntimeException("Interrupted while reading file.", e);
+			} catch (final ExecutionException e) {
+				final Throwable cause = e.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				} else if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else {
+					throw new RulewerkRuntimeException(cause);
+				}
+			} finally {
+				for (final Future<Long> future : futures) {
+					future.cancel(true);
+				}
+			}
+			return tuples;
+		}
+	}
+
+	private List<Column> selectColumns(final FileMetaData metaData) throws IOException {
+		final List<Column> columns = new ArrayList<>();
+		if (this.dataSource.getColumns().isEmpty()) {
+			columns.addAll(metaData.columns);
+		} else {
+			for (final String name : this.dataSource.getColumns()) {
+				columns.add(this.findColumn(metaData, name));
+			}
+		}
+		if (columns.size() != this.arity) {
+			throw new IOException(this.dataSource.getFile() + ": " + columns.size()
+					+ " columns are selected, but expected " + this.arity + ".");
+		}
+		for (final Column column : columns) {
+			this.checkSupported(column);
+		}
+		return columns;
+	}
+
+	private Column findColumn(final FileMetaData metaData, final String name) throws IOException {
+		for (final Column column : metaData.columns) {
+			if (column.name.equals(name)) {
+				this.checkSupported(column);
+				return column;
+			}
+		}
+		throw new IOException(this.dataSource.getFile() + ": there is no column " + name + ".");
+	}
+
+	private void checkSupported(final Column column) throws IOException {
+		if (column.nested) {
+			throw new IOException(
+					this.dataSource.getFile() + ": column " + column.name + " is nested or repeated, which is not supported.");
+		}
+		switch (column.type) {
+		case TYPE_BOOLEAN:
+		case TYPE_INT32:
+		case TYPE_INT64:
+		case TYPE_FLOAT:
+		case TYPE_DOUBLE:
+		case TYPE_BYTE_ARRAY:
+			return;
+		default:
+			throw new IOException(this.dataSource.getFile() + ": column " + column.name + " has the physical type "
+					+ column.type + ", which is not supported.");
+		}
+	}
+
+	private FileMetaData readFileMetaData(final FileChannel channel) throws IOException {
+		final long fileSize = channel.size();
+		if (fileSize < 12) {
+			throw new IOException(this.dataSource.getFile() + " is not a Parquet file.");
+		}
+		final byte[] tail = readFully(channel, fileSize - 8, 8);
+		if (!Arrays.equals(MAGIC, Arrays.copyOfRange(tail, 4, 8))) {
+			throw new IOException(this.dataSource.getFile() + " is not a Parquet file.");
+		}
+		final long footerLength = (tail[0] & 0xffL) | (tail[1] & 0xffL) << 8 | (tail[2] & 0xffL) << 16
+				| (tail[3] & 0xffL) << 24;
+		if (footerLength > fileSize - 12) {
+			throw new IOException(this.dataSource.getFile() + ": invalid footer length " + footerLength + ".");
+		}
+		final byte[] footer = readFully(channel, fileSize - 8 - footerLength, (int) footerLength);
+		return new FileMetaData(new ThriftReader(footer, 0, footer.length));
+	}
+
+	private static byte[] readFully(final FileChannel channel, final long position, final int length)
+			throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Unexpected end of file.");
+			}
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * Reads the selected columns of one row group.
+	 */
+	private final class RowGroupReader {
+		private final FileChannel channel;
+		private final RowGroup rowGroup;
+		private final List<Column> columns;
+		private final List<Column> filterColumns;
+		private final List<String> filterValues;
+		private final TupleBatchConsumer consumer;
+
+		RowGroupReader(final FileChannel channel, final RowGroup rowGroup, final List<Column> columns,
+				final List<Column> filterColumns, final List<String> filterValues, final TupleBatchConsumer consumer) {
+			this.channel = channel;
+			this.rowGroup = rowGroup;
+			this.columns = columns;
+			this.filterColumns = filterColumns;
+			this.filterValues = filterValues;
+			this.consumer = consumer;
+		}
+
+		long read() throws IOException {
+			if (this.rowGroup.numRows == 0) {
+				return 0;
+			}
+			for (int i = 0; i < this.filterColumns.size(); i++) {
+				if (!this.mayContain(this.filterColumns.get(i), this.filterValues.get(i))) {
+					ParquetFileReader.this.skippedRowGroups.incrementAndGet();
+					return 0;
+				}
+			}
+
+			final int rows = Math.toIntExact(this.rowGroup.numRows);
+			final boolean[] selected = new boolean[rows];
+			Arrays.fill(selected, true);
+			for (int i = 0; i < this.filterColumns.size(); i++) {
+				final String[] values = this.decode(this.filterColumns.get(i), false);
+				final String filterValue = this.filterValues.get(i);
+				boolean any = false;
+				for (int row = 0; row < rows; row++) {
+					selected[row] = selected[row] && filterValue.equals(values[row]);
+					any |= selected[row];
+				}
+				if (!any) {
+					return 0;
+				}
+			}
+
+			final String[][] columnTerms = new String[this.columns.size()][];
+			for (int i = 0; i < columnTerms.length; i++) {
+				final Column column = this.columns.get(i);
+				final int filterIndex = this.filterColumns.indexOf(column);
+				if (filterIndex >= 0) { // all selected rows have the filter value
+					final String[] terms = new String[rows];
+					Arrays.fill(terms, ParquetFileReader.this.toTerm(column, this.filterValues.get(filterIndex)));
+					columnTerms[i] = terms;
+				} else {
+					columnTerms[i] = this.decode(column, true);
+				}
+			}
+
+			final int batchSize = ParquetFileReader.this.batchSize;
+			String[][] batch = new String[Math.min(batchSize, rows)][];
+			int batchLength = 0;
+			long tuples = 0;
+			for (int row = 0; row < rows; row++) {
+				if (!selected[row]) {
+					continue;
+				}
+				final String[] tuple = new String[columnTerms.length];
+				boolean complete = true;
+				for (int i = 0; i < tuple.length && complete; i++) {
+					tuple[i] = columnTerms[i][row];
+					complete = tuple[i] != null; // facts cannot have null values
+				}
+				if (!complete) {
+					continue;
+				}
+				batch[batchLength++] = tuple;
+				tuples++;
+				if (batchLength == batch.length) {
+					this.consumer.accept(batch);
+					batch = new String[batch.length][];
+					batchLength = 0;
+				}
+			}
+			if (batchLength > 0) {
+				this.consumer.accept(Arrays.copyOf(batch, batchLength));
+			}
+			return tuples;
+		}
+
+		/**
+		 * Returns false if the statistics of the column chunk show that the column
+		 * does not have the given value in this row group.
+		 */
+		private boolean mayContain(final Column column, final String value) {
+			final ColumnChunk chunk = this.rowGroup.columns.get(column.index);
+			if (chunk.minValue == null || chunk.maxValue == null) {
+				return true;
+			}
+			switch (column.type) {
+			case TYPE_INT32:
+			case TYPE_INT64:
+				final long number;
+				try {
+					number = Long.parseLong(value);
+				} catch (final NumberFormatException e) {
+					return false;
+				}
+				return readLittleEndian(chunk.minValue) <= number && number <= readLittleEndian(chunk.maxValue);
+			case TYPE_BYTE_ARRAY:
+				if (!chunk.unsignedStatistics) {
+					return true;
+				}
+				final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				return compareUnsigned(chunk.minValue, bytes) <= 0 && compareUnsigned(bytes, chunk.maxValue) <= 0;
+			default:
+				return true;
+			}
+		}
+
+		/**
+		 * Decodes all values of the given column in this row group, using null for
+		 * null values.
+		 *
+		 * @param column   the column
+		 * @param toTerms  whether to convert values to terms, or return them in their
+		 *                 string representation
+		 */
+		private String[] decode(final Column column, final boolean toTerms) throws IOException {
+			final ColumnChunk chunk = this.rowGroup.columns.get(column.index);
+			final byte[] data = readFully(this.channel, chunk.getStartOffset(),
+					Math.toIntExact(chunk.totalCompressedSize));
+			final String[] values = new String[Math.toIntExact(this.rowGroup.numRows)];
+			String[] dictionary = null;
+			int position = 0;
+			int valueCount = 0;
+			while (valueCount < chunk.numValues && position < data.length) {
+				final ThriftReader reader = new ThriftReader(data, position, data.length);
+				final PageHeader header = new PageHeader(reader);
+				position = reader.position;
+				final int pageEnd = position + header.compressedPageSize;
+				if (pageEnd > data.length || header.compressedPageSize < 0) {
+					throw this.invalid(column, "page exceeds column chunk");
+				}
+
+				if (header.type == PAGE_DICTIONARY) {
+					final byte[] page = decompress(chunk.codec, data, position, header.compressedPageSize,
+							header.uncompressedPageSize);
+					if (header.encoding != ENCODING_PLAIN && header.encoding != ENCODING_PLAIN_DICTIONARY) {
+						throw this.invalid(column, "unsupported dictionary encoding " + header.encoding);
+					}
+					dictionary = new String[header.numValues];
+					decodePlain(column, page, 0, page.length, dictionary, 0, header.numValues);
+					if (toTerms) {
+						for (int i = 0; i < dictionary.length; i++) {
+							dictionary[i] = ParquetFileReader.this.toTerm(column, dictionary[i]);
+						}
+					}
+				} else if (header.type == PAGE_DATA || header.type == PAGE_DATA_V2) {
+					if (valueCount + header.numValues > values.length) {
+						throw this.invalid(column, "more values than rows");
+					}
+					final boolean[] defined = new boolean[header.numValues];
+					final byte[] page;
+					int offset;
+					if (header.type == PAGE_DATA) {
+						page = decompress(chunk.codec, data, position, header.compressedPageSize,
+								header.uncompressedPageSize);
+						offset = 0;
+						if (column.optional) {
+							checkAvailable(page, 0, 4);
+							final int levelsLength = (int) readLittleEndian(Arrays.copyOfRange(page, 0, 4));
+							checkAvailable(page, 4, levelsLength);
+							decodeDefinitionLevels(page, 4, 4 + levelsLength, defined);
+							offset = 4 + levelsLength;
+						} else {
+							Arrays.fill(defined, true);
+						}
+					} else {
+						final int levelsEnd = position + header.repetitionLevelsLength + header.definitionLevelsLength;
+						if (levelsEnd > pageEnd) {
+							throw this.invalid(column, "levels exceed page");
+						}
+						if (column.optional) {
+							decodeDefinitionLevels(data, position + header.repetitionLevelsLength, levelsEnd,
+									defined);
+						} else {
+							Arrays.fill(defined, true);
+						}
+						if (header.compressed) {
+							page = decompress(chunk.codec, data, levelsEnd, pageEnd - levelsEnd,
+									header.uncompressedPageSize - header.repetitionLevelsLength
+											- header.definitionLevelsLength);
+							offset = 0;
+						} else {
+							page = data;
+							offset = levelsEnd;
+						}
+					}
+					final int pageLength = page == data ? pageEnd : page.length;
+
+					int nonNull = 0;
+					for (final boolean isDefined : defined) {
+						if (isDefined) {
+							nonNull++;
+						}
+					}
+					final String[] pageValues = new String[nonNull];
+					if (header.encoding == ENCODING_PLAIN) {
+						decodePlain(column, page, offset, pageLength, pageValues, 0, nonNull);
+						if (toTerms) {
+							for (int i = 0; i < nonNull; i++) {
+								pageValues[i] = ParquetFileReader.this.toTerm(column, pageValues[i]);
+							}
+						}
+					} else if (header.encoding == ENCODING_PLAIN_DICTIONARY
+							|| header.encoding == ENCODING_RLE_DICTIONARY) {
+						if (dictionary == null) {
+							throw this.invalid(column, "dictionary-encoded page without dictionary");
+						}
+						if (nonNull > 0) {
+							checkAvailable(page, offset, 1);
+							final int[] indices = new int[nonNull];
+							decodeHybrid(page, offset + 1, pageLength, page[offset], indices);
+							for (int i = 0; i < nonNull; i++) {
+								if (indices[i] < 0 || indices[i] >= dictionary.length) {
+									throw this.invalid(column, "dictionary index out of range");
+								}
+								pageValues[i] = dictionary[indices[i]];
+							}
+						}
+					} else {
+						throw this.invalid(column, "unsupported encoding " + header.encoding);
+					}
+
+					int pageValue = 0;
+					for (int i = 0; i < defined.length; i++) {
+						values[valueCount++] = defined[i] ? pageValues[pageValue++] : null;
+					}
+				}
+				position = pageEnd;
+			}
+			if (valueCount != values.length) {
+				throw this.invalid(column, "expected " + values.length + " values, but found " + valueCount);
+			}
+			return values;
+		}
+
+		private IOException invalid(final Column column, final String message) {
+			return new IOException(
+					ParquetFileReader.this.dataSource.getFile() + ": invalid column chunk " + column.name + ": " + message + ".");
+		}
+	}
+
+	/**
+	 * Converts the string representation of a value of the given column to a
+	 * term.
+	 */
+	private String toTerm(final Column column, final String value) {
+		switch (column.type) {
+		case TYPE_BOOLEAN:
+			return this.termConverter.apply(datatypeConstantName(value, PrefixDeclarationRegistry.XSD_BOOLEAN));
+		case TYPE_INT32:
+		case TYPE_INT64:
+			return this.termConverter.apply(datatypeConstantName(value, PrefixDeclarationRegistry.XSD_INTEGER));
+		case TYPE_FLOAT:
+			return this.termConverter.apply(datatypeConstantName(value, PrefixDeclarationRegistry.XSD_FLOAT));
+		case TYPE_DOUBLE:
+			return this.termConverter.apply(datatypeConstantName(value, PrefixDeclarationRegistry.XSD_DOUBLE));
+		default:
+			return this.termConverter.apply(value);
+		}
+	}
+
+	private static String datatypeConstantName(final String lexicalValue, final String datatype) {
+		return "\"" + lexicalValue + "\"^^<" + datatype + ">";
+	}
+
+	/**
+	 * Decodes {@code count} plain-encoded values into their string
+	 * representation.
+	 */
+	private static void decodePlain(final Column column, final byte[] data, int position, final int end,
+			final String[] values, final int offset, final int count) throws IOException {
+		switch (column.type) {
+		case TYPE_BOOLEAN:
+			checkAvailable(data, position, (count + 7) / 8, end);
+			for (int i = 0; i < count; i++) {
+				values[offset + i] = Boolean.toString((data[position + i / 8] >>> (i % 8) & 1) != 0);
+			}
+			break;
+		case TYPE_INT32:
+			checkAvailable(data, position, 4L * count, end);
+			for (int i = 0; i < count; i++, position += 4) {
+				values[offset + i] = Integer.toString(readInt(data, position));
+			}
+			break;
+		case TYPE_INT64:
+			checkAvailable(data, position, 8L * count, end);
+			for (int i = 0; i < count; i++, position += 8) {
+				values[offset + i] = Long.toString(readLong(data, position));
+			}
+			break;
+		case TYPE_FLOAT:
+			checkAvailable(data, position, 4L * count, end);
+			for (int i = 0; i < count; i++, position += 4) {
+				values[offset + i] = Float.toString(Float.intBitsToFloat(readInt(data, position)));
+			}
+			break;
+		case TYPE_DOUBLE:
+			checkAvailable(data, position, 8L * count, end);
+			for (int i = 0; i < count; i++, position += 8) {
+				values[offset + i] = Double.toString(Double.longBitsToDouble(readLong(data, position)));
+			}
+			break;
+		default: // BYTE_ARRAY
+			for (int i = 0; i < count; i++) {
+				checkAvailable(data, position, 4, end);
+				final int length = readInt(data, position);
+				position += 4;
+				checkAvailable(data, position, length, end);
+				values[offset + i] = new String(data, position, length, StandardCharsets.UTF_8);
+				position += length;
+			}
+		}
+	}
+
+	/**
+	 * Decodes definition levels of an optional column of a flat schema, which
+	 * are encoded with the RLE/bit-packing hybrid and bit width 1.
+	 */
+	private static void decodeDefinitionLevels(final byte[] data, final int position, final int end,
+			final boolean[] defined) throws IOException {
+		final int[] levels = new int[defined.length];
+		decodeHybrid(data, position, end, 1, levels);
+		for (int i = 0; i < levels.length; i++) {
+			defined[i] = levels[i] == 1;
+		}
+	}
+
+	/**
+	 * Decodes {@code values.length} integers that are encoded with the
+	 * RLE/bit-packing hybrid encoding of Parquet, starting with the header of the
+	 * first run.
+	 */
+	private static void decodeHybrid(final byte[] data, int position, final int end, final int bitWidth,
+			final int[] values) throws IOException {
+		if (bitWidth < 0 || bitWidth > 32) {
+			throw new IOException("Invalid bit width " + bitWidth + ".");
+		}
+		final int valueBytes = (bitWidth + 7) / 8;
+		final long mask = (1L << bitWidth) - 1;
+		int count = 0;
+		while (count < values.length) {
+			long header = 0;
+			int shift = 0;
+			byte b;
+			do {
+				checkAvailable(data, position, 1, end);
+				b = data[position++];
+				header |= (long) (b & 0x7f) << shift;
+				shift += 7;
+			} while (b < 0 && shift < 35);
+
+			if ((header & 1) == 0) { // run of repeated values
+				final long runLength = header >>> 1;
+				checkAvailable(data, position, valueBytes, end);
+				int value = 0;
+				for (int i = 0; i < valueBytes; i++) {
+					value |= (data[position++] & 0xff) << (8 * i);
+				}
+				final int limit = (int) Math.min(values.length, count + runLength);
+				Arrays.fill(values, count, limit, value);
+				count = limit;
+			} else { // groups of 8 bit-packed values
+				final long runLength = (header >>> 1) * 8;
+				final int limit = (int) Math.min(values.length, count + runLength);
+				final int runEnd = (int) Math.min(end, position + (header >>> 1) * bitWidth);
+				long buffer = 0;
+				int bufferedBits = 0;
+				while (count < limit) {
+					while (bufferedBits < bitWidth) {
+						// the last group may be shorter than specified
+						final long next = position < runEnd ? data[position] & 0xff : 0;
+						position++;
+						buffer |= next << bufferedBits;
+						bufferedBits += 8;
+					}
+					values[count++] = (int) (buffer & mask);
+					buffer >>>= bitWidth;
+					bufferedBits -= bitWidth;
+				}
+				position = runEnd;
+			}
+		}
+	}
+
+	private static byte[] decompress(final int codec, final byte[] data, final int position, final int length,
+			final int uncompressedLength) throws IOException {
+		switch (codec) {
+		case CODEC_UNCOMPRESSED:
+			return Arrays.copyOfRange(data, position, position + length);
+		case CODEC_SNAPPY:
+			return SnappyDecompressor.decompress(data, position, length);
+		case CODEC_GZIP:
+			final byte[] output = new byte[uncompressedLength];
+			try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(data, position, length))) {
+				int read = 0;
+				while (read < output.length) {
+					final int n = input.read(output, read, output.length - read);
+					if (n < 0) {
+						throw new IOException("Invalid gzip data: unexpected end of data.");
+					}
+					read += n;
+				}
+			}
+			return output;
+		case CODEC_ZSTD:
+			try {
+				return com.github.luben.zstd.Zstd.decompress(Arrays.copyOfRange(data, position, position + length),
+						uncompressedLength);
+			} catch (final NoClassDefFoundError e) {
+				throw new RulewerkRuntimeException(
+						"Reading Zstandard-compressed pages requires com.github.luben:zstd-jni on the class path.", e);
+			}
+		default:
+			throw new IOException("Unsupported compression codec " + codec + ".");
+		}
+	}
+
+	private static void checkAvailable(final byte[] data, final int position, final long length) throws IOException {
+		checkAvailable(data, position, length, data.length);
+	}
+
+	private static void checkAvailable(final byte[] data, final int position, final long length, final int end)
+			throws IOException {
+		if (length < 0 || length > end - position) {
+			throw new IOException("Unexpected end of Parquet page.");
+		}
+	}
+
+	private static int readInt(final byte[] data, final int position) {
+		return (data[position] & 0xff) | (data[position + 1] & 0xff) << 8 | (data[position + 2] & 0xff) << 16
+				| (data[position + 3] & 0xff) << 24;
+	}
+
+	private static long readLong(final byte[] data, final int position) {
+		return (readInt(data, position) & 0xffffffffL) | (long) readInt(data, position + 4) << 32;
+	}
+
+	/**
+	 * Reads a signed little-endian integer of 4 or 8 bytes.
+	 */
+	private static long readLittleEndian(final byte[] bytes) {
+		return bytes.length >= 8 ? readLong(bytes, 0) : readInt(bytes, 0);
+	}
+
+	private static int compareUnsigned(final byte[] left, final byte[] right) {
+		for (int i = 0; i < left.length && i < right.length; i++) {
+			final int difference = (left[i] & 0xff) - (right[i] & 0xff);
+			if (difference != 0) {
+				return difference;
+			}
+		}
+		return left.length - right.length;
+	}
+
+	/**
+	 * Leaf column of the schema of a file.
+	 */
+	private static final class Column {
+		final String name;
+		final int index;
+		final int type;
+		final boolean optional;
+		final boolean nested;
+
+		Column(final String name, final int index, final int type, final boolean optional, final boolean nested) {
+			this.name = name;
+			this.index = index;
+			this.type = type;
+			this.optional = optional;
+			this.nested = nested;
+		}
+	}
+
+	/**
+	 * The parts of the {@code FileMetaData} structure of the Parquet format that
+	 * are needed for reading.
+	 */
+	private static final class FileMetaData {
+		final List<Column> columns = new ArrayList<>();
+		final List<RowGroup> rowGroups = new ArrayList<>();
+
+		FileMetaData(final ThriftReader reader) throws IOException {
+			final List<SchemaElement> schema = new ArrayList<>();
+			int fieldId = 0;
+			int type;
+			while ((type = reader.readFieldHeader(fieldId)) != ThriftReader.STOP) {
+				fieldId = reader.fieldId;
+				if (fieldId == 2 && type == ThriftReader.LIST) {
+					final int size = reader.readListHeader();
+					for (int i = 0; i < size; i++) {
+						schema.add(new SchemaElement(reader));
+					}
+				} else if (fieldId == 4 && type == ThriftReader.LIST) {
+					final int size = reader.readListHeader();
+					for (int i = 0; i < size; i++) {
+						this.rowGroups.add(new RowGroup(reader));
+					}
+				} else {
+					reader.skip(type);
+				}
+			}
+			if (schema.isEmpty()) {
+				throw new IOException("Parquet file has no schema.");
+			}
+			int next = 1;
+			for (int i = 0; i < schema.get(0).numChildren; i++) {
+				next = this.addColumns(schema, next, "", false);
+			}
+			for (final RowGroup rowGroup : this.rowGroups) {
+				if (rowGroup.columns.size() != this.columns.size()) {
+					throw new IOException("Parquet row group has " + rowGroup.columns.size() + " columns, but schema has "
+							+ this.columns.size() + ".");
+				}
+			}
+		}
+
+		/**
+		 * Adds the leaf columns of the schema element at the given position, and
+		 * returns the position after the element and its children.
+		 */
+		private int addColumns(final List<SchemaElement> schema, final int position, final String prefix,
+				final boolean nested) throws IOException {
+			if (position >= schema.size()) {
+				throw new IOException("Invalid Parquet schema.");
+			}
+			final SchemaElement element = schema.get(position);
+			final String name = prefix + element.name;
+			if (element.numChildren > 0) {
+				int next = position + 1;
+				for (int i = 0; i < element.numChildren; i++) {
+					next = this.addColumns(schema, next, name + ".", true);
+				}
+				return next;
+			}
+			this.columns.add(new Column(name, this.columns.size(), element.type,
+					element.repetitionType == REPETITION_OPTIONAL,
+					nested || element.repetitionType == REPETITION_REPEATED));
+			return position + 1;
+		}
+	}
+
+	private static final class SchemaElement {
+		int type = -1;
+		int repetitionType;
+		String name = "";
+		int numChildren;
+
+		SchemaElement(final ThriftReader reader) throws IOException {
+			int fieldId = 0;
+			int type;
+			while ((type = reader.readFieldHeader(fieldId)) != ThriftReader.STOP) {
+				fieldId = reader.fieldId;
+				switch (fieldId) {
+				case 1:
+					this.type = (int) reader.readInteger();
+					break;
+				case 3:
+					this.repetitionType = (int) reader.readInteger();
+					break;
+				case 4:
+					this.name = reader.readString();
+					break;
+				case 5:
+					this.numChildren = (int) reader.readInteger();
+					break;
+				default:
+					reader.skip(type);
+				}
+			}
+		}
+	}
+
+	private static final class RowGroup {
+		final List<ColumnChunk> columns = new ArrayList<>();
+		long numRows;
+
+		RowGroup(final ThriftReader reader) throws IOException {
+			int fieldId = 0;
+			int type;
+			while ((type = reader.readFieldHeader(fieldId)) != ThriftReader.STOP) {
+				fieldId = reader.fieldId;
+				if (fieldId == 1 && type == ThriftReader.LIST) {
+					final int size = reader.readListHeader();
+					for (int i = 0; i < size; i++) {
+						this.columns.add(new ColumnChunk(reader));
+					}
+				} else if (fieldId == 3) {
+					this.numRows = reader.readInteger();
+				} else {
+					reader.skip(type);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The parts of the {@code ColumnChunk} and {@code ColumnMetaData} structures
+	 * of the Parquet format that are needed for reading.
+	 */
+	private static final class ColumnChunk {
+		int codec;
+		long numValues;
+		long totalCompressedSize;
+		long dataPageOffset;
+		long dictionaryPageOffset = -1;
+		byte[] minValue;
+		byte[] maxValue;
+		boolean unsignedStatistics;
+
+		ColumnChunk(final ThriftReader reader) throws IOException {
+			int fieldId = 0;
+			int type;
+			while ((type = reader.readFieldHeader(fieldId)) != ThriftReader.STOP) {
+				fieldId = reader.fieldId;
+				if (fieldId == 1) {
+					throw new IOException("Parquet column chunks in other files are not supported.");
+				} else if (fieldId == 3 && type == ThriftReader.STRUCT) {
+					this.readColumnMetaData(reader);
+				} else {
+					reader.skip(type);
+				}
+			}
+		}
+
+		private void readColumnMetaData(final ThriftReader reader) throws IOException {
+			int fieldId = 0;
+			int type;
+			while ((type = reader.readFieldHeader(fieldId)) != ThriftReader.STOP) {
+				fieldId = reader.fieldId;
+				switch (fieldId) {
+				case 4:
+					this.codec = (int) reader.readInteger();
+					break;
+				case 5:
+					this.numValues = reader.readInteger();
+					break;
+				case 7:
+					this.totalCompressedSize = reader.readInteger();
+					break;
+				case 9:
+					this.dataPageOffset = reader.readInteger();
+					break;
+				case 11:
+					this.dictionaryPageOffset = reader.readInteger();
+					break;
+				case 12:
+					this.readStatistics(reader);
+					break;
+				default:
+					reader.skip(type);
+				}
+			}
+		}
+
+		private void readStatistics(final ThriftReader reader) throws IOException {
+			int fieldId = 0;
+			int type;
+			byte[] legacyMax = null;
+			byte[] legacyMin = null;
+			while ((type = reader.readFieldHeader(fieldId)) != ThriftReader.STOP) {
+				fieldId = reader.fieldId;
+				switch (fieldId) {
+				case 1:
+					legacyMax = reader.readBinary();
+					break;
+				case 2:
+					legacyMin = reader.readBinary();
+					break;
+				case 5:
+					this.maxValue = reader.readBinary();
+					break;
+				case 6:
+					this.minValue = reader.readBinary();
+					break;
+				default:
+					reader.skip(type);
+				}
+			}
+			if (this.minValue != null && this.maxValue != null) {
+				this.unsignedStatistics = true;
+			} else { // legacy statistics use signed byte order
+				this.minValue = legacyMin;
+				this.maxValue = legacyMax;
+			}
+		}
+
+		long getStartOffset() {
+			// the offset of the dictionary page is 0 in some files without dictionary
+			return this.dictionaryPageOffset >= MAGIC.length && this.dictionaryPageOffset < this.dataPageOffset
+					? this.dictionaryPageOffset
+					: this.dataPageOffset;
+		}
+	}
+
+	/**
+	 * The parts of the {@code PageHeader} structure of the Parquet format that are
+	 * needed for reading, including those of the header of the specific page type.
+	 */
+	private static final class PageHeader {
+		int type = -1;
+		int uncompressedPageSize;
+		int compressedPageSize;
+		int numValues;
+		int encoding;
+		int definitionLevelsLength;
+		int repetitionLevelsLength;
+		boolean compressed = true;
+
+		PageHeader(final ThriftReader reader) throws IOException {
+			int fieldId = 0;
+			int type;
+			while ((type = reader.readFieldHeader(fieldId)) != ThriftReader.STOP) {
+				fieldId = reader.fieldId;
+				switch (fieldId) {
+				case 1:
+					this.type = (int) reader.readInteger();
+					break;
+				case 2:
+					this.uncompressedPageSize = (int) reader.readInteger();
+					break;
+				case 3:
+					this.compressedPageSize = (int) reader.readInteger();
+					break;
+				case 5:
+				case 7:
+				case 8:
+					this.readPageTypeHeader(reader, fieldId == 8);
+					break;
+				default:
+					reader.skip(type);
+				}
+			}
+		}
+
+		/**
+		 * Reads a {@code DataPageHeader}, {@code DictionaryPageHeader}, or
+		 * {@code DataPageHeaderV2}, which all start with the number of values.
+		 */
+		private void readPageTypeHeader(final ThriftReader reader, final boolean version2) throws IOException {
+			int fieldId = 0;
+			int type;
+			while ((type = reader.readFieldHeader(fieldId)) != ThriftReader.STOP) {
+				fieldId = reader.fieldId;
+				if (fieldId == 1) {
+					this.numValues = (int) reader.readInteger();
+				} else if (fieldId == (version2 ? 4 : 2)) {
+					this.encoding = (int) reader.readInteger();
+				} else if (version2 && fieldId == 5) {
+					this.definitionLevelsLength = (int) reader.readInteger();
+				} else if (version2 && fieldId == 6) {
+					this.repetitionLevelsLength = (int) reader.readInteger();
+				} else if (version2 && fieldId == 7) {
+					this.compressed = reader.readBoolean(type);
+				} else {
+					reader.skip(type);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reader for structures in the Thrift compact protocol, in which the metadata
+	 * of Parquet files is encoded.
+	 */
+	private static final class ThriftReader {
+		static final int STOP = 0;
+		static final int BOOLEAN_TRUE = 1;
+		static final int BOOLEAN_FALSE = 2;
+		static final int BYTE = 3;
+		static final int I16 = 4;
+		static final int I32 = 5;
+		static final int I64 = 6;
+		static final int DOUBLE = 7;
+		static final int BINARY = 8;
+		static final int LIST = 9;
+		static final int SET = 10;
+		static final int MAP = 11;
+		static final int STRUCT = 12;
+
+		private final byte[] data;
+		private final int end;
+		int position;
+		int fieldId;
+
+		ThriftReader(final byte[] data, final int position, final int end) {
+			this.data = data;
+			this.position = position;
+			this.end = end;
+		}
+
+		/**
+		 * Reads the header of the next field of a structure and returns its type,
+		 * or {@link #STOP} at the end of the structure. The id of the field is
+		 * stored in {@link #fieldId}.
+		 *
+		 * @param previousFieldId the id of the previous field of the structure, or
+		 *                        0 for the first field
+		 */
+		int readFieldHeader(final int previousFieldId) throws IOException {
+			final int header = this.readByte() & 0xff;
+			final int type = header & 0x0f;
+			if (type != STOP) {
+				final int delta = header >>> 4;
+				this.fieldId = delta == 0 ? (int) this.readInteger() : previousFieldId + delta;
+			}
+			return type;
+		}
+
+		/**
+		 * Reads the header of a list or set and returns its size.
+		 */
+		int readListHeader() throws IOException {
+			final int header = this.readByte() & 0xff;
+			final int size = header >>> 4;
+			return size == 15 ? (int) this.readVarint() : size;
+		}
+
+		boolean readBoolean(final int type) {
+			return type == BOOLEAN_TRUE;
+		}
+
+		/**
+		 * Reads an i16, i32, or i64 value, which are all encoded as zigzag varints.
+		 */
+		long readInteger() throws IOException {
+			final long value = this.readVarint();
+			return (value >>> 1) ^ -(value & 1);
+		}
+
+		byte[] readBinary() throws IOException {
+			final long length = this.readVarint();
+			if (length < 0 || length > this.end - this.position) {
+				throw new IOException("Invalid Parquet metadata: unexpected end of data.");
+			}
+			final byte[] bytes = Arrays.copyOfRange(this.data, this.position, this.position + (int) length);
+			this.position += (int) length;
+			return bytes;
+		}
+
+		String readString() throws IOException {
+			return new String(this.readBinary(), StandardCharsets.UTF_8);
+		}
+
+		void skip(final int type) throws IOException {
+			switch (type) {
+			case BOOLEAN_TRUE:
+			case BOOLEAN_FALSE:
+				break; // the value of boolean fields is part of the type
+			case BYTE:
+				this.readByte();
+				break;
+			case I16:
+			case I32:
+			case I64:
+				this.readVarint();
+				break;
+			case DOUBLE:
+				this.skipBytes(8);
+				break;
+			case BINARY:
+				this.readBinary();
+				break;
+			case LIST:
+			case SET: {
+				final int header = this.readByte() & 0xff;
+				final int elementType = header & 0x0f;
+				final int size = (header >>> 4) == 15 ? (int) this.readVarint() : header >>> 4;
+				for (int i = 0; i < size; i++) {
+					this.skipElement(elementType);
+				}
+				break;
+			}
+			case MAP: {
+				final int size = (int) this.readVarint();
+				if (size > 0) {
+					final int types = this.readByte() & 0xff;
+					for (int i = 0; i < size; i++) {
+						this.skipElement(types >>> 4);
+						this.skipElement(types & 0x0f);
+					}
+				}
+				break;
+			}
+			case STRUCT: {
+				int fieldId = 0;
+				int fieldType;
+				while ((fieldType = this.readFieldHeader(fieldId)) != STOP) {
+					fieldId = this.fieldId;
+					this.skip(fieldType);
+				}
+				break;
+			}
+			default:
+				throw new IOException("Invalid Parquet metadata: unknown type " + type + ".");
+			}
+		}
+
+		private void skipElement(final int type) throws IOException {
+			if (type == BOOLEAN_TRUE || type == BOOLEAN_FALSE) {
+				this.readByte(); // booleans in collections take one byte
+			} else {
+				this.skip(type);
+			}
+		}
+
+		private long readVarint() throws IOException {
+			long value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = this.readByte();
+				value |= (long) (b & 0x7f) << shift;
+				shift += 7;
+			} while (b < 0 && shift < 64);
+			return value;
+		}
+
+		private byte readByte() throws IOException {
+			if (this.position >= this.end) {
+				throw new IOException("Invalid Parquet metadata: unexpected end of data.");
+			}
+			return this.data[this.position++];
+		}
+
+		private void skipBytes(final int length) throws IOException {
+			if (length > this.end - this.position) {
+				throw new IOException("Invalid Parquet metadata: unexpected end of data.");
+			}
+			this.position += length;
+		}
+	}
+
+}
@@ -21,9 +21,19 @@ package org.semanticweb.rulewerk.core.reasoner.implementation;
  */
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
 /**
  * An {@code RdfFileDataSource} stores facts in the RDF N-Triples format inside
  * a file of the extension {@code .nt}. These fact triples can be associated
@@ -41,6 +51,16 @@ import java.util.Optional;
  * </pre>
  *
  * Gzipped files of the extension {@code .nt.gz} are also supported.
+ * <p>
+ * If a property is given, only triples with this property are loaded, as
+ * binary facts with subject and object. If a property and an object are given,
+ * only triples with this property and object are loaded, as unary facts with
+ * the subject; for example, the instances of a class are obtained with the
+ * property {@code rdf:type} and the class as object. The property and the
+ * object are given as for {@link HdtDataSource}. Such a selection is read with
+ * {@link RdfFileReader}, which compares the property and object of each line
+ * before converting any of its terms, and which reads all selections on the
+ * same file in one pass.
  *
  * @author Christian Lewe
  *
@@ -54,6 +74,9 @@ public class RdfFileDataSource extends FileDataSource {
 
 	private final static Iterable<String> possibleExtensions = Arrays.asList(".nt", ".nt.gz");
 
+	private final String property;
+	private final String object;
+
 	/**
 	 * Constructor.
 	 *
@@ -66,17 +89,90 @@ public class RdfFileDataSource extends FileDataSource {
 	 *                                  {@link #possibleExtensions}.
 	 */
 	public RdfFileDataSource(final String rdfFile) throws IOException {
+		this(rdfFile, null, null);
+	}
+
+	/**
+	 * Creates a data source for the subjects and objects of the triples with the
+	 * given property.
+	 *
+	 * @param rdfFile  path to a file of a {@code .nt} or {@code .nt.gz} extension
+	 *                 and a valid N-Triples format.
+	 * @param property the IRI of the property
+	 * @throws IOException if the path of the given {@code rdfFile} is invalid.
+	 */
+	public RdfFileDataSource(final String rdfFile, final String property) throws IOException {
+		this(rdfFile, property, null);
+		Validate.notBlank(property, "Property cannot be blank.");
+	}
+
+	/**
+	 * Creates a data source for the subjects of the triples with the given
+	 * property and object. If the object is null, the data source contains the
+	 * subjects and objects of the triples with the given property; if also the
+	 * property is null, it contains all triples.
+	 *
+	 * @param rdfFile  path to a file of a {@code .nt} or {@code .nt.gz} extension
+	 *                 and a valid N-Triples format.
+	 * @param property the IRI of the property, or null
+	 * @param object   the object, or null
+	 * @throws IOException if the path of the given {@code rdfFile} is invalid.
+	 */
+	public RdfFileDataSource(final String rdfFile, final String property, final String object) throws IOException {
 		super(rdfFile, possibleExtensions);
+		Validate.isTrue(property != null || object == null, "An object can only be given together with a property.");
+		Validate.isTrue(property == null || !property.isEmpty(), "Property cannot be empty.");
+		Validate.isTrue(object == null || !object.isEmpty(), "Object cannot be empty.");
+		this.property = property;
+		this.object = object;
+	}
+
+	/**
+	 * Returns the property of the triples of this data source.
+	 *
+	 * @return the IRI of the property, or null if all triples are loaded
+	 */
+	public String getProperty() {
+		return this.property;
+	}
+
+	/**
+	 * Returns the object of the triples of this data source.
+	 *
+	 * @return the object, or null if the objects of the triples are loaded
+	 */
+	public String getObject() {
+		return this.object;
+	}
+
+	/**
+	 * Returns the arity of the facts of this data source, which is the number of
+	 * positions of a triple that are not fixed.
+	 *
+	 * @return 3, 2, or 1
+	 */
+	public int getArity() {
+		if (this.property == null) {
+			return 3;
+		} else if (this.object == null) {
+			return 2;
+		} else {
+			return 1;
+		}
 	}
 
 	@Override
 	public String toString() {
-		return "RdfFileDataSource [rdfFile=" + this.getFile() + "]";
+		if (this.property == null) {
+			return "RdfFileDataSource [rdfFile=" + this.getFile() + "]";
+		}
+		return "RdfFileDataSource [rdfFile=" + this.getFile() + ", property=" + this.property + ", object="
+				+ this.object + "]";
 	}
 
 	@Override
 	public Optional<Integer> getRequiredArity() {
-		return Optional.of(3);
+		return Optional.of(this.getArity());
 	}
 
 	@Override
@@ -88,4 +184,40 @@ public class RdfFileDataSource extends FileDataSource {
 	String getDeclarationPredicateName() {
 		return declarationPredicateName;
 	}
+
+	/**
+	 * Returns a fact whose arguments are the path, and the property and object if
+	 * given.
+	 */
+	@Override
+	public Fact getDeclarationFact() {
+		final List<Term> arguments = new ArrayList<>();
+		arguments.add(Expressions.makeDatatypeConstant(getPath(), PrefixDeclarationRegistry.XSD_STRING));
+		if (this.property != null) {
+			arguments.add(Expressions.makeDatatypeConstant(this.property, PrefixDeclarationRegistry.XSD_STRING));
+		}
+		if (this.object != null) {
+			arguments.add(Expressions.makeDatatypeConstant(this.object, PrefixDeclarationRegistry.XSD_STRING));
+		}
+		final Predicate predicate = Expressions.makePredicate(declarationPredicateName, arguments.size());
+		return Expressions.makeFact(predicate, arguments);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * super.hashCode() + Objects.hashCode(this.property)) + Objects.hashCode(this.object);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof RdfFileDataSource)) {
+			return false;
+		}
+		final RdfFileDataSource other = (RdfFileDataSource) obj;
+		return this.getFile().equals(other.getFile()) && Objects.equals(this.property, other.property)
+				&& Objects.equals(this.object, other.object);
+	}
 }
@@ -0,0 +1,641 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+/**
+ * Reads the selected triples of one N-Triples file for several
+ * {@link RdfFileDataSource}s with a property, and passes them in batches to a
+ * {@link SelectionBatchConsumer}. All data sources are read in one pass over
+ * the file. The property and object of each line are compared as bytes with
+ * those of the data sources, and the terms of a line are only decoded if the
+ * line is selected, so that triples of other properties are never converted
+ * into strings.
+ * <p>
+ * Uncompressed files are split into ranges of lines that are read by separate
+ * tasks of an {@link ExecutorService}; gzipped files are read by a single task.
+ * IRIs are read as abstract constants, literals as datatype or
+ * language-tagged string constants, and blank nodes as skolem constants that
+ * are different for each time the file is read. Objects that contain escape
+ * sequences are compared after the escapes have been resolved, so that the
+ * objects of the data sources are given as for {@link HdtDataSource}.
+ */
+public class RdfFileReader {
+
+	/**
+	 * Default maximal number of tuples in one batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = CsvFilesReader.DEFAULT_BATCH_SIZE;
+
+	/**
+	 * Default minimal number of bytes of an uncompressed file per task.
+	 */
+	public static final long DEFAULT_SPLIT_SIZE = 1L << 26;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Consumer of the tuples of one data source.
+	 */
+	@FunctionalInterface
+	public interface SelectionBatchConsumer {
+		/**
+		 * Processes a batch of tuples of a data source, which are not used by the
+		 * reader afterwards.
+		 *
+		 * @param dataSource the data source of the tuples
+		 * @param tuples     non-empty array of tuples of the arity of the data
+		 *                   source
+		 * @throws IOException
+		 */
+		void accept(RdfFileDataSource dataSource, String[][] tuples) throws IOException;
+	}
+
+	private final File file;
+	private final List<RdfFileDataSource> dataSources;
+	/**
+	 * The distinct properties of the data sources, as N-Triples terms.
+	 */
+	private final byte[][] properties;
+	/**
+	 * The selections of the data sources, by index of their property.
+	 */
+	private final Selection[][] selections;
+	private UnaryOperator<String> termConverter = UnaryOperator.identity();
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private long splitSize = DEFAULT_SPLIT_SIZE;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataSources non-empty list of data sources with a property, which
+	 *                    all have the same file
+	 */
+	public RdfFileReader(final List<RdfFileDataSource> dataSources) {
+		Validate.notEmpty(dataSources, "Data sources cannot be empty.");
+		this.file = dataSources.get(0).getFile();
+		this.dataSources = new ArrayList<>(dataSources);
+
+		final Map<String, List<Selection>> selectionsByProperty = new LinkedHashMap<>();
+		for (final RdfFileDataSource dataSource : this.dataSources) {
+			Validate.notNull(dataSource, "Data sources cannot be null.");
+			Validate.isTrue(this.file.equals(dataSource.getFile()), "Data source %s does not read file %s.",
+					dataSource, this.file);
+			Validate.isTrue(dataSource.getProperty() != null, "Data source %s does not select a property.",
+					dataSource);
+			selectionsByProperty.computeIfAbsent(toTerm(dataSource.getProperty()), property -> new ArrayList<>())
+					.add(new Selection(dataSource));
+		}
+		this.properties = new byte[selectionsByProperty.size()][];
+		this.selections = new Selection[selectionsByProperty.size()][];
+		int index = 0;
+		for (final Map.Entry<String, List<Selection>> entry : selectionsByProperty.entrySet()) {
+			this.properties[index] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+			this.selections[index] = entry.getValue().toArray(new Selection[0]);
+			index++;
+		}
+	}
+
+	/**
+	 * Sets a function that converts the name of each constant that is read into
+	 * the term that is passed to the consumer. The function must be thread-safe.
+	 * By default, names are passed unchanged.
+	 *
+	 * @param termConverter the conversion of constant names
+	 */
+	public void setTermConverter(final UnaryOperator<String> termConverter) {
+		Validate.notNull(termConverter, "Term converter cannot be null.");
+		this.termConverter = termConverter;
+	}
+
+	/**
+	 * Sets the maximal number of tuples in one batch.
+	 *
+	 * @param batchSize the batch size, greater than 0
+	 */
+	public void setBatchSize(final int batchSize) {
+		Validate.isTrue(batchSize > 0, "Batch size must be greater than 0: %d", batchSize);
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Sets the minimal number of bytes of an uncompressed file that are read by
+	 * one task.
+	 *
+	 * @param splitSize the split size, greater than 0
+	 */
+	public void setSplitSize(final long splitSize) {
+		Validate.isTrue(splitSize > 0, "Split size must be greater than 0: %d", splitSize);
+		this.splitSize = splitSize;
+	}
+
+	/**
+	 * Reads the selected triples of the file, using several tasks of the given
+	 * executor for large uncompressed files. The consumer may be called
+	 * concurrently from several threads and must therefore be thread-safe. The
+	 * method returns when the file has been read.
+	 *
+	 * @param consumer the thread-safe action for each batch of tuples
+	 * @param executor the executor for running the tasks, or null to read the
+	 *                 file in the calling thread
+	 * @return the number of tuples read for all data sources
+	 * @throws IOException if the file cannot be read or is not a valid N-Triples
+	 *                     file
+	 */
+	public long read(final SelectionBatchConsumer consumer, final ExecutorService executor) throws IOException {
+		Validate.notNull(consumer, "Consumer cannot be null.");
+
+		final Skolemization skolemization = new Skolemization();
+		final List<long[]> ranges = new ArrayList<>();
+		final long size = this.file.length();
+		if (executor == null || this.file.getName().endsWith(".gz") || size <= this.splitSize) {
+			ranges.add(new long[] { 0, Long.MAX_VALUE });
+		} else {
+			final long tasks = Math.min((size + this.splitSize - 1) / this.splitSize,
+					4L * Runtime.getRuntime().availableProcessors());
+			for (long task = 0; task < tasks; task++) {
+				final long rangeEnd = task == tasks - 1 ? Long.MAX_VALUE : size * (task + 1) / tasks;
+				ranges.add(new long[] { size * task / tasks, rangeEnd });
+			}
+		}
+
+		if (ranges.size() == 1) {
+			return new RangeReader(ranges.get(0), skolemization, consumer).read();
+		}
+
+		final List<Future<Long>> futures = new ArrayList<>();
+		for (final long[] range : ranges) {
+			futures.add(executor.submit(() -> new RangeReader(range, skolemization, consumer).read()));
+		}
+		long tuples = 0;
+		try {
+			for (final Future<Long> future : futures) {
+				tuples += future.get();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RulewerkRuntimeException("Interrupted while reading file.", e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else {
+				throw new RulewerkRuntimeException(cause);
+			}
+		} finally {
+			for (final Future<Long> future : futures) {
+				future.cancel(true);
+			}
+		}
+		return tuples;
+	}
+
+	/**
+	 * Returns the N-Triples term of a property or object as given for a data
+	 * source.
+	 */
+	static String toTerm(final String value) {
+		if (value.startsWith("\"") || value.startsWith("_:")) {
+			return value;
+		} else {
+			return "<" + value + ">";
+		}
+	}
+
+	/**
+	 * The selection of one data source.
+	 */
+	private static final class Selection {
+		private final RdfFileDataSource dataSource;
+		private final byte[] object;
+		private final String objectTerm;
+
+		Selection(final RdfFileDataSource dataSource) {
+			this.dataSource = dataSource;
+			if (dataSource.getObject() == null) {
+				this.objectTerm = null;
+				this.object = null;
+			} else {
+				this.objectTerm = toTerm(dataSource.getObject());
+				this.object = this.objectTerm.getBytes(StandardCharsets.UTF_8);
+			}
+		}
+	}
+
+	/**
+	 * Reads the lines that start in a range of bytes of the file.
+	 */
+	private final class RangeReader {
+		private final long start;
+		private final long end;
+		private final Skolemization skolemization;
+		private final SelectionBatchConsumer consumer;
+		private final Map<RdfFileDataSource, List<String[]>> batches = new LinkedHashMap<>();
+
+		private InputStream input;
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+		private int bufferPosition;
+		private int bufferLimit;
+		/**
+		 * Offset in the file of the next byte of the buffer.
+		 */
+		private long offset;
+
+		private byte[] line = new byte[256];
+		private int lineLength;
+
+		private byte[] lastSubject = new byte[0];
+		private String lastSubjectName;
+		private long tuples;
+
+		RangeReader(final long[] range, final Skolemization skolemization, final SelectionBatchConsumer consumer) {
+			this.start = range[0];
+			this.end = range[1];
+			this.skolemization = skolemization;
+			this.consumer = consumer;
+		}
+
+		long read() throws IOException {
+			try (FileChannel channel = FileChannel.open(RdfFileReader.this.file.toPath(), StandardOpenOption.READ)) {
+				if (RdfFileReader.this.file.getName().endsWith(".gz")) {
+					this.input = new GZIPInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+				} else if (this.start == 0) {
+					this.input = Channels.newInputStream(channel);
+				} else {
+					// the line that contains the last byte before the range belongs to the previous range
+					channel.position(this.start - 1);
+					this.offset = this.start - 1;
+					this.input = Channels.newInputStream(channel);
+					if (!this.skipLine()) {
+						return 0;
+					}
+				}
+				long lineStart = this.offset - (this.bufferLimit - this.bufferPosition);
+				while (lineStart < this.end && this.readLine()) {
+					if (Thread.interrupted()) {
+						throw new RulewerkRuntimeException("Interrupted while reading file.");
+					}
+					this.processLine();
+					lineStart = this.offset - (this.bufferLimit - this.bufferPosition);
+				}
+			}
+			for (final Map.Entry<RdfFileDataSource, List<String[]>> entry : this.batches.entrySet()) {
+				this.flush(entry.getKey(), entry.getValue());
+			}
+			return this.tuples;
+		}
+
+		private boolean fill() throws IOException {
+			final int read = this.input.read(this.buffer);
+			if (read <= 0) {
+				return false;
+			}
+			this.bufferPosition = 0;
+			this.bufferLimit = read;
+			this.offset += read;
+			return true;
+		}
+
+		private boolean skipLine() throws IOException {
+			while (true) {
+				if (this.bufferPosition == this.bufferLimit && !this.fill()) {
+					return false;
+				}
+				if (this.buffer[this.bufferPosition++] == '\n') {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Reads the next line without its line break, returns false at the end of
+		 * the input.
+		 */
+		private boolean readLine() throws IOException {
+			this.lineLength = 0;
+			boolean empty = true;
+			while (true) {
+				if (this.bufferPosition == this.bufferLimit && !this.fill()) {
+					return !empty;
+				}
+				empty = false;
+				int position = this.bufferPosition;
+				while (position < this.bufferLimit && this.buffer[position] != '\n') {
+					position++;
+				}
+				final int length = position - this.bufferPosition;
+				if (this.lineLength + length > this.line.length) {
+					this.line = Arrays.copyOf(this.line, Math.max(2 * this.line.length, this.lineLength + length));
+				}
+				System.arraycopy(this.buffer, this.bufferPosition, this.line, this.lineLength, length);
+				this.lineLength += length;
+				if (position < this.bufferLimit) {
+					this.bufferPosition = position + 1;
+					return true;
+				}
+				this.bufferPosition = position;
+			}
+		}
+
+		private void processLine() throws IOException {
+			final byte[] bytes = this.line;
+			final int length = this.lineLength;
+			final int subjectStart = this.skipWhitespace(0);
+			if (subjectStart == length || bytes[subjectStart] == '#') {
+				return;
+			}
+			final int subjectEnd = this.termEnd(subjectStart);
+			final int predicateStart = this.skipWhitespace(subjectEnd);
+			final int predicateEnd = this.termEnd(predicateStart);
+
+			int property = -1;
+			for (int i = 0; i < RdfFileReader.this.properties.length; i++) {
+				if (this.matches(RdfFileReader.this.properties[i], predicateStart, predicateEnd)) {
+					property = i;
+					break;
+				}
+			}
+			if (property < 0) {
+				return;
+			}
+
+			final int objectStart = this.skipWhitespace(predicateEnd);
+			final int objectEnd = this.termEnd(objectStart);
+			String subjectName = null;
+			String objectName = null;
+			String unescapedObject = null;
+			for (final Selection selection : RdfFileReader.this.selections[property]) {
+				final String[] tuple;
+				if (selection.object == null) {
+					if (objectName == null) {
+						objectName = this.toConstantName(objectStart, objectEnd);
+					}
+					if (subjectName == null) {
+						subjectName = this.subjectName(subjectStart, subjectEnd);
+					}
+					tuple = new String[] { subjectName, objectName };
+				} else {
+					if (!this.matches(selection.object, objectStart, objectEnd)) {
+						if (this.indexOf('\\', objectStart, objectEnd) < 0) {
+							continue;
+						}
+						if (unescapedObject == null) {
+							unescapedObject = unescape(this.decode(objectStart, objectEnd));
+						}
+						if (!unescapedObject.equals(selection.objectTerm)) {
+							continue;
+						}
+					}
+					if (subjectName == null) {
+						subjectName = this.subjectName(subjectStart, subjectEnd);
+					}
+					tuple = new String[] { subjectName };
+				}
+				final List<String[]> batch = this.batches.computeIfAbsent(selection.dataSource,
+						dataSource -> new ArrayList<>());
+				batch.add(tuple);
+				if (batch.size() >= RdfFileReader.this.batchSize) {
+					this.flush(selection.dataSource, batch);
+				}
+			}
+		}
+
+		private void flush(final RdfFileDataSource dataSource, final List<String[]> batch) throws IOException {
+			if (!batch.isEmpty()) {
+				this.tuples += batch.size();
+				this.consumer.accept(dataSource, batch.toArray(new String[batch.size()][]));
+				batch.clear();
+			}
+		}
+
+		/**
+		 * Returns the name of the subject, reusing the name of the previous line
+		 * for consecutive triples of the same subject.
+		 */
+		private String subjectName(final int start, final int end) throws IOException {
+			if (!this.matches(this.lastSubject, start, end)) {
+				this.lastSubject = Arrays.copyOfRange(this.line, start, end);
+				this.lastSubjectName = this.toConstantName(start, end);
+			}
+			return this.lastSubjectName;
+		}
+
+		private boolean matches(final byte[] term, final int start, final int end) {
+			if (term.length != end - start) {
+				return false;
+			}
+			for (int i = 0; i < term.length; i++) {
+				if (term[i] != this.line[start + i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private int indexOf(final char c, final int start, final int end) {
+			for (int i = start; i < end; i++) {
+				if (this.line[i] == c) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private int skipWhitespace(final int position) {
+			int result = position;
+			while (result < this.lineLength && (this.line[result] == ' ' || this.line[result] == '\t'
+					|| this.line[result] == '\r')) {
+				result++;
+			}
+			return result;
+		}
+
+		/**
+		 * Returns the end of the IRI, blank node, or literal that starts at the
+		 * given position.
+		 */
+		private int termEnd(final int start) throws IOException {
+			if (start >= this.lineLength) {
+				throw this.invalidLine();
+			}
+			int position = start;
+			final byte first = this.line[position];
+			if (first == '<') {
+				position = this.indexOf('>', position, this.lineLength);
+				if (position < 0) {
+					throw this.invalidLine();
+				}
+				return position + 1;
+			} else if (first == '_') {
+				while (position < this.lineLength && this.line[position] != ' ' && this.line[position] != '\t'
+						&& this.line[position] != '<' && this.line[position] != '"') {
+					position++;
+				}
+				// blank node labels cannot end with a dot, which ends the triple instead
+				while (position > start + 2 && this.line[position - 1] == '.') {
+					position--;
+				}
+				return position;
+			} else if (first == '"') {
+				position++;
+				while (position < this.lineLength && this.line[position] != '"') {
+					position += this.line[position] == '\\' ? 2 : 1;
+				}
+				if (position >= this.lineLength) {
+					throw this.invalidLine();
+				}
+				position++;
+				if (position < this.lineLength && this.line[position] == '@') {
+					position++;
+					while (position < this.lineLength && (Character.isLetterOrDigit(this.line[position])
+							|| this.line[position] == '-')) {
+						position++;
+					}
+				} else if (position + 2 < this.lineLength && this.line[position] == '^'
+						&& this.line[position + 1] == '^' && this.line[position + 2] == '<') {
+					position = this.indexOf('>', position, this.lineLength);
+					if (position < 0) {
+						throw this.invalidLine();
+					}
+					position++;
+				}
+				return position;
+			} else {
+				throw this.invalidLine();
+			}
+		}
+
+		private String decode(final int start, final int end) {
+			return new String(this.line, start, end - start, StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * Converts a term of the line into the name of a constant, with literals
+		 * written as for {@link InMemoryDataSource#addTuple(String...)}.
+		 */
+		private String toConstantName(final int start, final int end) {
+			final String term = this.decode(start, end);
+			final String name;
+			if (term.startsWith("<")) {
+				name = unescape(term.substring(1, term.length() - 1));
+			} else if (term.startsWith("_:")) {
+				name = this.skolemization.getSkolemConstantName(term.substring(2));
+			} else {
+				final int quote = term.lastIndexOf('"');
+				final String lexicalValue = unescape(term.substring(1, quote));
+				final String suffix = term.substring(quote + 1);
+				if (suffix.startsWith("@")) {
+					name = Expressions.makeLanguageStringConstant(lexicalValue, suffix.substring(1)).getName();
+				} else if (suffix.startsWith("^^<")) {
+					name = Expressions
+							.makeDatatypeConstant(lexicalValue, unescape(suffix.substring(3, suffix.length() - 1)))
+							.getRdfLiteralString(false);
+				} else {
+					name = Expressions.makeDatatypeConstant(lexicalValue, PrefixDeclarationRegistry.XSD_STRING)
+							.getRdfLiteralString(false);
+				}
+			}
+			return RdfFileReader.this.termConverter.apply(name);
+		}
+
+		private IOException invalidLine() {
+			return new IOException(
+					RdfFileReader.this.file + ": invalid N-Triples line: " + this.decode(0, this.lineLength));
+		}
+	}
+
+	/**
+	 * Resolves the escape sequences of N-Triples in the given string.
+	 */
+	static String unescape(final String value) {
+		int backslash = value.indexOf('\\');
+		if (backslash < 0) {
+			return value;
+		}
+		final StringBuilder builder = new StringBuilder(value.length());
+		int position = 0;
+		while (backslash >= 0 && backslash + 1 < value.length()) {
+			builder.append(value, position, backslash);
+			final char c = value.charAt(backslash + 1);
+			position = backslash + 2;
+			switch (c) {
+			case 't':
+				builder.append('\t');
+				break;
+			case 'b':
+				builder.append('\b');
+				break;
+			case 'n':
+				builder.append('\n');
+				break;
+			case 'r':
+				builder.append('\r');
+				break;
+			case 'f':
+				builder.append('\f');
+				break;
+			case 'u':
+			case 'U':
+				final int digits = c == 'u' ? 4 : 8;
+				if (position + digits <= value.length()) {
+					try {
+						builder.appendCodePoint(Integer.parseInt(value.substring(position, position + digits), 16));
+						position += digits;
+						break;
+					} catch (final IllegalArgumentException e) {
+						// not an escape sequence, kept unchanged below
+					}
+				}
+				builder.append('\\').append(c);
+				break;
+			default:
+				builder.append(c);
+			}
+			backslash = value.indexOf('\\', position);
+		}
+		builder.append(value, position, value.length());
+		return builder.toString();
+	}
+}
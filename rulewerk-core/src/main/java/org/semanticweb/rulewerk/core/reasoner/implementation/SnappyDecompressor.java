@@ -0,0 +1,128 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+
+/**
+ * Decompressor for the raw Snappy format, as used for the pages of Parquet
+ * files. The format is a sequence of literals and back references into the
+ * decompressed data, preceded by the length of the decompressed data.
+ */
+final class SnappyDecompressor {
+
+	private SnappyDecompressor() {
+	}
+
+	/**
+	 * Decompresses the given bytes.
+	 *
+	 * @param input  array containing the compressed data
+	 * @param offset start of the compressed data
+	 * @param length length of the compressed data
+	 * @return the decompressed data
+	 * @throws IOException if the data is not valid Snappy data
+	 */
+	static byte[] decompress(final byte[] input, final int offset, final int length) throws IOException {
+		final int end = offset + length;
+		int position = offset;
+
+		long outputLength = 0;
+		int shift = 0;
+		byte b;
+		do {
+			checkAvailable(position, 1, end);
+			b = input[position++];
+			outputLength |= (long) (b & 0x7f) << shift;
+			shift += 7;
+		} while (b < 0 && shift < 35);
+		if (b < 0 || outputLength > Integer.MAX_VALUE) {
+			throw new IOException("Invalid Snappy data: bad length.");
+		}
+
+		final byte[] output = new byte[(int) outputLength];
+		int outputPosition = 0;
+		while (position < end) {
+			final int tag = input[position++] & 0xff;
+			final int elementType = tag & 3;
+			if (elementType == 0) { // literal
+				int literalLength = tag >>> 2;
+				if (literalLength >= 60) {
+					final int lengthBytes = literalLength - 59;
+					checkAvailable(position, lengthBytes, end);
+					literalLength = 0;
+					for (int i = 0; i < lengthBytes; i++) {
+						literalLength |= (input[position++] & 0xff) << (8 * i);
+					}
+				}
+				literalLength++;
+				if (literalLength <= 0) {
+					throw new IOException("Invalid Snappy data: bad literal length.");
+				}
+				checkAvailable(position, literalLength, end);
+				checkAvailable(outputPosition, literalLength, output.length);
+				System.arraycopy(input, position, output, outputPosition, literalLength);
+				position += literalLength;
+				outputPosition += literalLength;
+			} else {
+				final int copyLength;
+				final int copyOffset;
+				if (elementType == 1) {
+					checkAvailable(position, 1, end);
+					copyLength = 4 + ((tag >>> 2) & 7);
+					copyOffset = ((tag >>> 5) << 8) | (input[position++] & 0xff);
+				} else if (elementType == 2) {
+					checkAvailable(position, 2, end);
+					copyLength = 1 + (tag >>> 2);
+					copyOffset = (input[position] & 0xff) | ((input[position + 1] & 0xff) << 8);
+					position += 2;
+				} else {
+					checkAvailable(position, 4, end);
+					copyLength = 1 + (tag >>> 2);
+					copyOffset = (input[position] & 0xff) | ((input[position + 1] & 0xff) << 8)
+							| ((input[position + 2] & 0xff) << 16) | ((input[position + 3] & 0xff) << 24);
+					position += 4;
+				}
+				if (copyOffset <= 0 || copyOffset > outputPosition) {
+					throw new IOException("Invalid Snappy data: bad copy offset.");
+				}
+				checkAvailable(outputPosition, copyLength, output.length);
+				// copies may overlap with the bytes they produce
+				for (int i = 0; i < copyLength; i++) {
+					output[outputPosition] = output[outputPosition - copyOffset];
+					outputPosition++;
+				}
+			}
+		}
+		if (outputPosition != output.length) {
+			throw new IOException("Invalid Snappy data: expected " + output.length + " bytes, but found "
+					+ outputPosition + ".");
+		}
+		return output;
+	}
+
+	private static void checkAvailable(final int position, final int length, final int end) throws IOException {
+		if (length > end - position) {
+			throw new IOException("Invalid Snappy data: unexpected end of data.");
+		}
+	}
+
+}
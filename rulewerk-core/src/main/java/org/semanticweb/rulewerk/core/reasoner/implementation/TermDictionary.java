@@ -0,0 +1,136 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+
+/**
+ * Dictionary that assigns consecutive numeric ids to {@link Term}s, starting
+ * from 0. Ids are never reused, and terms are never removed from the
+ * dictionary. The lookup from terms to ids uses an open-addressing hash table
+ * of primitive ints, so that no boxed keys or map entries are needed.
+ *
+ * This class is not thread-safe.
+ */
+public class TermDictionary {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Terms by id.
+	 */
+	private Term[] terms = new Term[INITIAL_CAPACITY];
+	/**
+	 * Hash table of ids plus one; 0 marks an empty slot. Its length is always a
+	 * power of two and at least twice the number of terms.
+	 */
+	private int[] slots = new int[2 * INITIAL_CAPACITY];
+	private int size = 0;
+
+	/**
+	 * Returns the id of the given term, adding the term to the dictionary if
+	 * necessary.
+	 *
+	 * @param term a non-null {@link Term}
+	 * @return the id of the term
+	 */
+	public long getOrAddId(final Term term) {
+		Validate.notNull(term, "Terms cannot be null.");
+		int slot = findSlot(term);
+		if (this.slots[slot] != 0) {
+			return this.slots[slot] - 1;
+		}
+		if (this.size == this.terms.length) {
+			grow();
+			slot = findSlot(term);
+		}
+		final int id = this.size++;
+		this.terms[id] = term;
+		this.slots[slot] = id + 1;
+		return id;
+	}
+
+	/**
+	 * Returns the id of the given term.
+	 *
+	 * @param term a {@link Term}
+	 * @return the id of the term, or -1 if the term is not in the dictionary
+	 */
+	public long getId(final Term term) {
+		if (term == null) {
+			return -1;
+		}
+		return this.slots[findSlot(term)] - 1;
+	}
+
+	/**
+	 * Returns the term with the given id.
+	 *
+	 * @param id an id that has been assigned by this dictionary
+	 * @return the {@link Term} with this id
+	 * @throws IllegalArgumentException if no term has the given id
+	 */
+	public Term getTerm(final long id) {
+		Validate.isTrue(id >= 0 && id < this.size, "Unknown term id %d", id);
+		return this.terms[(int) id];
+	}
+
+	/**
+	 * Returns the number of terms in this dictionary.
+	 *
+	 * @return number of terms
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	private int findSlot(final Term term) {
+		final int mask = this.slots.length - 1;
+		int slot = mix(term.hashCode()) & mask;
+		while (this.slots[slot] != 0 && !term.equals(this.terms[this.slots[slot] - 1])) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void grow() {
+		Validate.validState(this.terms.length <= Integer.MAX_VALUE / 4, "Term dictionary is full.");
+		this.terms = Arrays.copyOf(this.terms, 2 * this.terms.length);
+		this.slots = new int[2 * this.terms.length];
+		final int mask = this.slots.length - 1;
+		for (int id = 0; id < this.size; id++) {
+			int slot = mix(this.terms[id].hashCode()) & mask;
+			while (this.slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			this.slots[slot] = id + 1;
+		}
+	}
+
+	static int mix(final int hash) {
+		final int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -23,11 +23,16 @@ import java.io.File;
  */
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 import org.apache.commons.lang3.Validate;
 import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 
 /**
@@ -36,6 +41,14 @@ import org.semanticweb.rulewerk.core.model.implementation.Expressions;
  * storage</a> utility. This is the recommended data source for large RDF
  * datasets in the VLog reasoner. Trident databases are generated from RDF input
  * files in a batch process using the Trident tool.
+ * <p>
+ * Without further arguments, the data source contains all triples of the
+ * database, as ternary facts. If a property is given, it contains only the
+ * subjects and objects of the triples with this property, and if a property and
+ * an object are given, only the subjects of the triples with this property and
+ * object. The property and the object are given as for {@link HdtDataSource}.
+ * Since the database is indexed, such a selection is answered by a lookup
+ * instead of a scan of all triples.
  *
  * @author Markus Kroetzsch
  *
@@ -49,11 +62,46 @@ public class TridentDataSource implements ReasonerDataSource {
 
 	final String filePath;
 	final String fileName;
+	final String property;
+	final String object;
 
 	public TridentDataSource(final String filePath) throws IOException {
+		this(filePath, null, null);
+	}
+
+	/**
+	 * Creates a data source for the subjects and objects of the triples with the
+	 * given property.
+	 *
+	 * @param filePath path to the Trident database
+	 * @param property the IRI of the property
+	 * @throws IOException if the path is invalid
+	 */
+	public TridentDataSource(final String filePath, final String property) throws IOException {
+		this(filePath, property, null);
+		Validate.notBlank(property, "Property cannot be blank.");
+	}
+
+	/**
+	 * Creates a data source for the subjects of the triples with the given
+	 * property and object. If the object is null, the data source contains the
+	 * subjects and objects of the triples with the given property; if also the
+	 * property is null, it contains all triples.
+	 *
+	 * @param filePath path to the Trident database
+	 * @param property the IRI of the property, or null
+	 * @param object   the object, or null
+	 * @throws IOException if the path is invalid
+	 */
+	public TridentDataSource(final String filePath, final String property, final String object) throws IOException {
 		Validate.notBlank(filePath, "Path to Trident database cannot be blank!");
+		Validate.isTrue(property != null || object == null, "An object can only be given together with a property.");
+		Validate.isTrue(property == null || !property.isEmpty(), "Property cannot be empty.");
+		Validate.isTrue(object == null || !object.isEmpty(), "Object cannot be empty.");
 		this.filePath = filePath; // unmodified file path, necessary for correct serialisation
 		this.fileName = new File(filePath).getCanonicalPath();
+		this.property = property;
+		this.object = object;
 	}
 
 	public String getPath() {
@@ -64,16 +112,70 @@ public class TridentDataSource implements ReasonerDataSource {
 		return this.fileName;
 	}
 
+	/**
+	 * Returns the property of the triples of this data source.
+	 *
+	 * @return the IRI of the property, or null if all triples are loaded
+	 */
+	public String getProperty() {
+		return this.property;
+	}
+
+	/**
+	 * Returns the object of the triples of this data source.
+	 *
+	 * @return the object, or null if the objects of the triples are loaded
+	 */
+	public String getObject() {
+		return this.object;
+	}
+
+	/**
+	 * Returns the arity of the facts of this data source, which is the number of
+	 * positions of a triple that are not fixed.
+	 *
+	 * @return 3, 2, or 1
+	 */
+	public int getArity() {
+		if (this.property == null) {
+			return 3;
+		} else if (this.object == null) {
+			return 2;
+		} else {
+			return 1;
+		}
+	}
+
+	/**
+	 * Returns the arity of a selection. The arity of a whole database is not
+	 * required, since it is checked by the reasoner when loading.
+	 */
+	@Override
+	public Optional<Integer> getRequiredArity() {
+		return this.property == null ? Optional.empty() : Optional.of(this.getArity());
+	}
+
 	@Override
 	public Fact getDeclarationFact() {
-		Predicate predicate = Expressions.makePredicate(declarationPredicateName, 1);
-		return Expressions.makeFact(predicate,
-				Expressions.makeDatatypeConstant(filePath, PrefixDeclarationRegistry.XSD_STRING));
+		final List<Term> arguments = new ArrayList<>();
+		arguments.add(Expressions.makeDatatypeConstant(filePath, PrefixDeclarationRegistry.XSD_STRING));
+		if (this.property != null) {
+			arguments.add(Expressions.makeDatatypeConstant(this.property, PrefixDeclarationRegistry.XSD_STRING));
+		}
+		if (this.object != null) {
+			arguments.add(Expressions.makeDatatypeConstant(this.object, PrefixDeclarationRegistry.XSD_STRING));
+		}
+		Predicate predicate = Expressions.makePredicate(declarationPredicateName, arguments.size());
+		return Expressions.makeFact(predicate, arguments);
 	}
 
 	@Override
 	public String toString() {
-		return "[TridentDataSource [tridentFile=" + this.fileName + "]";
+		if (this.property == null) {
+			return "[TridentDataSource [tridentFile=" + this.fileName + "]";
+		}
+		return "[TridentDataSource [tridentFile=" + this.fileName + ", property=" + this.property + ", object="
+				+ this.object + "]";
 	}
 
 	@Override
@@ -83,7 +185,7 @@ public class TridentDataSource implements ReasonerDataSource {
 
 	@Override
 	public int hashCode() {
-		return this.filePath.hashCode();
+		return 31 * (31 * this.filePath.hashCode() + Objects.hashCode(this.property)) + Objects.hashCode(this.object);
 	}
 
 	@Override
@@ -98,7 +200,8 @@ public class TridentDataSource implements ReasonerDataSource {
 			return false;
 		}
 		final TridentDataSource other = (TridentDataSource) obj;
-		return this.fileName.equals(other.getName());
+		return this.fileName.equals(other.getName()) && Objects.equals(this.property, other.property)
+				&& Objects.equals(this.object, other.object);
 	}
 
 }
@@ -0,0 +1,118 @@
+package org.semanticweb.rulewerk.core.model.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+
+public class TermPoolTest {
+
+	@Test
+	public void abstractConstant_interned() {
+		TermPool termPool = new TermPool();
+		Term term1 = termPool.getAbstractConstant("X");
+		Term term2 = termPool.getAbstractConstant("Y");
+		Term term3 = termPool.getAbstractConstant(new String("X"));
+
+		assertNotEquals(term1, term2);
+		assertSame(term1, term3);
+		assertEquals(new AbstractConstantImpl("X"), term1);
+	}
+
+	@Test
+	public void termTypes_notConfused() {
+		TermPool termPool = new TermPool();
+		Term constant = termPool.getAbstractConstant("X");
+		Term universalVariable = termPool.getUniversalVariable("X");
+		Term existentialVariable = termPool.getExistentialVariable("X");
+		Term namedNull = termPool.getNamedNull("X");
+
+		assertNotEquals(constant, universalVariable);
+		assertNotEquals(universalVariable, existentialVariable);
+		assertNotEquals(constant, namedNull);
+		assertSame(universalVariable, termPool.getUniversalVariable("X"));
+		assertSame(existentialVariable, termPool.getExistentialVariable("X"));
+		assertSame(namedNull, termPool.getNamedNull("X"));
+	}
+
+	@Test
+	public void literals_interned() {
+		TermPool termPool = new TermPool();
+		Term datatypeConstant = termPool.getDatatypeConstant("1", "http://test");
+		Term languageStringConstant = termPool.getLanguageStringConstant("abc", "de");
+
+		assertSame(datatypeConstant, termPool.getDatatypeConstant("1", "http://test"));
+		assertSame(languageStringConstant, termPool.getLanguageStringConstant("abc", "de"));
+		assertNotEquals(datatypeConstant, termPool.getDatatypeConstant("1", "http://other"));
+	}
+
+	@Test
+	public void predicate_interned() {
+		TermPool termPool = new TermPool();
+		Predicate pred1 = termPool.getPredicate("p", 1);
+		Predicate pred2 = termPool.getPredicate("p", 2);
+
+		assertNotEquals(pred1, pred2);
+		assertSame(pred1, termPool.getPredicate("p", 1));
+	}
+
+	@Test
+	public void statistics_counted() {
+		TermPool termPool = new TermPool();
+		Term term = termPool.getAbstractConstant("X");
+		termPool.getAbstractConstant("X");
+		termPool.getAbstractConstant("Y");
+		termPool.getPredicate("p", 1);
+
+		assertEquals(4, termPool.getLookupCount());
+		assertEquals(1, termPool.getHitCount());
+		assertEquals(0.25, termPool.getHitRate(), 0.0);
+		assertEquals(3, termPool.size());
+		assertEquals("X", term.getName());
+	}
+
+	@Test
+	public void clear_resetsPool() {
+		TermPool termPool = new TermPool();
+		Term term1 = termPool.getAbstractConstant("X");
+		termPool.clear();
+		Term term2 = termPool.getAbstractConstant("X");
+
+		assertEquals(term1, term2);
+		assertTrue(term1 != term2);
+		assertEquals(1, termPool.getLookupCount());
+		assertEquals(0, termPool.getHitCount());
+	}
+
+	@Test
+	public void expressions_useGlobalPool() {
+		assertSame(Expressions.makeAbstractConstant("http://example.org/c"),
+				Expressions.makeAbstractConstant("http://example.org/c"));
+		assertSame(Expressions.makePredicate("p", 3), new TermFactory().makePredicate("p", 3));
+	}
+
+}
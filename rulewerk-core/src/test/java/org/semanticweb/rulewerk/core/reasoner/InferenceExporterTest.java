@@ -0,0 +1,268 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.InferenceExporter.Compression;
+import org.semanticweb.rulewerk.core.reasoner.InferenceExporter.ExportStatistics;
+import org.semanticweb.rulewerk.core.reasoner.InferenceExporter.Format;
+import org.semanticweb.rulewerk.core.reasoner.implementation.QueryResultImpl;
+
+public class InferenceExporterTest {
+
+	private final KnowledgeBase kb = new KnowledgeBase();
+	private final Reasoner reasoner = mock(Reasoner.class);
+
+	@Before
+	public void setUp() {
+		for (int i = 0; i < 100; i++) {
+			kb.addStatement(Expressions.makeFact("http://example.org/p", Expressions.makeAbstractConstant("http://example.org/c" + i),
+					Expressions.makeAbstractConstant("http://example.org/d")));
+			kb.addStatement(Expressions.makeFact("q", Expressions.makeDatatypeConstant("say \"" + i + "\"",
+					"http://www.w3.org/2001/XMLSchema#string")));
+		}
+		kb.addStatement(Expressions.makeFact("r", Expressions.makeAbstractConstant("a"),
+				Expressions.makeAbstractConstant("b"), Expressions.makeAbstractConstant("c"),
+				Expressions.makeAbstractConstant("d")));
+
+		when(reasoner.getKnowledgeBase()).thenReturn(kb);
+		when(reasoner.getInferencePredicates()).thenAnswer(invocation -> new LinkedHashSet<>(kb.getFactPredicates()));
+		when(reasoner.getCorrectness()).thenReturn(Correctness.SOUND_AND_COMPLETE);
+		when(reasoner.answerQuery(any(PositiveLiteral.class), eq(true))).thenAnswer(invocation -> {
+			final PositiveLiteral query = invocation.getArgument(0);
+			return new QueryResultIterator() {
+				final Iterator<Fact> facts = kb.getFacts(query.getPredicate()).iterator();
+
+				@Override
+				public boolean hasNext() {
+					return facts.hasNext();
+				}
+
+				@Override
+				public QueryResult next() {
+					return new QueryResultImpl(facts.next().getArguments());
+				}
+
+				@Override
+				public Correctness getCorrectness() {
+					return Correctness.SOUND_AND_COMPLETE;
+				}
+
+				@Override
+				public void close() {
+				}
+			};
+		});
+	}
+
+	@Test
+	public void export_rls_writesAllFacts() throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final ExportStatistics statistics = new InferenceExporter(reasoner).export(output);
+
+		final List<String> lines = lines(output.toByteArray());
+		assertEquals(201, lines.size());
+		assertEquals(201, statistics.getFactCount());
+		assertEquals(0, statistics.getSkippedFactCount());
+		assertEquals(output.size(), statistics.getWrittenBytes());
+		assertEquals(Correctness.SOUND_AND_COMPLETE, statistics.getCorrectness());
+		assertTrue(lines.contains(kb.getFacts().get(0).toString()));
+	}
+
+	@Test
+	public void export_parallelOrdered_matchesSequential() throws IOException {
+		final ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+		new InferenceExporter(reasoner).export(sequential);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			final ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+			new InferenceExporter(reasoner).setExecutor(executor).setBufferSize(64).export(parallel);
+			assertEquals(sequential.toString("UTF-8"), parallel.toString("UTF-8"));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void export_parallelUnordered_writesAllFacts() throws IOException {
+		final ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+		new InferenceExporter(reasoner).export(sequential);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			final ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+			new InferenceExporter(reasoner).setExecutor(executor).setOrdered(false).setBufferSize(64).export(parallel);
+			final List<String> expected = lines(sequential.toByteArray());
+			final List<String> actual = lines(parallel.toByteArray());
+			expected.sort(null);
+			actual.sort(null);
+			assertEquals(expected, actual);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void export_nTriples_skipsNonTriples() throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final ExportStatistics statistics = new InferenceExporter(reasoner).setFormat(Format.NTRIPLES).export(output);
+
+		final List<String> lines = lines(output.toByteArray());
+		assertEquals(100, statistics.getFactCount());
+		assertEquals(101, statistics.getSkippedFactCount());
+		assertEquals(100, lines.size());
+		assertTrue(lines.contains("<http://example.org/c0> <http://example.org/p> <http://example.org/d> ."));
+	}
+
+	@Test
+	public void export_nTriples_skipsNamesThatAreNotIris() throws IOException {
+		kb.addStatement(Expressions.makeFact("edge", Expressions.makeAbstractConstant("http://example.org/a"),
+				Expressions.makeAbstractConstant("http://example.org/b")));
+		kb.addStatement(Expressions.makeFact("http://example.org/p", Expressions.makeAbstractConstant("a"),
+				Expressions.makeAbstractConstant("http://example.org/b")));
+		kb.addStatement(Expressions.makeFact("http://example.org/p", Expressions.makeAbstractConstant("http://example.org/a"),
+				Expressions.makeAbstractConstant("b")));
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final ExportStatistics statistics = new InferenceExporter(reasoner).setFormat(Format.NTRIPLES).export(output);
+
+		assertEquals(100, statistics.getFactCount());
+		assertEquals(104, statistics.getSkippedFactCount());
+		assertEquals(100, lines(output.toByteArray()).size());
+	}
+
+	@Test
+	public void export_nTriples_escapesIllegalIriCharacters() throws IOException {
+		kb.addStatement(Expressions.makeFact("http://example.org/p",
+				Expressions.makeAbstractConstant("http://example.org/a b"),
+				Expressions.makeAbstractConstant("http://example.org/<x>\\y")));
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new InferenceExporter(reasoner).setFormat(Format.NTRIPLES).export(output);
+
+		assertTrue(lines(output.toByteArray()).contains("<http://example.org/a\\u0020b> <http://example.org/p> "
+				+ "<http://example.org/\\u003Cx\\u003E\\u005Cy> ."));
+	}
+
+	@Test
+	public void isAbsoluteIri_checksScheme() {
+		assertTrue(InferenceExporter.isAbsoluteIri("http://example.org/"));
+		assertTrue(InferenceExporter.isAbsoluteIri("urn:isbn:0451450523"));
+		assertFalse(InferenceExporter.isAbsoluteIri("edge"));
+		assertFalse(InferenceExporter.isAbsoluteIri("a b:c"));
+		assertFalse(InferenceExporter.isAbsoluteIri(":c"));
+		assertFalse(InferenceExporter.isAbsoluteIri("1a:c"));
+	}
+
+	@Test
+	public void export_csv_quotesValues() throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new InferenceExporter(reasoner).setFormat(Format.CSV).export(output);
+
+		final List<String> lines = lines(output.toByteArray());
+		assertEquals(201, lines.size());
+		assertTrue(lines.contains("http://example.org/p,http://example.org/c0,http://example.org/d"));
+		assertTrue(lines.contains("q,\"say \"\"0\"\"\""));
+		assertTrue(lines.contains("r,a,b,c,d"));
+	}
+
+	@Test
+	public void export_tsv_separatesByTabs() throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new InferenceExporter(reasoner).setFormat(Format.TSV).export(output);
+
+		assertTrue(lines(output.toByteArray()).contains("r\ta\tb\tc\td"));
+	}
+
+	@Test
+	public void export_gzipParallel_decompresses() throws IOException {
+		final ByteArrayOutputStream plain = new ByteArrayOutputStream();
+		new InferenceExporter(reasoner).export(plain);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+			final ExportStatistics statistics = new InferenceExporter(reasoner).setCompression(Compression.GZIP)
+					.setExecutor(executor).setBufferSize(100).export(compressed);
+			assertEquals(plain.size(), statistics.getUncompressedBytes());
+			assertEquals(compressed.size(), statistics.getWrittenBytes());
+			try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+				assertEquals(plain.toString("UTF-8"), readAll(input));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void export_zstd_decompresses() throws IOException {
+		final ByteArrayOutputStream plain = new ByteArrayOutputStream();
+		new InferenceExporter(reasoner).export(plain);
+
+		final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		new InferenceExporter(reasoner).setCompression(Compression.ZSTD).setBufferSize(100).export(compressed);
+		try (InputStream input = new com.github.luben.zstd.ZstdInputStream(
+				new ByteArrayInputStream(compressed.toByteArray()))) {
+			assertEquals(plain.toString("UTF-8"), readAll(input));
+		}
+	}
+
+	private static String readAll(final InputStream input) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[4096];
+		int length;
+		while ((length = input.read(buffer)) > 0) {
+			output.write(buffer, 0, length);
+		}
+		return output.toString("UTF-8");
+	}
+
+	private static List<String> lines(final byte[] bytes) {
+		return new ArrayList<>(Arrays.asList(new String(bytes, StandardCharsets.UTF_8).split("\r?\n")));
+	}
+
+}
@@ -0,0 +1,185 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.MergingPrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.TermPool;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.HdtDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ParquetFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.TridentDataSource;
+
+public class KnowledgeBaseSnapshotTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private final Predicate p = Expressions.makePredicate("http://example.org/p", 2);
+	private final Predicate q = Expressions.makePredicate("q", 1);
+	private final Variable x = Expressions.makeUniversalVariable("X");
+	private final Variable y = Expressions.makeUniversalVariable("Y");
+	private final Variable z = Expressions.makeExistentialVariable("Z");
+	private final Term c = Expressions.makeAbstractConstant("http://example.org/c");
+	private final Term d = Expressions.makeDatatypeConstant("42", "http://www.w3.org/2001/XMLSchema#integer");
+	private final Term e = Expressions.makeLanguageStringConstant("Grüße", "de");
+	private final Term n = TermPool.getGlobalPool().getNamedNull("_n1");
+
+	private KnowledgeBase createKnowledgeBase(final FactStorage factStorage) throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase(factStorage);
+		final MergingPrefixDeclarationRegistry prefixes = new MergingPrefixDeclarationRegistry();
+		prefixes.setBaseIri("http://example.org/base/");
+		prefixes.setPrefixIri("ex:", "http://example.org/");
+		kb.mergePrefixDeclarations(prefixes);
+
+		kb.addStatement(new DataSourceDeclarationImpl(Expressions.makePredicate("csv", 2),
+				new CsvFileDataSource("src/test/data/input/file.csv")));
+		kb.addStatement(new DataSourceDeclarationImpl(Expressions.makePredicate("parquet", 2),
+				new ParquetFileDataSource("src/test/data/input/file.parquet", Arrays.asList("s", "o"),
+						Collections.singletonMap("p", "knows"))));
+		kb.addStatement(new DataSourceDeclarationImpl(Expressions.makePredicate("hdt", 2),
+				new HdtDataSource("src/test/data/input/file.hdt", "http://example.org/knows")));
+		kb.addStatement(new DataSourceDeclarationImpl(Expressions.makePredicate("rdf", 3),
+				new RdfFileDataSource("src/test/data/input/file.nt")));
+		kb.addStatement(new DataSourceDeclarationImpl(Expressions.makePredicate("rdfClass", 1),
+				new RdfFileDataSource("src/test/data/input/file.nt", PrefixDeclarationRegistry.RDF_TYPE,
+						"http://example.org/Person")));
+		kb.addStatement(new DataSourceDeclarationImpl(Expressions.makePredicate("trident", 2),
+				new TridentDataSource("src/test/data/input/trident", "http://example.org/knows")));
+		kb.addStatement(new DataSourceDeclarationImpl(Expressions.makePredicate("sparql", 1),
+				new SparqlQueryResultDataSource(new URL("https://query.wikidata.org/sparql"), "item",
+						"?item <http://www.wikidata.org/prop/direct/P31> ?x")));
+
+		kb.addStatement(Expressions.makeFact(p, c, d));
+		kb.addStatement(Expressions.makeFact(p, d, e));
+		kb.addStatement(Expressions.makeFact(p, e, n));
+		for (int i = 0; i < 100; i++) {
+			kb.addStatement(Expressions.makeFact(q, Expressions.makeAbstractConstant("c" + i)));
+		}
+
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveConjunction(Expressions.makePositiveLiteral(p, x, z)),
+				Expressions.makeConjunction(Expressions.makePositiveLiteral(q, x),
+						Expressions.makeNegativeLiteral(p, x, y))));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(q, x), Expressions.makePositiveLiteral(p, x, c)));
+		return kb;
+	}
+
+	private File writeSnapshot(final KnowledgeBase kb) throws IOException {
+		final File file = tempFolder.newFile();
+		try (OutputStream stream = new FileOutputStream(file)) {
+			kb.writeKnowledgeBaseSnapshot(stream);
+		}
+		return file;
+	}
+
+	private void assertSameContent(final KnowledgeBase expected, final KnowledgeBase actual) throws Exception {
+		assertEquals(expected.getBaseIri(), actual.getBaseIri());
+		assertEquals(expected.getPrefixDeclarationRegistry().getPrefixIri("ex:"),
+				actual.getPrefixDeclarationRegistry().getPrefixIri("ex:"));
+		assertEquals(expected.getDataSourceDeclarations(), actual.getDataSourceDeclarations());
+		assertEquals(expected.getRules(), actual.getRules());
+		assertEquals(new HashSet<>(expected.getFacts()), new HashSet<>(actual.getFacts()));
+		assertEquals(expected.getFacts().size(), actual.getFacts().size());
+	}
+
+	@Test
+	public void toKnowledgeBase_columnarRoundTrip_sameContent() throws Exception {
+		final KnowledgeBase kb = createKnowledgeBase(FactStorage.COLUMNAR);
+		final KnowledgeBaseSnapshot snapshot = KnowledgeBaseSnapshot.open(writeSnapshot(kb));
+
+		assertSameContent(kb, snapshot.toKnowledgeBase(FactStorage.COLUMNAR));
+		assertSameContent(kb, snapshot.toKnowledgeBase(FactStorage.STATEMENTS));
+	}
+
+	@Test
+	public void toKnowledgeBase_statementsRoundTrip_sameContent() throws Exception {
+		final KnowledgeBase kb = createKnowledgeBase(FactStorage.STATEMENTS);
+		final KnowledgeBaseSnapshot snapshot = KnowledgeBaseSnapshot.open(writeSnapshot(kb));
+
+		assertSameContent(kb, snapshot.toKnowledgeBase(FactStorage.COLUMNAR));
+		assertSameContent(kb, snapshot.toKnowledgeBase(FactStorage.STATEMENTS));
+	}
+
+	@Test
+	public void getFacts_readsFactTables() throws Exception {
+		final KnowledgeBase kb = createKnowledgeBase(FactStorage.COLUMNAR);
+		final KnowledgeBaseSnapshot snapshot = KnowledgeBaseSnapshot.open(writeSnapshot(kb));
+
+		assertEquals(new HashSet<>(Arrays.asList(p, q)), snapshot.getFactPredicates());
+		assertEquals(3, snapshot.getFactCount(p));
+		assertEquals(100, snapshot.getFactCount(q));
+		assertEquals(0, snapshot.getFactCount(Expressions.makePredicate("r", 1)));
+		assertEquals(Arrays.asList(Expressions.makeFact(p, c, d), Expressions.makeFact(p, d, e),
+				Expressions.makeFact(p, e, n)), snapshot.getFacts(p));
+		assertEquals(e, snapshot.getTerm(snapshot.getTermId(p, 2, 0)));
+		assertEquals(kb.getRules(), snapshot.getRules());
+		assertEquals(kb.getDataSourceDeclarations(), snapshot.getDataSourceDeclarations());
+	}
+
+	@Test
+	public void toKnowledgeBase_emptyKnowledgeBase_isEmpty() throws Exception {
+		final KnowledgeBaseSnapshot snapshot = KnowledgeBaseSnapshot.open(writeSnapshot(new KnowledgeBase()));
+
+		assertEquals(0, snapshot.getTermCount());
+		assertTrue(snapshot.toKnowledgeBase().getStatements().isEmpty());
+	}
+
+	@Test(expected = IOException.class)
+	public void open_notASnapshot_throwsException() throws Exception {
+		final File file = tempFolder.newFile();
+		try (OutputStream stream = new FileOutputStream(file)) {
+			stream.write("p(a) .".getBytes());
+		}
+		KnowledgeBaseSnapshot.open(file);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void write_unsupportedDataSource_throwsException() throws Exception {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(q, mock(DataSource.class)));
+		writeSnapshot(kb);
+	}
+
+}
@@ -25,7 +25,10 @@ import static org.junit.Assert.*;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -34,6 +37,7 @@ import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
 import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
@@ -165,4 +169,47 @@ public class KnowledgeBaseTest {
 		assertEquals("@source S[1]: sparql(<" + sparqlIri + ">, \"?X\", \"" + sparqlBgp
 				+ "\") .\n\nP(c) .\nP(d) .\nQ(c) .\n\nP(?X) :- Q(?X) .\n", writer.toString());
 	}
+
+	@Test
+	public void columnarFactStorage_addAndRemove_succeeds() {
+		final KnowledgeBase columnarKb = new KnowledgeBase(FactStorage.COLUMNAR);
+		columnarKb.addStatements(this.rule, this.fact1, this.fact2, this.fact3, this.fact1);
+
+		assertEquals(FactStorage.COLUMNAR, columnarKb.getFactStorage());
+		assertEquals(Arrays.asList(this.fact1, this.fact2, this.fact3), columnarKb.getFacts());
+		assertEquals(Arrays.asList(this.rule), columnarKb.getRules());
+		assertEquals(4, columnarKb.getStatements().size());
+		assertEquals(Arrays.asList(this.rule, this.fact1, this.fact2, this.fact3),
+				new ArrayList<>(columnarKb.getStatements()));
+
+		assertEquals(1, columnarKb.removeStatement(this.fact1));
+		assertEquals(0, columnarKb.removeStatement(this.fact1));
+		assertEquals(Sets.newSet(this.fact2), columnarKb.getFactsByPredicate().get(this.fact1.getPredicate()));
+		assertEquals(Sets.newSet(this.fact3), columnarKb.getFactsByPredicate().get(this.fact3.getPredicate()));
+	}
+
+	@Test
+	public void columnarFactStorage_getFactsByPredicate_isView() {
+		final KnowledgeBase columnarKb = new KnowledgeBase(FactStorage.COLUMNAR);
+		final Map<Predicate, Set<Fact>> factsByPredicate = columnarKb.getFactsByPredicate();
+		assertTrue(factsByPredicate.isEmpty());
+
+		columnarKb.addStatements(this.fact1, this.fact2, this.fact3);
+		assertEquals(2, factsByPredicate.size());
+		assertEquals(Sets.newSet(this.fact1, this.fact2), factsByPredicate.get(this.fact1.getPredicate()));
+		assertNull(factsByPredicate.get(Expressions.makePredicate("R", 1)));
+
+		columnarKb.removeStatement(this.fact3);
+		assertFalse(factsByPredicate.containsKey(this.fact3.getPredicate()));
+	}
+
+	@Test
+	public void columnarFactStorage_writeKnowledgeBase_succeeds() throws IOException {
+		final KnowledgeBase columnarKb = new KnowledgeBase(FactStorage.COLUMNAR);
+		columnarKb.addStatements(this.fact1, this.rule, this.fact2, this.fact3);
+
+		StringWriter writer = new StringWriter();
+		columnarKb.writeKnowledgeBase(writer);
+		assertEquals("P(c) .\nP(d) .\nQ(c) .\n\nP(?X) :- Q(?X) .\n", writer.toString());
+	}
 }
@@ -0,0 +1,219 @@
+package org.semanticweb.rulewerk.core.reasoner;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.PredicateDependencyGraph.Component;
+
+public class PredicateDependencyGraphTest {
+
+	private static final Predicate edge = Expressions.makePredicate("edge", 2);
+	private static final Predicate path = Expressions.makePredicate("path", 2);
+	private static final Predicate node = Expressions.makePredicate("node", 1);
+	private static final Predicate unreachable = Expressions.makePredicate("unreachable", 2);
+	private static final Predicate label = Expressions.makePredicate("label", 1);
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Variable z = Expressions.makeUniversalVariable("Z");
+
+	private static final Rule pathBase = Expressions.makeRule(Expressions.makePositiveLiteral(path, x, y),
+			Expressions.makePositiveLiteral(edge, x, y));
+	private static final Rule pathStep = Expressions.makeRule(Expressions.makePositiveLiteral(path, x, z),
+			Expressions.makePositiveLiteral(path, x, y), Expressions.makePositiveLiteral(edge, y, z));
+	private static final Rule nodeRule = Expressions.makeRule(Expressions.makePositiveLiteral(node, x),
+			Expressions.makePositiveLiteral(edge, x, y));
+	private static final Rule unreachableRule = Expressions.makeRule(Expressions.makePositiveLiteral(unreachable, x, y),
+			Expressions.makePositiveLiteral(node, x), Expressions.makePositiveLiteral(node, y),
+			Expressions.makeNegativeLiteral(path, x, y));
+	private static final Rule labelRule = Expressions.makeRule(Expressions.makePositiveLiteral(label, x),
+			Expressions.makePositiveLiteral(edge, x, y));
+
+	private static final List<Rule> rules = Arrays.asList(unreachableRule, pathStep, pathBase, nodeRule, labelRule);
+
+	@Test
+	public void dependencies_fromRuleBodies() {
+		final PredicateDependencyGraph graph = new PredicateDependencyGraph(rules);
+
+		assertEquals(new HashSet<>(Arrays.asList(edge, path, node, unreachable, label)), graph.getPredicates());
+		assertEquals(new HashSet<>(Arrays.asList(path, edge)), graph.getDependencies(path));
+		assertEquals(new HashSet<>(Arrays.asList(node, path)), graph.getDependencies(unreachable));
+		assertEquals(Collections.singleton(path), graph.getNegativeDependencies(unreachable));
+		assertTrue(graph.getDependencies(edge).isEmpty());
+		assertEquals(Arrays.asList(pathStep, pathBase), graph.getRules(path));
+	}
+
+	@Test
+	public void getComponents_topologicalOrder() {
+		final PredicateDependencyGraph graph = new PredicateDependencyGraph(rules);
+
+		assertEquals(5, graph.getComponents().size());
+		for (final Component component : graph.getComponents()) {
+			assertSame(component, graph.getComponents().get(component.getIndex()));
+			for (final Component dependency : component.getDependencies()) {
+				assertTrue(dependency.getIndex() < component.getIndex());
+			}
+		}
+
+		final Component pathComponent = graph.getComponent(path);
+		assertEquals(Collections.singleton(path), pathComponent.getPredicates());
+		assertEquals(Arrays.asList(pathStep, pathBase), pathComponent.getRules());
+		assertTrue(pathComponent.isRecursive());
+		assertFalse(graph.getComponent(node).isRecursive());
+		assertTrue(graph.getComponent(edge).getRules().isEmpty());
+	}
+
+	@Test
+	public void getComponents_mutualRecursion_sameComponent() {
+		final Predicate even = Expressions.makePredicate("even", 1);
+		final Predicate odd = Expressions.makePredicate("odd", 1);
+		final Predicate succ = Expressions.makePredicate("succ", 2);
+		final PredicateDependencyGraph graph = new PredicateDependencyGraph(Arrays.asList(
+				Expressions.makeRule(Expressions.makePositiveLiteral(odd, y), Expressions.makePositiveLiteral(even, x),
+						Expressions.makePositiveLiteral(succ, x, y)),
+				Expressions.makeRule(Expressions.makePositiveLiteral(even, y), Expressions.makePositiveLiteral(odd, x),
+						Expressions.makePositiveLiteral(succ, x, y))));
+
+		assertSame(graph.getComponent(even), graph.getComponent(odd));
+		assertTrue(graph.getComponent(even).isRecursive());
+		assertEquals(2, graph.getComponents().size());
+	}
+
+	@Test
+	public void getComponents_multipleHeads_sameComponent() {
+		final Predicate p = Expressions.makePredicate("p", 1);
+		final Predicate q = Expressions.makePredicate("q", 1);
+		final Rule rule = Expressions.makePositiveLiteralsRule(
+				Expressions.makePositiveConjunction(Expressions.makePositiveLiteral(p, x),
+						Expressions.makePositiveLiteral(q, x)),
+				Expressions.makePositiveConjunction(Expressions.makePositiveLiteral(label, x)));
+		final PredicateDependencyGraph graph = new PredicateDependencyGraph(Arrays.asList(rule));
+
+		assertSame(graph.getComponent(p), graph.getComponent(q));
+		assertFalse(graph.getComponent(p).isRecursive());
+		assertEquals(Arrays.asList(rule), graph.getComponent(p).getRules());
+	}
+
+	@Test
+	public void strataAndLevels() {
+		final PredicateDependencyGraph graph = new PredicateDependencyGraph(rules);
+
+		assertTrue(graph.isStratified());
+		assertEquals(0, graph.getComponent(path).getStratum());
+		assertEquals(1, graph.getComponent(unreachable).getStratum());
+
+		final List<List<Component>> levels = graph.getEvaluationLevels();
+		assertEquals(3, levels.size());
+		assertEquals(Arrays.asList(graph.getComponent(edge)), levels.get(0));
+		assertEquals(new HashSet<>(Arrays.asList(graph.getComponent(path), graph.getComponent(node),
+				graph.getComponent(label))), new HashSet<>(levels.get(1)));
+		assertEquals(Arrays.asList(graph.getComponent(unreachable)), levels.get(2));
+	}
+
+	@Test
+	public void isStratified_negationInCycle_false() {
+		final Predicate p = Expressions.makePredicate("p", 1);
+		final Predicate q = Expressions.makePredicate("q", 1);
+		final PredicateDependencyGraph graph = new PredicateDependencyGraph(Arrays.asList(
+				Expressions.makeRule(Expressions.makePositiveLiteral(p, x), Expressions.makePositiveLiteral(label, x),
+						Expressions.makeNegativeLiteral(q, x)),
+				Expressions.makeRule(Expressions.makePositiveLiteral(q, x), Expressions.makePositiveLiteral(p, x))));
+
+		assertFalse(graph.isStratified());
+	}
+
+	@Test
+	public void getRelevantRules_prunesOtherRules() {
+		final PredicateDependencyGraph graph = new PredicateDependencyGraph(rules);
+
+		assertEquals(new HashSet<>(Arrays.asList(path, edge)),
+				graph.getRelevantPredicates(Collections.singleton(path)));
+		assertEquals(Arrays.asList(pathStep, pathBase), graph.getRelevantRules(Collections.singleton(path)));
+		assertEquals(Arrays.asList(unreachableRule, pathStep, pathBase, nodeRule),
+				graph.getRelevantRules(Collections.singleton(unreachable)));
+		assertTrue(graph.getRelevantRules(Collections.singleton(edge)).isEmpty());
+	}
+
+	@Test
+	public void forEachComponent_executor_afterDependencies() throws IOException {
+		final PredicateDependencyGraph graph = new PredicateDependencyGraph(rules);
+		final List<Component> processed = Collections.synchronizedList(new ArrayList<>());
+		final PredicateDependencyGraph.ComponentAction action = component -> {
+			for (final Component dependency : component.getDependencies()) {
+				assertTrue(processed.contains(dependency));
+			}
+			processed.add(component);
+		};
+
+		final ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			graph.forEachComponent(action, executor);
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(new HashSet<>(graph.getComponents()), new HashSet<>(processed));
+		assertEquals(graph.getComponents().size(), processed.size());
+
+		processed.clear();
+		graph.forEachComponent(action, null);
+		assertEquals(graph.getComponents(), processed);
+	}
+
+	@Test(expected = IOException.class)
+	public void forEachComponent_actionThrowsIOException_rethrown() throws IOException {
+		final PredicateDependencyGraph graph = new PredicateDependencyGraph(rules);
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			graph.forEachComponent(component -> {
+				throw new IOException("test");
+			}, executor);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void getComponent_unknownPredicate_null() {
+		final PredicateDependencyGraph graph = new PredicateDependencyGraph(rules);
+		assertNotNull(graph.getComponent(edge));
+		assertNull(graph.getComponent(Expressions.makePredicate("other", 1)));
+	}
+
+}
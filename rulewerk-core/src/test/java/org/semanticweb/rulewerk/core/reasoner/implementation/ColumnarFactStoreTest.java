@@ -0,0 +1,114 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+public class ColumnarFactStoreTest {
+
+	private final Constant c = Expressions.makeAbstractConstant("c");
+	private final Constant d = Expressions.makeAbstractConstant("d");
+	private final Constant lit = Expressions.makeDatatypeConstant("1", "http://www.w3.org/2001/XMLSchema#integer");
+	private final Fact factPcd = Expressions.makeFact("P", c, d);
+	private final Fact factPdc = Expressions.makeFact("P", d, c);
+	private final Fact factQlit = Expressions.makeFact("Q", lit);
+
+	@Test
+	public void add_facts_succeeds() {
+		ColumnarFactStore store = new ColumnarFactStore();
+
+		assertTrue(store.add(factPcd));
+		assertTrue(store.add(factQlit));
+		assertTrue(store.add(factPdc));
+		assertFalse(store.add(Expressions.makeFact("P", c, d)));
+
+		assertEquals(3, store.size());
+		assertEquals(3, store.getTermDictionary().size());
+		assertEquals(Arrays.asList(factPcd, factPdc, factQlit), store.getFacts());
+		assertEquals(Arrays.asList(factQlit), store.getFacts(factQlit.getPredicate()));
+	}
+
+	@Test
+	public void remove_facts_succeeds() {
+		ColumnarFactStore store = new ColumnarFactStore();
+		store.add(factPcd);
+		store.add(factQlit);
+
+		assertFalse(store.remove(factPdc));
+		assertFalse(store.remove(Expressions.makeFact("P", c, Expressions.makeAbstractConstant("e"))));
+		assertTrue(store.remove(factQlit));
+
+		assertEquals(1, store.size());
+		assertFalse(store.contains(factQlit));
+		assertTrue(store.contains(factPcd));
+		assertNull(store.getFactTable(factQlit.getPredicate()));
+		assertEquals(Arrays.asList(factPcd), store.getFacts());
+	}
+
+	@Test
+	public void getFactSet_reflectsChanges() {
+		ColumnarFactStore store = new ColumnarFactStore();
+		final Set<Fact> facts = store.getFactSet(factPcd.getPredicate());
+		assertTrue(facts.isEmpty());
+
+		store.add(factPcd);
+		store.add(factQlit);
+		store.add(factPdc);
+		assertEquals(new HashSet<>(Arrays.asList(factPcd, factPdc)), facts);
+		assertTrue(facts.contains(factPdc));
+		assertFalse(facts.contains(factQlit));
+
+		store.remove(factPcd);
+		store.remove(factPdc);
+		assertEquals(0, facts.size());
+		assertFalse(facts.iterator().hasNext());
+	}
+
+	@Test
+	public void getFactTable_encodesTerms() {
+		ColumnarFactStore store = new ColumnarFactStore();
+		store.add(factPcd);
+		store.add(factPdc);
+		Predicate predicate = factPcd.getPredicate();
+
+		FactTable factTable = store.getFactTable(predicate);
+		TermDictionary termDictionary = store.getTermDictionary();
+
+		assertEquals(2, factTable.size());
+		assertEquals(termDictionary.getId(c), factTable.get(0, 0));
+		assertEquals(d, termDictionary.getTerm(factTable.get(1, 0)));
+		assertEquals(-1, termDictionary.getId(Expressions.makeAbstractConstant("e")));
+	}
+
+}
@@ -0,0 +1,191 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CsvFilesReaderTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private File writeFile(final String name, final String content, final boolean gzip) throws IOException {
+		final File file = this.tempFolder.newFile(name);
+		try (OutputStream out = gzip ? new GZIPOutputStream(new FileOutputStream(file))
+				: new FileOutputStream(file); Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+			writer.write(content);
+		}
+		return file;
+	}
+
+	private static List<String[]> readAll(final CsvFilesReader reader, final CsvFilesDataSource dataSource,
+			final ExecutorService executor) throws IOException {
+		final List<String[]> tuples = Collections.synchronizedList(new ArrayList<>());
+		final long count = reader.read(dataSource, batch -> tuples.addAll(Arrays.asList(batch)), executor);
+		assertEquals(tuples.size(), count);
+		return tuples;
+	}
+
+	@Test
+	public void read_quotedValues() throws IOException {
+		final File file = writeFile("file.csv", "a,b\r\n\"c,d\",\"say \"\"hi\"\"\"\n\n\"e\nf\", g\n", false);
+
+		final List<String[]> tuples = readAll(new CsvFilesReader(2), new CsvFilesDataSource(file.getPath()), null);
+		assertEquals(3, tuples.size());
+		assertArrayEquals(new String[] { "a", "b" }, tuples.get(0));
+		assertArrayEquals(new String[] { "c,d", "say \"hi\"" }, tuples.get(1));
+		assertArrayEquals(new String[] { "e\nf", " g" }, tuples.get(2));
+	}
+
+	@Test
+	public void read_tsvWithoutQuoting() throws IOException {
+		final File file = writeFile("file.tsv", "\"a\"\tb,c\n", false);
+
+		final List<String[]> tuples = readAll(new CsvFilesReader(2), new CsvFilesDataSource(file.getPath()), null);
+		assertEquals(1, tuples.size());
+		assertArrayEquals(new String[] { "\"a\"", "b,c" }, tuples.get(0));
+	}
+
+	@Test
+	public void read_directoryOfGzippedShards_inParallel() throws IOException {
+		final File directory = this.tempFolder.newFolder("shards");
+		final StringBuilder expected = new StringBuilder();
+		for (int shard = 0; shard < 4; shard++) {
+			final StringBuilder content = new StringBuilder();
+			for (int i = 0; i < 1000; i++) {
+				content.append("s").append(shard).append(',').append("o").append(i % 10).append('\n');
+			}
+			writeFile("shards/part-" + shard + ".csv.gz", content.toString(), true);
+			expected.append(content);
+		}
+		writeFile("shards/README.txt", "not data", false);
+
+		final CsvFilesReader reader = new CsvFilesReader(2);
+		reader.setBatchSize(100);
+		final ExecutorService executor = Executors.newFixedThreadPool(3);
+		final List<String[]> tuples;
+		try {
+			tuples = readAll(reader, new CsvFilesDataSource(directory.getPath()), executor);
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(4000, tuples.size());
+		assertEquals(14, reader.getDictionarySize());
+
+		final Map<String, String> canonical = new HashMap<>();
+		for (final String[] tuple : tuples) {
+			for (final String value : tuple) {
+				assertSame(canonical.computeIfAbsent(value, v -> value), value);
+			}
+		}
+	}
+
+	@Test
+	public void read_globPattern_matchingFilesOnly() throws IOException {
+		writeFile("part-1.csv", "a,b\n", false);
+		writeFile("part-2.csv.gz", "c,d\n", true);
+		writeFile("other.csv", "e,f\n", false);
+
+		final CsvFilesDataSource dataSource = new CsvFilesDataSource(
+				this.tempFolder.getRoot().getPath() + File.separator + "part-*");
+		assertEquals(2, dataSource.getFiles().size());
+		final List<String[]> tuples = readAll(new CsvFilesReader(2), dataSource, null);
+		assertArrayEquals(new String[] { "a", "b" }, tuples.get(0));
+		assertArrayEquals(new String[] { "c", "d" }, tuples.get(1));
+	}
+
+	@Test
+	public void read_termConverter_applied() throws IOException {
+		final File file = writeFile("file.csv", "a,b\n", false);
+
+		final CsvFilesReader reader = new CsvFilesReader(2);
+		reader.setTermConverter(value -> "<" + value + ">");
+		final List<String[]> tuples = readAll(reader, new CsvFilesDataSource(file.getPath()), null);
+		assertArrayEquals(new String[] { "<a>", "<b>" }, tuples.get(0));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_wrongArity_throwsException() throws IOException {
+		final File file = writeFile("file.csv", "a,b\nc\n", false);
+		readAll(new CsvFilesReader(2), new CsvFilesDataSource(file.getPath()), null);
+	}
+
+	@Test(expected = IOException.class)
+	public void read_unterminatedQuote_throwsException() throws IOException {
+		final File file = writeFile("file.csv", "a,\"b\n", false);
+		readAll(new CsvFilesReader(2), new CsvFilesDataSource(file.getPath()), null);
+	}
+
+	@Test(expected = IOException.class)
+	public void read_wrongArityInParallel_throwsException() throws IOException {
+		writeFile("part-1.csv", "a,b\n", false);
+		writeFile("part-2.csv", "a,b,c\n", false);
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			readAll(new CsvFilesReader(2), new CsvFilesDataSource(this.tempFolder.getRoot().getPath()), executor);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getFiles_unsupportedExtension_throwsException() throws IOException {
+		final File file = writeFile("file.nt", "a,b\n", false);
+		new CsvFilesDataSource(file.getPath()).getFiles();
+	}
+
+	@Test
+	public void getFiles_directory_sorted() throws IOException {
+		writeFile("b.tsv", "", false);
+		writeFile("a.csv.bz2", "", false);
+		writeFile("c.csv.zst", "", false);
+		Files.createDirectory(this.tempFolder.getRoot().toPath().resolve("d.csv"));
+
+		assertEquals(Arrays.asList("a.csv.bz2", "b.tsv", "c.csv.zst"),
+				Arrays.asList(new CsvFilesDataSource(this.tempFolder.getRoot().getPath()).getFiles().stream()
+						.map(file -> file.getFileName().toString()).toArray()));
+	}
+
+}
@@ -0,0 +1,107 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class FactTableTest {
+
+	@Test
+	public void add_duplicate_ignored() {
+		FactTable factTable = new FactTable(2);
+
+		assertTrue(factTable.add(new long[] { 1, 2 }));
+		assertTrue(factTable.add(new long[] { 2, 1 }));
+		assertFalse(factTable.add(new long[] { 1, 2 }));
+		assertEquals(2, factTable.size());
+		assertEquals(2, factTable.get(1, 0));
+	}
+
+	@Test
+	public void remove_movesLastRow() {
+		FactTable factTable = new FactTable(1);
+		factTable.add(new long[] { 1 });
+		factTable.add(new long[] { 2 });
+		factTable.add(new long[] { 3 });
+
+		assertTrue(factTable.remove(new long[] { 1 }));
+		assertFalse(factTable.remove(new long[] { 1 }));
+		assertEquals(2, factTable.size());
+		assertEquals(3, factTable.get(0, 0));
+		assertEquals(2, factTable.get(1, 0));
+		assertTrue(factTable.contains(new long[] { 3 }));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void add_wrongArity_fails() {
+		new FactTable(2).add(new long[] { 1 });
+	}
+
+	@Test
+	public void randomOperations_matchHashSet() {
+		FactTable factTable = new FactTable(2);
+		Set<String> expected = new HashSet<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 20000; i++) {
+			long[] tuple = new long[] { random.nextInt(100), random.nextInt(100) };
+			String key = tuple[0] + "," + tuple[1];
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), factTable.remove(tuple));
+			} else {
+				assertEquals(expected.add(key), factTable.add(tuple));
+			}
+		}
+
+		assertEquals(expected.size(), factTable.size());
+		long[] row = new long[2];
+		for (int i = 0; i < factTable.size(); i++) {
+			factTable.getRow(i, row);
+			assertTrue(expected.contains(row[0] + "," + row[1]));
+			assertTrue(factTable.contains(row));
+		}
+	}
+
+	@Test
+	public void grownRowsLength_doublesCapacity() {
+		assertEquals(2 * 8 * 3, FactTable.grownRowsLength(8, 3));
+		assertEquals(1 << 30, FactTable.grownRowsLength(1 << 28, 2));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void grownRowsLength_largeArity_fails() {
+		FactTable.grownRowsLength(1 << 28, 4);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void grownRowsLength_largeCapacity_fails() {
+		FactTable.grownRowsLength(1 << 30, 1);
+	}
+
+}
@@ -0,0 +1,200 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HdtFileReaderTest {
+
+	private static final String EX = "http://example.org/";
+	private static final String XSD = "http://www.w3.org/2001/XMLSchema#";
+	private static final String RDF_TYPE = "http://www.w3.org/1999/02/22-rdf-syntax-ns#type";
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static List<String[]> readAll(final HdtFileReader reader, final ExecutorService executor)
+			throws IOException {
+		final List<String[]> tuples = Collections.synchronizedList(new ArrayList<>());
+		final long count = reader.read(batch -> tuples.addAll(Arrays.asList(batch)), executor);
+		assertEquals(tuples.size(), count);
+		return tuples;
+	}
+
+	private static Set<List<String>> asSet(final List<String[]> tuples) {
+		final Set<List<String>> set = new HashSet<>();
+		for (final String[] tuple : tuples) {
+			set.add(Arrays.asList(tuple));
+		}
+		return set;
+	}
+
+	private File writeFile() throws IOException {
+		final File file = this.tempFolder.newFile("test.hdt");
+		new HdtTestFileWriter().setBlockSize(2).addTriple(EX + "a", EX + "knows", EX + "b")
+				.addTriple(EX + "a", EX + "knows", EX + "c").addTriple(EX + "b", EX + "knows", EX + "c")
+				.addTriple(EX + "a", RDF_TYPE, EX + "Person").addTriple(EX + "b", RDF_TYPE, EX + "Person")
+				.addTriple(EX + "d", RDF_TYPE, EX + "Dog").addTriple(EX + "a", EX + "name", "\"Alice\"")
+				.addTriple(EX + "d", EX + "name", "\"chien\"@fr")
+				.addTriple(EX + "d", EX + "age", "\"3\"^^<" + XSD + "integer>").write(file);
+		return file;
+	}
+
+	@Test
+	public void read_allTriples() throws IOException {
+		final File file = this.writeFile();
+		final List<String[]> tuples = readAll(new HdtFileReader(new HdtDataSource(file.getPath()), 3), null);
+
+		assertEquals(9, tuples.size());
+		final Set<List<String>> set = asSet(tuples);
+		assertTrue(set.contains(Arrays.asList(EX + "a", EX + "knows", EX + "b")));
+		assertTrue(set.contains(Arrays.asList(EX + "a", EX + "name", "\"Alice\"^^<" + XSD + "string>")));
+		assertTrue(set.contains(Arrays.asList(EX + "d", EX + "name", "\"chien\"@fr")));
+		assertTrue(set.contains(Arrays.asList(EX + "d", EX + "age", "\"3\"^^<" + XSD + "integer>")));
+	}
+
+	@Test
+	public void read_property_binaryTuples() throws IOException {
+		final File file = this.writeFile();
+		final HdtFileReader reader = new HdtFileReader(new HdtDataSource(file.getPath(), EX + "knows"), 2);
+		reader.setTermConverter(value -> "<" + value + ">");
+
+		final Set<List<String>> expected = new HashSet<>(Arrays.asList(
+				Arrays.asList("<" + EX + "a>", "<" + EX + "b>"), Arrays.asList("<" + EX + "a>", "<" + EX + "c>"),
+				Arrays.asList("<" + EX + "b>", "<" + EX + "c>")));
+		assertEquals(expected, asSet(readAll(reader, null)));
+	}
+
+	@Test
+	public void read_propertyAndObject_unaryTuples() throws IOException {
+		final File file = this.writeFile();
+		final List<String[]> tuples = readAll(
+				new HdtFileReader(new HdtDataSource(file.getPath(), RDF_TYPE, EX + "Person"), 1), null);
+
+		assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(EX + "a"), Arrays.asList(EX + "b"))), asSet(tuples));
+
+		final List<String[]> literalTuples = readAll(
+				new HdtFileReader(new HdtDataSource(file.getPath(), EX + "name", "\"chien\"@fr"), 1), null);
+		assertEquals(1, literalTuples.size());
+		assertArrayEquals(new String[] { EX + "d" }, literalTuples.get(0));
+	}
+
+	@Test
+	public void read_unknownPropertyOrObject_noTuples() throws IOException {
+		final File file = this.writeFile();
+		assertEquals(0, readAll(new HdtFileReader(new HdtDataSource(file.getPath(), EX + "unknown"), 2), null).size());
+		assertEquals(0, readAll(new HdtFileReader(new HdtDataSource(file.getPath(), RDF_TYPE, EX + "Cat"), 1), null)
+				.size());
+		assertEquals(0,
+				readAll(new HdtFileReader(new HdtDataSource(file.getPath(), EX + "knows", EX + "a"), 1), null).size());
+	}
+
+	@Test
+	public void read_blankNodes_consistentSkolemConstants() throws IOException {
+		final File file = this.tempFolder.newFile("blank.hdt");
+		new HdtTestFileWriter().addTriple("_:b1", EX + "p", EX + "a").addTriple(EX + "a", EX + "p", "_:b1")
+				.write(file);
+		final HdtFileReader reader = new HdtFileReader(new HdtDataSource(file.getPath(), EX + "p"), 2);
+
+		final Set<String> blankNodes = new HashSet<>();
+		for (final String[] tuple : readAll(reader, null)) {
+			blankNodes.add(tuple[0].equals(EX + "a") ? tuple[1] : tuple[0]);
+		}
+		assertEquals(1, blankNodes.size());
+		final String blankNode = blankNodes.iterator().next();
+		assertTrue(blankNode.startsWith(Skolemization.SKOLEM_IRI_PREFIX));
+
+		final List<String[]> otherTuples = readAll(reader, null);
+		assertNotEquals(blankNode, otherTuples.get(0)[0].equals(EX + "a") ? otherTuples.get(0)[1]
+				: otherTuples.get(0)[0]);
+	}
+
+	@Test
+	public void read_largeFileWithExecutor_sameTuples() throws IOException {
+		final File file = this.tempFolder.newFile("large.hdt");
+		final HdtTestFileWriter writer = new HdtTestFileWriter();
+		for (int i = 0; i < 70000; i++) {
+			writer.addTriple(EX + "s" + i, EX + "p" + (i % 3), EX + "o" + (i % 1000));
+			writer.addTriple(EX + "s" + i, EX + "q", EX + "s" + ((i + 1) % 70000));
+			if (i % 7 == 0) {
+				writer.addTriple(EX + "s" + i, EX + "q", EX + "o" + i);
+			}
+		}
+		writer.write(file);
+
+		final HdtDataSource dataSource = new HdtDataSource(file.getPath(), EX + "q");
+		final List<String[]> expected = readAll(new HdtFileReader(dataSource, 2), null);
+		assertEquals(80000, expected.size());
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final HdtFileReader reader = new HdtFileReader(dataSource, 2);
+			reader.setBatchSize(1000);
+			final List<String[]> tuples = readAll(reader, executor);
+			assertEquals(expected.size(), tuples.size());
+			assertEquals(asSet(expected), asSet(tuples));
+			assertEquals(150000,
+					readAll(new HdtFileReader(new HdtDataSource(file.getPath()), 3), executor).size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void read_notHdtFile_throwsIOException() throws IOException {
+		final File file = this.tempFolder.newFile("invalid.hdt");
+		try (FileOutputStream output = new FileOutputStream(file)) {
+			output.write("<a> <b> <c> .\n".getBytes(StandardCharsets.UTF_8));
+		}
+		readAll(new HdtFileReader(new HdtDataSource(file.getPath()), 3), null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_wrongArity_throwsException() throws IOException {
+		new HdtFileReader(new HdtDataSource("file.hdt", EX + "knows"), 3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void dataSource_objectWithoutProperty_throwsException() throws IOException {
+		new HdtDataSource("file.hdt", null, EX + "a");
+	}
+
+}
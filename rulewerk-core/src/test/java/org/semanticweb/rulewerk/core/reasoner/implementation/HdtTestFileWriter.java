@@ -0,0 +1,254 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Minimal writer of HDT files for testing {@link HdtFileReader}, with a
+ * four-section dictionary and bitmap triples in subject-predicate-object order.
+ * Triples are given as in the dictionary of the file. Checksums are written as
+ * zeros, since the reader does not verify them.
+ */
+final class HdtTestFileWriter {
+
+	private static final Comparator<String> BYTE_ORDER = (first, second) -> {
+		final byte[] a = first.getBytes(StandardCharsets.UTF_8);
+		final byte[] b = second.getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < Math.min(a.length, b.length); i++) {
+			final int difference = (a[i] & 0xff) - (b[i] & 0xff);
+			if (difference != 0) {
+				return difference;
+			}
+		}
+		return a.length - b.length;
+	};
+
+	private final List<String[]> triples = new ArrayList<>();
+	private int blockSize = 16;
+
+	HdtTestFileWriter addTriple(final String subject, final String predicate, final String object) {
+		this.triples.add(new String[] { subject, predicate, object });
+		return this;
+	}
+
+	HdtTestFileWriter setBlockSize(final int blockSize) {
+		this.blockSize = blockSize;
+		return this;
+	}
+
+	void write(final File file) throws IOException {
+		final TreeSet<String> subjects = new TreeSet<>(BYTE_ORDER);
+		final TreeSet<String> predicates = new TreeSet<>(BYTE_ORDER);
+		final TreeSet<String> objects = new TreeSet<>(BYTE_ORDER);
+		for (final String[] triple : this.triples) {
+			subjects.add(triple[0]);
+			predicates.add(triple[1]);
+			objects.add(triple[2]);
+		}
+		final TreeSet<String> shared = new TreeSet<>(BYTE_ORDER);
+		for (final String subject : subjects) {
+			if (objects.contains(subject)) {
+				shared.add(subject);
+			}
+		}
+		subjects.removeAll(shared);
+		objects.removeAll(shared);
+
+		final Map<String, Long> subjectIds = new HashMap<>();
+		final Map<String, Long> predicateIds = new HashMap<>();
+		final Map<String, Long> objectIds = new HashMap<>();
+		long id = 1;
+		for (final String value : shared) {
+			subjectIds.put(value, id);
+			objectIds.put(value, id++);
+		}
+		for (final String value : subjects) {
+			subjectIds.put(value, id++);
+		}
+		id = shared.size() + 1;
+		for (final String value : objects) {
+			objectIds.put(value, id++);
+		}
+		id = 1;
+		for (final String value : predicates) {
+			predicateIds.put(value, id++);
+		}
+
+		final TreeSet<long[]> idTriples = new TreeSet<>((a, b) -> {
+			for (int i = 0; i < 3; i++) {
+				final int comparison = Long.compare(a[i], b[i]);
+				if (comparison != 0) {
+					return comparison;
+				}
+			}
+			return 0;
+		});
+		for (final String[] triple : this.triples) {
+			idTriples.add(new long[] { subjectIds.get(triple[0]), predicateIds.get(triple[1]),
+					objectIds.get(triple[2]) });
+		}
+
+		final List<Long> arrayY = new ArrayList<>();
+		final List<Boolean> bitmapY = new ArrayList<>();
+		final List<Long> arrayZ = new ArrayList<>();
+		final List<Boolean> bitmapZ = new ArrayList<>();
+		long[] previous = null;
+		for (final long[] triple : idTriples) {
+			if (previous != null && (previous[0] != triple[0] || previous[1] != triple[1])) {
+				bitmapZ.set(bitmapZ.size() - 1, true);
+				bitmapY.add(previous[0] != triple[0]);
+				arrayY.add(previous[1]);
+			}
+			arrayZ.add(triple[2]);
+			bitmapZ.add(false);
+			previous = triple;
+		}
+		if (previous != null) {
+			bitmapZ.set(bitmapZ.size() - 1, true);
+			bitmapY.add(true);
+			arrayY.add(previous[1]);
+		}
+
+		try (OutputStream output = new FileOutputStream(file)) {
+			writeControlInformation(output, 1, "<http://purl.org/HDT/hdt#HDTv1>", "");
+			final byte[] header = ("<file:///test> <http://rdfs.org/ns/void#triples> \"" + idTriples.size()
+					+ "\" .\n").getBytes(StandardCharsets.UTF_8);
+			writeControlInformation(output, 2, "ntriples", "length=" + header.length + ";");
+			output.write(header);
+			writeControlInformation(output, 3, "<http://purl.org/HDT/hdt#dictionaryFour>", "mapping=1;");
+			this.writeSection(output, shared);
+			this.writeSection(output, subjects);
+			this.writeSection(output, predicates);
+			this.writeSection(output, objects);
+			writeControlInformation(output, 4, "<http://purl.org/HDT/hdt#triplesBitmap>", "order=1;");
+			writeBitmap(output, bitmapY);
+			writeBitmap(output, bitmapZ);
+			writeLogArray(output, arrayY);
+			writeLogArray(output, arrayZ);
+		}
+	}
+
+	private static void writeControlInformation(final OutputStream output, final int type, final String format,
+			final String properties) throws IOException {
+		output.write("$HDT".getBytes(StandardCharsets.US_ASCII));
+		output.write(type);
+		writeCString(output, format.getBytes(StandardCharsets.UTF_8));
+		writeCString(output, properties.getBytes(StandardCharsets.UTF_8));
+		output.write(new byte[2]);
+	}
+
+	private void writeSection(final OutputStream output, final TreeSet<String> values) throws IOException {
+		final ByteArrayOutputStream data = new ByteArrayOutputStream();
+		final List<Long> blocks = new ArrayList<>();
+		byte[] previous = null;
+		int index = 0;
+		for (final String value : values) {
+			final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			if (index % this.blockSize == 0) {
+				blocks.add((long) data.size());
+				writeCString(data, bytes);
+			} else {
+				int prefix = 0;
+				while (prefix < Math.min(previous.length, bytes.length) && previous[prefix] == bytes[prefix]) {
+					prefix++;
+				}
+				writeVByte(data, prefix);
+				data.write(bytes, prefix, bytes.length - prefix);
+				data.write(0);
+			}
+			previous = bytes;
+			index++;
+		}
+		blocks.add((long) data.size());
+
+		output.write(2);
+		writeVByte(output, values.size());
+		writeVByte(output, data.size());
+		writeVByte(output, this.blockSize);
+		output.write(0);
+		writeLogArray(output, blocks);
+		data.writeTo(output);
+		output.write(new byte[4]);
+	}
+
+	private static void writeLogArray(final OutputStream output, final List<Long> values) throws IOException {
+		long max = 0;
+		for (final long value : values) {
+			max = Math.max(max, value);
+		}
+		final int bits = 64 - Long.numberOfLeadingZeros(max);
+		final byte[] data = new byte[(int) (((long) bits * values.size() + 7) / 8)];
+		long bitPosition = 0;
+		for (final long value : values) {
+			for (int i = 0; i < bits; i++, bitPosition++) {
+				if ((value >>> i & 1) != 0) {
+					data[(int) (bitPosition >>> 3)] |= 1 << (bitPosition & 7);
+				}
+			}
+		}
+		output.write(1);
+		output.write(bits);
+		writeVByte(output, values.size());
+		output.write(0);
+		output.write(data);
+		output.write(new byte[4]);
+	}
+
+	private static void writeBitmap(final OutputStream output, final List<Boolean> bits) throws IOException {
+		final byte[] data = new byte[(bits.size() + 7) / 8];
+		for (int i = 0; i < bits.size(); i++) {
+			if (bits.get(i)) {
+				data[i >>> 3] |= 1 << (i & 7);
+			}
+		}
+		output.write(1);
+		writeVByte(output, bits.size());
+		output.write(0);
+		output.write(data);
+		output.write(new byte[4]);
+	}
+
+	private static void writeCString(final OutputStream output, final byte[] bytes) throws IOException {
+		output.write(bytes);
+		output.write(0);
+	}
+
+	private static void writeVByte(final OutputStream output, long value) throws IOException {
+		while (value > 127) {
+			output.write((int) (value & 127));
+			value >>>= 7;
+		}
+		output.write((int) (value | 0x80));
+	}
+
+}
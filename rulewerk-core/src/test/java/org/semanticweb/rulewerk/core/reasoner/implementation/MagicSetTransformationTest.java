@@ -0,0 +1,152 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk Core Components
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Rule;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+
+public class MagicSetTransformationTest {
+
+	private static final Predicate edge = Expressions.makePredicate("edge", 2);
+	private static final Predicate path = Expressions.makePredicate("path", 2);
+	private static final Predicate other = Expressions.makePredicate("other", 1);
+	private static final Predicate pathBf = Expressions.makePredicate("path#demand_bf", 2);
+	private static final Predicate magicPathBf = Expressions.makePredicate("path#magic_bf", 1);
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Variable z = Expressions.makeUniversalVariable("Z");
+	private static final Constant a = Expressions.makeAbstractConstant("a");
+	private static final Constant b = Expressions.makeAbstractConstant("b");
+
+	private static final Fact edgeAB = Expressions.makeFact(edge, a, b);
+	private static final Fact otherA = Expressions.makeFact(other, a);
+	private static final Rule pathBase = Expressions.makeRule(Expressions.makePositiveLiteral(path, x, y),
+			Expressions.makePositiveLiteral(edge, x, y));
+	private static final Rule pathStep = Expressions.makeRule(Expressions.makePositiveLiteral(path, x, z),
+			Expressions.makePositiveLiteral(edge, x, y), Expressions.makePositiveLiteral(path, y, z));
+	private static final Rule otherRule = Expressions.makeRule(Expressions.makePositiveLiteral(other, x),
+			Expressions.makePositiveLiteral(edge, x, y));
+
+	private static KnowledgeBase createKnowledgeBase() {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(edgeAB, otherA, pathBase, pathStep, otherRule);
+		return kb;
+	}
+
+	@Test
+	public void rewrite_boundQuery_magicSets() {
+		final PositiveLiteral query = Expressions.makePositiveLiteral(path, a, x);
+		final MagicSetTransformation transformation = MagicSetTransformation.rewrite(createKnowledgeBase(), query);
+
+		assertTrue(transformation.isMagicSetsApplied());
+		assertEquals(Expressions.makePositiveLiteral(pathBf, a, x), transformation.getQuery());
+
+		final KnowledgeBase rewritten = transformation.getKnowledgeBase();
+		final Set<Rule> expectedRules = new HashSet<>(Arrays.asList(
+				Expressions.makeRule(Expressions.makePositiveLiteral(pathBf, x, y),
+						Expressions.makePositiveLiteral(magicPathBf, x), Expressions.makePositiveLiteral(edge, x, y)),
+				Expressions.makeRule(Expressions.makePositiveLiteral(magicPathBf, y),
+						Expressions.makePositiveLiteral(magicPathBf, x), Expressions.makePositiveLiteral(edge, x, y)),
+				Expressions.makeRule(Expressions.makePositiveLiteral(pathBf, x, z),
+						Expressions.makePositiveLiteral(magicPathBf, x), Expressions.makePositiveLiteral(edge, x, y),
+						Expressions.makePositiveLiteral(pathBf, y, z))));
+		assertEquals(expectedRules, new HashSet<>(rewritten.getRules()));
+		assertEquals(new HashSet<>(Arrays.asList(edgeAB, Expressions.makeFact(magicPathBf, a))),
+				new HashSet<>(rewritten.getFacts()));
+	}
+
+	@Test
+	public void forQuery_sameAdornment_sharesRules() {
+		final MagicSetTransformation transformation = MagicSetTransformation.rewrite(createKnowledgeBase(),
+				Expressions.makePositiveLiteral(path, a, x));
+		final MagicSetTransformation otherTransformation = transformation
+				.forQuery(Expressions.makePositiveLiteral(path, b, y));
+
+		assertEquals(Expressions.makePositiveLiteral(pathBf, b, y), otherTransformation.getQuery());
+		assertEquals(Expressions.makeFact(magicPathBf, b), otherTransformation.getMagicSeed());
+		assertEquals(transformation.getRules(), otherTransformation.getRules());
+		assertEquals(new HashSet<>(Arrays.asList(edge)), otherTransformation.getDataPredicates());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void forQuery_otherAdornment_throwsException() {
+		MagicSetTransformation.rewrite(createKnowledgeBase(), Expressions.makePositiveLiteral(path, a, x))
+				.forQuery(Expressions.makePositiveLiteral(path, x, b));
+	}
+
+	@Test
+	public void rewrite_freeQuery_onlyRelevantRules() {
+		final PositiveLiteral query = Expressions.makePositiveLiteral(path, x, y);
+		final MagicSetTransformation transformation = MagicSetTransformation.rewrite(createKnowledgeBase(), query);
+
+		assertFalse(transformation.isMagicSetsApplied());
+		assertEquals(query, transformation.getQuery());
+		assertEquals(new HashSet<>(Arrays.asList(pathBase, pathStep)),
+				new HashSet<>(transformation.getKnowledgeBase().getRules()));
+		assertEquals(Arrays.asList(edgeAB), transformation.getKnowledgeBase().getFacts());
+	}
+
+	@Test
+	public void rewrite_queryWithoutRules_onlyFactsOfQueryPredicate() {
+		final PositiveLiteral query = Expressions.makePositiveLiteral(edge, a, x);
+		final MagicSetTransformation transformation = MagicSetTransformation.rewrite(createKnowledgeBase(), query);
+
+		assertFalse(transformation.isMagicSetsApplied());
+		assertEquals(query, transformation.getQuery());
+		assertTrue(transformation.getKnowledgeBase().getRules().isEmpty());
+		assertEquals(Arrays.asList(edgeAB), transformation.getKnowledgeBase().getFacts());
+	}
+
+	@Test
+	public void rewrite_existentialRules_onlyRelevantRules() {
+		final KnowledgeBase kb = createKnowledgeBase();
+		final Rule existentialRule = Expressions.makeRule(
+				Expressions.makePositiveLiteral(path, x, Expressions.makeExistentialVariable("W")),
+				Expressions.makePositiveLiteral(other, x));
+		kb.addStatement(existentialRule);
+		final PositiveLiteral query = Expressions.makePositiveLiteral(path, a, x);
+		final MagicSetTransformation transformation = MagicSetTransformation.rewrite(kb, query);
+
+		assertFalse(transformation.isMagicSetsApplied());
+		assertEquals(query, transformation.getQuery());
+		assertEquals(new HashSet<>(kb.getRules()), new HashSet<>(transformation.getKnowledgeBase().getRules()));
+
+		final MagicSetTransformation otherTransformation = MagicSetTransformation.rewrite(kb,
+				Expressions.makePositiveLiteral(other, x));
+		assertEquals(Arrays.asList(otherRule), otherTransformation.getKnowledgeBase().getRules());
+	}
+
+}
@@ -0,0 +1,230 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ParquetFileReaderTest {
+
+	private static final String XSD = "http://www.w3.org/2001/XMLSchema#";
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static List<String[]> readAll(final ParquetFileReader reader, final ExecutorService executor)
+			throws IOException {
+		final List<String[]> tuples = Collections.synchronizedList(new ArrayList<>());
+		final long count = reader.read(batch -> tuples.addAll(Arrays.asList(batch)), executor);
+		assertEquals(tuples.size(), count);
+		return tuples;
+	}
+
+	private static Set<List<String>> asSet(final List<String[]> tuples) {
+		final Set<List<String>> set = new HashSet<>();
+		for (final String[] tuple : tuples) {
+			set.add(Arrays.asList(tuple));
+		}
+		return set;
+	}
+
+	private File writeTypedFile(final int codec, final int dataPageVersion) throws IOException {
+		final File file = this.tempFolder.newFile("typed-" + codec + "-" + dataPageVersion + ".parquet");
+		new ParquetTestFileWriter().addColumn("name", ParquetTestFileWriter.BYTE_ARRAY, false, false)
+				.addColumn("age", ParquetTestFileWriter.INT32, true, false)
+				.addColumn("id", ParquetTestFileWriter.INT64, false, false)
+				.addColumn("score", ParquetTestFileWriter.DOUBLE, false, false)
+				.addColumn("weight", ParquetTestFileWriter.FLOAT, false, false)
+				.addColumn("active", ParquetTestFileWriter.BOOLEAN, false, false).setCodec(codec)
+				.setDataPageVersion(dataPageVersion)
+				.addRowGroup(new Object[] { "alice", 30, 1L, 1.5, 2.5f, true },
+						new Object[] { "bob", null, -2L, 0.25, 1f, false },
+						new Object[] { "http://example.org/carol", 41, 3L, -1.0, 0.5f, true })
+				.write(file);
+		return file;
+	}
+
+	@Test
+	public void read_allTypesAndCodecs() throws IOException {
+		for (final int codec : new int[] { ParquetTestFileWriter.UNCOMPRESSED, ParquetTestFileWriter.SNAPPY,
+				ParquetTestFileWriter.GZIP }) {
+			for (final int version : new int[] { 1, 2 }) {
+				final File file = this.writeTypedFile(codec, version);
+				final ParquetFileReader reader = new ParquetFileReader(new ParquetFileDataSource(file.getPath()), 6);
+				final List<String[]> tuples = readAll(reader, null);
+
+				assertEquals(2, tuples.size());
+				assertArrayEquals(new String[] { "alice", "\"30\"^^<" + XSD + "integer>", "\"1\"^^<" + XSD + "integer>",
+						"\"1.5\"^^<" + XSD + "double>", "\"2.5\"^^<" + XSD + "float>", "\"true\"^^<" + XSD + "boolean>" },
+						tuples.get(0));
+				assertArrayEquals(new String[] { "http://example.org/carol", "\"41\"^^<" + XSD + "integer>",
+						"\"3\"^^<" + XSD + "integer>", "\"-1.0\"^^<" + XSD + "double>", "\"0.5\"^^<" + XSD + "float>",
+						"\"true\"^^<" + XSD + "boolean>" }, tuples.get(1));
+			}
+		}
+	}
+
+	@Test
+	public void read_selectedColumns_inGivenOrder() throws IOException {
+		final File file = this.writeTypedFile(ParquetTestFileWriter.UNCOMPRESSED, 1);
+		final ParquetFileReader reader = new ParquetFileReader(
+				new ParquetFileDataSource(file.getPath(), "id", "name"), 2);
+		reader.setTermConverter(value -> "<" + value + ">");
+
+		final List<String[]> tuples = readAll(reader, null);
+		assertEquals(3, tuples.size());
+		assertArrayEquals(new String[] { "<\"-2\"^^<" + XSD + "integer>>", "<bob>" }, tuples.get(1));
+	}
+
+	@Test
+	public void read_dictionaryEncodedPages_sharedTerms() throws IOException {
+		final File file = this.tempFolder.newFile("dictionary.parquet");
+		final Object[][] rows = new Object[1000][];
+		for (int i = 0; i < rows.length; i++) {
+			rows[i] = new Object[] { "s" + (i % 7), i % 11 == 0 ? null : "o" + (i % 3) };
+		}
+		for (final int version : new int[] { 1, 2 }) {
+			new ParquetTestFileWriter().addColumn("s", ParquetTestFileWriter.BYTE_ARRAY, false, true)
+					.addColumn("o", ParquetTestFileWriter.BYTE_ARRAY, true, true).setRowsPerPage(100)
+					.setDataPageVersion(version).setCodec(ParquetTestFileWriter.SNAPPY).addRowGroup(rows).write(file);
+
+			final ParquetFileReader reader = new ParquetFileReader(new ParquetFileDataSource(file.getPath()), 2);
+			reader.setBatchSize(64);
+			final List<String[]> tuples = readAll(reader, null);
+			assertEquals(1000 - 91, tuples.size());
+			assertArrayEquals(new String[] { "s1", "o1" }, tuples.get(0));
+			assertSame(tuples.get(0)[0], tuples.get(7)[0]);
+		}
+	}
+
+	@Test
+	public void read_filters_rowGroupsSkipped() throws IOException {
+		final File file = this.tempFolder.newFile("filtered.parquet");
+		new ParquetTestFileWriter().addColumn("s", ParquetTestFileWriter.BYTE_ARRAY, false, false)
+				.addColumn("p", ParquetTestFileWriter.BYTE_ARRAY, false, true)
+				.addColumn("o", ParquetTestFileWriter.INT64, false, false)
+				.addRowGroup(new Object[] { "a", "knows", 1L }, new Object[] { "b", "likes", 2L })
+				.addRowGroup(new Object[] { "c", "hates", 3L }, new Object[] { "d", "hates", 4L })
+				.addRowGroup(new Object[] { "e", "knows", 5L }, new Object[] { "f", "knows", 6L })
+				.write(file);
+
+		final ParquetFileReader reader = new ParquetFileReader(new ParquetFileDataSource(file.getPath(),
+				Arrays.asList("s", "p"), Collections.singletonMap("p", "knows")), 2);
+		final List<String[]> tuples = readAll(reader, null);
+		assertEquals(asSet(Arrays.asList(new String[] { "a", "knows" }, new String[] { "e", "knows" },
+				new String[] { "f", "knows" })), asSet(tuples));
+		assertEquals(1, reader.getSkippedRowGroups());
+
+		final ParquetFileReader numberReader = new ParquetFileReader(new ParquetFileDataSource(file.getPath(),
+				Arrays.asList("s"), Collections.singletonMap("o", "4")), 1);
+		assertEquals(asSet(Arrays.<String[]>asList(new String[] { "d" })), asSet(readAll(numberReader, null)));
+		assertEquals(2, numberReader.getSkippedRowGroups());
+	}
+
+	@Test
+	public void read_rowGroupsInParallel() throws IOException {
+		final File file = this.tempFolder.newFile("parallel.parquet");
+		final ParquetTestFileWriter writer = new ParquetTestFileWriter()
+				.addColumn("x", ParquetTestFileWriter.INT32, false, false)
+				.addColumn("y", ParquetTestFileWriter.BYTE_ARRAY, false, true).setStatistics(false);
+		final Set<List<String>> expected = new HashSet<>();
+		for (int group = 0; group < 8; group++) {
+			final Object[][] rows = new Object[500][];
+			for (int i = 0; i < rows.length; i++) {
+				final int x = group * 500 + i;
+				rows[i] = new Object[] { x, "y" + (x % 13) };
+				expected.add(Arrays.asList("\"" + x + "\"^^<" + XSD + "integer>", "y" + (x % 13)));
+			}
+			writer.addRowGroup(rows);
+		}
+		writer.write(file);
+
+		final ParquetFileReader reader = new ParquetFileReader(new ParquetFileDataSource(file.getPath()), 2);
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			assertEquals(expected, asSet(readAll(reader, executor)));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void read_wrongArity_throwsException() throws IOException {
+		final File file = this.writeTypedFile(ParquetTestFileWriter.UNCOMPRESSED, 1);
+		readAll(new ParquetFileReader(new ParquetFileDataSource(file.getPath(), "name", "age"), 3), null);
+	}
+
+	@Test(expected = IOException.class)
+	public void read_unknownColumn_throwsException() throws IOException {
+		final File file = this.writeTypedFile(ParquetTestFileWriter.UNCOMPRESSED, 1);
+		readAll(new ParquetFileReader(new ParquetFileDataSource(file.getPath(), "unknown"), 1), null);
+	}
+
+	@Test(expected = IOException.class)
+	public void read_notParquet_throwsException() throws IOException {
+		final File file = this.tempFolder.newFile("invalid.parquet");
+		java.nio.file.Files.write(file.toPath(), "PAR1 this is not a parquet file".getBytes());
+		readAll(new ParquetFileReader(new ParquetFileDataSource(file.getPath()), 1), null);
+	}
+
+	@Test
+	public void snappyDecompress_copies() throws IOException {
+		// "abc" as literal, copy of 9 bytes at offset 3, copy of 2 bytes at offset 12
+		final byte[] compressed = { 14, 0x08, 'a', 'b', 'c', 0x15, 3, 0x06, 12, 0 };
+		assertArrayEquals("abcabcabcabcab".getBytes(), SnappyDecompressor.decompress(compressed, 0, compressed.length));
+	}
+
+	@Test(expected = IOException.class)
+	public void snappyDecompress_invalidOffset_throwsException() throws IOException {
+		final byte[] compressed = { 8, 0x15, 3 };
+		SnappyDecompressor.decompress(compressed, 0, compressed.length);
+	}
+
+	@Test
+	public void getDeclarationFact_columnsAndFilters() throws IOException {
+		final ParquetFileDataSource dataSource = new ParquetFileDataSource("file.parquet", Arrays.asList("s", "o"),
+				Collections.singletonMap("p", "knows"));
+		assertEquals("parquet(\"file.parquet\", \"s\", \"o\", \"p=knows\")",
+				dataSource.getDeclarationFact().toString().replaceAll(" \\.$", ""));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_wrongExtension_throwsException() throws IOException {
+		new ParquetFileDataSource("file.csv");
+	}
+
+}
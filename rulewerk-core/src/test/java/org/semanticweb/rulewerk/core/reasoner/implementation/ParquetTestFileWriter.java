@@ -0,0 +1,549 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Minimal writer of flat Parquet files for testing {@link ParquetFileReader}.
+ * Rows are given as arrays of {@link String}, {@link Integer}, {@link Long},
+ * {@link Float}, {@link Double}, or {@link Boolean} values, or null.
+ */
+final class ParquetTestFileWriter {
+
+	static final int BOOLEAN = 0;
+	static final int INT32 = 1;
+	static final int INT64 = 2;
+	static final int FLOAT = 4;
+	static final int DOUBLE = 5;
+	static final int BYTE_ARRAY = 6;
+
+	static final int UNCOMPRESSED = 0;
+	static final int SNAPPY = 1;
+	static final int GZIP = 2;
+
+	private static final class ColumnSpec {
+		final String name;
+		final int type;
+		final boolean optional;
+		final boolean dictionary;
+
+		ColumnSpec(final String name, final int type, final boolean optional, final boolean dictionary) {
+			this.name = name;
+			this.type = type;
+			this.optional = optional;
+			this.dictionary = dictionary;
+		}
+	}
+
+	private final List<ColumnSpec> columns = new ArrayList<>();
+	private final List<Object[][]> rowGroups = new ArrayList<>();
+	private int codec = UNCOMPRESSED;
+	private int dataPageVersion = 1;
+	private int rowsPerPage = Integer.MAX_VALUE;
+	private boolean statistics = true;
+
+	ParquetTestFileWriter addColumn(final String name, final int type, final boolean optional,
+			final boolean dictionary) {
+		this.columns.add(new ColumnSpec(name, type, optional, dictionary));
+		return this;
+	}
+
+	ParquetTestFileWriter setCodec(final int codec) {
+		this.codec = codec;
+		return this;
+	}
+
+	ParquetTestFileWriter setDataPageVersion(final int dataPageVersion) {
+		this.dataPageVersion = dataPageVersion;
+		return this;
+	}
+
+	ParquetTestFileWriter setRowsPerPage(final int rowsPerPage) {
+		this.rowsPerPage = rowsPerPage;
+		return this;
+	}
+
+	ParquetTestFileWriter setStatistics(final boolean statistics) {
+		this.statistics = statistics;
+		return this;
+	}
+
+	ParquetTestFileWriter addRowGroup(final Object[]... rows) {
+		this.rowGroups.add(rows);
+		return this;
+	}
+
+	void write(final File file) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write("PAR1".getBytes(StandardCharsets.US_ASCII));
+
+		final ThriftWriter footer = new ThriftWriter();
+		footer.i32(1, 1);
+		footer.list(2, ThriftWriter.STRUCT, this.columns.size() + 1);
+		footer.beginElement();
+		footer.binary(4, "schema".getBytes(StandardCharsets.UTF_8));
+		footer.i32(5, this.columns.size());
+		footer.end();
+		for (final ColumnSpec column : this.columns) {
+			footer.beginElement();
+			footer.i32(1, column.type);
+			footer.i32(3, column.optional ? 1 : 0);
+			footer.binary(4, column.name.getBytes(StandardCharsets.UTF_8));
+			if (column.type == BYTE_ARRAY) {
+				footer.i32(6, 0); // UTF8
+			}
+			footer.end();
+		}
+		long numRows = 0;
+		for (final Object[][] rows : this.rowGroups) {
+			numRows += rows.length;
+		}
+		footer.i64(3, numRows);
+		footer.list(4, ThriftWriter.STRUCT, this.rowGroups.size());
+		for (final Object[][] rows : this.rowGroups) {
+			footer.beginElement();
+			footer.list(1, ThriftWriter.STRUCT, this.columns.size());
+			for (int c = 0; c < this.columns.size(); c++) {
+				this.writeColumnChunk(out, footer, this.columns.get(c), rows, c);
+			}
+			footer.i64(2, 0);
+			footer.i64(3, rows.length);
+			footer.end();
+		}
+		footer.list(5, ThriftWriter.STRUCT, 1); // key-value metadata, to be skipped
+		footer.beginElement();
+		footer.binary(1, "writer".getBytes(StandardCharsets.UTF_8));
+		footer.binary(2, "test".getBytes(StandardCharsets.UTF_8));
+		footer.end();
+		footer.binary(6, "ParquetTestFileWriter".getBytes(StandardCharsets.UTF_8));
+		footer.stop();
+
+		final byte[] footerBytes = footer.toByteArray();
+		out.write(footerBytes);
+		writeInt(out, footerBytes.length);
+		out.write("PAR1".getBytes(StandardCharsets.US_ASCII));
+		try (OutputStream fileOut = new FileOutputStream(file)) {
+			out.writeTo(fileOut);
+		}
+	}
+
+	private void writeColumnChunk(final ByteArrayOutputStream out, final ThriftWriter footer, final ColumnSpec column,
+			final Object[][] rows, final int index) throws IOException {
+		final long start = out.size();
+		long dictionaryOffset = -1;
+		final Map<Object, Integer> dictionary = new LinkedHashMap<>();
+		if (column.dictionary) {
+			for (final Object[] row : rows) {
+				if (row[index] != null) {
+					dictionary.putIfAbsent(row[index], dictionary.size());
+				}
+			}
+			final ByteArrayOutputStream values = new ByteArrayOutputStream();
+			writePlain(values, column.type, new ArrayList<>(dictionary.keySet()));
+			final byte[] compressed = this.compress(values.toByteArray());
+			final ThriftWriter header = new ThriftWriter();
+			header.i32(1, 2); // dictionary page
+			header.i32(2, values.size());
+			header.i32(3, compressed.length);
+			header.beginStruct(7);
+			header.i32(1, dictionary.size());
+			header.i32(2, 2); // PLAIN_DICTIONARY
+			header.end();
+			header.stop();
+			dictionaryOffset = out.size();
+			out.write(header.toByteArray());
+			out.write(compressed);
+		}
+
+		final long dataOffset = out.size();
+		for (int first = 0; first < rows.length; first += this.rowsPerPage) {
+			final int last = (int) Math.min(rows.length, (long) first + this.rowsPerPage);
+			this.writeDataPage(out, column, Arrays.copyOfRange(rows, first, last), index, dictionary);
+		}
+
+		footer.beginElement();
+		footer.i64(2, start);
+		footer.beginStruct(3);
+		footer.i32(1, column.type);
+		footer.list(2, ThriftWriter.I32, 2);
+		footer.listI32(0);
+		footer.listI32(3);
+		footer.list(3, ThriftWriter.BINARY, 1);
+		footer.listBinary(column.name.getBytes(StandardCharsets.UTF_8));
+		footer.i32(4, this.codec);
+		footer.i64(5, rows.length);
+		footer.i64(6, out.size() - start);
+		footer.i64(7, out.size() - start);
+		footer.i64(9, dataOffset);
+		if (dictionaryOffset >= 0) {
+			footer.i64(11, dictionaryOffset);
+		}
+		if (this.statistics && (column.type == BYTE_ARRAY || column.type == INT32 || column.type == INT64)) {
+			this.writeStatistics(footer, column, rows, index);
+		}
+		footer.end();
+		footer.end();
+	}
+
+	private void writeStatistics(final ThriftWriter footer, final ColumnSpec column, final Object[][] rows,
+			final int index) throws IOException {
+		byte[] min = null;
+		byte[] max = null;
+		for (final Object[] row : rows) {
+			if (row[index] == null) {
+				continue;
+			}
+			final byte[] value;
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			if (column.type == BYTE_ARRAY) {
+				value = ((String) row[index]).getBytes(StandardCharsets.UTF_8);
+			} else {
+				writePlain(bytes, column.type, Arrays.asList(row[index]));
+				value = bytes.toByteArray();
+			}
+			if (min == null || compare(column.type, value, min) < 0) {
+				min = value;
+			}
+			if (max == null || compare(column.type, value, max) > 0) {
+				max = value;
+			}
+		}
+		if (min != null) {
+			footer.beginStruct(12);
+			footer.binary(5, max);
+			footer.binary(6, min);
+			footer.end();
+		}
+	}
+
+	private static int compare(final int type, final byte[] left, final byte[] right) {
+		if (type == BYTE_ARRAY) {
+			for (int i = 0; i < left.length && i < right.length; i++) {
+				final int difference = (left[i] & 0xff) - (right[i] & 0xff);
+				if (difference != 0) {
+					return difference;
+				}
+			}
+			return left.length - right.length;
+		}
+		return Long.compare(toLong(left), toLong(right));
+	}
+
+	private static long toLong(final byte[] bytes) {
+		long value = 0;
+		for (int i = bytes.length - 1; i >= 0; i--) {
+			value = value << 8 | (bytes[i] & 0xff);
+		}
+		return bytes.length == 4 ? (int) value : value;
+	}
+
+	private void writeDataPage(final ByteArrayOutputStream out, final ColumnSpec column, final Object[][] rows,
+			final int index, final Map<Object, Integer> dictionary) throws IOException {
+		final List<Object> values = new ArrayList<>();
+		final int[] levels = new int[rows.length];
+		for (int i = 0; i < rows.length; i++) {
+			if (rows[i][index] != null) {
+				values.add(rows[i][index]);
+				levels[i] = 1;
+			} else if (!column.optional) {
+				throw new IllegalArgumentException("Null value in required column " + column.name);
+			}
+		}
+
+		final ByteArrayOutputStream levelBytes = new ByteArrayOutputStream();
+		if (column.optional) {
+			writeRle(levelBytes, levels);
+		}
+		final ByteArrayOutputStream valueBytes = new ByteArrayOutputStream();
+		if (column.dictionary) {
+			final int[] indices = new int[values.size()];
+			for (int i = 0; i < indices.length; i++) {
+				indices[i] = dictionary.get(values.get(i));
+			}
+			final int bitWidth = 32 - Integer.numberOfLeadingZeros(Math.max(0, dictionary.size() - 1));
+			valueBytes.write(bitWidth);
+			writeBitPacked(valueBytes, indices, bitWidth);
+		} else {
+			writePlain(valueBytes, column.type, values);
+		}
+		final int encoding = column.dictionary ? (this.dataPageVersion == 1 ? 2 : 8) : 0;
+
+		final ThriftWriter header = new ThriftWriter();
+		final byte[] body;
+		if (this.dataPageVersion == 1) {
+			final ByteArrayOutputStream page = new ByteArrayOutputStream();
+			if (column.optional) {
+				writeInt(page, levelBytes.size());
+				levelBytes.writeTo(page);
+			}
+			valueBytes.writeTo(page);
+			body = this.compress(page.toByteArray());
+			header.i32(1, 0);
+			header.i32(2, page.size());
+			header.i32(3, body.length);
+			header.beginStruct(5);
+			header.i32(1, rows.length);
+			header.i32(2, encoding);
+			header.i32(3, 3);
+			header.i32(4, 3);
+			header.end();
+		} else {
+			final byte[] compressedValues = this.compress(valueBytes.toByteArray());
+			final ByteArrayOutputStream page = new ByteArrayOutputStream();
+			levelBytes.writeTo(page);
+			page.write(compressedValues);
+			body = page.toByteArray();
+			header.i32(1, 3);
+			header.i32(2, levelBytes.size() + valueBytes.size());
+			header.i32(3, body.length);
+			header.beginStruct(8);
+			header.i32(1, rows.length);
+			header.i32(2, rows.length - values.size());
+			header.i32(3, rows.length);
+			header.i32(4, encoding);
+			header.i32(5, levelBytes.size());
+			header.i32(6, 0);
+			header.bool(7, this.codec != UNCOMPRESSED);
+			header.end();
+		}
+		header.stop();
+		out.write(header.toByteArray());
+		out.write(body);
+	}
+
+	private byte[] compress(final byte[] data) throws IOException {
+		if (this.codec == GZIP) {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(data);
+			}
+			return out.toByteArray();
+		} else if (this.codec == SNAPPY) { // literals only
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			writeVarint(out, data.length);
+			for (int start = 0; start < data.length; start += 1 << 16) {
+				final int length = Math.min(1 << 16, data.length - start);
+				out.write(61 << 2);
+				out.write((length - 1) & 0xff);
+				out.write((length - 1) >>> 8);
+				out.write(data, start, length);
+			}
+			return out.toByteArray();
+		}
+		return data;
+	}
+
+	private static void writePlain(final ByteArrayOutputStream out, final int type, final List<Object> values)
+			throws IOException {
+		if (type == BOOLEAN) {
+			final byte[] bits = new byte[(values.size() + 7) / 8];
+			for (int i = 0; i < values.size(); i++) {
+				if ((Boolean) values.get(i)) {
+					bits[i / 8] |= 1 << (i % 8);
+				}
+			}
+			out.write(bits);
+			return;
+		}
+		for (final Object value : values) {
+			switch (type) {
+			case INT32:
+				writeInt(out, (Integer) value);
+				break;
+			case INT64:
+				writeLong(out, (Long) value);
+				break;
+			case FLOAT:
+				writeInt(out, Float.floatToIntBits((Float) value));
+				break;
+			case DOUBLE:
+				writeLong(out, Double.doubleToLongBits((Double) value));
+				break;
+			default:
+				final byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+				writeInt(out, bytes.length);
+				out.write(bytes);
+			}
+		}
+	}
+
+	/**
+	 * Writes values of bit width 1 as runs of repeated values.
+	 */
+	private static void writeRle(final ByteArrayOutputStream out, final int[] values) {
+		int start = 0;
+		while (start < values.length) {
+			int end = start;
+			while (end < values.length && values[end] == values[start]) {
+				end++;
+			}
+			writeVarint(out, (end - start) << 1);
+			out.write(values[start]);
+			start = end;
+		}
+	}
+
+	private static void writeBitPacked(final ByteArrayOutputStream out, final int[] values, final int bitWidth) {
+		if (values.length == 0) {
+			return;
+		}
+		final int groups = (values.length + 7) / 8;
+		writeVarint(out, groups << 1 | 1);
+		long buffer = 0;
+		int bufferedBits = 0;
+		for (int i = 0; i < groups * 8; i++) {
+			final long value = i < values.length ? values[i] : 0;
+			buffer |= value << bufferedBits;
+			bufferedBits += bitWidth;
+			while (bufferedBits >= 8) {
+				out.write((int) (buffer & 0xff));
+				buffer >>>= 8;
+				bufferedBits -= 8;
+			}
+		}
+	}
+
+	private static void writeVarint(final ByteArrayOutputStream out, long value) {
+		while ((value & ~0x7fL) != 0) {
+			out.write((int) (value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static void writeInt(final OutputStream out, final int value) throws IOException {
+		out.write(value & 0xff);
+		out.write(value >>> 8 & 0xff);
+		out.write(value >>> 16 & 0xff);
+		out.write(value >>> 24 & 0xff);
+	}
+
+	private static void writeLong(final OutputStream out, final long value) throws IOException {
+		writeInt(out, (int) value);
+		writeInt(out, (int) (value >>> 32));
+	}
+
+	/**
+	 * Writer for structures in the Thrift compact protocol.
+	 */
+	private static final class ThriftWriter {
+		static final int I32 = 5;
+		static final int I64 = 6;
+		static final int BINARY = 8;
+		static final int LIST = 9;
+		static final int STRUCT = 12;
+
+		private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		private final Deque<Integer> lastFieldIds = new ArrayDeque<>();
+		private int lastFieldId = 0;
+
+		void i32(final int id, final int value) {
+			this.fieldHeader(id, I32);
+			writeVarint(this.out, zigzag(value));
+		}
+
+		void i64(final int id, final long value) {
+			this.fieldHeader(id, I64);
+			writeVarint(this.out, zigzag(value));
+		}
+
+		void bool(final int id, final boolean value) {
+			this.fieldHeader(id, value ? 1 : 2);
+		}
+
+		void binary(final int id, final byte[] value) {
+			this.fieldHeader(id, BINARY);
+			this.listBinary(value);
+		}
+
+		void list(final int id, final int elementType, final int size) {
+			this.fieldHeader(id, LIST);
+			if (size < 15) {
+				this.out.write(size << 4 | elementType);
+			} else {
+				this.out.write(0xf0 | elementType);
+				writeVarint(this.out, size);
+			}
+		}
+
+		void listI32(final int value) {
+			writeVarint(this.out, zigzag(value));
+		}
+
+		void listBinary(final byte[] value) {
+			writeVarint(this.out, value.length);
+			this.out.write(value, 0, value.length);
+		}
+
+		void beginStruct(final int id) {
+			this.fieldHeader(id, STRUCT);
+			this.beginElement();
+		}
+
+		void beginElement() {
+			this.lastFieldIds.push(this.lastFieldId);
+			this.lastFieldId = 0;
+		}
+
+		void end() {
+			this.stop();
+			this.lastFieldId = this.lastFieldIds.pop();
+		}
+
+		void stop() {
+			this.out.write(0);
+		}
+
+		byte[] toByteArray() {
+			return this.out.toByteArray();
+		}
+
+		private void fieldHeader(final int id, final int type) {
+			final int delta = id - this.lastFieldId;
+			if (delta > 0 && delta <= 15) {
+				this.out.write(delta << 4 | type);
+			} else {
+				this.out.write(type);
+				writeVarint(this.out, zigzag(id));
+			}
+			this.lastFieldId = id;
+		}
+
+		private static long zigzag(final long value) {
+			return (value << 1) ^ (value >> 63);
+		}
+	}
+
+}
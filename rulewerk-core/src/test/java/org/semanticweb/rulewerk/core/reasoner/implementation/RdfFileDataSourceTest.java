@@ -20,10 +20,17 @@ package org.semanticweb.rulewerk.core.reasoner.implementation;
  * #L%
  */
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
 import java.io.File;
 import java.io.IOException;
+import java.util.Optional;
 
 import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 
 public class RdfFileDataSourceTest {
 
@@ -48,4 +55,37 @@ public class RdfFileDataSourceTest {
 		FileDataSourceTestUtils.testConstructor(unzippedRdfFileDataSource, new File(unzippedRdfFile).getName());
 		FileDataSourceTestUtils.testConstructor(zippedRdfFileDataSource, new File(zippedRdfFile).getName());
 	}
+
+	@Test
+	public void testSelection() throws IOException {
+		final RdfFileDataSource triples = new RdfFileDataSource(unzippedRdfFile);
+		final RdfFileDataSource property = new RdfFileDataSource(unzippedRdfFile, "http://example.org/p");
+		final RdfFileDataSource propertyAndObject = new RdfFileDataSource(unzippedRdfFile, "http://example.org/p",
+				"http://example.org/o");
+
+		assertEquals(Optional.of(3), triples.getRequiredArity());
+		assertEquals(Optional.of(2), property.getRequiredArity());
+		assertEquals(Optional.of(1), propertyAndObject.getRequiredArity());
+		assertEquals("http://example.org/o", propertyAndObject.getObject());
+
+		assertEquals(new RdfFileDataSource(unzippedRdfFile, "http://example.org/p"), property);
+		assertEquals(new RdfFileDataSource(unzippedRdfFile, "http://example.org/p").hashCode(), property.hashCode());
+		assertNotEquals(triples, property);
+		assertNotEquals(property, propertyAndObject);
+	}
+
+	@Test
+	public void testSelectionDeclarationFact() throws IOException {
+		final Fact fact = new RdfFileDataSource(unzippedRdfFile, "http://example.org/p", "http://example.org/o")
+				.getDeclarationFact();
+		assertEquals(RdfFileDataSource.declarationPredicateName, fact.getPredicate().getName());
+		assertEquals(3, fact.getPredicate().getArity());
+		assertEquals(Expressions.makeDatatypeConstant("http://example.org/o", PrefixDeclarationRegistry.XSD_STRING),
+				fact.getArguments().get(2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorObjectWithoutProperty() throws IOException {
+		new RdfFileDataSource(unzippedRdfFile, null, "http://example.org/o");
+	}
 }
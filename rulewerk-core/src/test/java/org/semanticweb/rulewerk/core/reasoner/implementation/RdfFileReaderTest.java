@@ -0,0 +1,226 @@
+package org.semanticweb.rulewerk.core.reasoner.implementation;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RdfFileReaderTest {
+
+	private static final String EX = "http://example.org/";
+	private static final String XSD = "http://www.w3.org/2001/XMLSchema#";
+	private static final String RDF_TYPE = "http://www.w3.org/1999/02/22-rdf-syntax-ns#type";
+
+	private static final String CONTENT = "# comment\n" //
+			+ "<" + EX + "a> <" + EX + "knows> <" + EX + "b> .\n" //
+			+ "<" + EX + "a> <" + EX + "knows> <" + EX + "c> .\n" //
+			+ "\n" //
+			+ "<" + EX + "b> <" + EX + "knows> _:x .\n" //
+			+ "<" + EX + "a> <" + RDF_TYPE + "> <" + EX + "Person> .\n" //
+			+ "<" + EX + "b>\t<" + RDF_TYPE + ">\t<" + EX + "Person>\t.\r\n" //
+			+ "_:x <" + RDF_TYPE + "> <" + EX + "Dog>.\n" //
+			+ "<" + EX + "a> <" + EX + "name> \"Alice \\\"A\\\"\" .\n" //
+			+ "_:x <" + EX + "name> \"chien\"@fr .\n" //
+			+ "_:x <" + EX + "age> \"3\"^^<" + XSD + "integer> .\n" //
+			+ "<" + EX + "c> <" + EX + "name> \"\\u0043\" .\n" //
+			+ "<" + EX + "c> <" + EX + "broken> \"unterminated .";
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private File writeFile(final String name, final String content) throws IOException {
+		final File file = this.tempFolder.newFile(name);
+		try (OutputStream output = name.endsWith(".gz") ? new GZIPOutputStream(new FileOutputStream(file))
+				: new FileOutputStream(file); Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8)) {
+			writer.write(content);
+		}
+		return file;
+	}
+
+	private static Map<RdfFileDataSource, Set<List<String>>> readAll(final RdfFileReader reader,
+			final ExecutorService executor) throws IOException {
+		final Map<RdfFileDataSource, Set<List<String>>> tuples = Collections.synchronizedMap(new HashMap<>());
+		final long[] count = { 0 };
+		final long result = reader.read((dataSource, batch) -> {
+			synchronized (tuples) {
+				final Set<List<String>> set = tuples.computeIfAbsent(dataSource, key -> new HashSet<>());
+				for (final String[] tuple : batch) {
+					set.add(Arrays.asList(tuple));
+				}
+				count[0] += batch.length;
+			}
+		}, executor);
+		assertEquals(count[0], result);
+		return tuples;
+	}
+
+	@Test
+	public void read_selections_inOnePass() throws IOException {
+		final File file = this.writeFile("test.nt", CONTENT);
+		final RdfFileDataSource knows = new RdfFileDataSource(file.getPath(), EX + "knows");
+		final RdfFileDataSource persons = new RdfFileDataSource(file.getPath(), RDF_TYPE, EX + "Person");
+		final RdfFileDataSource dogs = new RdfFileDataSource(file.getPath(), RDF_TYPE, EX + "Dog");
+		final RdfFileReader reader = new RdfFileReader(Arrays.asList(knows, persons, dogs));
+
+		final Map<RdfFileDataSource, Set<List<String>>> tuples = readAll(reader, null);
+
+		assertEquals(3, tuples.get(knows).size());
+		assertTrue(tuples.get(knows).contains(Arrays.asList(EX + "a", EX + "b")));
+		assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(EX + "a"), Arrays.asList(EX + "b"))),
+				tuples.get(persons));
+		assertEquals(1, tuples.get(dogs).size());
+
+		final String blankNode = tuples.get(dogs).iterator().next().get(0);
+		assertTrue(blankNode.startsWith(Skolemization.SKOLEM_IRI_PREFIX));
+		assertTrue(tuples.get(knows).contains(Arrays.asList(EX + "b", blankNode)));
+	}
+
+	@Test
+	public void read_literals() throws IOException {
+		final File file = this.writeFile("test.nt", CONTENT);
+		final RdfFileDataSource names = new RdfFileDataSource(file.getPath(), EX + "name");
+		final RdfFileDataSource ages = new RdfFileDataSource(file.getPath(), EX + "age");
+		final RdfFileReader reader = new RdfFileReader(Arrays.asList(names, ages));
+		reader.setTermConverter(name -> name.startsWith("\"") ? name : "<" + name + ">");
+
+		final Map<RdfFileDataSource, Set<List<String>>> tuples = readAll(reader, null);
+
+		final Set<String> nameObjects = new HashSet<>();
+		tuples.get(names).forEach(tuple -> nameObjects.add(tuple.get(1)));
+		assertEquals(new HashSet<>(Arrays.asList("\"Alice \\\"A\\\"\"^^<" + XSD + "string>", "\"chien\"@fr",
+				"\"C\"^^<" + XSD + "string>")), nameObjects);
+		assertEquals("\"3\"^^<" + XSD + "integer>", tuples.get(ages).iterator().next().get(1));
+	}
+
+	@Test
+	public void read_escapedObject_matches() throws IOException {
+		final File file = this.writeFile("test.nt", CONTENT);
+		final RdfFileDataSource alice = new RdfFileDataSource(file.getPath(), EX + "name", "\"Alice \"A\"\"");
+		final RdfFileDataSource c = new RdfFileDataSource(file.getPath(), EX + "name", "\"C\"");
+
+		final Map<RdfFileDataSource, Set<List<String>>> tuples = readAll(new RdfFileReader(Arrays.asList(alice, c)),
+				null);
+
+		assertEquals(Collections.singleton(Arrays.asList(EX + "a")), tuples.get(alice));
+		assertEquals(Collections.singleton(Arrays.asList(EX + "c")), tuples.get(c));
+	}
+
+	@Test
+	public void read_unselectedInvalidLine_isSkipped() throws IOException {
+		final File file = this.writeFile("test.nt", CONTENT);
+		final RdfFileDataSource missing = new RdfFileDataSource(file.getPath(), EX + "missing");
+
+		assertTrue(readAll(new RdfFileReader(Arrays.asList(missing)), null).isEmpty());
+	}
+
+	@Test(expected = IOException.class)
+	public void read_selectedInvalidLine_fails() throws IOException {
+		final File file = this.writeFile("test.nt", CONTENT);
+		final RdfFileDataSource broken = new RdfFileDataSource(file.getPath(), EX + "broken");
+
+		readAll(new RdfFileReader(Arrays.asList(broken)), null);
+	}
+
+	@Test
+	public void read_gzippedFile() throws IOException {
+		final File file = this.writeFile("test.nt.gz", CONTENT);
+		final RdfFileDataSource knows = new RdfFileDataSource(file.getPath(), EX + "knows");
+
+		final Map<RdfFileDataSource, Set<List<String>>> tuples = readAll(new RdfFileReader(Arrays.asList(knows)),
+				null);
+
+		assertEquals(3, tuples.get(knows).size());
+	}
+
+	@Test
+	public void read_splitFile_sameTuples() throws IOException {
+		final StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			content.append("<" + EX + "s" + i + "> <" + EX + "p" + (i % 7) + "> <" + EX + "o" + i + "> .\n");
+			if (i % 3 == 0) {
+				content.append("<" + EX + "s" + i + "> <" + RDF_TYPE + "> <" + EX + "C> .\n");
+			}
+		}
+		final File file = this.writeFile("large.nt", content.toString());
+		final RdfFileDataSource p3 = new RdfFileDataSource(file.getPath(), EX + "p3");
+		final RdfFileDataSource instances = new RdfFileDataSource(file.getPath(), RDF_TYPE, EX + "C");
+		final RdfFileReader reader = new RdfFileReader(Arrays.asList(p3, instances));
+		reader.setBatchSize(100);
+		reader.setSplitSize(1000);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		final Map<RdfFileDataSource, Set<List<String>>> parallel;
+		try {
+			parallel = readAll(reader, executor);
+		} finally {
+			executor.shutdownNow();
+		}
+		final Map<RdfFileDataSource, Set<List<String>>> sequential = readAll(reader, null);
+
+		assertEquals(1429, parallel.get(p3).size());
+		assertEquals(3334, parallel.get(instances).size());
+		assertEquals(sequential, parallel);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_withoutProperty_fails() throws IOException {
+		final File file = this.writeFile("test.nt", CONTENT);
+		new RdfFileReader(Arrays.asList(new RdfFileDataSource(file.getPath())));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void create_differentFiles_fails() throws IOException {
+		final File file = this.writeFile("test.nt", CONTENT);
+		final File otherFile = this.writeFile("other.nt", CONTENT);
+		new RdfFileReader(Arrays.asList(new RdfFileDataSource(file.getPath(), EX + "knows"),
+				new RdfFileDataSource(otherFile.getPath(), EX + "knows")));
+	}
+
+	@Test
+	public void unescape_succeeds() {
+		assertEquals("a\tb\"c\\d\u00e9\ud83d\ude00",
+				RdfFileReader.unescape("a\\tb\\\"c\\\\d\\u00E9\\U0001F600"));
+		assertEquals("plain", RdfFileReader.unescape("plain"));
+	}
+}
@@ -25,6 +25,7 @@ import static org.junit.Assert.assertNotEquals;
  */
 
 import java.io.IOException;
+import java.util.Optional;
 
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -78,4 +79,27 @@ public class TridentDataSourceTest {
 		assertFalse(tridentDataSource1.equals(null));
 		assertFalse(tridentDataSource1.equals("trident/path"));
 	}
+
+	@Test
+	public void selection_succeeds() throws IOException {
+		final TridentDataSource tridentDataSource = new TridentDataSource("trident/path",
+				PrefixDeclarationRegistry.RDF_TYPE, "http://example.org/C");
+		assertEquals(Optional.of(1), tridentDataSource.getRequiredArity());
+		assertEquals(Optional.of(2), new TridentDataSource("trident/path", "http://example.org/p").getRequiredArity());
+		assertEquals(Optional.empty(), new TridentDataSource("trident/path").getRequiredArity());
+
+		Fact fact = tridentDataSource.getDeclarationFact();
+		assertEquals(3, fact.getPredicate().getArity());
+		assertEquals(Expressions.makeDatatypeConstant(PrefixDeclarationRegistry.RDF_TYPE,
+				PrefixDeclarationRegistry.XSD_STRING), fact.getArguments().get(1));
+
+		assertEquals(new TridentDataSource("trident/path", PrefixDeclarationRegistry.RDF_TYPE, "http://example.org/C"),
+				tridentDataSource);
+		assertNotEquals(new TridentDataSource("trident/path"), tridentDataSource);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void objectWithoutProperty_fails() throws IOException {
+		new TridentDataSource("trident/path", null, "http://example.org/C");
+	}
 }
@@ -0,0 +1,105 @@
+package org.semanticweb.rulewerk.examples;
+
+/*-
+ * #%L
+ * Rulewerk Examples
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Random;
+
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.FactStorage;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
+
+/**
+ * Measures the time and the peak Java heap that are needed for building a large
+ * knowledge base of facts and loading it into VLog. The facts form a random
+ * graph over a fixed number of IRIs, with edges spread evenly over several
+ * binary predicates. Since facts are loaded into VLog one predicate at a time,
+ * the additional heap needed for loading grows with the size of the largest
+ * predicate; with a single predicate, all facts are converted at once.
+ *
+ * Parameters (all optional): number of facts (default 10,000,000), number of
+ * distinct vertices (default 1,000,000), fact storage ({@code STATEMENTS} or
+ * {@code COLUMNAR}, default {@code COLUMNAR}), and number of predicates (default
+ * 10). Run with a suitably large heap, e.g., {@code -Xmx16g}.
+ */
+public class FactLoadingBenchmark {
+
+	public static void main(final String[] args) throws IOException {
+		ExamplesUtils.configureLogging();
+
+		final int factCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+		final int vertexCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+		final FactStorage factStorage = args.length > 2 ? FactStorage.valueOf(args[2]) : FactStorage.COLUMNAR;
+		final int predicateCount = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+		resetPeakHeapUsage();
+		long startTime = System.currentTimeMillis();
+		final KnowledgeBase kb = new KnowledgeBase(factStorage);
+		final Predicate[] edges = new Predicate[predicateCount];
+		for (int i = 0; i < predicateCount; i++) {
+			edges[i] = Expressions.makePredicate("edge" + i, 2);
+		}
+		final Constant[] vertices = new Constant[vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			vertices[i] = Expressions.makeAbstractConstant("http://example.org/vertex/" + i);
+		}
+		final Random random = new Random(42);
+		for (int i = 0; i < factCount; i++) {
+			kb.addStatement(Expressions.makeFact(edges[i % predicateCount], vertices[random.nextInt(vertexCount)],
+					vertices[random.nextInt(vertexCount)]));
+		}
+		System.out.println("Built knowledge base with " + factCount + " facts of " + predicateCount + " predicates ("
+				+ factStorage + ") in " + (System.currentTimeMillis() - startTime) + " ms, peak heap "
+				+ getPeakHeapUsageMb() + " MB.");
+
+		resetPeakHeapUsage();
+		startTime = System.currentTimeMillis();
+		try (VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			System.out.println("Loaded knowledge base into VLog in " + (System.currentTimeMillis() - startTime)
+					+ " ms, peak heap " + getPeakHeapUsageMb() + " MB.");
+		}
+	}
+
+	private static void resetPeakHeapUsage() {
+		System.gc();
+		for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			pool.resetPeakUsage();
+		}
+	}
+
+	private static long getPeakHeapUsageMb() {
+		long peak = 0;
+		for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak / (1024 * 1024);
+	}
+
+}
@@ -26,6 +26,7 @@ import java.util.List;
 
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.Reasoner;
 import org.semanticweb.rulewerk.reasoner.vlog.VLogReasoner;
 import org.semanticweb.rulewerk.examples.ExamplesUtils;
@@ -51,7 +52,8 @@ import fr.lirmm.graphik.graal.io.dlp.DlgpParser;
  * {@link ConjunctiveQuery} as the Rule head. After the reasoning process, in
  * which the rule is materialised, is completed, this Rule head can then be used
  * as a a query Atom to obtain the results of the Graal
- * {@link ConjunctiveQuery}.
+ * {@link ConjunctiveQuery}. Alternatively, the query can be answered over the
+ * materialisation directly, without adding the Rule and reasoning again.
  * </p>
  *
  * @author Adrian Bielefeldt
@@ -154,6 +156,15 @@ public class AddDataFromGraal {
 			System.out.println("After materialisation:");
 			ExamplesUtils.printOutQueryAnswers(convertedGraalConjunctiveQuery.getQuery(), reasoner);
 
+			/*
+			 * Answer the query over the materialisation, without using its rule
+			 */
+			System.out.println("Answers to conjunctive query " + convertedGraalConjunctiveQuery.getConjunction() + " :");
+			try (QueryResultIterator answers = convertedGraalConjunctiveQuery.answerQuery(reasoner, true)) {
+				answers.forEachRemaining(answer -> System.out.println(" - " + answer.getTerms()));
+				System.out.println("Query answers are: " + answers.getCorrectness());
+			}
+
 		}
 
 	}
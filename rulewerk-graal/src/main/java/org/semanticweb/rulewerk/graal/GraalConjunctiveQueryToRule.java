@@ -30,6 +30,8 @@ import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.Reasoner;
 
 
 import fr.lirmm.graphik.graal.api.core.ConjunctiveQuery;
@@ -46,6 +48,9 @@ import fr.lirmm.graphik.graal.api.core.ConjunctiveQuery;
  * variables of the query as the head. After the reasoning process, in which the
  * rule is materialised, is completed, this rule head can then be used as a
  * query to obtain the results of the Graal {@link ConjunctiveQuery}.
+ * Alternatively, {@link #answerQuery(Reasoner, boolean)} answers the query
+ * over an existing materialisation, without adding the rule and reasoning
+ * again.
  * 
  * @author Adrian Bielefeldt
  */
@@ -55,6 +60,10 @@ public class GraalConjunctiveQueryToRule {
 
 	private final PositiveLiteral query;
 
+	private final List<Term> answerVariables;
+
+	private final Conjunction<PositiveLiteral> conjunction;
+
 	/**
 	 * Constructor for a GraalConjunctiveQueryToRule.
 	 * 
@@ -66,6 +75,8 @@ public class GraalConjunctiveQueryToRule {
 	 */
 	protected GraalConjunctiveQueryToRule(final String ruleHeadPredicateName, final List<Term> answerVariables,
 			final Conjunction<PositiveLiteral> conjunction) {
+		this.answerVariables = answerVariables;
+		this.conjunction = conjunction;
 		this.query = Expressions.makePositiveLiteral(ruleHeadPredicateName, answerVariables);
 		this.rule = Expressions.makePositiveLiteralsRule(Expressions.makePositiveConjunction(this.query), conjunction);
 	}
@@ -97,6 +108,43 @@ public class GraalConjunctiveQueryToRule {
 		return this.query;
 	}
 
+	/**
+	 * The answer variables of the {@link ConjunctiveQuery Graal ConjunctiveQuery}
+	 * represented by this object.
+	 *
+	 * @return The query answer variables.
+	 */
+	public List<Term> getAnswerVariables() {
+		return this.answerVariables;
+	}
+
+	/**
+	 * The literals of the {@link ConjunctiveQuery Graal ConjunctiveQuery}
+	 * represented by this object. This is the body of the rule returned by
+	 * {@link #getRule()}.
+	 *
+	 * @return The query body.
+	 */
+	public Conjunction<PositiveLiteral> getConjunction() {
+		return this.conjunction;
+	}
+
+	/**
+	 * Answers the {@link ConjunctiveQuery Graal ConjunctiveQuery} represented by
+	 * this object over the current materialisation of the given reasoner, using
+	 * {@link Reasoner#answerConjunctiveQuery(Conjunction, List, boolean)}. The
+	 * rule returned by {@link #getRule()} need not be added to the knowledge base
+	 * for this.
+	 *
+	 * @param reasoner     A reasoner that has been used for reasoning.
+	 * @param includeNulls If {@code true}, answers containing named nulls will be
+	 *                     included.
+	 * @return The distinct answers of the query.
+	 */
+	public QueryResultIterator answerQuery(final Reasoner reasoner, final boolean includeNulls) {
+		return reasoner.answerConjunctiveQuery(this.conjunction, this.answerVariables, includeNulls);
+	}
+
 	@Override
 	public int hashCode() {
 		return this.rule.hashCode();
@@ -223,6 +223,8 @@ public class GraalToRulewerkModelConverterTest {
 		assertEquals(expectedComplexQueryAtom, importedComplexQuery.getQuery());
 
 		assertEquals(expectedComplexQueryRule, importedComplexQuery.getRule());
+		assertEquals(expectedComplexQueryRule.getBody(), importedComplexQuery.getConjunction());
+		assertEquals(expectedComplexQueryAtom.getArguments(), importedComplexQuery.getAnswerVariables());
 	}
 
 	@Test(expected = GraalConvertException.class)
@@ -1,6 +1,9 @@
 package org.semanticweb.rulewerk.parser;
 
 import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFilesDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.HdtDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ParquetFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.TridentDataSource;
@@ -26,6 +29,9 @@ import org.semanticweb.rulewerk.core.reasoner.implementation.TridentDataSource;
  */
 
 import org.semanticweb.rulewerk.parser.datasources.CsvFileDataSourceDeclarationHandler;
+import org.semanticweb.rulewerk.parser.datasources.CsvFilesDataSourceDeclarationHandler;
+import org.semanticweb.rulewerk.parser.datasources.HdtDataSourceDeclarationHandler;
+import org.semanticweb.rulewerk.parser.datasources.ParquetFileDataSourceDeclarationHandler;
 import org.semanticweb.rulewerk.parser.datasources.RdfFileDataSourceDeclarationHandler;
 import org.semanticweb.rulewerk.parser.datasources.SparqlQueryResultDataSourceDeclarationHandler;
 import org.semanticweb.rulewerk.parser.datasources.TridentDataSourceDeclarationHandler;
@@ -49,6 +55,10 @@ public class DefaultParserConfiguration extends ParserConfiguration {
 	 */
 	private void registerDefaultDataSources() {
 		registerDataSource(CsvFileDataSource.declarationPredicateName, new CsvFileDataSourceDeclarationHandler());
+		registerDataSource(CsvFilesDataSource.declarationPredicateName, new CsvFilesDataSourceDeclarationHandler());
+		registerDataSource(ParquetFileDataSource.declarationPredicateName,
+				new ParquetFileDataSourceDeclarationHandler());
+		registerDataSource(HdtDataSource.declarationPredicateName, new HdtDataSourceDeclarationHandler());
 		registerDataSource(RdfFileDataSource.declarationPredicateName, new RdfFileDataSourceDeclarationHandler());
 		registerDataSource(SparqlQueryResultDataSource.declarationPredicateName,
 				new SparqlQueryResultDataSourceDeclarationHandler());
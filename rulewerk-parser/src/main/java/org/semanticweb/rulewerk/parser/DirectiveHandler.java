@@ -152,6 +152,20 @@ public interface DirectiveHandler<T> {
 		return subParser.getKnowledgeBase();
 	}
 
+	/**
+	 * Obtain the {@link StatementHandler} from a {@link SubParserFactory}.
+	 *
+	 * @param subParserFactory the SubParserFactory.
+	 *
+	 * @return the statement handler, or null if statements are added to the
+	 *         knowledge base.
+	 */
+	default StatementHandler getStatementHandler(SubParserFactory subParserFactory) {
+		JavaCCParser subParser = subParserFactory.makeSubParser("");
+
+		return subParser.getStatementHandler();
+	}
+
 	/**
 	 * Obtain a {@link ParserConfiguration} from a {@link SubParserFactory}.
 	 *
@@ -0,0 +1,501 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
+import org.semanticweb.rulewerk.parser.StatementChunker.Chunk;
+import org.semanticweb.rulewerk.parser.javacc.GroundFactScanner;
+import org.semanticweb.rulewerk.parser.javacc.JavaCCParser;
+import org.semanticweb.rulewerk.parser.javacc.JavaCCParserTokenManager;
+import org.semanticweb.rulewerk.parser.javacc.JavaCharStream;
+import org.semanticweb.rulewerk.parser.javacc.ParseException;
+import org.semanticweb.rulewerk.parser.javacc.TokenMgrError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parser for large inputs in Rulewerk syntax, which splits the input into
+ * chunks of complete statements and parses the chunks in parallel. The result
+ * is the same as for {@link RuleParser#parseInto(KnowledgeBase, InputStream)}.
+ *
+ * Directives, such as {@code @base}, {@code @prefix}, {@code @source}, and
+ * {@code @import}, are parsed in the calling thread, after all preceding
+ * statements have been added to the knowledge base. All other statements are
+ * parsed by one {@link JavaCCParser} per chunk, using the prefix declarations
+ * that have been read so far. Named nulls are renamed consistently across
+ * chunks. Parsed statements are added to the knowledge base in the calling
+ * thread, one chunk at a time.
+ *
+ * Ground facts of a simple form, which are the bulk of most large inputs, are
+ * read by a {@link GroundFactScanner} rather than by the generated parser,
+ * unless this is disabled with {@link #setFastFactParsing(boolean)}. All other
+ * statements are parsed by the {@link JavaCCParser}, which yields the same
+ * statements.
+ *
+ * Each chunk parser starts counting lines where its chunk begins, so that line
+ * numbers in error messages refer to the whole input.
+ */
+public class ParallelRuleParser {
+
+	/**
+	 * Default number of characters after which a chunk ends.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+	private static Logger LOGGER = LoggerFactory.getLogger(ParallelRuleParser.class);
+
+	/**
+	 * Order in which {@code @base}, {@code @prefix}, {@code @source}, and other
+	 * statements may occur, as required by the grammar.
+	 */
+	private enum Section {
+		BASE, PREFIXES, SOURCES, STATEMENTS
+	}
+
+	private ParserConfiguration parserConfiguration = new DefaultParserConfiguration();
+	private ExecutorService executor;
+	private boolean ordered = true;
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	private int maxPendingChunks = 2 * Runtime.getRuntime().availableProcessors();
+	private String baseIri;
+	private boolean fastFactParsing = true;
+
+	/**
+	 * Sets the {@link ParserConfiguration}. It is shared by all threads, and must
+	 * therefore support concurrent use, which is the case for the configurations
+	 * and handlers provided by Rulewerk.
+	 *
+	 * @param parserConfiguration a {@link ParserConfiguration}
+	 * @return this parser
+	 */
+	public ParallelRuleParser setParserConfiguration(final ParserConfiguration parserConfiguration) {
+		Validate.notNull(parserConfiguration, "Parser configuration cannot be null.");
+		this.parserConfiguration = parserConfiguration;
+		return this;
+	}
+
+	/**
+	 * Sets the executor used for parsing chunks in parallel. If null (the
+	 * default), all chunks are parsed in the calling thread.
+	 *
+	 * @param executor an {@link ExecutorService}, or null
+	 * @return this parser
+	 */
+	public ParallelRuleParser setExecutor(final ExecutorService executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Sets whether statements must be added to the knowledge base in the order of
+	 * the input (true, the default). Otherwise, chunks are added in the order in
+	 * which their parsing completes.
+	 *
+	 * @param ordered true for deterministic order
+	 * @return this parser
+	 */
+	public ParallelRuleParser setOrdered(final boolean ordered) {
+		this.ordered = ordered;
+		return this;
+	}
+
+	/**
+	 * Sets the number of characters after which a chunk ends (at the end of the
+	 * current statement).
+	 *
+	 * @param chunkSize chunk size, greater than 0
+	 * @return this parser
+	 */
+	public ParallelRuleParser setChunkSize(final int chunkSize) {
+		Validate.isTrue(chunkSize > 0, "Chunk size must be greater than zero: %d", chunkSize);
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	/**
+	 * Sets the maximal number of chunks that are read ahead of the statements
+	 * added to the knowledge base, which bounds memory usage. The default is
+	 * twice the number of available processors.
+	 *
+	 * @param maxPendingChunks number of chunks, greater than 0
+	 * @return this parser
+	 */
+	public ParallelRuleParser setMaxPendingChunks(final int maxPendingChunks) {
+		Validate.isTrue(maxPendingChunks > 0, "Number of pending chunks must be greater than zero: %d",
+				maxPendingChunks);
+		this.maxPendingChunks = maxPendingChunks;
+		return this;
+	}
+
+	/**
+	 * Sets the base IRI used for resolving relative IRIs, unless the input
+	 * declares its own base.
+	 *
+	 * @param baseIri an absolute IRI, or null for no base IRI
+	 * @return this parser
+	 */
+	public ParallelRuleParser setBaseIri(final String baseIri) {
+		this.baseIri = baseIri;
+		return this;
+	}
+
+	/**
+	 * Sets whether simple ground facts are read by a {@link GroundFactScanner}
+	 * (true, the default) or, like all other statements, by the
+	 * {@link JavaCCParser}. The result is the same in both cases.
+	 *
+	 * @param fastFactParsing true to use the faster scanner where possible
+	 * @return this parser
+	 */
+	public ParallelRuleParser setFastFactParsing(final boolean fastFactParsing) {
+		this.fastFactParsing = fastFactParsing;
+		return this;
+	}
+
+	/**
+	 * Parses the given input into a new {@link KnowledgeBase}.
+	 *
+	 * @param stream   the input, which is not closed
+	 * @param encoding the character encoding of the input
+	 * @return the knowledge base
+	 * @throws ParsingException if the input is not valid
+	 */
+	public KnowledgeBase parse(final InputStream stream, final String encoding) throws ParsingException {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+		this.parseInto(knowledgeBase, stream, encoding);
+		return knowledgeBase;
+	}
+
+	/**
+	 * Parses the given UTF-8 input into a new {@link KnowledgeBase}.
+	 *
+	 * @param stream the input, which is not closed
+	 * @return the knowledge base
+	 * @throws ParsingException if the input is not valid
+	 */
+	public KnowledgeBase parse(final InputStream stream) throws ParsingException {
+		return this.parse(stream, RuleParser.DEFAULT_STRING_ENCODING);
+	}
+
+	/**
+	 * Parses the given UTF-8 input into the given {@link KnowledgeBase}.
+	 *
+	 * @param knowledgeBase the knowledge base to add statements to
+	 * @param stream        the input, which is not closed
+	 * @throws ParsingException if the input is not valid
+	 */
+	public void parseInto(final KnowledgeBase knowledgeBase, final InputStream stream) throws ParsingException {
+		this.parseInto(knowledgeBase, stream, RuleParser.DEFAULT_STRING_ENCODING);
+	}
+
+	/**
+	 * Parses the given input into the given {@link KnowledgeBase}. If parsing
+	 * fails, the statements of some chunks before the error may already have been
+	 * added.
+	 *
+	 * @param knowledgeBase the knowledge base to add statements to
+	 * @param stream        the input, which is not closed
+	 * @param encoding      the character encoding of the input
+	 * @throws ParsingException if the input is not valid
+	 */
+	public void parseInto(final KnowledgeBase knowledgeBase, final InputStream stream, final String encoding)
+			throws ParsingException {
+		this.parseInto(knowledgeBase, stream, encoding, null);
+	}
+
+	/**
+	 * Parses the given input and passes all statements to the given
+	 * {@link StatementHandler}, in the calling thread. Only the statements of
+	 * pending chunks are kept in memory.
+	 *
+	 * @param stream           the input, which is not closed
+	 * @param encoding         the character encoding of the input
+	 * @param statementHandler the {@link StatementHandler} for all statements
+	 * @return the base IRI and prefixes declared in the input
+	 * @throws ParsingException if the input is not valid, or if the statement
+	 *                          handler fails
+	 */
+	public PrefixDeclarationRegistry parse(final InputStream stream, final String encoding,
+			final StatementHandler statementHandler) throws ParsingException {
+		Validate.notNull(statementHandler, "Statement handler cannot be null.");
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+		this.parseInto(knowledgeBase, stream, encoding, statementHandler);
+		return knowledgeBase.getPrefixDeclarationRegistry();
+	}
+
+	private void parseInto(final KnowledgeBase knowledgeBase, final InputStream stream, final String encoding,
+			final StatementHandler statementHandler) throws ParsingException {
+		final Reader reader;
+		try {
+			reader = new InputStreamReader(stream, encoding);
+		} catch (final UnsupportedEncodingException e) {
+			throw new ParsingException("Unsupported encoding: " + encoding, e);
+		}
+
+		final PrefixDeclarationRegistry prefixDeclarationRegistry = this.baseIri == null
+				? new LocalPrefixDeclarationRegistry()
+				: new LocalPrefixDeclarationRegistry(this.baseIri);
+		final Skolemization skolemization = new Skolemization();
+		final StatementChunker chunker = new StatementChunker(reader, this.chunkSize);
+		final ChunkMerger merger = new ChunkMerger(knowledgeBase, statementHandler);
+
+		try {
+			Section section = null;
+			Chunk chunk;
+			while ((chunk = chunker.next()) != null) {
+				final Section chunkSection = getSection(chunk);
+				if (section != null && (chunkSection.compareTo(section) < 0 || chunkSection == Section.BASE)) {
+					throw new ParsingException("Unexpected @" + chunk.getDirectiveName() + " directive in line "
+							+ chunk.getFirstLine() + ": @base, @prefix, and @source must precede other statements.");
+				}
+				section = chunkSection;
+
+				if (chunk.isDirective()) {
+					merger.drain();
+					final JavaCCParser parser = this.createParser(chunk.getText(), chunk.getFirstLine(),
+							prefixDeclarationRegistry, skolemization);
+					parser.setKnowledgeBase(knowledgeBase);
+					parser.setStatementHandler(statementHandler);
+					parse(parser);
+				} else {
+					// fixes the base IRI, which is otherwise set lazily when it is first read
+					prefixDeclarationRegistry.getBaseIri();
+					final Chunk statements = chunk;
+					merger.submit(() -> this.parseStatements(statements, prefixDeclarationRegistry, skolemization));
+				}
+			}
+			merger.drain();
+		} catch (final IOException e) {
+			throw new ParsingException("Failed to read input: " + e.getMessage(), e);
+		} finally {
+			merger.cancel();
+		}
+
+		knowledgeBase.mergePrefixDeclarations(prefixDeclarationRegistry);
+	}
+
+	@FunctionalInterface
+	private interface ChunkTask {
+		List<Statement> call() throws ParsingException;
+	}
+
+	/**
+	 * Runs parsing tasks and adds their results to the knowledge base or passes
+	 * them to the statement handler, in input order or in order of completion,
+	 * with a bounded number of pending tasks.
+	 */
+	private class ChunkMerger {
+		private final KnowledgeBase knowledgeBase;
+		private final StatementHandler statementHandler;
+		private final Deque<Future<List<Statement>>> pending = new ArrayDeque<>();
+		private final CompletionService<List<Statement>> completionService;
+
+		ChunkMerger(final KnowledgeBase knowledgeBase, final StatementHandler statementHandler) {
+			this.knowledgeBase = knowledgeBase;
+			this.statementHandler = statementHandler;
+			this.completionService = ParallelRuleParser.this.executor == null ? null
+					: new ExecutorCompletionService<>(ParallelRuleParser.this.executor);
+		}
+
+		void submit(final ChunkTask task) throws ParsingException {
+			if (this.completionService == null) {
+				this.add(task.call());
+				return;
+			}
+			if (this.pending.size() >= ParallelRuleParser.this.maxPendingChunks) {
+				this.mergeNext();
+			}
+			this.pending.add(this.completionService.submit(task::call));
+		}
+
+		void drain() throws ParsingException {
+			while (!this.pending.isEmpty()) {
+				this.mergeNext();
+			}
+		}
+
+		void cancel() {
+			for (final Future<?> future : this.pending) {
+				future.cancel(true);
+			}
+			this.pending.clear();
+		}
+
+		private void mergeNext() throws ParsingException {
+			try {
+				final Future<List<Statement>> future;
+				if (ParallelRuleParser.this.ordered) {
+					future = this.pending.poll();
+				} else {
+					future = this.completionService.take();
+					this.pending.remove(future);
+				}
+				this.add(future.get());
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ParsingException("Interrupted while parsing.", e);
+			} catch (final ExecutionException e) {
+				final Throwable cause = e.getCause();
+				if (cause instanceof ParsingException) {
+					throw (ParsingException) cause;
+				} else if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else {
+					throw new ParsingException(cause);
+				}
+			}
+		}
+
+		private void add(final List<Statement> statements) throws ParsingException {
+			if (this.statementHandler == null) {
+				this.knowledgeBase.addStatements(statements);
+			} else {
+				for (final Statement statement : statements) {
+					this.statementHandler.handleStatement(statement);
+				}
+			}
+		}
+	}
+
+	private List<Statement> parseStatements(final Chunk chunk,
+			final PrefixDeclarationRegistry prefixDeclarationRegistry, final Skolemization skolemization)
+			throws ParsingException {
+		final String text = chunk.getText();
+		if (!this.fastFactParsing) {
+			return this.parseStatements(text, chunk.getFirstLine(), prefixDeclarationRegistry, skolemization);
+		}
+
+		final GroundFactScanner scanner = new GroundFactScanner();
+		scanner.setPrefixDeclarationRegistry(prefixDeclarationRegistry);
+		scanner.setParserConfiguration(this.parserConfiguration);
+		scanner.setSkolemization(skolemization);
+
+		final List<Statement> statements = new ArrayList<>();
+		// consecutive statements that the scanner cannot read are parsed together
+		int pendingStart = -1;
+		int start = 0;
+		int line = chunk.getFirstLine();
+		int lineCountedUntil = 0;
+		for (final int end : chunk.getStatementEnds()) {
+			final Fact fact = scanner.scanFact(text, start, end);
+			if (fact == null) {
+				if (pendingStart < 0) {
+					pendingStart = start;
+				}
+			} else {
+				if (pendingStart >= 0) {
+					line += countLines(text, lineCountedUntil, pendingStart);
+					lineCountedUntil = pendingStart;
+					statements.addAll(this.parseStatements(text.substring(pendingStart, start), line,
+							prefixDeclarationRegistry, skolemization));
+					pendingStart = -1;
+				}
+				statements.add(fact);
+			}
+			start = end;
+		}
+		if (pendingStart < 0 && !scanner.isBlank(text, start, text.length())) {
+			pendingStart = start;
+		}
+		if (pendingStart >= 0) {
+			line += countLines(text, lineCountedUntil, pendingStart);
+			statements.addAll(this.parseStatements(text.substring(pendingStart), line, prefixDeclarationRegistry,
+					skolemization));
+		}
+		return statements;
+	}
+
+	private List<Statement> parseStatements(final String text, final int firstLine,
+			final PrefixDeclarationRegistry prefixDeclarationRegistry, final Skolemization skolemization)
+			throws ParsingException {
+		final JavaCCParser parser = this.createParser(text, firstLine, prefixDeclarationRegistry, skolemization);
+		parse(parser);
+		return new ArrayList<>(parser.getKnowledgeBase().getStatements());
+	}
+
+	private static int countLines(final String text, final int start, final int end) {
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			if (text.charAt(i) == '\n') {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private JavaCCParser createParser(final String text, final int firstLine,
+			final PrefixDeclarationRegistry prefixDeclarationRegistry, final Skolemization skolemization) {
+		final JavaCharStream charStream = new JavaCharStream(new StringReader(text), firstLine, 1);
+		final JavaCCParser parser = new JavaCCParser(new JavaCCParserTokenManager(charStream));
+		parser.setPrefixDeclarationRegistry(prefixDeclarationRegistry);
+		parser.setParserConfiguration(this.parserConfiguration);
+		parser.setSkolemization(skolemization);
+		return parser;
+	}
+
+	private static void parse(final JavaCCParser parser) throws ParsingException {
+		try {
+			parser.parse();
+		} catch (ParseException | PrefixDeclarationException | TokenMgrError e) {
+			LOGGER.error("Error parsing Knowledge Base: " + e.getMessage(), e);
+			throw new ParsingException(e.getMessage(), e);
+		}
+	}
+
+	private static Section getSection(final Chunk chunk) {
+		if (!chunk.isDirective()) {
+			return Section.STATEMENTS;
+		}
+		switch (chunk.getDirectiveName()) {
+		case "base":
+			return Section.BASE;
+		case "prefix":
+			return Section.PREFIXES;
+		case "source":
+			return Section.SOURCES;
+		default:
+			return Section.STATEMENTS;
+		}
+	}
+
+}
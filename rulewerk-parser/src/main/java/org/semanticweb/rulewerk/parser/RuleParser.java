@@ -25,6 +25,7 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import org.apache.commons.lang3.Validate;
 import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
 import org.semanticweb.rulewerk.core.model.api.Entity;
@@ -57,8 +58,27 @@ public class RuleParser {
 	private RuleParser() {
 	}
 
+	/**
+	 * Parses the given input, passing statements either to a
+	 * {@link StatementHandler} or to a {@link KnowledgeBase}.
+	 *
+	 * @param knowledgeBase       the knowledge base that receives prefix
+	 *                            declarations and keeps track of imported files;
+	 *                            it also receives all statements if
+	 *                            {@code statementHandler} is null
+	 * @param stream              the input
+	 * @param encoding            the character encoding of the input
+	 * @param parserConfiguration the {@link ParserConfiguration} to use
+	 * @param baseIri             the base IRI to use if the input does not declare
+	 *                            one, or null
+	 * @param statementHandler    a {@link StatementHandler} for all statements, or
+	 *                            null
+	 * @throws ParsingException if the input is not valid, or if the statement
+	 *                          handler fails
+	 */
 	public static void parseInto(final KnowledgeBase knowledgeBase, final InputStream stream, final String encoding,
-			final ParserConfiguration parserConfiguration, final String baseIri) throws ParsingException {
+			final ParserConfiguration parserConfiguration, final String baseIri,
+			final StatementHandler statementHandler) throws ParsingException {
 		final JavaCCParser parser = new JavaCCParser(stream, encoding);
 
 		if (baseIri != null) {
@@ -68,9 +88,15 @@ public class RuleParser {
 
 		parser.setKnowledgeBase(knowledgeBase);
 		parser.setParserConfiguration(parserConfiguration);
+		parser.setStatementHandler(statementHandler);
 		doParse(parser);
 	}
 
+	public static void parseInto(final KnowledgeBase knowledgeBase, final InputStream stream, final String encoding,
+			final ParserConfiguration parserConfiguration, final String baseIri) throws ParsingException {
+		parseInto(knowledgeBase, stream, encoding, parserConfiguration, baseIri, null);
+	}
+
 	public static void parseInto(final KnowledgeBase knowledgeBase, final InputStream stream, final String encoding,
 			final ParserConfiguration parserConfiguration) throws ParsingException {
 		parseInto(knowledgeBase, stream, encoding, parserConfiguration, null);
@@ -145,6 +171,49 @@ public class RuleParser {
 		return parse(inputStream);
 	}
 
+	/**
+	 * Parses the given input and passes each statement to the given
+	 * {@link StatementHandler} as soon as it has been parsed. Statements are not
+	 * retained, so that inputs of any size can be processed in constant memory.
+	 * Directives are handled as usual; statements of imported files are also
+	 * passed to the handler.
+	 *
+	 * @param stream              the input
+	 * @param encoding            the character encoding of the input
+	 * @param parserConfiguration the {@link ParserConfiguration} to use
+	 * @param statementHandler    the {@link StatementHandler} for all statements
+	 * @return the base IRI and prefixes declared in the input
+	 * @throws ParsingException if the input is not valid, or if the statement
+	 *                          handler fails
+	 */
+	public static PrefixDeclarationRegistry parse(final InputStream stream, final String encoding,
+			final ParserConfiguration parserConfiguration, final StatementHandler statementHandler)
+			throws ParsingException {
+		Validate.notNull(statementHandler, "Statement handler cannot be null.");
+		final JavaCCParser parser = new JavaCCParser(stream, encoding);
+		parser.setParserConfiguration(parserConfiguration);
+		parser.setStatementHandler(statementHandler);
+		doParse(parser);
+		return parser.getPrefixDeclarationRegistry();
+	}
+
+	public static PrefixDeclarationRegistry parse(final InputStream stream,
+			final ParserConfiguration parserConfiguration, final StatementHandler statementHandler)
+			throws ParsingException {
+		return parse(stream, DEFAULT_STRING_ENCODING, parserConfiguration, statementHandler);
+	}
+
+	public static PrefixDeclarationRegistry parse(final InputStream stream, final StatementHandler statementHandler)
+			throws ParsingException {
+		return parse(stream, new DefaultParserConfiguration(), statementHandler);
+	}
+
+	public static PrefixDeclarationRegistry parse(final String input, final StatementHandler statementHandler)
+			throws ParsingException {
+		final InputStream inputStream = new ByteArrayInputStream(input.getBytes());
+		return parse(inputStream, statementHandler);
+	}
+
 	/**
 	 * Interface for a method parsing a fragment of the supported syntax.
 	 *
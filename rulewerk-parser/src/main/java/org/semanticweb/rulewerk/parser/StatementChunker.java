@@ -0,0 +1,362 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Splits Rulewerk syntax into chunks of complete statements, without parsing
+ * the statements. Statements end with a dot that is not inside a string, IRI,
+ * comment, or term list. Directives (statements that start with {@code @}) are
+ * always returned as chunks of their own, since they may affect how later
+ * statements are parsed.
+ *
+ * The splitting is purely lexical, so that syntax errors are only detected when
+ * the chunks are parsed. In particular, whitespace and comments at the end of
+ * the input are returned as a chunk of their own, even if they contain no
+ * statement, so that the parser still rejects, e.g., an unterminated comment.
+ *
+ * This class is not thread-safe.
+ */
+class StatementChunker {
+
+	/**
+	 * A chunk of statements.
+	 */
+	static final class Chunk {
+		private final String text;
+		private final int firstLine;
+		private final String directiveName;
+		private final int[] statementEnds;
+
+		Chunk(final String text, final int firstLine, final String directiveName, final int[] statementEnds) {
+			this.text = text;
+			this.firstLine = firstLine;
+			this.directiveName = directiveName;
+			this.statementEnds = statementEnds;
+		}
+
+		/**
+		 * @return the text of the chunk
+		 */
+		String getText() {
+			return this.text;
+		}
+
+		/**
+		 * @return the number of the line (starting from 1) in the input where this
+		 *         chunk starts
+		 */
+		int getFirstLine() {
+			return this.firstLine;
+		}
+
+		/**
+		 * @return true if the chunk consists of one directive
+		 */
+		boolean isDirective() {
+			return this.directiveName != null;
+		}
+
+		/**
+		 * @return the name of the directive, without {@code @}, or null if the chunk
+		 *         is not a directive
+		 */
+		String getDirectiveName() {
+			return this.directiveName;
+		}
+
+		/**
+		 * @return the positions in the text after the final dot of each complete
+		 *         statement; each statement starts at the end of the previous one
+		 */
+		int[] getStatementEnds() {
+			return this.statementEnds;
+		}
+	}
+
+	private static final int[] NO_STATEMENT_ENDS = new int[0];
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final Reader reader;
+	private final int chunkSize;
+
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position = 0;
+	private int limit = 0;
+
+	private int line = 1;
+	private Chunk pendingDirective;
+
+	private final StringBuilder builder = new StringBuilder();
+	private final StringBuilder directiveName = new StringBuilder();
+	private int[] statementEnds = new int[256];
+
+	/**
+	 * Constructor.
+	 *
+	 * @param reader    the input; it is not closed by this class
+	 * @param chunkSize number of characters after which a chunk is completed at
+	 *                  the end of the current statement
+	 */
+	StatementChunker(final Reader reader, final int chunkSize) {
+		this.reader = reader;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Returns the next chunk.
+	 *
+	 * @return the next {@link Chunk}, or null if the input is exhausted
+	 * @throws IOException if reading the input fails
+	 */
+	Chunk next() throws IOException {
+		if (this.pendingDirective != null) {
+			final Chunk result = this.pendingDirective;
+			this.pendingDirective = null;
+			return result;
+		}
+
+		this.builder.setLength(0);
+		final int firstLine = this.line;
+		int statementCount = 0;
+		int completeCount = 0;
+		while (this.builder.length() < this.chunkSize) {
+			final int statementStart = this.builder.length();
+			final int statementLine = this.line;
+			final StatementType type = this.readStatement();
+			if (type == StatementType.NONE) {
+				break;
+			} else if (type == StatementType.DIRECTIVE) {
+				final Chunk directive = new Chunk(this.builder.substring(statementStart), statementLine,
+						this.directiveName.toString(), NO_STATEMENT_ENDS);
+				if (statementCount == 0) {
+					return directive;
+				}
+				this.pendingDirective = directive;
+				this.builder.setLength(statementStart);
+				break;
+			} else if (type == StatementType.COMPLETE) {
+				if (completeCount == this.statementEnds.length) {
+					this.statementEnds = Arrays.copyOf(this.statementEnds, 2 * completeCount);
+				}
+				this.statementEnds[completeCount++] = this.builder.length();
+			}
+			statementCount++;
+		}
+
+		if (this.builder.length() == 0) {
+			return null;
+		}
+		return new Chunk(this.builder.toString(), firstLine, null, Arrays.copyOf(this.statementEnds, completeCount));
+	}
+
+	private enum StatementType {
+		/**
+		 * No statement, only whitespace or comments until the end of the input.
+		 */
+		NONE,
+		/**
+		 * A directive.
+		 */
+		DIRECTIVE,
+		/**
+		 * Any other statement, ending with a dot.
+		 */
+		COMPLETE,
+		/**
+		 * Any other statement that is not terminated before the end of the input.
+		 */
+		INCOMPLETE
+	}
+
+	/**
+	 * Appends the next statement, including preceding whitespace and comments, to
+	 * the builder.
+	 */
+	private StatementType readStatement() throws IOException {
+		boolean started = false;
+		boolean directive = false;
+		int depth = 0;
+		char lastSignificant = ' ';
+
+		int c;
+		while ((c = this.read()) >= 0) {
+			final char ch = (char) c;
+			this.builder.append(ch);
+
+			if (!started && !Character.isWhitespace(ch) && !(ch == '%' && depth == 0)) {
+				started = true;
+				directive = ch == '@';
+				if (directive) {
+					this.readDirectiveName();
+					continue;
+				}
+			}
+
+			if (ch == '%' && depth == 0) {
+				this.skipUntil('\n');
+				continue;
+			}
+
+			switch (ch) {
+			case '<':
+				this.skipUntil('>');
+				break;
+			case '"':
+			case '\'':
+				this.skipString(ch);
+				break;
+			case '|':
+			case '#':
+				if (depth > 0) {
+					this.skipUntil(ch);
+				}
+				break;
+			case '(':
+			case '[':
+			case '{':
+				depth++;
+				break;
+			case ')':
+			case ']':
+			case '}':
+				depth--;
+				break;
+			case '.':
+				if (depth <= 0) {
+					final int next = this.peek(0);
+					if (next < 0 || Character.isWhitespace(next) || next == '%' || lastSignificant == ')'
+							|| lastSignificant == '>' || lastSignificant == '"' || lastSignificant == '\'') {
+						return directive ? StatementType.DIRECTIVE : StatementType.COMPLETE;
+					}
+				}
+				break;
+			default:
+				break;
+			}
+			if (!Character.isWhitespace(ch)) {
+				lastSignificant = this.builder.charAt(this.builder.length() - 1);
+			}
+		}
+
+		if (directive) {
+			return StatementType.DIRECTIVE;
+		}
+		return started ? StatementType.INCOMPLETE : StatementType.NONE;
+	}
+
+	private void readDirectiveName() throws IOException {
+		this.directiveName.setLength(0);
+		int next;
+		while ((next = this.peek(0)) >= 0 && (Character.isLetterOrDigit(next) || next == '-' || next == '_')) {
+			this.directiveName.append((char) next);
+			this.builder.append((char) this.read());
+		}
+	}
+
+	/**
+	 * Appends all characters up to and including the given delimiter.
+	 */
+	private void skipUntil(final char delimiter) throws IOException {
+		int c;
+		while ((c = this.read()) >= 0) {
+			this.builder.append((char) c);
+			if (c == delimiter) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Appends the remainder of a string that starts with the given (already
+	 * appended) quote, which may be the first of three quotes.
+	 */
+	private void skipString(final char quote) throws IOException {
+		final boolean triple = this.peek(0) == quote && this.peek(1) == quote;
+		if (triple) {
+			this.builder.append((char) this.read()).append((char) this.read());
+		}
+		int c;
+		while ((c = this.read()) >= 0) {
+			this.builder.append((char) c);
+			if (c == '\\') {
+				final int escaped = this.read();
+				if (escaped >= 0) {
+					this.builder.append((char) escaped);
+				}
+			} else if (c == quote) {
+				if (!triple) {
+					return;
+				} else if (this.peek(0) == quote && this.peek(1) == quote) {
+					this.builder.append((char) this.read()).append((char) this.read());
+					return;
+				}
+			} else if (!triple && (c == '\n' || c == '\r')) {
+				// unterminated string; leave error reporting to the parser
+				return;
+			}
+		}
+	}
+
+	private int read() throws IOException {
+		if (this.position == this.limit && !this.fill(1)) {
+			return -1;
+		}
+		final char c = this.buffer[this.position++];
+		if (c == '\n') {
+			this.line++;
+		}
+		return c;
+	}
+
+	private int peek(final int offset) throws IOException {
+		if (this.position + offset >= this.limit && !this.fill(offset + 1)) {
+			return -1;
+		}
+		return this.buffer[this.position + offset];
+	}
+
+	/**
+	 * Reads more input until at least the given number of characters is available.
+	 *
+	 * @return false if the input ended before
+	 */
+	private boolean fill(final int required) throws IOException {
+		if (this.position > 0) {
+			System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit - this.position);
+			this.limit -= this.position;
+			this.position = 0;
+		}
+		while (this.limit < required) {
+			final int count = this.reader.read(this.buffer, this.limit, this.buffer.length - this.limit);
+			if (count < 0) {
+				return false;
+			}
+			this.limit += count;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,47 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+
+/**
+ * Receiver for statements that are pushed by the parser as soon as they have
+ * been parsed, as an alternative to collecting all statements in a
+ * {@link KnowledgeBase}. This allows processing inputs of any size in constant
+ * memory, e.g., for filtering facts, writing them to a file, or collecting
+ * them in a more compact data structure.
+ *
+ * Statements are passed in input order, including those of imported files.
+ * Prefixes have already been resolved, and named nulls have been renamed.
+ */
+@FunctionalInterface
+public interface StatementHandler {
+
+	/**
+	 * Processes a parsed statement.
+	 *
+	 * @param statement a fact, rule, or data source declaration
+	 * @throws ParsingException if processing fails; parsing is then aborted
+	 */
+	void handleStatement(Statement statement) throws ParsingException;
+
+}
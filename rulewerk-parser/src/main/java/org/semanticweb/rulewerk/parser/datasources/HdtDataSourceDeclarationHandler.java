@@ -0,0 +1,56 @@
+package org.semanticweb.rulewerk.parser.datasources;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.List;
+
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.reasoner.implementation.HdtDataSource;
+import org.semanticweb.rulewerk.parser.ParsingException;
+
+/**
+ * Handler for parsing {@link HdtDataSource} declarations, whose first argument
+ * is the file name, optionally followed by a property and an object.
+ */
+public class HdtDataSourceDeclarationHandler implements DataSourceDeclarationHandler {
+	@Override
+	public DataSource handleDataSourceDeclaration(List<Term> terms, String importBasePath) throws ParsingException {
+		if (terms.isEmpty() || terms.size() > 3) {
+			throw new ParsingException(
+					"Invalid number of arguments " + terms.size() + " for @source declaration, expected 1 to 3");
+		}
+		String fileName = DataSourceDeclarationHandler.validateFileNameArgument(terms.get(0), "HDT file name",
+				importBasePath);
+		String property = terms.size() > 1
+				? DataSourceDeclarationHandler.validateStringArgument(terms.get(1), "property")
+				: null;
+		String object = terms.size() > 2 ? DataSourceDeclarationHandler.validateStringArgument(terms.get(2), "object")
+				: null;
+
+		try {
+			return new HdtDataSource(fileName, property, object);
+		} catch (IOException e) {
+			throw new ParsingException("Could not use source file \"" + fileName + "\": " + e.getMessage(), e);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package org.semanticweb.rulewerk.parser.datasources;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.rulewerk.core.model.api.DataSource;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ParquetFileDataSource;
+import org.semanticweb.rulewerk.parser.ParsingException;
+
+/**
+ * Handler for parsing {@link ParquetFileDataSource} declarations, whose first
+ * argument is the file name, followed by the names of the selected columns and
+ * filters of the form {@code column=value}.
+ */
+public class ParquetFileDataSourceDeclarationHandler implements DataSourceDeclarationHandler {
+	@Override
+	public DataSource handleDataSourceDeclaration(List<Term> terms, String importBasePath) throws ParsingException {
+		if (terms.isEmpty()) {
+			throw new ParsingException("Invalid number of arguments 0 for @source declaration, expected at least 1");
+		}
+		String fileName = DataSourceDeclarationHandler.validateFileNameArgument(terms.get(0), "Parquet file name",
+				importBasePath);
+
+		List<String> columns = new ArrayList<>();
+		Map<String, String> filters = new LinkedHashMap<>();
+		for (Term term : terms.subList(1, terms.size())) {
+			String argument = DataSourceDeclarationHandler.validateStringArgument(term, "column name or filter");
+			int separator = argument.indexOf('=');
+			if (separator < 0) {
+				columns.add(argument);
+			} else {
+				filters.put(argument.substring(0, separator), argument.substring(separator + 1));
+			}
+		}
+
+		try {
+			return new ParquetFileDataSource(fileName, columns, filters);
+		} catch (IOException e) {
+			throw new ParsingException("Could not use source file \"" + fileName + "\": " + e.getMessage(), e);
+		}
+	}
+}
@@ -29,19 +29,28 @@ import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
 import org.semanticweb.rulewerk.parser.ParsingException;
 
 /**
- * Handler for parsing {@link RdfFileDataSource} declarations
+ * Handler for parsing {@link RdfFileDataSource} declarations, whose first argument
+ * is the file name, optionally followed by a property and an object.
  *
  * @author Maximilian Marx
  */
 public class RdfFileDataSourceDeclarationHandler implements DataSourceDeclarationHandler {
 	@Override
 	public DataSource handleDataSourceDeclaration(List<Term> terms, String importBasePath) throws ParsingException {
-		DataSourceDeclarationHandler.validateNumberOfArguments(terms, 1);
+		if (terms.isEmpty() || terms.size() > 3) {
+			throw new ParsingException(
+					"Invalid number of arguments " + terms.size() + " for @source declaration, expected 1 to 3");
+		}
 		String fileName = DataSourceDeclarationHandler.validateFileNameArgument(terms.get(0), "RDF file name",
 				importBasePath);
+		String property = terms.size() > 1
+				? DataSourceDeclarationHandler.validateStringArgument(terms.get(1), "property")
+				: null;
+		String object = terms.size() > 2 ? DataSourceDeclarationHandler.validateStringArgument(terms.get(2), "object")
+				: null;
 
 		try {
-			return new RdfFileDataSource(fileName);
+			return new RdfFileDataSource(fileName, property, object);
 		} catch (IOException e) {
 			throw new ParsingException("Could not use source file \"" + fileName + "\": " + e.getMessage(), e);
 		}
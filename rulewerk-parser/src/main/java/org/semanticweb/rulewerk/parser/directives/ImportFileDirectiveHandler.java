@@ -32,6 +32,7 @@ import org.semanticweb.rulewerk.parser.DirectiveHandler;
 import org.semanticweb.rulewerk.parser.ParserConfiguration;
 import org.semanticweb.rulewerk.parser.ParsingException;
 import org.semanticweb.rulewerk.parser.RuleParser;
+import org.semanticweb.rulewerk.parser.StatementHandler;
 import org.semanticweb.rulewerk.parser.javacc.SubParserFactory;
 
 /**
@@ -50,11 +51,13 @@ public class ImportFileDirectiveHandler implements DirectiveHandler<KnowledgeBas
 		final File file = DirectiveHandler.validateFilenameArgument(arguments.get(0), "rules file",
 				parserConfiguration.getImportBasePath());
 		final KnowledgeBase knowledgeBase = getKnowledgeBase(subParserFactory);
+		final StatementHandler statementHandler = getStatementHandler(subParserFactory);
 		parserConfiguration.setImportBasePath(file.getParent());
 
 		try {
 			knowledgeBase.importRulesFile(file, (final InputStream stream, final KnowledgeBase kb) -> {
-				RuleParser.parseInto(kb, stream, parserConfiguration);
+				RuleParser.parseInto(kb, stream, RuleParser.DEFAULT_STRING_ENCODING, parserConfiguration, null,
+						statementHandler);
 			});
 		} catch (RulewerkException | IOException | IllegalArgumentException e) {
 			throw new ParsingException("Could not import rules file \"" + file.getName() + "\": " + e.getMessage(), e);
@@ -33,6 +33,7 @@ import org.semanticweb.rulewerk.parser.DirectiveHandler;
 import org.semanticweb.rulewerk.parser.ParserConfiguration;
 import org.semanticweb.rulewerk.parser.ParsingException;
 import org.semanticweb.rulewerk.parser.RuleParser;
+import org.semanticweb.rulewerk.parser.StatementHandler;
 import org.semanticweb.rulewerk.parser.javacc.SubParserFactory;
 
 /**
@@ -51,11 +52,13 @@ public class ImportFileRelativeDirectiveHandler implements DirectiveHandler<Know
 		File file = DirectiveHandler.validateFilenameArgument(arguments.get(0), "rules file",
 				parserConfiguration.getImportBasePath());
 		KnowledgeBase knowledgeBase = getKnowledgeBase(subParserFactory);
+		StatementHandler statementHandler = getStatementHandler(subParserFactory);
 		parserConfiguration.setImportBasePath(file.getParent());
 
 		try {
 			knowledgeBase.importRulesFile(file, (InputStream stream, KnowledgeBase kb) -> {
-				RuleParser.parseInto(kb, stream, parserConfiguration, prefixDeclarationRegistry.getBaseIri());
+				RuleParser.parseInto(kb, stream, RuleParser.DEFAULT_STRING_ENCODING, parserConfiguration,
+						prefixDeclarationRegistry.getBaseIri(), statementHandler);
 			});
 		} catch (RulewerkException | IOException | IllegalArgumentException e) {
 			throw new ParsingException("Failed while trying to import rules file \"" + file.getName() + "\"", e);
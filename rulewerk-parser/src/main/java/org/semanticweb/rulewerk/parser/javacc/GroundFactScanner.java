@@ -0,0 +1,455 @@
+package org.semanticweb.rulewerk.parser.javacc;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+/**
+ * Hand-written scanner for the most common form of statements, namely ground
+ * facts such as {@code pred(<iri>, "lit"^^<dt>, prefixed:name) .}, which is
+ * considerably faster than the generated {@link JavaCCParser}.
+ *
+ * The scanner only accepts a subset of the syntax of facts: IRIs, prefixed
+ * names, plain names, numbers, named nulls, and double-quoted strings with an
+ * optional language tag or datatype, separated by whitespace only. For any
+ * other input, and for input that would lead to an error, it gives up, so that
+ * the statement can be parsed by the {@link JavaCCParser} instead. Terms and
+ * predicates are created by the same methods as in the {@link JavaCCParser},
+ * so that both produce equal facts.
+ *
+ * This class is not thread-safe.
+ */
+public class GroundFactScanner extends JavaCCParserBase {
+
+	private String text;
+	private int position;
+	private int end;
+
+	private final List<Term> terms = new ArrayList<>();
+
+	/**
+	 * Tries to read the given part of a text as a single ground fact, including
+	 * preceding whitespace and comments and the final dot.
+	 *
+	 * @param text  the text
+	 * @param start index of the first character of the statement
+	 * @param end   index after the last character of the statement
+	 * @return the {@link Fact}, or null if the statement must be parsed by the
+	 *         {@link JavaCCParser}
+	 */
+	public Fact scanFact(final String text, final int start, final int end) {
+		this.text = text;
+		this.position = start;
+		this.end = end;
+		this.terms.clear();
+		try {
+			return this.fact();
+		} catch (final ParseException | PrefixDeclarationException | IllegalArgumentException e) {
+			// leave error reporting to the JavaCCParser
+			return null;
+		}
+	}
+
+	/**
+	 * Checks if the given part of a text contains only whitespace and (complete)
+	 * comments.
+	 *
+	 * @param text  the text
+	 * @param start index of the first character to check
+	 * @param end   index after the last character to check
+	 * @return true if there is nothing to parse
+	 */
+	public boolean isBlank(final String text, final int start, final int end) {
+		this.text = text;
+		this.position = start;
+		this.end = end;
+		return this.skipWhitespaceAndComments() && this.position == end;
+	}
+
+	private Fact fact() throws ParseException, PrefixDeclarationException {
+		if (!this.skipWhitespaceAndComments() || this.position == this.end) {
+			return null;
+		}
+		final String predicateName = this.predicateName();
+		if (predicateName == null) {
+			return null;
+		}
+		this.skipWhitespace();
+		if (this.next() != '(') {
+			return null;
+		}
+		char delimiter;
+		do {
+			this.skipWhitespace();
+			final Term term = this.term();
+			if (term == null) {
+				return null;
+			}
+			this.terms.add(term);
+			this.skipWhitespace();
+			delimiter = this.next();
+		} while (delimiter == ',');
+		if (delimiter != ')') {
+			return null;
+		}
+		this.skipWhitespace();
+		if (this.next() != '.' || this.position != this.end) {
+			return null;
+		}
+		return Expressions.makeFact(this.createPredicate(predicateName, this.terms.size()),
+				new ArrayList<>(this.terms));
+	}
+
+	private String predicateName() throws PrefixDeclarationException {
+		if (this.peek() == '<') {
+			final String iri = this.iri();
+			return iri == null ? null : this.absolutizeIri(iri);
+		}
+		final int start = this.position;
+		if (!this.skipName()) {
+			return null;
+		}
+		if (isPrefixedName(this.text, start, this.position)) {
+			return this.resolvePrefixedName(this.text.substring(start, this.position));
+		} else if (isPlainName(this.text, start, this.position)) {
+			return this.absolutizeIri(this.text.substring(start, this.position));
+		}
+		return null;
+	}
+
+	private Term term() throws ParseException, PrefixDeclarationException {
+		final char c = this.peek();
+		if (c == '<') {
+			final String iri = this.iri();
+			return iri == null ? null : this.createConstant(this.absolutizeIri(iri));
+		} else if (c == '"') {
+			return this.rdfLiteral();
+		}
+
+		final int start = this.position;
+		if (!this.skipName()) {
+			return null;
+		}
+		if (c == '_') {
+			if (isNamedNull(this.text, start, this.position) && this.isParsingOfNamedNullsAllowed()) {
+				return this.createNamedNull(this.text.substring(start + 2, this.position));
+			}
+			return null;
+		} else if (isPrefixedName(this.text, start, this.position)) {
+			return this.createConstant(this.resolvePrefixedName(this.text.substring(start, this.position)));
+		} else if (isPlainName(this.text, start, this.position)) {
+			return this.createConstant(this.text.substring(start, this.position));
+		}
+		final String datatype = getNumericDatatype(this.text, start, this.position);
+		return datatype == null ? null : this.createConstant(this.text.substring(start, this.position), datatype);
+	}
+
+	private Term rdfLiteral() throws ParseException, PrefixDeclarationException {
+		final String lexicalForm = this.string();
+		if (lexicalForm == null) {
+			return null;
+		}
+		final char c = this.peek();
+		if (c == '@') {
+			final int start = ++this.position;
+			if (!this.skipLanguageTag()) {
+				return null;
+			}
+			return this.createLanguageStringConstant(lexicalForm, this.text.substring(start, this.position));
+		} else if (c == '^') {
+			this.position++;
+			if (this.next() != '^') {
+				return null;
+			}
+			final String datatype;
+			if (this.peek() == '<') {
+				final String iri = this.iri();
+				if (iri == null) {
+					return null;
+				}
+				datatype = this.absolutizeIri(iri);
+			} else {
+				final int start = this.position;
+				if (!this.skipName() || !isPrefixedName(this.text, start, this.position)) {
+					return null;
+				}
+				datatype = this.resolvePrefixedName(this.text.substring(start, this.position));
+			}
+			return this.createConstant(lexicalForm, datatype);
+		}
+		return this.createConstant(lexicalForm, null);
+	}
+
+	/**
+	 * Reads an IRI in angle brackets.
+	 *
+	 * @return the IRI without brackets, or null if it is not valid
+	 */
+	private String iri() {
+		final int start = ++this.position;
+		while (this.position < this.end) {
+			final char c = this.text.charAt(this.position++);
+			if (c == '>') {
+				return this.text.substring(start, this.position - 1);
+			} else if (c <= ' ' || c == '<' || c == '"' || c == '{' || c == '}' || c == '^' || c == '\\' || c == '|'
+					|| c == '`') {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads a single-line string in double quotes.
+	 *
+	 * @return the unescaped string, or null if it is not supported
+	 */
+	private String string() throws ParseException {
+		final int start = ++this.position;
+		if (this.peek() == '"' && this.position + 1 < this.end && this.text.charAt(this.position + 1) == '"') {
+			// multi-line string
+			return null;
+		}
+		boolean escaped = false;
+		while (this.position < this.end) {
+			final char c = this.text.charAt(this.position++);
+			if (c == '"') {
+				final String string = this.text.substring(start, this.position - 1);
+				return escaped ? unescapeStr(string, 0, 0) : string;
+			} else if (c == '\\') {
+				if (this.position == this.end || "tbnrf\\\"'".indexOf(this.text.charAt(this.position)) < 0) {
+					return null;
+				}
+				this.position++;
+				escaped = true;
+			} else if (c == '\n' || c == '\r') {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Skips a language tag (without {@code @}).
+	 *
+	 * @return true if the tag is valid
+	 */
+	private boolean skipLanguageTag() {
+		final int start = this.position;
+		while (this.position < this.end && isLetter(this.text.charAt(this.position))) {
+			this.position++;
+		}
+		if (this.position == start) {
+			return false;
+		}
+		if (this.peek() == '-') {
+			final int subtagStart = ++this.position;
+			while (this.position < this.end && (isLetter(this.text.charAt(this.position))
+					|| isDigit(this.text.charAt(this.position)))) {
+				this.position++;
+			}
+			return this.position > subtagStart;
+		}
+		return true;
+	}
+
+	/**
+	 * Skips the characters that may occur in names, prefixed names, named nulls,
+	 * and numbers, without checking their order. Only ASCII characters are
+	 * supported.
+	 *
+	 * @return true if at least one character was skipped
+	 */
+	private boolean skipName() {
+		final int start = this.position;
+		while (this.position < this.end) {
+			final char c = this.text.charAt(this.position);
+			if (!isLetter(c) && !isDigit(c) && c != '_' && c != '-' && c != '+' && c != '.' && c != ':') {
+				break;
+			}
+			this.position++;
+		}
+		return this.position > start;
+	}
+
+	private void skipWhitespace() {
+		while (this.position < this.end && isWhitespace(this.text.charAt(this.position))) {
+			this.position++;
+		}
+	}
+
+	/**
+	 * @return false if there is a comment that does not end with a line break
+	 */
+	private boolean skipWhitespaceAndComments() {
+		while (this.position < this.end) {
+			final char c = this.text.charAt(this.position);
+			if (c == '%') {
+				final int lineEnd = this.text.indexOf('\n', this.position);
+				if (lineEnd < 0 || lineEnd >= this.end) {
+					return false;
+				}
+				this.position = lineEnd + 1;
+			} else if (isWhitespace(c)) {
+				this.position++;
+			} else {
+				break;
+			}
+		}
+		return true;
+	}
+
+	private char peek() {
+		return this.position < this.end ? this.text.charAt(this.position) : 0;
+	}
+
+	private char next() {
+		return this.position < this.end ? this.text.charAt(this.position++) : 0;
+	}
+
+	/**
+	 * Checks for a {@code VARORPREDNAME} token.
+	 */
+	static boolean isPlainName(final String text, final int start, final int end) {
+		if (!isLetter(text.charAt(start))) {
+			return false;
+		}
+		for (int i = start + 1; i < end; i++) {
+			final char c = text.charAt(i);
+			if (!isLetter(c) && !isDigit(c) && c != '-' && c != '_') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks for a {@code PNAME_LN} token, i.e., an optional prefix name and a
+	 * non-empty local name, separated by a colon.
+	 */
+	static boolean isPrefixedName(final String text, final int start, final int end) {
+		final int colon = text.indexOf(':', start);
+		if (colon < 0 || colon >= end - 1) {
+			return false;
+		}
+		if (colon > start && (!isLetter(text.charAt(start)) || text.charAt(colon - 1) == '.'
+				|| !areNameChars(text, start + 1, colon, false))) {
+			return false;
+		}
+		final char first = text.charAt(colon + 1);
+		if (!isLetter(first) && !isDigit(first) && first != '_' && first != ':') {
+			return false;
+		}
+		if (end - colon > 2 && (text.charAt(end - 1) == '.' || text.charAt(end - 1) == ':')) {
+			return false;
+		}
+		return areNameChars(text, colon + 2, end, true);
+	}
+
+	/**
+	 * Checks for a {@code NAMED_NULL} token.
+	 */
+	static boolean isNamedNull(final String text, final int start, final int end) {
+		if (end - start < 3 || text.charAt(start) != '_' || text.charAt(start + 1) != ':') {
+			return false;
+		}
+		final char first = text.charAt(start + 2);
+		if (!isLetter(first) && !isDigit(first) && first != '_') {
+			return false;
+		}
+		return text.charAt(end - 1) != '.' && areNameChars(text, start + 3, end, false);
+	}
+
+	/**
+	 * Checks for an {@code INTEGER}, {@code DECIMAL}, or {@code DOUBLE} token.
+	 *
+	 * @return the datatype of the number, or null if the text is not a number
+	 */
+	static String getNumericDatatype(final String text, final int start, final int end) {
+		int i = start;
+		if (text.charAt(i) == '+' || text.charAt(i) == '-') {
+			i++;
+		}
+		final int integerStart = i;
+		while (i < end && isDigit(text.charAt(i))) {
+			i++;
+		}
+		final boolean hasInteger = i > integerStart;
+		boolean hasDot = false;
+		if (i < end && text.charAt(i) == '.') {
+			hasDot = true;
+			final int fractionStart = ++i;
+			while (i < end && isDigit(text.charAt(i))) {
+				i++;
+			}
+			if (!hasInteger && i == fractionStart) {
+				return null;
+			}
+		} else if (!hasInteger) {
+			return null;
+		}
+		if (i == end) {
+			return hasDot ? PrefixDeclarationRegistry.XSD_DECIMAL : PrefixDeclarationRegistry.XSD_INTEGER;
+		}
+		if (text.charAt(i) != 'e' && text.charAt(i) != 'E') {
+			return null;
+		}
+		i++;
+		if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+			i++;
+		}
+		final int exponentStart = i;
+		while (i < end && isDigit(text.charAt(i))) {
+			i++;
+		}
+		return (i == end && i > exponentStart) ? PrefixDeclarationRegistry.XSD_DOUBLE : null;
+	}
+
+	private static boolean areNameChars(final String text, final int start, final int end, final boolean allowColon) {
+		for (int i = start; i < end; i++) {
+			final char c = text.charAt(i);
+			if (!isLetter(c) && !isDigit(c) && c != '_' && c != '-' && c != '.' && !(allowColon && c == ':')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isLetter(final char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	private static boolean isDigit(final char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isWhitespace(final char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+	}
+
+}
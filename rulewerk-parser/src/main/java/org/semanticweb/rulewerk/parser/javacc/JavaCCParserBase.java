@@ -45,6 +45,7 @@ import org.semanticweb.rulewerk.parser.DefaultParserConfiguration;
 import org.semanticweb.rulewerk.parser.LocalPrefixDeclarationRegistry;
 import org.semanticweb.rulewerk.parser.ParserConfiguration;
 import org.semanticweb.rulewerk.parser.ParsingException;
+import org.semanticweb.rulewerk.parser.StatementHandler;
 
 /**
  * Basic methods used in the JavaCC-generated parser.
@@ -65,6 +66,7 @@ public class JavaCCParserBase {
 	private PrefixDeclarationRegistry prefixDeclarationRegistry;
 
 	private KnowledgeBase knowledgeBase;
+	private StatementHandler statementHandler;
 	private ParserConfiguration parserConfiguration;
 	private Skolemization skolemization = new Skolemization();
 	private TermFactory termFactory = new TermFactory();
@@ -185,8 +187,16 @@ public class JavaCCParserBase {
 		return termFactory.makePredicate(name, arity);
 	}
 
-	void addStatement(Statement statement) {
-		knowledgeBase.addStatement(statement);
+	void addStatement(Statement statement) throws ParseException {
+		if (statementHandler == null) {
+			knowledgeBase.addStatement(statement);
+			return;
+		}
+		try {
+			statementHandler.handleStatement(statement);
+		} catch (ParsingException e) {
+			throw makeParseExceptionWithCause(e.getMessage(), e);
+		}
 	}
 
 	void addDataSource(String predicateName, int arity, DataSource dataSource) throws ParseException {
@@ -327,6 +337,22 @@ public class JavaCCParserBase {
 		return knowledgeBase;
 	}
 
+	/**
+	 * Sets a {@link StatementHandler} that receives all parsed statements instead
+	 * of the {@link KnowledgeBase} of this parser. The knowledge base is still used
+	 * for directives, e.g., for keeping track of imported files.
+	 *
+	 * @param statementHandler a {@link StatementHandler}, or null to add
+	 *                         statements to the knowledge base
+	 */
+	public void setStatementHandler(StatementHandler statementHandler) {
+		this.statementHandler = statementHandler;
+	}
+
+	public StatementHandler getStatementHandler() {
+		return statementHandler;
+	}
+
 	public void setParserConfiguration(ParserConfiguration parserConfiguration) {
 		this.parserConfiguration = parserConfiguration;
 	}
@@ -335,11 +361,18 @@ public class JavaCCParserBase {
 		return parserConfiguration;
 	}
 
-	Skolemization getSkolemization() {
+	public Skolemization getSkolemization() {
 		return skolemization;
 	}
 
-	void setSkolemization(Skolemization skolemization) {
+	/**
+	 * Sets the {@link Skolemization} used for renaming named nulls. Parsers that
+	 * share a {@link Skolemization} rename named nulls with equal names in the
+	 * same way, as if they were parsing one input.
+	 *
+	 * @param skolemization the {@link Skolemization} to use
+	 */
+	public void setSkolemization(Skolemization skolemization) {
 		this.skolemization = skolemization;
 	}
 
@@ -29,6 +29,7 @@ import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
 import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
 import org.semanticweb.rulewerk.parser.ParserConfiguration;
 import org.semanticweb.rulewerk.parser.RuleParser;
+import org.semanticweb.rulewerk.parser.StatementHandler;
 
 /**
  * Factory for creating a SubParser sharing configuration, (semantic) state, and
@@ -40,6 +41,7 @@ import org.semanticweb.rulewerk.parser.RuleParser;
  */
 public class SubParserFactory {
 	private final KnowledgeBase knowledgeBase;
+	private final StatementHandler statementHandler;
 	private final ParserConfiguration parserConfiguration;
 	private final PrefixDeclarationRegistry prefixDeclarationRegistry;
 	private final Skolemization skolemization;
@@ -51,6 +53,7 @@ public class SubParserFactory {
 	 */
 	SubParserFactory(final JavaCCParser parser) {
 		this.knowledgeBase = parser.getKnowledgeBase();
+		this.statementHandler = parser.getStatementHandler();
 		this.prefixDeclarationRegistry = parser.getPrefixDeclarationRegistry();
 		this.parserConfiguration = parser.getParserConfiguration();
 		this.skolemization = parser.getSkolemization();
@@ -68,6 +71,7 @@ public class SubParserFactory {
 	public JavaCCParser makeSubParser(final InputStream inputStream, final String encoding) {
 		final JavaCCParser subParser = new JavaCCParser(inputStream, encoding);
 		subParser.setKnowledgeBase(this.knowledgeBase);
+		subParser.setStatementHandler(this.statementHandler);
 		subParser.setPrefixDeclarationRegistry(this.prefixDeclarationRegistry);
 		subParser.setParserConfiguration(this.parserConfiguration);
 		subParser.setSkolemization(this.skolemization);
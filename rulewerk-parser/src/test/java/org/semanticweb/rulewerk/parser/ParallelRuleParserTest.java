@@ -0,0 +1,241 @@
+package org.semanticweb.rulewerk.parser;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+
+public class ParallelRuleParserTest {
+
+	private static final String INPUT = "@prefix ex: <http://example.org/ns/> .\n" //
+			+ "% a comment with a dot. and a quote \"\n" //
+			+ "@source ex:src[2]: load-csv(\"src.csv\") .\n" //
+			+ "ex:p(<a>, \"a string with . and % inside\") .\n" //
+			+ "ex:p(<b>, 1.5).ex:p(<c>, '''triple \"quoted\" '' .\n string''') .\n" //
+			+ "ex:q(?X, !Y) :- ex:p(?X, ?Z), ~ex:r(?Z) . % trailing comment.\n" //
+			+ "ex:p(<d>, \"\\\" escaped . quote\"@en) .\n" //
+			+ "ex:r(_:n1) .\n" //
+			+ "ex:s(_:n1, <http://example.org/x#y.z>) .\n" //
+			+ "ex:p(<e>, \"42\"^^<http://www.w3.org/2001/XMLSchema#integer>) .\n";
+
+	private static ExecutorService executor;
+
+	@BeforeClass
+	public static void setUp() {
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		executor.shutdown();
+	}
+
+	private static InputStream stream(final String input) {
+		return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static List<Statement> statements(final KnowledgeBase knowledgeBase) {
+		return new ArrayList<>(knowledgeBase.getStatements());
+	}
+
+	@Test
+	public void parse_sequentialSmallChunks_sameAsRuleParser() throws ParsingException {
+		final KnowledgeBase expected = RuleParser.parse(INPUT);
+		final KnowledgeBase actual = new ParallelRuleParser().setChunkSize(1).parse(stream(INPUT));
+
+		assertEquals(statements(expected).size(), statements(actual).size());
+		assertEquals(expected.getRules(), actual.getRules());
+		assertEquals(expected.getDataSourceDeclarations(), actual.getDataSourceDeclarations());
+		assertEquals(expected.getPrefixes().next(), actual.getPrefixes().next());
+	}
+
+	@Test
+	public void parse_baseDirective_resolvesRelativeIris() throws ParsingException {
+		final String input = "@base <http://example.org/> .\np(<c>) .\n";
+		final KnowledgeBase expected = RuleParser.parse(input);
+		final KnowledgeBase actual = new ParallelRuleParser().setExecutor(executor).parse(stream(input));
+
+		assertEquals(statements(expected), statements(actual));
+		assertEquals(expected.getBaseIri(), actual.getBaseIri());
+	}
+
+	@Test
+	public void parse_parallelOrdered_sameOrderAsRuleParser() throws ParsingException {
+		final StringBuilder input = new StringBuilder("@prefix ex: <http://example.org/> .\n");
+		for (int i = 0; i < 5000; i++) {
+			input.append("ex:p(ex:c").append(i).append(", \"").append(i).append(" . \") .\n");
+		}
+		final KnowledgeBase expected = RuleParser.parse(input.toString());
+		final KnowledgeBase actual = new ParallelRuleParser().setExecutor(executor).setChunkSize(100)
+				.setMaxPendingChunks(3).parse(stream(input.toString()));
+
+		assertEquals(statements(expected), statements(actual));
+	}
+
+	@Test
+	public void parse_parallelUnordered_sameStatements() throws ParsingException {
+		final StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			input.append("p(c").append(i).append(") .\n");
+		}
+		final KnowledgeBase expected = RuleParser.parse(input.toString());
+		final KnowledgeBase actual = new ParallelRuleParser().setExecutor(executor).setOrdered(false)
+				.setChunkSize(50).parse(stream(input.toString()));
+
+		assertEquals(new HashSet<>(statements(expected)), new HashSet<>(statements(actual)));
+	}
+
+	@Test
+	public void parse_statementHandler_receivesStatementsInOrder()
+			throws ParsingException, PrefixDeclarationException {
+		final StringBuilder input = new StringBuilder("@prefix ex: <http://example.org/> .\n");
+		for (int i = 0; i < 1000; i++) {
+			input.append("ex:p(ex:c").append(i).append(") .\n");
+		}
+		final List<Statement> statements = new ArrayList<>();
+		final PrefixDeclarationRegistry prefixDeclarationRegistry = new ParallelRuleParser().setExecutor(executor)
+				.setChunkSize(100).parse(stream(input.toString()), RuleParser.DEFAULT_STRING_ENCODING, statements::add);
+
+		assertEquals(statements(RuleParser.parse(input.toString())), statements);
+		assertEquals("http://example.org/", prefixDeclarationRegistry.getPrefixIri("ex:"));
+	}
+
+	@Test
+	public void parse_namedNullsInDifferentChunks_renamedConsistently() throws ParsingException {
+		final KnowledgeBase knowledgeBase = new ParallelRuleParser().setExecutor(executor).setChunkSize(1)
+				.parse(stream("p(_:b) .\nq(_:b) .\n"));
+
+		final List<Fact> facts = knowledgeBase.getFacts();
+		assertEquals(2, facts.size());
+		final Term first = facts.get(0).getArguments().get(0);
+		final Term second = facts.get(1).getArguments().get(0);
+		assertEquals(first, second);
+		assertNotEquals("b", first.getName());
+	}
+
+	@Test
+	public void parseInto_withBaseIri_resolvesRelativeIris() throws ParsingException {
+		final KnowledgeBase expected = new KnowledgeBase();
+		RuleParser.parseInto(expected, stream("p(<c>) ."), new ParserConfiguration(new DefaultParserConfiguration()),
+				"http://example.org/");
+		final KnowledgeBase actual = new KnowledgeBase();
+		new ParallelRuleParser().setBaseIri("http://example.org/").parseInto(actual, stream("p(<c>) ."));
+
+		assertEquals(statements(expected), statements(actual));
+	}
+
+	@Test
+	public void parse_emptyInput_succeeds() throws ParsingException {
+		assertTrue(statements(new ParallelRuleParser().parse(stream("  % nothing here\n"))).isEmpty());
+	}
+
+	@Test(expected = ParsingException.class)
+	public void parse_prefixAfterStatement_throws() throws ParsingException {
+		new ParallelRuleParser().parse(stream("p(a) .\n@prefix ex: <http://example.org/> .\n"));
+	}
+
+	@Test(expected = ParsingException.class)
+	public void parse_sourceAfterStatement_throws() throws ParsingException {
+		new ParallelRuleParser().parse(stream("p(a) .\n@source q[1]: load-csv(\"q.csv\") .\n"));
+	}
+
+	@Test
+	public void parse_syntaxErrorInParallelChunk_reportsLineInInput() {
+		final String input = "p(a) .\np(b) .\np(c .\np(d) .\n";
+		try {
+			new ParallelRuleParser().setExecutor(executor).setChunkSize(1).parse(stream(input));
+			fail("Expected a ParsingException.");
+		} catch (final ParsingException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("line 3,"));
+		}
+	}
+
+	@Test
+	public void parse_fastFactParsing_sameStatementsAsRuleParser() throws ParsingException {
+		final String input = "@prefix ex: <http://example.org/ns/> .\n" //
+				+ "ex:p(<a>, \"lit\"^^<http://example.org/dt>, ex:b) .\n" //
+				+ "ex:q(?X) :- ex:p(?X, ?Y, ?Z) .\n" //
+				+ "ex:p(<c>, 'single', 1.5) . ex:p(<d>, \"d\"@de, -2) .\n" //
+				+ "ex:r(ex:e) .\n" //
+				+ "% trailing comment\n";
+		final List<Statement> expected = statements(RuleParser.parse(input));
+
+		assertEquals(expected, statements(new ParallelRuleParser().setFastFactParsing(true).parse(stream(input))));
+		assertEquals(expected, statements(new ParallelRuleParser().setFastFactParsing(false).parse(stream(input))));
+	}
+
+	@Test
+	public void parse_trailingComment_sameForAllChunkSizes() throws ParsingException {
+		final String valid = "p(a) . q(b) .\n% trailing comment\n";
+		final List<Statement> expected = statements(RuleParser.parse(valid));
+		final String invalid = "p(a) . % trailing comment without newline";
+		try {
+			RuleParser.parse(invalid);
+			fail("Expected a ParsingException.");
+		} catch (final ParsingException e) {
+			// expected
+		}
+
+		for (final int chunkSize : new int[] { 1, 4, 7, 100 }) {
+			for (final boolean fastFactParsing : new boolean[] { true, false }) {
+				final ParallelRuleParser parser = new ParallelRuleParser().setChunkSize(chunkSize)
+						.setFastFactParsing(fastFactParsing);
+				assertEquals(expected, statements(parser.parse(stream(valid))));
+				try {
+					parser.parse(stream(invalid));
+					fail("Expected a ParsingException for chunk size " + chunkSize + ".");
+				} catch (final ParsingException e) {
+					// expected
+				}
+			}
+		}
+	}
+
+	@Test
+	public void parse_syntaxErrorAfterFastFacts_reportsLineInInput() {
+		final String input = "p(a) .\np(b) .\n\np(c .\np(d) .\n";
+		try {
+			new ParallelRuleParser().parse(stream(input));
+			fail("Expected a ParsingException.");
+		} catch (final ParsingException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("line 4,"));
+		}
+	}
+
+}
@@ -28,6 +28,7 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
@@ -41,6 +42,9 @@ import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationI
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
 import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFilesDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.HdtDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ParquetFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.TridentDataSource;
@@ -63,6 +67,29 @@ public class RuleParserDataSourceTest {
 		assertEquals(csvds, RuleParser.parseDataSourceDeclaration(input).getDataSource());
 	}
 
+	@Test
+	public void testCsvFilesSource() throws ParsingException, IOException {
+		String input = "@source p[2] : load-csv-files(\"src/main/data/input/*.csv.gz\") .";
+		CsvFilesDataSource csvds = new CsvFilesDataSource(BASE_PATH + "src/main/data/input/*.csv.gz");
+		assertEquals(csvds, RuleParser.parseDataSourceDeclaration(input).getDataSource());
+	}
+
+	@Test
+	public void testParquetSource() throws ParsingException, IOException {
+		String input = "@source p[2] : parquet(\"file.parquet\", \"s\", \"o\", \"p=knows\") .";
+		ParquetFileDataSource parquetds = new ParquetFileDataSource(BASE_PATH + "file.parquet",
+				Arrays.asList("s", "o"), Collections.singletonMap("p", "knows"));
+		assertEquals(parquetds, RuleParser.parseDataSourceDeclaration(input).getDataSource());
+	}
+
+	@Test
+	public void testHdtSource() throws ParsingException, IOException {
+		String input = "@source p[1] : load-hdt(\"file.hdt\", \"http://example.org/p\", \"http://example.org/o\") .";
+		HdtDataSource hdtds = new HdtDataSource(BASE_PATH + "file.hdt", "http://example.org/p",
+				"http://example.org/o");
+		assertEquals(hdtds, RuleParser.parseDataSourceDeclaration(input).getDataSource());
+	}
+
 	@Test
 	public void testRdfSource() throws ParsingException, IOException {
 		String input = "@source p[3] : load-rdf(\"" + EXAMPLE_RDF_FILE_PATH + "\") .";
@@ -70,6 +97,20 @@ public class RuleParserDataSourceTest {
 		assertEquals(rdfds, RuleParser.parseDataSourceDeclaration(input).getDataSource());
 	}
 
+	@Test
+	public void testRdfSourceSelection() throws ParsingException, IOException {
+		String input = "@source p[2] : load-rdf(\"" + EXAMPLE_RDF_FILE_PATH + "\", \"http://example.org/p\") .";
+		RdfFileDataSource rdfds = new RdfFileDataSource(BASE_PATH + EXAMPLE_RDF_FILE_PATH, "http://example.org/p");
+		assertEquals(rdfds, RuleParser.parseDataSourceDeclaration(input).getDataSource());
+	}
+
+	@Test(expected = ParsingException.class)
+	public void testRdfSourceSelectionInvalidArity() throws ParsingException, IOException {
+		String input = "@source p[2] : load-rdf(\"" + EXAMPLE_RDF_FILE_PATH
+				+ "\", \"http://example.org/p\", \"http://example.org/o\") .";
+		RuleParser.parseDataSourceDeclaration(input);
+	}
+
 	@Test(expected = ParsingException.class)
 	public void testRdfSourceInvalidArity() throws ParsingException, IOException {
 		String input = "@source p[2] : load-rdf(\"" + EXAMPLE_RDF_FILE_PATH + "\") .";
@@ -212,6 +253,17 @@ public class RuleParserDataSourceTest {
 		assertEquals(expected, parsed);
 	}
 
+	@Test
+	public void testTridentSourceSelection_succeeds() throws ParsingException, IOException {
+		String input = "@source p[1] : trident(\"" + EXAMPLE_TRIDENT_PATH
+				+ "\", \"http://www.w3.org/1999/02/22-rdf-syntax-ns#type\", \"http://example.org/C\") .";
+		DataSource parsed = RuleParser.parseDataSourceDeclaration(input).getDataSource();
+		TridentDataSource expected = new TridentDataSource(BASE_PATH + EXAMPLE_TRIDENT_PATH,
+				"http://www.w3.org/1999/02/22-rdf-syntax-ns#type", "http://example.org/C");
+
+		assertEquals(expected, parsed);
+	}
+
 	@Test(expected = ParsingException.class)
 	public void testTridentSourcewrongParameterCount_fails() throws ParsingException, IOException {
 		String input = "@source p[2] : trident(\"" + EXAMPLE_TRIDENT_PATH + "\", 42) .";
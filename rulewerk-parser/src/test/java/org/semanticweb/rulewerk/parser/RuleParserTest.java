@@ -28,6 +28,7 @@ import java.util.List;
 
 import org.junit.Test;
 import org.mockito.ArgumentMatchers;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
 import org.semanticweb.rulewerk.core.model.api.Conjunction;
 import org.semanticweb.rulewerk.core.model.api.Constant;
 import org.semanticweb.rulewerk.core.model.api.DatatypeConstant;
@@ -545,6 +546,32 @@ public class RuleParserTest implements ParserTestUtils {
 		assertEquals(expected, result);
 	}
 
+	@Test
+	public void parse_statementHandler_receivesStatementsInOrder()
+			throws ParsingException, PrefixDeclarationException {
+		String input = "@prefix ex: <http://example.org/> . ex:s(ex:c) . "
+				+ "ex:q(?X, !Y), ex:r(?X, ex:d) :- ex:p(?X, ex:c), ex:p(?X, ?Z) .";
+		List<Statement> statements = new ArrayList<>();
+		PrefixDeclarationRegistry prefixDeclarationRegistry = RuleParser.parse(input, statements::add);
+		assertEquals(Arrays.asList(fact1, rule1), statements);
+		assertEquals("http://example.org/", prefixDeclarationRegistry.getPrefixIri("ex:"));
+	}
+
+	@Test
+	public void parse_statementHandler_receivesImportedStatements() throws ParsingException {
+		String input = "@import \"src/test/resources/subdir/parent.rls\" .";
+		List<Statement> statements = new ArrayList<>();
+		RuleParser.parse(input, statements::add);
+		assertEquals(Arrays.asList(fact1, fact2), statements);
+	}
+
+	@Test(expected = ParsingException.class)
+	public void parse_statementHandlerFails_throws() throws ParsingException {
+		RuleParser.parse("p(a) . q(b) .", statement -> {
+			throw new ParsingException("Handler failed.");
+		});
+	}
+
 	@Test
 	public void parse_import_renamesNamedNulls() throws ParsingException {
 		String input = "p(_:blank) . @import \"src/test/resources/blank.rls\" .";
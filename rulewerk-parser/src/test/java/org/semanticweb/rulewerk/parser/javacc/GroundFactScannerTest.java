@@ -0,0 +1,141 @@
+package org.semanticweb.rulewerk.parser.javacc;
+
+/*-
+ * #%L
+ * Rulewerk Parser
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Statement;
+import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
+import org.semanticweb.rulewerk.parser.DefaultParserConfiguration;
+import org.semanticweb.rulewerk.parser.LocalPrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.parser.ParserConfiguration;
+
+public class GroundFactScannerTest {
+
+	private LocalPrefixDeclarationRegistry prefixDeclarationRegistry;
+	private ParserConfiguration parserConfiguration;
+	private Skolemization skolemization;
+
+	@Before
+	public void init() throws PrefixDeclarationException {
+		prefixDeclarationRegistry = new LocalPrefixDeclarationRegistry("http://example.org/base/");
+		prefixDeclarationRegistry.setPrefixIri("ex:", "http://example.org/");
+		prefixDeclarationRegistry.setPrefixIri("xsd:", "http://www.w3.org/2001/XMLSchema#");
+		parserConfiguration = new DefaultParserConfiguration();
+		skolemization = new Skolemization();
+	}
+
+	private Fact scan(String input) {
+		GroundFactScanner scanner = new GroundFactScanner();
+		scanner.setPrefixDeclarationRegistry(prefixDeclarationRegistry);
+		scanner.setParserConfiguration(parserConfiguration);
+		scanner.setSkolemization(skolemization);
+		return scanner.scanFact(input, 0, input.length());
+	}
+
+	private List<Statement> parse(String input) throws ParseException, PrefixDeclarationException {
+		JavaCCParser parser = new JavaCCParser(
+				new JavaCCParserTokenManager(new JavaCharStream(new StringReader(input), 1, 1)));
+		parser.setPrefixDeclarationRegistry(prefixDeclarationRegistry);
+		parser.setParserConfiguration(parserConfiguration);
+		parser.setSkolemization(skolemization);
+		parser.parse();
+		return new ArrayList<>(parser.getKnowledgeBase().getStatements());
+	}
+
+	private void assertSameAsParser(String input) throws ParseException, PrefixDeclarationException {
+		Fact fact = scan(input);
+		assertNotNull(input, fact);
+		List<Statement> statements = parse(input);
+		assertEquals(1, statements.size());
+		assertEquals(statements.get(0), fact);
+	}
+
+	@Test
+	public void scanFact_supportedTerms_sameAsParser() throws ParseException, PrefixDeclarationException {
+		assertSameAsParser("p(<http://example.org/a>, \"lit\"^^<http://example.org/dt>, ex:name) .");
+		assertSameAsParser("<http://example.org/p>(<relative>, ex:a:b, ex:d.e) .");
+		assertSameAsParser("ex:p(\"a string\", \"escaped \\\"quote\\\"\\n\", \"\", \"English\"@en-GB) .");
+		assertSameAsParser("p(\"1\"^^xsd:integer, \"x\"^^<http://www.w3.org/2001/XMLSchema#string>) .");
+		assertSameAsParser("p(42, -7, +3, 1.5, .5, 2., 1e10, -1.5E-3, .5e+2) .");
+		assertSameAsParser("p(a, b-c_d, B2) .");
+		assertSameAsParser("  % a comment\n\tp ( a ,\n b )\n .");
+		assertSameAsParser("p(_:n1, _:2, _:a.b) .");
+	}
+
+	@Test
+	public void scanFact_namedNulls_renamedAsByParser() throws ParseException, PrefixDeclarationException {
+		assertEquals(parse("p(_:b) .").get(0), scan("p(_:b) ."));
+	}
+
+	@Test
+	public void scanFact_unsupportedStatements_returnsNull() {
+		String[] inputs = { "q(?X) :- p(?X) .", "p(?X) .", "p(!X) .", "p('single') .", "p('''triple''') .",
+				"p(\"\"\"sixfold\"\"\") .", "p(\"a\" ^^xsd:string) .", "p(\"a\"^^xsd) .", "p(a) % comment\n .",
+				"p(\u00e4) .", "p(|literal|) .", "~p(a) .", "p() .", "p(a) . q(b) .", "p(a)" };
+		for (String input : inputs) {
+			assertNull(input, scan(input));
+		}
+	}
+
+	@Test
+	public void scanFact_invalidStatements_returnsNull() {
+		String[] inputs = { "p(undeclared:a) .", "p(ex:) .", "p(ex:a.) .", "p(\"a\\x\") .", "p(\"line\nbreak\") .",
+				"p(<a b>) .", "p(a.b) .", "p(1a) .", "p(1e) .", "p(\"a\"@) .", "p(\"a\"@en-) .", "p(_:) .",
+				"p(_:a:b) .", "p(a b) .", "p(a,) .", "p(a" };
+		for (String input : inputs) {
+			assertNull(input, scan(input));
+		}
+	}
+
+	@Test
+	public void scanFact_namedNullsNotAllowed_returnsNull() {
+		parserConfiguration = new DefaultParserConfiguration().disallowNamedNulls();
+		assertNull(scan("p(_:b) ."));
+	}
+
+	@Test
+	public void scanFact_partOfText_readsOnlyThisPart() throws ParseException, PrefixDeclarationException {
+		String input = "p(a) .\nq(b) .\n";
+		GroundFactScanner scanner = new GroundFactScanner();
+		scanner.setPrefixDeclarationRegistry(prefixDeclarationRegistry);
+		assertEquals(parse("q(b) .").get(0), scanner.scanFact(input, 6, 13));
+	}
+
+	@Test
+	public void isBlank_whitespaceAndComments_true() {
+		assertTrue(new GroundFactScanner().isBlank(" \n% comment\n\t", 0, 13));
+	}
+
+	@Test
+	public void isBlank_unterminatedComment_false() {
+		assertFalse(new GroundFactScanner().isBlank(" % comment", 0, 10));
+	}
+
+}
@@ -0,0 +1,145 @@
+package org.semanticweb.rulewerk.rdf;
+
+/*-
+ * #%L
+ * Rulewerk RDF Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.openrdf.model.Statement;
+import org.openrdf.rio.RDFHandler;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.helpers.RDFHandlerBase;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+
+/**
+ * An {@link RDFHandler} that converts the statements reported by an RDF parser
+ * to {@link Fact}s while the input is parsed, without storing the statements in
+ * a {@link org.openrdf.model.Model}. The facts are converted as by
+ * {@link RdfModelConverter} and passed on in batches to a
+ * {@link FactBatchConsumer}. The namespaces reported by the parser are
+ * collected and can be retrieved after parsing. Statements that are not
+ * selected by the {@link RdfModelConverter} are skipped.
+ * <p>
+ * A handler converts the statements with the term caches of its
+ * {@link RdfModelConverter} and hence must not be used by several parsers at
+ * the same time.
+ *
+ */
+public class RdfFactHandler extends RDFHandlerBase {
+
+	/**
+	 * Consumer of the batches of facts converted by an {@link RdfFactHandler}.
+	 */
+	@FunctionalInterface
+	public interface FactBatchConsumer {
+
+		/**
+		 * Processes a batch of facts. The list is not used by the handler after
+		 * this call and may be kept by the consumer.
+		 *
+		 * @param facts a non-empty list of facts
+		 * @throws RDFHandlerException if the facts cannot be processed, which aborts
+		 *                             parsing
+		 */
+		void accept(List<Fact> facts) throws RDFHandlerException;
+	}
+
+	private final RdfModelConverter rdfModelConverter;
+	private final int batchSize;
+	private final FactBatchConsumer factBatchConsumer;
+
+	private final Map<String, String> namespaces = new LinkedHashMap<>();
+	private List<Fact> batch;
+	private long statementCount = 0;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rdfModelConverter the converter whose settings are used for
+	 *                          converting statements to facts
+	 * @param batchSize         the number of facts passed to the consumer at once
+	 * @param factBatchConsumer the consumer of the converted facts
+	 */
+	public RdfFactHandler(RdfModelConverter rdfModelConverter, int batchSize, FactBatchConsumer factBatchConsumer) {
+		Validate.notNull(rdfModelConverter, "RDF model converter cannot be null.");
+		Validate.isTrue(batchSize > 0, "Batch size must be positive, but was %d.", batchSize);
+		Validate.notNull(factBatchConsumer, "Fact batch consumer cannot be null.");
+		this.rdfModelConverter = rdfModelConverter;
+		this.batchSize = batchSize;
+		this.factBatchConsumer = factBatchConsumer;
+		this.batch = new ArrayList<>(batchSize);
+	}
+
+	@Override
+	public void handleNamespace(String prefix, String uri) throws RDFHandlerException {
+		namespaces.put(prefix, uri);
+	}
+
+	@Override
+	public void handleStatement(Statement statement) throws RDFHandlerException {
+		final Fact fact = rdfModelConverter.rdfStatementToFact(statement);
+		statementCount++;
+		if (fact != null) {
+			batch.add(fact);
+			if (batch.size() == batchSize) {
+				flush();
+			}
+		}
+	}
+
+	@Override
+	public void endRDF() throws RDFHandlerException {
+		flush();
+	}
+
+	private void flush() throws RDFHandlerException {
+		if (!batch.isEmpty()) {
+			final List<Fact> facts = batch;
+			batch = new ArrayList<>(batchSize);
+			factBatchConsumer.accept(facts);
+		}
+	}
+
+	/**
+	 * Returns the namespaces reported by the parser so far, in the order of their
+	 * declaration. Later declarations of a prefix replace earlier ones.
+	 *
+	 * @return map from prefix names, without colon, to namespace IRIs
+	 */
+	public Map<String, String> getNamespaces() {
+		return Collections.unmodifiableMap(namespaces);
+	}
+
+	/**
+	 * Returns the number of statements handled so far, including statements that
+	 * were skipped because they are not selected.
+	 *
+	 * @return the number of statements
+	 */
+	public long getStatementCount() {
+		return statementCount;
+	}
+
+}
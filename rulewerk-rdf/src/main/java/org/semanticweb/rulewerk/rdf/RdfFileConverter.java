@@ -0,0 +1,445 @@
+package org.semanticweb.rulewerk.rdf;
+
+/*-
+ * #%L
+ * Rulewerk RDF Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.lang3.Validate;
+import org.openrdf.model.Model;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParseException;
+import org.openrdf.rio.RDFParser;
+import org.openrdf.rio.Rio;
+import org.openrdf.rio.helpers.BasicParserSettings;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class for converting RDF files to {@link Fact}s without loading them into a
+ * {@link Model}. Statements are converted as by a given
+ * {@link RdfModelConverter} while the file is parsed. Parsing and conversion
+ * run in worker threads, which pass batches of facts through a bounded queue to
+ * the calling thread, where they are consumed, e.g., by adding them to a
+ * {@link KnowledgeBase}.
+ * <p>
+ * Files in the line-based formats {@link RDFFormat#NTRIPLES} and
+ * {@link RDFFormat#NQUADS} are split into parts at line boundaries, which are
+ * parsed in parallel. Blank nodes with the same label in different parts are
+ * converted to the same term. Other formats and files compressed with gzip
+ * (extension {@code .gz}) are parsed by a single worker. Line numbers in parse
+ * errors of split files are relative to the start of the part.
+ * <p>
+ * As for {@link RdfModelConverter}, blank nodes of different files, or of
+ * different conversions of the same file, are converted to different terms.
+ *
+ */
+public class RdfFileConverter {
+
+	private static Logger LOGGER = LoggerFactory.getLogger(RdfFileConverter.class);
+
+	/**
+	 * The default number of facts in a batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1 << 12;
+
+	/**
+	 * The default number of batches that can be waiting to be consumed.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+	/**
+	 * The default minimal size in bytes of the parts of a split file.
+	 */
+	public static final long DEFAULT_SPLIT_SIZE = 1L << 26;
+
+	/**
+	 * Marks the end of the facts of a worker in the queue.
+	 */
+	private static final List<Fact> END = new ArrayList<>(0);
+
+	private final RdfModelConverter rdfModelConverter;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	private long splitSize = DEFAULT_SPLIT_SIZE;
+
+	/**
+	 * Construct an object that converts statements like
+	 * {@link RdfModelConverter#RdfModelConverter()}.
+	 */
+	public RdfFileConverter() {
+		this(new RdfModelConverter());
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param rdfModelConverter the converter whose settings are used for
+	 *                          converting statements to facts; it is not used
+	 *                          itself, so it can be used concurrently
+	 */
+	public RdfFileConverter(RdfModelConverter rdfModelConverter) {
+		Validate.notNull(rdfModelConverter, "RDF model converter cannot be null.");
+		this.rdfModelConverter = rdfModelConverter;
+	}
+
+	/**
+	 * Sets the number of facts that are passed on at once. Default is
+	 * {@link #DEFAULT_BATCH_SIZE}.
+	 * 
+	 * @param batchSize a positive number
+	 */
+	public void setBatchSize(int batchSize) {
+		Validate.isTrue(batchSize > 0, "Batch size must be positive, but was %d.", batchSize);
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Sets the number of batches of facts that can be waiting to be consumed
+	 * before parsing is paused. Default is {@link #DEFAULT_QUEUE_CAPACITY}.
+	 * 
+	 * @param queueCapacity a positive number
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Validate.isTrue(queueCapacity > 0, "Queue capacity must be positive, but was %d.", queueCapacity);
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Sets the maximal number of parts of a file that are parsed at the same
+	 * time. Default is the number of available processors.
+	 * 
+	 * @param parallelism a positive number
+	 */
+	public void setParallelism(int parallelism) {
+		Validate.isTrue(parallelism > 0, "Parallelism must be positive, but was %d.", parallelism);
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Sets the minimal size of the parts of split files. Files that are not
+	 * larger than this are not split. Default is {@link #DEFAULT_SPLIT_SIZE}.
+	 * 
+	 * @param splitSize a positive number of bytes
+	 */
+	public void setSplitSize(long splitSize) {
+		Validate.isTrue(splitSize > 0, "Split size must be positive, but was %d.", splitSize);
+		this.splitSize = splitSize;
+	}
+
+	/**
+	 * Adds data and prefix declarations from a given RDF file to a given
+	 * {@link KnowledgeBase}. Facts are added in batches. If a prefix cannot be
+	 * added for some reason, it is ignored and a warning is logged.
+	 * 
+	 * @param knowledgeBase the {@link KnowledgeBase} to add to
+	 * @param file          the RDF file
+	 * @param format        the format of the file
+	 * @return the number of statements in the file
+	 * @throws IOException         if the file cannot be read
+	 * @throws RDFParseException   if the file is not valid in the given format
+	 * @throws RDFHandlerException if the statements cannot be converted
+	 */
+	public long addAll(KnowledgeBase knowledgeBase, File file, RDFFormat format)
+			throws IOException, RDFParseException, RDFHandlerException {
+		final Map<String, String> namespaces = new LinkedHashMap<>();
+		final long statementCount = convert(file, format, knowledgeBase::addStatements, namespaces);
+		for (Map.Entry<String, String> namespace : namespaces.entrySet()) {
+			try {
+				knowledgeBase.getPrefixDeclarationRegistry().setPrefixIri(namespace.getKey() + ":",
+						namespace.getValue());
+			} catch (PrefixDeclarationException e) {
+				LOGGER.warn("Failed to set prefix \"" + namespace.getKey() + "\" from RDF file: " + e.getMessage());
+			}
+		}
+		return statementCount;
+	}
+
+	/**
+	 * Adds the data from a given RDF file as {@link Fact}s to the given
+	 * {@link KnowledgeBase}. Facts are added in batches.
+	 * 
+	 * @param knowledgeBase the {@link KnowledgeBase} to add {@link Fact}s to
+	 * @param file          the RDF file
+	 * @param format        the format of the file
+	 * @return the number of statements in the file
+	 * @throws IOException         if the file cannot be read
+	 * @throws RDFParseException   if the file is not valid in the given format
+	 * @throws RDFHandlerException if the statements cannot be converted
+	 */
+	public long addFacts(KnowledgeBase knowledgeBase, File file, RDFFormat format)
+			throws IOException, RDFParseException, RDFHandlerException {
+		return convert(file, format, knowledgeBase::addStatements);
+	}
+
+	/**
+	 * Converts the statements of a given RDF file to {@link Fact}s, which are
+	 * passed in batches to the given consumer. The consumer is called in the
+	 * calling thread only, while the file is parsed in other threads.
+	 * 
+	 * @param file              the RDF file
+	 * @param format            the format of the file
+	 * @param factBatchConsumer the consumer of the facts
+	 * @return the number of statements in the file
+	 * @throws IOException         if the file cannot be read
+	 * @throws RDFParseException   if the file is not valid in the given format
+	 * @throws RDFHandlerException if the statements cannot be converted, or the
+	 *                             consumer throws this exception
+	 */
+	public long convert(File file, RDFFormat format, RdfFactHandler.FactBatchConsumer factBatchConsumer)
+			throws IOException, RDFParseException, RDFHandlerException {
+		return convert(file, format, factBatchConsumer, new LinkedHashMap<>());
+	}
+
+	long convert(File file, RDFFormat format, RdfFactHandler.FactBatchConsumer factBatchConsumer,
+			Map<String, String> namespaces) throws IOException, RDFParseException, RDFHandlerException {
+		Validate.notNull(file, "File cannot be null.");
+		Validate.notNull(format, "RDF format cannot be null.");
+		Validate.notNull(factBatchConsumer, "Fact batch consumer cannot be null.");
+		// fail early if no parser is available for the format
+		Rio.createParser(format);
+
+		final boolean compressed = file.getName().endsWith(".gz");
+		final List<long[]> ranges;
+		if (compressed || !isLineBased(format)) {
+			ranges = new ArrayList<>();
+			ranges.add(new long[] { 0, Long.MAX_VALUE });
+		} else {
+			ranges = split(file);
+		}
+
+		final Skolemization skolemization = new Skolemization();
+		final BlockingQueue<List<Fact>> queue = new ArrayBlockingQueue<>(queueCapacity);
+		final List<RdfFactHandler> handlers = new ArrayList<>();
+		final List<Future<?>> futures = new ArrayList<>();
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, ranges.size()));
+		long statementCount = 0;
+		try {
+			for (final long[] range : ranges) {
+				final RdfFactHandler handler = new RdfFactHandler(
+						new RdfModelConverter(rdfModelConverter, skolemization), batchSize, facts -> {
+							try {
+								queue.put(facts);
+							} catch (InterruptedException e) {
+								Thread.currentThread().interrupt();
+								throw new RDFHandlerException("Interrupted while passing on facts.", e);
+							}
+						});
+				handlers.add(handler);
+				futures.add(executor.submit(() -> {
+					try (InputStream inputStream = open(file, compressed, range[0], range[1])) {
+						final RDFParser parser = Rio.createParser(format);
+						parser.getParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true);
+						parser.setRDFHandler(handler);
+						parser.parse(inputStream, file.toURI().toString());
+					} finally {
+						try {
+							queue.put(END);
+						} catch (InterruptedException e) {
+							// nobody is waiting for the facts any more
+							Thread.currentThread().interrupt();
+						}
+					}
+					return null;
+				}));
+			}
+
+			int running = futures.size();
+			while (running > 0) {
+				final List<Fact> facts = queue.take();
+				if (facts == END) {
+					running--;
+					// report failures of finished workers without waiting for the others
+					for (final Future<?> future : futures) {
+						if (future.isDone()) {
+							future.get();
+						}
+					}
+				} else {
+					factBatchConsumer.accept(facts);
+				}
+			}
+
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+			for (final RdfFactHandler handler : handlers) {
+				namespaces.putAll(handler.getNamespaces());
+				statementCount += handler.getStatementCount();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RulewerkRuntimeException("Interrupted while converting RDF file.", e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RDFParseException) {
+				throw (RDFParseException) cause;
+			} else if (cause instanceof RDFHandlerException) {
+				throw (RDFHandlerException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else {
+				throw new RulewerkRuntimeException(cause);
+			}
+		} finally {
+			for (final Future<?> future : futures) {
+				future.cancel(true);
+			}
+			executor.shutdownNow();
+		}
+		return statementCount;
+	}
+
+	private static boolean isLineBased(RDFFormat format) {
+		return RDFFormat.NTRIPLES.equals(format) || RDFFormat.NQUADS.equals(format);
+	}
+
+	/**
+	 * Splits a file into ranges of at least {@link #splitSize} bytes that start
+	 * at the beginning of a line, but not into more than a few parts per worker.
+	 * 
+	 * @return list of pairs of start (inclusive) and end (exclusive) offset
+	 */
+	private List<long[]> split(File file) throws IOException {
+		final List<long[]> ranges = new ArrayList<>();
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+			final long length = randomAccessFile.length();
+			final long partSize = Math.max(splitSize, length / (4L * parallelism) + 1);
+			long start = 0;
+			while (start < length) {
+				long end = start + partSize;
+				if (end >= length) {
+					end = length;
+				} else {
+					randomAccessFile.seek(end - 1);
+					final InputStream inputStream = new BufferedInputStream(
+							Channels.newInputStream(randomAccessFile.getChannel()));
+					int b = inputStream.read();
+					while (b != -1 && b != '\n') {
+						end++;
+						b = inputStream.read();
+					}
+					end = Math.min(end, length);
+				}
+				ranges.add(new long[] { start, end });
+				start = end;
+			}
+		}
+		if (ranges.isEmpty()) {
+			ranges.add(new long[] { 0, 0 });
+		}
+		return ranges;
+	}
+
+	private static InputStream open(File file, boolean compressed, long start, long end) throws IOException {
+		if (compressed) {
+			return new GZIPInputStream(new FileInputStream(file), 1 << 16);
+		}
+		final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		channel.position(start);
+		return new BufferedInputStream(new RangeInputStream(Channels.newInputStream(channel), end - start), 1 << 16);
+	}
+
+	/**
+	 * Input stream that ends after a given number of bytes of the underlying
+	 * stream.
+	 */
+	static class RangeInputStream extends FilterInputStream {
+
+		private long remaining;
+
+		RangeInputStream(InputStream inputStream, long length) {
+			super(inputStream);
+			this.remaining = length;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			final int b = super.read();
+			if (b != -1) {
+				remaining--;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			final int read = super.read(b, off, (int) Math.min(len, remaining));
+			if (read > 0) {
+				remaining -= read;
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			final long skipped = super.skip(Math.min(n, remaining));
+			remaining -= skipped;
+			return skipped;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return (int) Math.min(super.available(), remaining);
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+
+}
@@ -20,10 +20,17 @@ package org.semanticweb.rulewerk.rdf;
  * #L%
  */
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.Validate;
+
 import org.openrdf.model.BNode;
 import org.openrdf.model.Literal;
 import org.openrdf.model.Model;
@@ -41,6 +48,7 @@ import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,6 +70,9 @@ import org.slf4j.LoggerFactory;
  * {@link Model}s. Blanks with the same name loaded from different models will
  * have different ids.</li>
  * </ul>
+ * Alternatively, a converter can select the triples of given properties and the
+ * instances of given classes, each of which is mapped to its own predicate;
+ * all other triples are skipped before any of their values is converted.
  *
  * @author Irina Dragoste
  * @author Markus Kroetzsch
@@ -79,6 +90,16 @@ public final class RdfModelConverter {
 
 	final RdfValueToTermConverter rdfValueToTermConverter;
 	final Predicate triplePredicate;
+	/**
+	 * The binary predicates of the selected properties by IRI, or null if all
+	 * triples are converted.
+	 */
+	final Map<String, Predicate> propertyPredicates;
+	/**
+	 * The unary predicates of the selected classes by IRI, or null if all triples
+	 * are converted.
+	 */
+	final Map<String, Predicate> classPredicates;
 
 	/**
 	 * Construct an object that does not skolemize blank nodes and that uses a
@@ -110,6 +131,58 @@ public final class RdfModelConverter {
 		} else {
 			this.triplePredicate = null;
 		}
+		this.propertyPredicates = null;
+		this.classPredicates = null;
+	}
+
+	/**
+	 * Constructs a converter that only converts the triples of the given
+	 * properties, as binary facts of the predicate of the property, and the
+	 * triples with rdf:type as predicate whose object is one of the given
+	 * classes, as unary facts of the predicate of the class. Other triples are
+	 * skipped without converting their subjects and objects. If a triple with
+	 * rdf:type as predicate is selected by its class, it is not converted for the
+	 * property rdf:type.
+	 *
+	 * @param skolemize          if true, blank nodes are translated to constants
+	 *                           with generated IRIs; otherwise they are replanced
+	 *                           by named nulls with generated ids
+	 * @param propertyPredicates binary predicates by IRI of the selected
+	 *                           properties
+	 * @param classPredicates    unary predicates by IRI of the selected classes
+	 */
+	public RdfModelConverter(boolean skolemize, Map<String, Predicate> propertyPredicates,
+			Map<String, Predicate> classPredicates) {
+		Validate.notNull(propertyPredicates, "Property predicates cannot be null.");
+		Validate.notNull(classPredicates, "Class predicates cannot be null.");
+		propertyPredicates.forEach((property, predicate) -> Validate.isTrue(
+				Objects.requireNonNull(predicate, "Predicates cannot be null.").getArity() == 2,
+				"Predicate %s of property %s must be binary.", predicate, property));
+		classPredicates.forEach((rdfClass, predicate) -> Validate.isTrue(
+				Objects.requireNonNull(predicate, "Predicates cannot be null.").getArity() == 1,
+				"Predicate %s of class %s must be unary.", predicate, rdfClass));
+		this.rdfValueToTermConverter = new RdfValueToTermConverter(skolemize);
+		this.triplePredicate = null;
+		this.propertyPredicates = new HashMap<>(propertyPredicates);
+		this.classPredicates = new HashMap<>(classPredicates);
+	}
+
+	/**
+	 * Constructs a converter with the same settings as the given one. The new
+	 * converter has its own term caches, so that both converters can be used in
+	 * different threads, and renames blank nodes with the given
+	 * {@link Skolemization}. Converters that share a {@link Skolemization} convert
+	 * blank nodes with the same id to the same term.
+	 * 
+	 * @param rdfModelConverter the converter whose settings are used
+	 * @param skolemization     the renaming of blank nodes
+	 */
+	RdfModelConverter(RdfModelConverter rdfModelConverter, Skolemization skolemization) {
+		this.rdfValueToTermConverter = new RdfValueToTermConverter(rdfModelConverter.rdfValueToTermConverter.skolemize,
+				skolemization);
+		this.triplePredicate = rdfModelConverter.triplePredicate;
+		this.propertyPredicates = rdfModelConverter.propertyPredicates;
+		this.classPredicates = rdfModelConverter.classPredicates;
 	}
 
 	/**
@@ -117,7 +190,8 @@ public final class RdfModelConverter {
 	 * given {@code rdfModel} into a {@link Fact} of the form
 	 * {@code TRIPLE(subject, predicate, object)}. See
 	 * {@link RdfModelConverter#RDF_TRIPLE_PREDICATE}, the ternary predicate used
-	 * for all literals generated from RDF triples.
+	 * for all literals generated from RDF triples. Triples that are not selected
+	 * by this converter are skipped.
 	 *
 	 * @param model a {@link Model} of an RDF document, containing triple statements
 	 *              that will be converter to facts.
@@ -125,7 +199,8 @@ public final class RdfModelConverter {
 	 *         {@code rdfModel}.
 	 */
 	public Set<Fact> rdfModelToFacts(final Model model) {
-		return model.stream().map((statement) -> rdfStatementToFact(statement)).collect(Collectors.toSet());
+		return model.stream().map((statement) -> rdfStatementToFact(statement)).filter(Objects::nonNull)
+				.collect(Collectors.toSet());
 	}
 
 	/**
@@ -142,15 +217,28 @@ public final class RdfModelConverter {
 
 	/**
 	 * Adds the data from a given RDF {@link Model} as {@link Fact}s to the given
-	 * {@link KnowledgeBase}.
+	 * {@link KnowledgeBase}. Facts are added in batches, so that listeners of the
+	 * knowledge base are notified once per batch rather than once per fact.
 	 * 
 	 * @param knowledgeBase the {@link KnowledgeBase} to add {@link Fact}s to
 	 * @param model         the {@link Model} with the RDF data
 	 */
 	public void addFacts(KnowledgeBase knowledgeBase, Model model) {
-		model.stream().forEach((statement) -> {
-			knowledgeBase.addStatement(rdfStatementToFact(statement));
-		});
+		final List<Fact> facts = new ArrayList<>(Math.min(model.size(), RdfFileConverter.DEFAULT_BATCH_SIZE));
+		for (Statement statement : model) {
+			final Fact fact = rdfStatementToFact(statement);
+			if (fact == null) {
+				continue;
+			}
+			facts.add(fact);
+			if (facts.size() == RdfFileConverter.DEFAULT_BATCH_SIZE) {
+				knowledgeBase.addStatements(facts);
+				facts.clear();
+			}
+		}
+		if (!facts.isEmpty()) {
+			knowledgeBase.addStatements(facts);
+		}
 	}
 
 	/**
@@ -176,9 +264,13 @@ public final class RdfModelConverter {
 	 * Converts an RDF statement (triple) to a Rulewerk {@link Fact}.
 	 * 
 	 * @param statement
-	 * @return
+	 * @return the fact, or null if the statement is not selected by this
+	 *         converter
 	 */
 	Fact rdfStatementToFact(final Statement statement) {
+		if (propertyPredicates != null) {
+			return selectedRdfStatementToFact(statement);
+		}
 		final Term subject = rdfValueToTermConverter.convertValue(statement.getSubject());
 		final Term object = rdfValueToTermConverter.convertValue(statement.getObject());
 
@@ -197,4 +289,27 @@ public final class RdfModelConverter {
 		}
 	}
 
+	/**
+	 * Converts an RDF statement to a fact of the predicate of its class or
+	 * property, comparing IRIs before converting any values.
+	 */
+	private Fact selectedRdfStatementToFact(final Statement statement) {
+		final String property = statement.getPredicate().stringValue();
+		if (!classPredicates.isEmpty() && PrefixDeclarationRegistry.RDF_TYPE.equals(property)
+				&& statement.getObject() instanceof URI) {
+			final Predicate classPredicate = classPredicates.get(statement.getObject().stringValue());
+			if (classPredicate != null) {
+				return Expressions.makeFact(classPredicate,
+						Arrays.asList(rdfValueToTermConverter.convertValue(statement.getSubject())));
+			}
+		}
+		final Predicate propertyPredicate = propertyPredicates.get(property);
+		if (propertyPredicate == null) {
+			return null;
+		}
+		return Expressions.makeFact(propertyPredicate,
+				Arrays.asList(rdfValueToTermConverter.convertValue(statement.getSubject()),
+						rdfValueToTermConverter.convertValue(statement.getObject())));
+	}
+
 }
@@ -42,7 +42,7 @@ import org.semanticweb.rulewerk.core.model.implementation.TermFactory;
 final class RdfValueToTermConverter {
 
 	final boolean skolemize;
-	final Skolemization skolemization = new Skolemization();
+	final Skolemization skolemization;
 	final TermFactory termFactory = new TermFactory();
 
 	/**
@@ -53,7 +53,21 @@ final class RdfValueToTermConverter {
 	 *                  with generated ids
 	 */
 	public RdfValueToTermConverter(boolean skolemize) {
+		this(skolemize, new Skolemization());
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param skolemize     if true, blank nodes are translated to constants with
+	 *                      generated IRIs; otherwise they are replanced by named
+	 *                      nulls with generated ids
+	 * @param skolemization the renaming of blank nodes, which may be shared with
+	 *                      other converters
+	 */
+	RdfValueToTermConverter(boolean skolemize, Skolemization skolemization) {
 		this.skolemize = skolemize;
+		this.skolemization = skolemization;
 	}
 
 	public Term convertValue(final Value value) {
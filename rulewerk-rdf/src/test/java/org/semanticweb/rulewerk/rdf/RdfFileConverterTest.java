@@ -0,0 +1,207 @@
+package org.semanticweb.rulewerk.rdf;
+
+/*-
+ * #%L
+ * Rulewerk RDF Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openrdf.rio.RDFFormat;
+import org.openrdf.rio.RDFHandlerException;
+import org.openrdf.rio.RDFParseException;
+import org.semanticweb.rulewerk.core.exceptions.PrefixDeclarationException;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.NamedNull;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+
+public class RdfFileConverterTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private File writeNTriples(String fileName, int triples, boolean gzip) throws IOException {
+		final File file = tempFolder.newFile(fileName);
+		try (Writer writer = new OutputStreamWriter(
+				gzip ? new GZIPOutputStream(new FileOutputStream(file)) : new FileOutputStream(file),
+				StandardCharsets.UTF_8)) {
+			writer.write("_:b1 <http://example.org/p> \"first\" .\n");
+			for (int i = 0; i < triples - 2; i++) {
+				writer.write("<http://example.org/s" + i + "> <http://example.org/p> \"o" + i + "\"@en .\n");
+			}
+			writer.write("<http://example.org/last> <http://example.org/q> _:b1 .\n");
+		}
+		return file;
+	}
+
+	private static boolean isNull(Term term) {
+		return term instanceof NamedNull;
+	}
+
+	private static Set<Fact> withoutBlankNodes(Set<Fact> facts) {
+		final Set<Fact> result = new HashSet<>();
+		for (Fact fact : facts) {
+			if (!isNull(fact.getArguments().get(0)) && !isNull(fact.getArguments().get(2))) {
+				result.add(fact);
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public void convert_splitNTriples_sameFactsAsModelConverter()
+			throws RDFParseException, RDFHandlerException, IOException {
+		final File file = writeNTriples("test.nt", 1000, false);
+		final RdfFileConverter rdfFileConverter = new RdfFileConverter();
+		rdfFileConverter.setSplitSize(1000);
+		rdfFileConverter.setParallelism(4);
+		rdfFileConverter.setBatchSize(7);
+		rdfFileConverter.setQueueCapacity(2);
+
+		final List<Fact> facts = new ArrayList<>();
+		final long count = rdfFileConverter.convert(file, RDFFormat.NTRIPLES, facts::addAll);
+
+		final Set<Fact> expected = new RdfModelConverter()
+				.rdfModelToFacts(RdfTestUtils.parseFile(file, RDFFormat.NTRIPLES));
+		assertEquals(1000, count);
+		assertEquals(1000, facts.size());
+		assertEquals(withoutBlankNodes(expected), withoutBlankNodes(new HashSet<>(facts)));
+	}
+
+	@Test
+	public void convert_splitNTriples_blankNodesConsistent()
+			throws RDFParseException, RDFHandlerException, IOException {
+		final File file = writeNTriples("test.nt", 1000, false);
+		final RdfFileConverter rdfFileConverter = new RdfFileConverter();
+		rdfFileConverter.setSplitSize(1000);
+
+		final List<Fact> facts = new ArrayList<>();
+		rdfFileConverter.convert(file, RDFFormat.NTRIPLES, facts::addAll);
+
+		final Term first = facts.stream().filter(fact -> isNull(fact.getArguments().get(0))).findFirst().get()
+				.getArguments().get(0);
+		final Term last = facts.stream().filter(fact -> isNull(fact.getArguments().get(2))).findFirst().get()
+				.getArguments().get(2);
+		assertEquals(first, last);
+
+		final List<Fact> otherFacts = new ArrayList<>();
+		rdfFileConverter.convert(file, RDFFormat.NTRIPLES, otherFacts::addAll);
+		assertTrue(otherFacts.stream().anyMatch(fact -> isNull(fact.getArguments().get(0))));
+		assertTrue(otherFacts.stream().noneMatch(fact -> fact.getArguments().get(0).equals(first)));
+	}
+
+	@Test
+	public void addFacts_gzipNTriples_succeeds() throws RDFParseException, RDFHandlerException, IOException {
+		final File file = writeNTriples("test.nt.gz", 100, true);
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+
+		assertEquals(100, new RdfFileConverter().addFacts(knowledgeBase, file, RDFFormat.NTRIPLES));
+		assertEquals(100, knowledgeBase.getFacts().size());
+	}
+
+	@Test
+	public void addAll_turtle_succeeds()
+			throws RDFParseException, RDFHandlerException, IOException, PrefixDeclarationException {
+		final KnowledgeBase knowledgeBase = new KnowledgeBase();
+
+		final Predicate predicate = Expressions.makePredicate("TRIPLE", 3);
+		final Term terma = Expressions.makeAbstractConstant("http://example.org/a");
+		final Term termb = Expressions.makeAbstractConstant("http://example.org/b");
+		final Term termc = Expressions.makeAbstractConstant("http://example.org/c");
+		final Fact fact = Expressions.makeFact(predicate, terma, termb, termc);
+
+		new RdfFileConverter().addAll(knowledgeBase, new File(RdfTestUtils.INPUT_FOLDER + "test-turtle.ttl"),
+				RDFFormat.TURTLE);
+
+		assertEquals(Arrays.asList(fact), knowledgeBase.getFacts());
+		assertEquals("http://example.org/", knowledgeBase.getPrefixIri(":"));
+	}
+
+	@Test
+	public void convert_binaryPredicates_succeeds() throws RDFParseException, RDFHandlerException, IOException {
+		final File file = writeNTriples("test.nt", 10, false);
+		final List<Fact> facts = new ArrayList<>();
+		new RdfFileConverter(new RdfModelConverter(true, null)).convert(file, RDFFormat.NTRIPLES, facts::addAll);
+
+		final Predicate predicate = Expressions.makePredicate("http://example.org/p", 2);
+		assertEquals(9, facts.stream().filter(fact -> fact.getPredicate().equals(predicate)).count());
+		assertTrue(facts.stream().noneMatch(fact -> isNull(fact.getArguments().get(0))));
+	}
+
+	@Test(expected = RDFParseException.class)
+	public void convert_invalidLine_throwsException() throws RDFParseException, RDFHandlerException, IOException {
+		final File file = tempFolder.newFile("invalid.nt");
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+			for (int i = 0; i < 100; i++) {
+				writer.write("<http://example.org/s> <http://example.org/p> <http://example.org/o" + i + "> .\n");
+			}
+			writer.write("<http://example.org/s> <http://example.org/p> .\n");
+		}
+		final RdfFileConverter rdfFileConverter = new RdfFileConverter();
+		rdfFileConverter.setSplitSize(500);
+		rdfFileConverter.convert(file, RDFFormat.NTRIPLES, facts -> {
+		});
+	}
+
+	@Test(expected = RDFHandlerException.class)
+	public void convert_consumerThrowsException_rethrown() throws RDFParseException, RDFHandlerException, IOException {
+		final File file = writeNTriples("test.nt", 1000, false);
+		final RdfFileConverter rdfFileConverter = new RdfFileConverter();
+		rdfFileConverter.setSplitSize(1000);
+		rdfFileConverter.setBatchSize(1);
+		rdfFileConverter.setQueueCapacity(1);
+		rdfFileConverter.convert(file, RDFFormat.NTRIPLES, facts -> {
+			throw new RDFHandlerException("test");
+		});
+	}
+
+	@Test
+	public void rangeInputStream_endsAfterLength() throws IOException {
+		try (RdfFileConverter.RangeInputStream inputStream = new RdfFileConverter.RangeInputStream(
+				new ByteArrayInputStream("abcdef".getBytes(StandardCharsets.UTF_8)), 4)) {
+			final byte[] buffer = new byte[10];
+			assertEquals('a', inputStream.read());
+			assertEquals(3, inputStream.read(buffer, 0, 10));
+			assertEquals(-1, inputStream.read());
+			assertNotEquals('e', buffer[3]);
+		}
+	}
+
+}
@@ -25,11 +25,18 @@ import static org.junit.Assert.*;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.Test;
 import org.openrdf.model.Model;
+import org.openrdf.model.ValueFactory;
+import org.openrdf.model.impl.LinkedHashModel;
+import org.openrdf.model.impl.ValueFactoryImpl;
+import org.openrdf.model.vocabulary.RDF;
 import org.openrdf.rio.RDFFormat;
 import org.openrdf.rio.RDFHandlerException;
 import org.openrdf.rio.RDFParseException;
@@ -150,4 +157,46 @@ public class RdfModelConverterTest {
 		assertEquals(Arrays.asList(fact), knowledgeBase.getFacts());
 	}
 
+	@Test
+	public void addFactsSelection_succeeds() {
+		ValueFactory valueFactory = ValueFactoryImpl.getInstance();
+		Model model = new LinkedHashModel();
+		model.add(valueFactory.createURI("http://example.org/a"), valueFactory.createURI("http://example.org/knows"),
+				valueFactory.createURI("http://example.org/b"));
+		model.add(valueFactory.createURI("http://example.org/a"), valueFactory.createURI("http://example.org/name"),
+				valueFactory.createLiteral("A"));
+		model.add(valueFactory.createURI("http://example.org/a"), RDF.TYPE,
+				valueFactory.createURI("http://example.org/Person"));
+		model.add(valueFactory.createURI("http://example.org/d"), RDF.TYPE,
+				valueFactory.createURI("http://example.org/Dog"));
+
+		Predicate knows = Expressions.makePredicate("knows", 2);
+		Predicate person = Expressions.makePredicate("person", 1);
+		Predicate type = Expressions.makePredicate("type", 2);
+		Map<String, Predicate> propertyPredicates = new HashMap<>();
+		propertyPredicates.put("http://example.org/knows", knows);
+		propertyPredicates.put(PrefixDeclarationRegistry.RDF_TYPE, type);
+		RdfModelConverter rdfModelConverter = new RdfModelConverter(false, propertyPredicates,
+				Collections.singletonMap("http://example.org/Person", person));
+		KnowledgeBase knowledgeBase = new KnowledgeBase();
+
+		rdfModelConverter.addFacts(knowledgeBase, model);
+
+		Term terma = Expressions.makeAbstractConstant("http://example.org/a");
+		Set<Fact> expected = new HashSet<>(Arrays.asList(
+				Expressions.makeFact(knows, terma, Expressions.makeAbstractConstant("http://example.org/b")),
+				Expressions.makeFact(person, terma),
+				Expressions.makeFact(type, Expressions.makeAbstractConstant("http://example.org/d"),
+						Expressions.makeAbstractConstant("http://example.org/Dog"))));
+		assertEquals(expected, new HashSet<>(knowledgeBase.getFacts()));
+		assertEquals(expected, rdfModelConverter.rdfModelToFacts(model));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void selectionWrongArity_fails() {
+		new RdfModelConverter(false,
+				Collections.singletonMap("http://example.org/knows", Expressions.makePredicate("knows", 3)),
+				Collections.emptyMap());
+	}
+
 }
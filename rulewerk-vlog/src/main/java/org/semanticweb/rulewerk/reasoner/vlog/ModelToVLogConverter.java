@@ -21,7 +21,9 @@ package org.semanticweb.rulewerk.reasoner.vlog;
  */
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
 import org.semanticweb.rulewerk.core.model.api.Conjunction;
@@ -34,6 +36,8 @@ import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.reasoner.LogLevel;
 import org.semanticweb.rulewerk.core.reasoner.RuleRewriteStrategy;
+import org.semanticweb.rulewerk.core.reasoner.implementation.FactTable;
+import org.semanticweb.rulewerk.core.reasoner.implementation.TermDictionary;
 
 /**
  * Utility class with static methods for converting from VLog API model objects
@@ -66,35 +70,89 @@ final class ModelToVLogConverter {
 	}
 
 	static String[][] toVLogFactTuples(final Collection<Fact> facts) {
+		return toVLogFactTuples(facts, new HashMap<>());
+	}
+
+	/**
+	 * Converts facts to VLog tuples, re-using the VLog names of terms that have
+	 * been converted before, so that tuples share their strings.
+	 *
+	 * @param facts          facts to convert
+	 * @param vLogNameCache  map from terms to their VLog names, which is updated
+	 *                       during conversion
+	 * @return array of VLog tuples
+	 */
+	static String[][] toVLogFactTuples(final Collection<Fact> facts, final Map<Term, String> vLogNameCache) {
 		final String[][] tuples = new String[facts.size()][];
 		int i = 0;
 		for (final Fact fact : facts) {
-			final String[] vLogFactTuple = ModelToVLogConverter.toVLogFactTuple(fact);
+			final String[] vLogFactTuple = ModelToVLogConverter.toVLogFactTuple(fact, vLogNameCache);
 			tuples[i] = vLogFactTuple;
 			i++;
 		}
 		return tuples;
 	}
 
+	/**
+	 * Converts the encoded facts of one predicate to VLog tuples without creating
+	 * {@link Fact} objects. The VLog name of each term is computed once from the
+	 * term in the dictionary, so that tuples share their strings.
+	 *
+	 * @param factTable      the encoded facts
+	 * @param termDictionary the dictionary that was used to encode the facts
+	 * @return array of VLog tuples
+	 */
+	static String[][] toVLogFactTuples(final FactTable factTable, final TermDictionary termDictionary) {
+		final Map<Long, String> vLogNames = new HashMap<>();
+		final String[][] tuples = new String[factTable.size()][];
+		for (int row = 0; row < tuples.length; row++) {
+			final String[] vLogFactTuple = new String[factTable.getArity()];
+			for (int column = 0; column < vLogFactTuple.length; column++) {
+				final long id = factTable.get(row, column);
+				String vLogName = vLogNames.get(id);
+				if (vLogName == null) {
+					vLogName = toVLogFactTerm(termDictionary.getTerm(id));
+					vLogNames.put(id, vLogName);
+				}
+				vLogFactTuple[column] = vLogName;
+			}
+			tuples[row] = vLogFactTuple;
+		}
+		return tuples;
+	}
+
 	static String[] toVLogFactTuple(final Fact fact) {
+		return toVLogFactTuple(fact, new HashMap<>());
+	}
+
+	static String[] toVLogFactTuple(final Fact fact, final Map<Term, String> vLogNameCache) {
 		final List<Term> terms = fact.getArguments();
 		final String[] vLogFactTuple = new String[terms.size()];
 		int i = 0;
 		for (final Term term : terms) {
-			// No checks for type of term -- only constants allowed in facts!
-			if (term instanceof Constant) {
-				vLogFactTuple[i] = TermToVLogConverter.getVLogNameForConstant((Constant) term);
-			} else if (term instanceof NamedNull) {
-				vLogFactTuple[i] = TermToVLogConverter.getVLogNameForNamedNull((NamedNull) term);
-			} else {
-				throw new RulewerkRuntimeException("Terms in facts must be constants or named nulls. Encountered "
-						+ term + " of type " + term.getType() + ".");
+			String vLogName = vLogNameCache.get(term);
+			if (vLogName == null) {
+				vLogName = toVLogFactTerm(term);
+				vLogNameCache.put(term, vLogName);
 			}
+			vLogFactTuple[i] = vLogName;
 			i++;
 		}
 		return vLogFactTuple;
 	}
 
+	private static String toVLogFactTerm(final Term term) {
+		// No checks for type of term -- only constants allowed in facts!
+		if (term instanceof Constant) {
+			return TermToVLogConverter.getVLogNameForConstant((Constant) term);
+		} else if (term instanceof NamedNull) {
+			return TermToVLogConverter.getVLogNameForNamedNull((NamedNull) term);
+		} else {
+			throw new RulewerkRuntimeException("Terms in facts must be constants or named nulls. Encountered " + term
+					+ " of type " + term.getType() + ".");
+		}
+	}
+
 	/**
 	 * Internal String representation that uniquely identifies a {@link Predicate}.
 	 *
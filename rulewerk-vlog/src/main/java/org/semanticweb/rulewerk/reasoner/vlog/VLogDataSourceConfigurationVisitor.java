@@ -27,6 +27,9 @@ import org.semanticweb.rulewerk.core.reasoner.implementation.DataSourceConfigura
 import org.semanticweb.rulewerk.core.reasoner.implementation.FileDataSource;
 
 import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFilesDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.HdtDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ParquetFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.SparqlQueryResultDataSource;
 import org.semanticweb.rulewerk.core.reasoner.implementation.TridentDataSource;
@@ -65,9 +68,28 @@ public class VLogDataSourceConfigurationVisitor implements DataSourceConfigurati
 		setFileConfigString(dataSource);
 	}
 
+	@Override
+	public void visit(CsvFilesDataSource dataSource) {
+		this.configString = null; // loaded by the reasoner with CsvFilesReader
+	}
+
+	@Override
+	public void visit(ParquetFileDataSource dataSource) {
+		this.configString = null; // loaded by the reasoner with ParquetFileReader
+	}
+
+	@Override
+	public void visit(HdtDataSource dataSource) {
+		this.configString = null; // loaded by the reasoner with HdtFileReader
+	}
+
 	@Override
 	public void visit(RdfFileDataSource dataSource) throws IOException {
-		setFileConfigString(dataSource);
+		if (dataSource.getProperty() == null) {
+			setFileConfigString(dataSource);
+		} else {
+			this.configString = null; // loaded by the reasoner with RdfFileReader
+		}
 	}
 
 	@Override
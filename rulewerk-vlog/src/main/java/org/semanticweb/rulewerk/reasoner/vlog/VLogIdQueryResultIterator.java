@@ -0,0 +1,91 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Iterator;
+
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.IdQueryResultIterator;
+
+/**
+ * Iterates through all answers to a query as arrays of VLog ids, passing on
+ * the tuples returned by VLog without converting them to terms.
+ */
+public class VLogIdQueryResultIterator implements IdQueryResultIterator {
+
+	/**
+	 * The answers as numeric VLog ids, usually VLog's internal result iterator.
+	 */
+	private final Iterator<long[]> idIterator;
+	/**
+	 * Releases the resources of {@link #idIterator}.
+	 */
+	private final Runnable closeAction;
+
+	private final Correctness correctness;
+
+	/**
+	 * Create a new {@link VLogIdQueryResultIterator}.
+	 *
+	 * @param queryResultIterator
+	 * @param materialisationState
+	 */
+	public VLogIdQueryResultIterator(final karmaresearch.vlog.QueryResultIterator queryResultIterator,
+			final Correctness materialisationState) {
+		this(queryResultIterator, queryResultIterator::close, materialisationState);
+	}
+
+	/**
+	 * Create a new {@link VLogIdQueryResultIterator} for answers that are given as
+	 * arrays of VLog ids, such as cached answers.
+	 *
+	 * @param idIterator           answers as arrays of VLog ids
+	 * @param closeAction          called when this iterator is closed
+	 * @param materialisationState
+	 */
+	VLogIdQueryResultIterator(final Iterator<long[]> idIterator, final Runnable closeAction,
+			final Correctness materialisationState) {
+		this.idIterator = idIterator;
+		this.closeAction = closeAction;
+		this.correctness = materialisationState;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return this.idIterator.hasNext();
+	}
+
+	@Override
+	public long[] next() {
+		return this.idIterator.next();
+	}
+
+	@Override
+	public void close() {
+		this.closeAction.run();
+	}
+
+	@Override
+	public Correctness getCorrectness() {
+		return this.correctness;
+	}
+
+}
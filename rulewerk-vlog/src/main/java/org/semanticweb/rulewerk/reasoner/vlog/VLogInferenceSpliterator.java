@@ -0,0 +1,148 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+/**
+ * Lazy {@link Spliterator} over all inferences of a {@link VLogReasoner}. A
+ * VLog query is only started when the facts of a predicate are needed, and at
+ * most one query is open per spliterator at a time. Splitting hands over half
+ * of the predicates that have not been started yet, together with the query
+ * that is currently open, so that the split-off prefix still precedes the
+ * remainder in encounter order.
+ *
+ * All spliterators that were split off the same original share a set of open
+ * VLog iterators, so that {@link #closeAll()} can release all of them when the
+ * stream is closed.
+ */
+class VLogInferenceSpliterator implements Spliterator<Fact> {
+
+	private final VLogReasoner reasoner;
+	private final List<Predicate> predicates;
+	private final Set<karmaresearch.vlog.QueryResultIterator> openIterators;
+
+	/**
+	 * Index of the next predicate to be started.
+	 */
+	private int next;
+	/**
+	 * Index after the last predicate of this spliterator.
+	 */
+	private final int end;
+
+	private Predicate currentPredicate;
+	private karmaresearch.vlog.QueryResultIterator currentIterator;
+
+	VLogInferenceSpliterator(final VLogReasoner reasoner, final List<Predicate> predicates) {
+		this(reasoner, predicates, 0, predicates.size(),
+				Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>())));
+	}
+
+	private VLogInferenceSpliterator(final VLogReasoner reasoner, final List<Predicate> predicates, final int start,
+			final int end, final Set<karmaresearch.vlog.QueryResultIterator> openIterators) {
+		this.reasoner = reasoner;
+		this.predicates = predicates;
+		this.next = start;
+		this.end = end;
+		this.openIterators = openIterators;
+	}
+
+	@Override
+	public boolean tryAdvance(final Consumer<? super Fact> action) {
+		while (this.currentIterator == null || !this.currentIterator.hasNext()) {
+			this.closeCurrent();
+			if (this.next >= this.end) {
+				return false;
+			}
+			this.currentPredicate = this.predicates.get(this.next++);
+			this.currentIterator = this.reasoner.queryInferences(this.currentPredicate);
+			this.openIterators.add(this.currentIterator);
+		}
+
+		final long[] ids = this.currentIterator.next();
+		final Term[] terms = new Term[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			terms[i] = this.reasoner.toTerm(ids[i]);
+		}
+		action.accept(Expressions.makeFact(this.currentPredicate, terms));
+		return true;
+	}
+
+	@Override
+	public Spliterator<Fact> trySplit() {
+		final int remaining = this.end - this.next;
+		if (remaining < (this.currentIterator == null ? 2 : 1)) {
+			return null;
+		}
+		final int middle = this.next + remaining / 2;
+		final VLogInferenceSpliterator prefix = new VLogInferenceSpliterator(this.reasoner, this.predicates, this.next,
+				middle, this.openIterators);
+		prefix.currentPredicate = this.currentPredicate;
+		prefix.currentIterator = this.currentIterator;
+		this.currentPredicate = null;
+		this.currentIterator = null;
+		this.next = middle;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | NONNULL | DISTINCT;
+	}
+
+	/**
+	 * Closes all VLog iterators that are still open in this spliterator or in any
+	 * spliterator split off from the same original.
+	 */
+	void closeAll() {
+		synchronized (this.openIterators) {
+			for (final karmaresearch.vlog.QueryResultIterator iterator : this.openIterators) {
+				iterator.close();
+			}
+			this.openIterators.clear();
+		}
+	}
+
+	private void closeCurrent() {
+		// the iterator may already have been closed by closeAll()
+		if (this.currentIterator != null && this.openIterators.remove(this.currentIterator)) {
+			this.currentIterator.close();
+		}
+		this.currentIterator = null;
+	}
+
+}
@@ -38,17 +38,21 @@ import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.Literal;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.Statement;
 import org.semanticweb.rulewerk.core.model.api.StatementVisitor;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.implementation.ConjunctionImpl;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.model.implementation.PositiveLiteralImpl;
 import org.semanticweb.rulewerk.core.model.implementation.PredicateImpl;
 import org.semanticweb.rulewerk.core.model.implementation.RuleImpl;
 import org.semanticweb.rulewerk.core.model.implementation.UniversalVariableImpl;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
 import org.semanticweb.rulewerk.core.reasoner.implementation.ReasonerDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.TridentDataSource;
 
 /**
  * Class for organizing a Knowledge Base using vLog-specific data structures.
@@ -65,7 +69,12 @@ public class VLogKnowledgeBase {
 
 	private final Set<Predicate> idbPredicates = new HashSet<>();
 
-	private final Map<Predicate, List<Fact>> directEdbFacts = new HashMap<>();
+	/**
+	 * Predicates that have facts in the knowledge base. The facts themselves are
+	 * not collected here, but obtained from the knowledge base one predicate at a
+	 * time when loading.
+	 */
+	private final Set<Predicate> directEdbFactPredicates = new HashSet<>();
 
 	private final Set<Rule> rules = new HashSet<>();
 
@@ -150,8 +159,8 @@ public class VLogKnowledgeBase {
 		return this.aliasesForEdbPredicates;
 	}
 
-	Map<Predicate, List<Fact>> getDirectEdbFacts() {
-		return this.directEdbFacts;
+	Set<Predicate> getDirectEdbFactPredicates() {
+		return this.directEdbFactPredicates;
 	}
 
 	Set<Rule> getRules() {
@@ -172,20 +181,15 @@ public class VLogKnowledgeBase {
 			VLogKnowledgeBase.this.idbPredicates.clear();
 			VLogKnowledgeBase.this.aliasedEdbPredicates.clear();
 			VLogKnowledgeBase.this.aliasesForEdbPredicates.clear();
-			VLogKnowledgeBase.this.directEdbFacts.clear();
+			VLogKnowledgeBase.this.directEdbFactPredicates.clear();
 			VLogKnowledgeBase.this.rules.clear();
 		}
 
 		@Override
 		public Void visit(final Fact fact) {
 			final Predicate predicate = fact.getPredicate();
-			registerEdbDeclaration(new LocalFactsDataSourceDeclaration(predicate));
-			if (!VLogKnowledgeBase.this.directEdbFacts.containsKey(predicate)) {
-				final List<Fact> facts = new ArrayList<>();
-				facts.add(fact);
-				VLogKnowledgeBase.this.directEdbFacts.put(predicate, facts);
-			} else {
-				VLogKnowledgeBase.this.directEdbFacts.get(predicate).add(fact);
+			if (VLogKnowledgeBase.this.directEdbFactPredicates.add(predicate)) {
+				registerEdbDeclaration(new LocalFactsDataSourceDeclaration(predicate));
 			}
 			return null;
 		}
@@ -208,10 +212,48 @@ public class VLogKnowledgeBase {
 
 		@Override
 		public Void visit(final DataSourceDeclaration statement) {
-			registerEdbDeclaration(statement);
+			final DataSource dataSource = statement.getDataSource();
+			if (dataSource instanceof TridentDataSource && ((TridentDataSource) dataSource).getProperty() != null) {
+				registerTridentSelection(statement.getPredicate(), (TridentDataSource) dataSource);
+			} else {
+				registerEdbDeclaration(statement);
+			}
 			return null;
 		}
 
+		/**
+		 * Registers a selection of a Trident database as a rule over all triples of
+		 * the database, since VLog can only load a database as a whole. The triples
+		 * are declared once per database for a hidden ternary predicate, and VLog
+		 * evaluates the body of the rule with the indexes of the database, so that
+		 * the triples that are not selected are never read.
+		 */
+		void registerTridentSelection(final Predicate predicate, final TridentDataSource dataSource) {
+			final TridentDataSource database;
+			try {
+				database = new TridentDataSource(dataSource.getPath());
+			} catch (final IOException e) {
+				throw new RulewerkRuntimeException("Invalid path to Trident database " + dataSource.getPath(), e);
+			}
+			final Predicate triplePredicate = new PredicateImpl("TRIDENT##" + database.getName().hashCode(), 3);
+			registerEdbDeclaration(new DataSourceDeclarationImpl(triplePredicate, database));
+
+			final Term subject = new UniversalVariableImpl("X1");
+			final Term property = Expressions.makeAbstractConstant(dataSource.getProperty());
+			final PositiveLiteral head;
+			final Literal body;
+			if (dataSource.getObject() == null) {
+				final Term object = new UniversalVariableImpl("X2");
+				head = new PositiveLiteralImpl(predicate, Arrays.asList(subject, object));
+				body = new PositiveLiteralImpl(triplePredicate, Arrays.asList(subject, property, object));
+			} else {
+				final Term object = makeRdfConstant(dataSource.getObject());
+				head = new PositiveLiteralImpl(predicate, Arrays.asList(subject));
+				body = new PositiveLiteralImpl(triplePredicate, Arrays.asList(subject, property, object));
+			}
+			visit(new RuleImpl(new ConjunctionImpl<>(Arrays.asList(head)), new ConjunctionImpl<>(Arrays.asList(body))));
+		}
+
 		void registerEdbDeclaration(final DataSourceDeclaration dataSourceDeclaration) {
 			final Predicate predicate = dataSourceDeclaration.getPredicate();
 			if (VLogKnowledgeBase.this.idbPredicates.contains(predicate)
@@ -257,6 +299,29 @@ public class VLogKnowledgeBase {
 
 	}
 
+	/**
+	 * Returns the constant for an IRI without angle brackets, or for a literal in
+	 * N-Triples syntax without escapes.
+	 */
+	static Term makeRdfConstant(final String value) {
+		if (!value.startsWith("\"")) {
+			return Expressions.makeAbstractConstant(value);
+		}
+		final int end = value.lastIndexOf('"');
+		if (end <= 0) {
+			return Expressions.makeDatatypeConstant(value, PrefixDeclarationRegistry.XSD_STRING);
+		}
+		final String lexicalValue = value.substring(1, end);
+		final String suffix = value.substring(end + 1);
+		if (suffix.startsWith("@")) {
+			return Expressions.makeLanguageStringConstant(lexicalValue, suffix.substring(1));
+		} else if (suffix.startsWith("^^<") && suffix.endsWith(">")) {
+			return Expressions.makeDatatypeConstant(lexicalValue, suffix.substring(3, suffix.length() - 1));
+		} else {
+			return Expressions.makeDatatypeConstant(lexicalValue, PrefixDeclarationRegistry.XSD_STRING);
+		}
+	}
+
 	/**
 	 * Dummy data source declaration for predicates for which we have explicit local
 	 * facts in the input.
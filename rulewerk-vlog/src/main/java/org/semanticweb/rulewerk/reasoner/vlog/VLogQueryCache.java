@@ -0,0 +1,325 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+
+/**
+ * Bounded cache for the answers and answer counts of queries on one
+ * {@link VLogReasoner}. Queries are canonicalised up to renaming of variables,
+ * so that {@code p(?X, c, ?X)} and {@code p(?Y, c, ?Y)} share an entry, but
+ * {@code p(?X, c, ?Y)} does not. Answers are stored as arrays of VLog ids,
+ * which are only meaningful for one VLog materialisation, so the reasoner
+ * clears the cache whenever its materialisation or knowledge base changes.
+ *
+ * The cache is bounded both by the number of entries and by the total number of
+ * cached ids, evicting least recently used entries first. Answers are recorded
+ * while a query result is consumed, and only cached if the result has been
+ * consumed completely. All methods are thread-safe.
+ */
+public class VLogQueryCache {
+
+	/**
+	 * Default maximal number of cached queries.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+	/**
+	 * Default maximal number of cached ids, which need 8 bytes each.
+	 */
+	public static final long DEFAULT_MAX_IDS = 1L << 22;
+
+	private static final long[][] NO_ANSWERS = new long[0][];
+
+	/**
+	 * Canonical form of a query: its predicate, its terms with variables replaced
+	 * by the position of their first occurrence, and whether nulls are included.
+	 */
+	static final class Key {
+		private final Predicate predicate;
+		private final Object[] arguments;
+		private final boolean includeNulls;
+		private final int hashCode;
+
+		Key(final PositiveLiteral query, final boolean includeNulls) {
+			this.predicate = query.getPredicate();
+			this.includeNulls = includeNulls;
+			final List<Term> terms = query.getArguments();
+			this.arguments = new Object[terms.size()];
+			for (int i = 0; i < this.arguments.length; i++) {
+				final Term term = terms.get(i);
+				if (term.getType() == TermType.UNIVERSAL_VARIABLE || term.getType() == TermType.EXISTENTIAL_VARIABLE) {
+					this.arguments[i] = terms.indexOf(term);
+				} else {
+					this.arguments[i] = term;
+				}
+			}
+			this.hashCode = 31 * (31 * this.predicate.hashCode() + Arrays.hashCode(this.arguments))
+					+ Boolean.hashCode(includeNulls);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return this.hashCode == other.hashCode && this.includeNulls == other.includeNulls
+					&& this.predicate.equals(other.predicate) && Arrays.equals(this.arguments, other.arguments);
+		}
+	}
+
+	/**
+	 * Cached answers, or only the number of answers if the answers themselves
+	 * have not been requested.
+	 */
+	private static final class Entry {
+		final long[][] answers;
+		final long count;
+		final long weight;
+
+		Entry(final long[][] answers, final long count, final long weight) {
+			this.answers = answers;
+			this.count = count;
+			this.weight = weight;
+		}
+	}
+
+	private final int maxEntries;
+	private final long maxIds;
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long cachedIds = 0;
+	/**
+	 * Incremented whenever the cache is cleared, so that answers recorded before
+	 * are not stored afterwards.
+	 */
+	private long generation = 0;
+
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	/**
+	 * Creates a cache with {@link #DEFAULT_MAX_ENTRIES} and
+	 * {@link #DEFAULT_MAX_IDS}.
+	 */
+	public VLogQueryCache() {
+		this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_IDS);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxEntries maximal number of cached queries, greater than 0
+	 * @param maxIds     maximal number of ids in all cached answers, greater than 0
+	 */
+	public VLogQueryCache(final int maxEntries, final long maxIds) {
+		Validate.isTrue(maxEntries > 0, "Maximal number of entries must be greater than 0: %d", maxEntries);
+		Validate.isTrue(maxIds > 0, "Maximal number of ids must be greater than 0: %d", maxIds);
+		this.maxEntries = maxEntries;
+		this.maxIds = maxIds;
+	}
+
+	/**
+	 * Returns the cached answers of a query.
+	 *
+	 * @return the answers as arrays of VLog ids, or null if they are not cached
+	 */
+	synchronized long[][] getAnswers(final Key key) {
+		final Entry entry = this.entries.get(key);
+		if (entry != null && entry.answers != null) {
+			this.hits++;
+			return entry.answers;
+		}
+		this.misses++;
+		return null;
+	}
+
+	/**
+	 * Returns the cached number of answers of a query.
+	 *
+	 * @return the number of answers, or -1 if it is not cached
+	 */
+	synchronized long getCount(final Key key) {
+		final Entry entry = this.entries.get(key);
+		if (entry != null) {
+			this.hits++;
+			return entry.count;
+		}
+		this.misses++;
+		return -1;
+	}
+
+	synchronized void putCount(final Key key, final long count) {
+		if (!this.entries.containsKey(key)) {
+			this.put(key, new Entry(null, count, 1));
+		}
+	}
+
+	/**
+	 * Returns an iterator over the given answers of a query, which caches the
+	 * answers once all of them have been returned.
+	 */
+	Iterator<long[]> record(final Key key, final Iterator<long[]> answers) {
+		final long recordingGeneration;
+		synchronized (this) {
+			recordingGeneration = this.generation;
+		}
+		return new Iterator<long[]>() {
+			List<long[]> recorded = new ArrayList<>();
+			long recordedIds = 0;
+
+			@Override
+			public boolean hasNext() {
+				final boolean hasNext = answers.hasNext();
+				if (!hasNext && this.recorded != null) {
+					putAnswers(key, this.recorded.toArray(NO_ANSWERS), this.recordedIds, recordingGeneration);
+					this.recorded = null;
+				}
+				return hasNext;
+			}
+
+			@Override
+			public long[] next() {
+				final long[] answer = answers.next();
+				if (this.recorded != null) {
+					this.recordedIds += answer.length;
+					if (this.recordedIds > VLogQueryCache.this.maxIds) {
+						this.recorded = null;
+					} else {
+						this.recorded.add(answer.clone());
+					}
+				}
+				return answer;
+			}
+		};
+	}
+
+	private synchronized void putAnswers(final Key key, final long[][] answers, final long ids,
+			final long recordingGeneration) {
+		if (recordingGeneration == this.generation) {
+			this.put(key, new Entry(answers, answers.length, Math.max(1, ids)));
+		}
+	}
+
+	private void put(final Key key, final Entry entry) {
+		if (entry.weight > this.maxIds) {
+			return;
+		}
+		final Entry previous = this.entries.put(key, entry);
+		if (previous != null) {
+			this.cachedIds -= previous.weight;
+		}
+		this.cachedIds += entry.weight;
+
+		final Iterator<Map.Entry<Key, Entry>> iterator = this.entries.entrySet().iterator();
+		while (this.entries.size() > this.maxEntries || this.cachedIds > this.maxIds) {
+			final Entry evicted = iterator.next().getValue();
+			iterator.remove();
+			this.cachedIds -= evicted.weight;
+			this.evictions++;
+		}
+	}
+
+	/**
+	 * Removes all entries. Statistics are kept.
+	 */
+	public synchronized void clear() {
+		this.entries.clear();
+		this.cachedIds = 0;
+		this.generation++;
+	}
+
+	/**
+	 * Returns the number of cached queries.
+	 *
+	 * @return number of entries
+	 */
+	public synchronized int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Returns the number of ids in all cached answers.
+	 *
+	 * @return number of cached ids
+	 */
+	public synchronized long getCachedIds() {
+		return this.cachedIds;
+	}
+
+	/**
+	 * Returns how often a query was answered from the cache.
+	 *
+	 * @return number of cache hits
+	 */
+	public synchronized long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Returns how often a query could not be answered from the cache.
+	 *
+	 * @return number of cache misses
+	 */
+	public synchronized long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Returns how many entries have been removed to stay within the bounds of the
+	 * cache.
+	 *
+	 * @return number of evictions
+	 */
+	public synchronized long getEvictions() {
+		return this.evictions;
+	}
+
+	/**
+	 * Resets hit, miss, and eviction counts to 0.
+	 */
+	public synchronized void resetStatistics() {
+		this.hits = 0;
+		this.misses = 0;
+		this.evictions = 0;
+	}
+
+}
@@ -20,13 +20,29 @@ package org.semanticweb.rulewerk.reasoner.vlog;
  * #L%
  */
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.lang3.Validate;
 import org.semanticweb.rulewerk.core.exceptions.IncompatiblePredicateArityException;
@@ -37,24 +53,43 @@ import org.semanticweb.rulewerk.core.model.api.DataSourceDeclaration;
 import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.Literal;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.QueryResult;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.Statement;
 import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.PredicateImpl;
 import org.semanticweb.rulewerk.core.reasoner.AcyclicityNotion;
 import org.semanticweb.rulewerk.core.reasoner.Algorithm;
 import org.semanticweb.rulewerk.core.reasoner.Correctness;
 import org.semanticweb.rulewerk.core.reasoner.CyclicityResult;
+import org.semanticweb.rulewerk.core.reasoner.FactStorage;
+import org.semanticweb.rulewerk.core.reasoner.IdQueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBaseSnapshot;
 import org.semanticweb.rulewerk.core.reasoner.LogLevel;
+import org.semanticweb.rulewerk.core.reasoner.MaterialisationCheckpoint;
+import org.semanticweb.rulewerk.core.reasoner.PredicateDependencyGraph;
 import org.semanticweb.rulewerk.core.reasoner.QueryAnswerCount;
 import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.Reasoner;
 import org.semanticweb.rulewerk.core.reasoner.ReasonerState;
 import org.semanticweb.rulewerk.core.reasoner.RuleRewriteStrategy;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ColumnarFactStore;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFilesDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFilesReader;
+import org.semanticweb.rulewerk.core.reasoner.implementation.EmptyIdQueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.implementation.EmptyQueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ListQueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.MagicSetTransformation;
+import org.semanticweb.rulewerk.core.reasoner.implementation.HdtDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.HdtFileReader;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ParquetFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ParquetFileReader;
 import org.semanticweb.rulewerk.core.reasoner.implementation.QueryAnswerCountImpl;
+import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileDataSource;
+import org.semanticweb.rulewerk.core.reasoner.implementation.RdfFileReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,7 +98,6 @@ import karmaresearch.vlog.EDBConfigurationException;
 import karmaresearch.vlog.MaterializationException;
 import karmaresearch.vlog.NonExistingPredicateException;
 import karmaresearch.vlog.NotStartedException;
-import karmaresearch.vlog.TermQueryResultIterator;
 import karmaresearch.vlog.VLog;
 import karmaresearch.vlog.VLog.CyclicCheckResult;
 
@@ -78,8 +112,25 @@ import karmaresearch.vlog.VLog.CyclicCheckResult;
 public class VLogReasoner implements Reasoner {
 	private static Logger LOGGER = LoggerFactory.getLogger(VLogReasoner.class);
 
+	/**
+	 * Single fact of a hidden predicate, which is the body of the rules for magic
+	 * facts when answering queries on demand.
+	 */
+	private static final Fact DEMAND_UNIT_FACT = Expressions
+			.makeFact(new PredicateImpl("DEMAND##UNIT", 1), Expressions.makeAbstractConstant("unit"));
+
 	final KnowledgeBase knowledgeBase;
 	final VLog vLog = new VLog();
+	/**
+	 * Cache for terms of VLog ids that is shared by all queries, and cleared
+	 * whenever VLog is stopped.
+	 */
+	final VLogTermCache termCache = new VLogTermCache();
+	/**
+	 * Optional cache for query answers, cleared whenever the materialisation or
+	 * the knowledge base changes.
+	 */
+	private volatile VLogQueryCache queryCache;
 
 	private ReasonerState reasonerState = ReasonerState.KB_NOT_LOADED;
 	private Correctness correctness = Correctness.SOUND_BUT_INCOMPLETE;
@@ -88,6 +139,12 @@ public class VLogReasoner implements Reasoner {
 	private Algorithm algorithm = Algorithm.RESTRICTED_CHASE;
 	private Integer timeoutAfterSeconds;
 	private RuleRewriteStrategy ruleRewriteStrategy = RuleRewriteStrategy.NONE;
+	private Set<Predicate> queriedPredicates;
+	/**
+	 * Predicates whose rules have been loaded when rules were pruned for
+	 * {@link #queriedPredicates}, or null if all rules have been loaded.
+	 */
+	private Set<Predicate> relevantPredicates;
 
 	/**
 	 * Holds the state of the reasoning result. Has value {@code true} if reasoning
@@ -95,10 +152,68 @@ public class VLogReasoner implements Reasoner {
 	 */
 	private boolean reasoningCompleted;
 
+	/**
+	 * Has value {@code true} if the facts in {@link #vLog} have been restored from
+	 * a saved materialisation, in which case no rules have been loaded into VLog.
+	 */
+	private boolean materialisationRestored;
+
+	/**
+	 * Separate reasoner that holds the data of the knowledge base for answering
+	 * queries on demand, or null if no query has been answered on demand since
+	 * the knowledge base last changed.
+	 */
+	private VLogReasoner demandReasoner;
+	/**
+	 * Rewritings for answering queries on demand by query predicate and
+	 * adornment, cleared whenever the knowledge base changes.
+	 */
+	private final Map<Entry<Predicate, String>, MagicSetTransformation> demandPrograms = new HashMap<>();
+	/**
+	 * For a reasoner that answers queries on demand, the rules that derive the
+	 * facts of predicates from their aliased data in VLog.
+	 */
+	private List<Rule> demandDataRules;
+
+	/**
+	 * Statements that have been added to the knowledge base since it was last
+	 * loaded, and that have not been removed again.
+	 */
+	private final Set<Statement> pendingAddedStatements = new HashSet<>();
+	/**
+	 * Statements that have been removed from the knowledge base since it was last
+	 * loaded, and that have not been added again.
+	 */
+	private final Set<Statement> pendingRemovedStatements = new HashSet<>();
+	/**
+	 * True if some loaded rule uses negation.
+	 */
+	private boolean loadedRulesUseNegation;
+	/**
+	 * True if the loaded rules or some pending added rule use negation.
+	 */
+	private boolean rulesUseNegation;
+	/**
+	 * State and correctness before the first pending change, which are restored
+	 * if all pending changes cancel each other out.
+	 */
+	private ReasonerState reasonerStateBeforeChange;
+	private Correctness correctnessBeforeChange;
+
 	public VLogReasoner(KnowledgeBase knowledgeBase) {
+		this(knowledgeBase, true);
+	}
+
+	/**
+	 * @param listening false for a reasoner that is not notified of changes of the
+	 *                  knowledge base, and that must be closed when it changes
+	 */
+	private VLogReasoner(final KnowledgeBase knowledgeBase, final boolean listening) {
 		super();
 		this.knowledgeBase = knowledgeBase;
-		this.knowledgeBase.addListener(this);
+		if (listening) {
+			this.knowledgeBase.addListener(this);
+		}
 
 		this.setLogLevel(this.internalLogLevel);
 	}
@@ -146,11 +261,96 @@ public class VLogReasoner implements Reasoner {
 		return this.ruleRewriteStrategy;
 	}
 
+	/**
+	 * Restricts reasoning to the given predicates: when the knowledge base is
+	 * loaded, only rules that can contribute to facts of these predicates are
+	 * passed to VLog, as computed by
+	 * {@link PredicateDependencyGraph#getRelevantRules(Collection)}. Facts of
+	 * the given predicates, and of all predicates they depend on, are the same
+	 * as without pruning, but answers for other predicates are
+	 * {@link Correctness#SOUND_BUT_INCOMPLETE}. The setting takes effect the next
+	 * time the knowledge base is loaded. By default, all rules are loaded.
+	 *
+	 * @param predicates the predicates that will be queried, or null to load all
+	 *                   rules
+	 */
+	public void setQueriedPredicates(final Collection<Predicate> predicates) {
+		this.validateNotClosed();
+		if (predicates == null) {
+			this.queriedPredicates = null;
+		} else {
+			Validate.noNullElements(predicates,
+					"Null predicates are not allowed! The list contains a null at position [%d].");
+			this.queriedPredicates = Collections.unmodifiableSet(new HashSet<>(predicates));
+		}
+	}
+
+	/**
+	 * Returns the predicates that reasoning is restricted to, if any.
+	 *
+	 * @return the queried predicates, or null if all rules are loaded
+	 */
+	public Set<Predicate> getQueriedPredicates() {
+		return this.queriedPredicates;
+	}
+
+	/**
+	 * Sets a cache for the results of {@link #answerQuery(PositiveLiteral, boolean)},
+	 * {@link #answerQueryIds(PositiveLiteral, boolean)}, and
+	 * {@link #countQueryAnswers(PositiveLiteral, boolean)}, so that repeated
+	 * queries are not evaluated by VLog again. The cache is cleared whenever the
+	 * reasoner materialises, is reset, or the knowledge base changes. By default,
+	 * no cache is used.
+	 *
+	 * @param queryCache the cache, which must not be used by other reasoners, or
+	 *                   null to disable caching
+	 */
+	public void setQueryCache(final VLogQueryCache queryCache) {
+		this.validateNotClosed();
+		if (queryCache != null) {
+			queryCache.clear();
+		}
+		this.queryCache = queryCache;
+	}
+
+	/**
+	 * Returns the cache for query results, if any.
+	 *
+	 * @return the {@link VLogQueryCache}, or null if query results are not cached
+	 */
+	public VLogQueryCache getQueryCache() {
+		return this.queryCache;
+	}
+
 	@Override
 	public Correctness getCorrectness() {
+		return this.getCorrectness(null);
+	}
+
+	/**
+	 * Returns the correctness of the inferences of the given predicate, which are
+	 * incomplete if rules for the predicate have been pruned.
+	 *
+	 * @param predicate a predicate, or null for the inferences of all predicates
+	 */
+	private Correctness getCorrectness(final Predicate predicate) {
+		if (this.correctness == Correctness.SOUND_AND_COMPLETE && this.isPruned(predicate)) {
+			return Correctness.SOUND_BUT_INCOMPLETE;
+		}
 		return this.correctness;
 	}
 
+	/**
+	 * Returns true if rules that may derive facts of the given predicate have not
+	 * been loaded.
+	 *
+	 * @param predicate a predicate, or null for any predicate
+	 */
+	private boolean isPruned(final Predicate predicate) {
+		return this.relevantPredicates != null
+				&& (predicate == null || !this.relevantPredicates.contains(predicate));
+	}
+
 	/*
 	 * TODO Due to automatic predicate renaming, it can happen that an EDB predicate
 	 * cannot be queried after loading unless reasoning has already been invoked
@@ -179,8 +379,14 @@ public class VLogReasoner implements Reasoner {
 
 	void loadKnowledgeBase() throws IOException {
 		LOGGER.info("Started loading knowledge base ...");
+		this.clearQueryCache();
 
 		final VLogKnowledgeBase vLogKB = new VLogKnowledgeBase(this.knowledgeBase);
+		final PredicateDependencyGraph dependencyGraph = new PredicateDependencyGraph(vLogKB.getRules());
+		if (!dependencyGraph.isStratified()) {
+			throw new RulewerkRuntimeException("The rules use negation but cannot be stratified: "
+					+ getUnstratifiedPredicates(dependencyGraph) + " depend negatively on each other.");
+		}
 
 		if (!vLogKB.hasData()) {
 			LOGGER.warn("No data statements (facts or datasource declarations) have been provided.");
@@ -196,9 +402,10 @@ public class VLogReasoner implements Reasoner {
 		this.loadFacts(vLogKB);
 
 		// 3. rules are loaded
-		this.loadRules(vLogKB);
+		this.loadRules(this.selectRules(dependencyGraph));
 
 		this.reasonerState = ReasonerState.KB_LOADED;
+		this.clearPendingChanges(vLogKB.getRules());
 
 		// if there are no rules, then materialisation state is complete
 		this.correctness = !vLogKB.hasRules() ? Correctness.SOUND_AND_COMPLETE : Correctness.SOUND_BUT_INCOMPLETE;
@@ -216,24 +423,159 @@ public class VLogReasoner implements Reasoner {
 		}
 	}
 
-	void loadInMemoryDataSources(final VLogKnowledgeBase vLogKB) {
-		vLogKB.getEdbPredicates().forEach((k, v) -> this.loadInMemoryDataSource(v.getDataSource(), k));
-
-		vLogKB.getAliasesForEdbPredicates().forEach((k, v) -> this.loadInMemoryDataSource(k.getDataSource(), v));
-	}
+	void loadInMemoryDataSources(final VLogKnowledgeBase vLogKB) throws IOException {
+		final Map<File, List<Entry<Predicate, RdfFileDataSource>>> rdfFileSelections = new LinkedHashMap<>();
+		for (final Entry<Predicate, DataSourceDeclaration> entry : vLogKB.getEdbPredicates().entrySet()) {
+			this.loadInMemoryDataSource(entry.getValue().getDataSource(), entry.getKey(), rdfFileSelections);
+		}
 
-	void loadInMemoryDataSource(final DataSource dataSource, final Predicate predicate) {
-		if (dataSource instanceof VLogInMemoryDataSource) {
+		for (final Entry<DataSourceDeclaration, Predicate> entry : vLogKB.getAliasesForEdbPredicates().entrySet()) {
+			this.loadInMemoryDataSource(entry.getKey().getDataSource(), entry.getValue(), rdfFileSelections);
+		}
 
-			final VLogInMemoryDataSource inMemoryDataSource = (VLogInMemoryDataSource) dataSource;
+		for (final List<Entry<Predicate, RdfFileDataSource>> selections : rdfFileSelections.values()) {
 			try {
-				this.load(predicate, inMemoryDataSource);
+				this.load(selections);
 			} catch (final EDBConfigurationException e) {
 				throw new RulewerkRuntimeException("Invalid data sources configuration!", e);
 			}
 		}
 	}
 
+	/**
+	 * Loads the given data source, except for RDF files with a selection, which
+	 * are collected by file so that each file is read only once.
+	 */
+	private void loadInMemoryDataSource(final DataSource dataSource, final Predicate predicate,
+			final Map<File, List<Entry<Predicate, RdfFileDataSource>>> rdfFileSelections) throws IOException {
+		if (dataSource instanceof RdfFileDataSource && ((RdfFileDataSource) dataSource).getProperty() != null) {
+			final RdfFileDataSource rdfFileDataSource = (RdfFileDataSource) dataSource;
+			rdfFileSelections.computeIfAbsent(rdfFileDataSource.getFile(), file -> new ArrayList<>())
+					.add(new SimpleImmutableEntry<>(predicate, rdfFileDataSource));
+		} else {
+			this.loadInMemoryDataSource(dataSource, predicate);
+		}
+	}
+
+	void loadInMemoryDataSource(final DataSource dataSource, final Predicate predicate) throws IOException {
+		try {
+			if (dataSource instanceof VLogInMemoryDataSource) {
+				this.load(predicate, (VLogInMemoryDataSource) dataSource);
+			} else if (dataSource instanceof CsvFilesDataSource) {
+				this.load(predicate, (CsvFilesDataSource) dataSource);
+			} else if (dataSource instanceof ParquetFileDataSource) {
+				this.load(predicate, (ParquetFileDataSource) dataSource);
+			} else if (dataSource instanceof HdtDataSource) {
+				this.load(predicate, (HdtDataSource) dataSource);
+			}
+		} catch (final EDBConfigurationException e) {
+			throw new RulewerkRuntimeException("Invalid data sources configuration!", e);
+		}
+	}
+
+	/**
+	 * Reads the files of the given data source in parallel, with one thread per
+	 * file up to the number of available processors. Since VLog does not add
+	 * tuples to data that has already been passed for a predicate, all tuples of
+	 * the data source are buffered in memory before they are passed to VLog at
+	 * once.
+	 */
+	void load(final Predicate predicate, final CsvFilesDataSource csvFilesDataSource)
+			throws EDBConfigurationException, IOException {
+		final List<Path> files = csvFilesDataSource.getFiles();
+		final CsvFilesReader reader = new CsvFilesReader(predicate.getArity());
+		reader.setTermConverter(TermToVLogConverter::getVLogNameForConstantName);
+		final VLogTupleBuffer tuples = new VLogTupleBuffer();
+		final ExecutorService executor = Executors
+				.newFixedThreadPool(Math.max(1, Math.min(files.size(), Runtime.getRuntime().availableProcessors())));
+		final long tupleCount;
+		try {
+			tupleCount = reader.read(files, tuples::add, executor);
+		} finally {
+			executor.shutdownNow();
+		}
+		LOGGER.info("Read {} tuples with {} distinct terms from {} files of {}.", tupleCount,
+				reader.getDictionarySize(), files.size(), csvFilesDataSource);
+		this.addData(predicate, tuples);
+	}
+
+	/**
+	 * Reads the row groups of the given data source in parallel, with one thread
+	 * per available processor. All tuples of the data source are buffered in
+	 * memory before they are passed to VLog at once.
+	 */
+	void load(final Predicate predicate, final ParquetFileDataSource parquetFileDataSource)
+			throws EDBConfigurationException, IOException {
+		final ParquetFileReader reader = new ParquetFileReader(parquetFileDataSource, predicate.getArity());
+		reader.setTermConverter(TermToVLogConverter::getVLogNameForConstantName);
+		final VLogTupleBuffer tuples = new VLogTupleBuffer();
+		final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		final long tupleCount;
+		try {
+			tupleCount = reader.read(tuples::add, executor);
+		} finally {
+			executor.shutdownNow();
+		}
+		LOGGER.info("Read {} tuples from {}, skipping {} row groups.", tupleCount, parquetFileDataSource,
+				reader.getSkippedRowGroups());
+		this.addData(predicate, tuples);
+	}
+
+	/**
+	 * Reads the matching triples of the given data source in parallel, with one
+	 * thread per available processor. All tuples of the data source are buffered
+	 * in memory before they are passed to VLog at once.
+	 */
+	void load(final Predicate predicate, final HdtDataSource hdtDataSource)
+			throws EDBConfigurationException, IOException {
+		final HdtFileReader reader = new HdtFileReader(hdtDataSource, predicate.getArity());
+		reader.setTermConverter(TermToVLogConverter::getVLogNameForConstantName);
+		final VLogTupleBuffer tuples = new VLogTupleBuffer();
+		final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		final long tupleCount;
+		try {
+			tupleCount = reader.read(tuples::add, executor);
+		} finally {
+			executor.shutdownNow();
+		}
+		LOGGER.info("Read {} tuples from {}.", tupleCount, hdtDataSource);
+		this.addData(predicate, tuples);
+	}
+
+	/**
+	 * Reads the selected triples of several data sources of the same RDF file in
+	 * one pass, with one thread per available processor. All tuples of the file
+	 * are buffered in memory before the tuples of each predicate are passed to
+	 * VLog at once.
+	 */
+	void load(final List<Entry<Predicate, RdfFileDataSource>> selections)
+			throws EDBConfigurationException, IOException {
+		final Map<RdfFileDataSource, VLogTupleBuffer> buffers = new LinkedHashMap<>();
+		for (final Entry<Predicate, RdfFileDataSource> selection : selections) {
+			buffers.put(selection.getValue(), new VLogTupleBuffer());
+		}
+		final RdfFileReader reader = new RdfFileReader(new ArrayList<>(buffers.keySet()));
+		reader.setTermConverter(TermToVLogConverter::getVLogNameForConstantName);
+		final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		final long tupleCount;
+		try {
+			tupleCount = reader.read((dataSource, batch) -> buffers.get(dataSource).add(batch), executor);
+		} finally {
+			executor.shutdownNow();
+		}
+		LOGGER.info("Read {} tuples for {} data sources from {}.", tupleCount, buffers.size(),
+				selections.get(0).getValue().getFile());
+		for (final Entry<Predicate, RdfFileDataSource> selection : selections) {
+			this.addData(selection.getKey(), buffers.get(selection.getValue()));
+		}
+	}
+
+	private void addData(final Predicate predicate, final VLogTupleBuffer tuples) throws EDBConfigurationException {
+		if (tuples.size() > 0) {
+			this.vLog.addData(ModelToVLogConverter.toVLogPredicate(predicate), tuples.toArray());
+		}
+	}
+
 	void load(final Predicate predicate, final VLogInMemoryDataSource inMemoryDataSource)
 			throws EDBConfigurationException {
 		final String vLogPredicateName = ModelToVLogConverter.toVLogPredicate(predicate);
@@ -290,13 +632,23 @@ public class VLogReasoner implements Reasoner {
 		}
 	}
 
+	/**
+	 * Loads the facts of the knowledge base into VLog. Facts are converted one
+	 * predicate at a time, so that at most the tuples of one predicate are held in
+	 * memory in addition to the knowledge base. With {@link FactStorage#COLUMNAR},
+	 * tuples are created directly from the encoded facts, without creating
+	 * {@link Fact} objects. VLog names of terms are shared between the tuples of
+	 * one predicate, and are not kept for other predicates.
+	 */
 	void loadFacts(final VLogKnowledgeBase vLogKB) {
-		final Map<Predicate, List<Fact>> directEdbFacts = vLogKB.getDirectEdbFacts();
-
-		directEdbFacts.forEach((k, v) -> {
+		final ColumnarFactStore columnarFactStore = this.knowledgeBase.getColumnarFactStore();
+		vLogKB.getDirectEdbFactPredicates().forEach(predicate -> {
 			try {
-				final String vLogPredicateName = ModelToVLogConverter.toVLogPredicate(vLogKB.getAlias(k));
-				final String[][] vLogPredicateTuples = ModelToVLogConverter.toVLogFactTuples(v);
+				final String vLogPredicateName = ModelToVLogConverter.toVLogPredicate(vLogKB.getAlias(predicate));
+				final String[][] vLogPredicateTuples = columnarFactStore == null
+						? ModelToVLogConverter.toVLogFactTuples(this.knowledgeBase.getFacts(predicate))
+						: ModelToVLogConverter.toVLogFactTuples(columnarFactStore.getFactTable(predicate),
+								columnarFactStore.getTermDictionary());
 
 				this.vLog.addData(vLogPredicateName, vLogPredicateTuples);
 
@@ -312,8 +664,42 @@ public class VLogReasoner implements Reasoner {
 		});
 	}
 
-	void loadRules(final VLogKnowledgeBase vLogKB) {
-		final karmaresearch.vlog.Rule[] vLogRuleArray = ModelToVLogConverter.toVLogRuleArray(vLogKB.getRules());
+	/**
+	 * Returns the rules to be loaded, which are only the rules relevant for the
+	 * {@link #queriedPredicates} if these are set.
+	 */
+	private Collection<Rule> selectRules(final PredicateDependencyGraph dependencyGraph) {
+		this.relevantPredicates = null;
+		final List<Rule> rules;
+		if (this.queriedPredicates == null) {
+			rules = dependencyGraph.getRules();
+		} else {
+			rules = dependencyGraph.getRelevantRules(this.queriedPredicates);
+			if (rules.size() < dependencyGraph.getRules().size()) {
+				this.relevantPredicates = dependencyGraph.getRelevantPredicates(this.queriedPredicates);
+			}
+		}
+		if (this.relevantPredicates != null) {
+			LOGGER.info("Loading {} of {} rules that are relevant for the queried predicates.", rules.size(),
+					dependencyGraph.getRules().size());
+		}
+		return rules;
+	}
+
+	private static Set<Predicate> getUnstratifiedPredicates(final PredicateDependencyGraph dependencyGraph) {
+		final Set<Predicate> predicates = new LinkedHashSet<>();
+		for (final Predicate predicate : dependencyGraph.getPredicates()) {
+			for (final Predicate dependency : dependencyGraph.getNegativeDependencies(predicate)) {
+				if (dependencyGraph.getComponent(predicate) == dependencyGraph.getComponent(dependency)) {
+					predicates.addAll(dependencyGraph.getComponent(predicate).getPredicates());
+				}
+			}
+		}
+		return predicates;
+	}
+
+	void loadRules(final Collection<Rule> rules) {
+		final karmaresearch.vlog.Rule[] vLogRuleArray = ModelToVLogConverter.toVLogRuleArray(rules);
 		final karmaresearch.vlog.VLog.RuleRewriteStrategy vLogRuleRewriteStrategy = ModelToVLogConverter
 				.toVLogRuleRewriteStrategy(this.ruleRewriteStrategy);
 		try {
@@ -358,6 +744,7 @@ public class VLogReasoner implements Reasoner {
 	private void runChase() {
 		LOGGER.info("Started materialisation of inferences ...");
 		this.reasonerState = ReasonerState.MATERIALISED;
+		this.clearQueryCache();
 
 		final boolean skolemChase = this.algorithm == Algorithm.SKOLEM_CHASE;
 		try {
@@ -382,27 +769,305 @@ public class VLogReasoner implements Reasoner {
 		}
 	}
 
+	@Override
+	public void saveMaterialisation(final Path directory) throws IOException {
+		this.validateNotClosed();
+		Validate.notNull(directory, "Directory cannot be null.");
+		if (this.reasonerState != ReasonerState.MATERIALISED || this.getCorrectness() != Correctness.SOUND_AND_COMPLETE) {
+			throw new ReasonerStateException(this.reasonerState,
+					"Only completed materialisations of the current knowledge base can be saved!");
+		}
+		MaterialisationCheckpoint.write(this, directory);
+		LOGGER.info("Saved materialisation to {}.", directory);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The saved inferences are loaded as facts into VLog, without rules. Checks
+	 * for cycles in the rules are then run on a separate VLog instance. VLog
+	 * cannot load named nulls, so materialisations with named nulls are not
+	 * restored.
+	 */
+	@Override
+	public boolean restoreMaterialisation(final Path directory) throws IOException {
+		this.validateNotClosed();
+		Validate.notNull(directory, "Directory cannot be null.");
+
+		final MaterialisationCheckpoint checkpoint = MaterialisationCheckpoint.read(directory);
+		if (!checkpoint.matches(this.knowledgeBase, this.algorithm)) {
+			LOGGER.info("Saved materialisation in {} does not match the knowledge base.", directory);
+			return false;
+		}
+		if (checkpoint.containsNamedNulls()) {
+			LOGGER.info("Saved materialisation in {} contains named nulls and cannot be restored.", directory);
+			return false;
+		}
+		final KnowledgeBaseSnapshot inferences = checkpoint.openInferences();
+
+		if (this.reasonerState != ReasonerState.KB_NOT_LOADED) {
+			this.resetReasoner();
+		}
+		try {
+			this.vLog.start("", false);
+			for (final Predicate predicate : inferences.getFactPredicates()) {
+				this.vLog.addData(ModelToVLogConverter.toVLogPredicate(predicate),
+						ModelToVLogConverter.toVLogFactTuples(inferences.getFacts(predicate)));
+			}
+		} catch (final AlreadyStartedException e) {
+			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+		} catch (final EDBConfigurationException e) {
+			throw new RulewerkRuntimeException("Invalid data sources configuration.", e);
+		}
+
+		this.reasonerState = ReasonerState.MATERIALISED;
+		this.reasoningCompleted = true;
+		this.materialisationRestored = true;
+		this.correctness = Correctness.SOUND_AND_COMPLETE;
+		this.relevantPredicates = null;
+		this.clearPendingChanges(this.knowledgeBase.getRules());
+		this.clearQueryCache();
+		LOGGER.info("Restored materialisation from {}.", directory);
+		return true;
+	}
+
 	@Override
 	public QueryResultIterator answerQuery(PositiveLiteral query, boolean includeNulls) {
 		this.validateBeforeQuerying(query);
+		final Correctness correctness = this.getCorrectness(query.getPredicate());
+
+		final long[][] cachedAnswers = this.getCachedAnswers(query, includeNulls);
+		if (cachedAnswers != null) {
+			this.logWarningOnCorrectness(correctness);
+			return new VLogFastQueryResultIterator(Arrays.asList(cachedAnswers).iterator(), () -> {
+			}, correctness, this.vLog, this.termCache);
+		}
+
+		final karmaresearch.vlog.QueryResultIterator queryResultIterator = this.queryVLog(query, includeNulls);
+		if (queryResultIterator == null) {
+			return this.createEmptyResultIterator(query);
+		}
+
+		this.logWarningOnCorrectness(correctness);
+		return new VLogFastQueryResultIterator(this.recordAnswers(query, includeNulls, queryResultIterator),
+				queryResultIterator::close, correctness, this.vLog, this.termCache);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The rewritten rules are materialised by a separate VLog instance with the
+	 * same settings as this reasoner. When a query is first answered on demand,
+	 * all data of the knowledge base is loaded into this instance, which
+	 * therefore holds a second copy of the data. The instance and the rewritten
+	 * rules for each query predicate and adornment are kept until the knowledge
+	 * base changes or this reasoner is closed, so that later queries only
+	 * replace the rules of the instance, including the magic fact with the
+	 * constants of the query, and materialise them over the loaded data.
+	 */
+	@Override
+	public QueryResultIterator answerQueryOnDemand(final PositiveLiteral query, final boolean includeNulls)
+			throws IOException {
+		this.validateNotClosed();
+		Validate.notNull(query, "Query atom must not be null!");
+
+		final MagicSetTransformation transformation = this.getDemandProgram(query);
+		LOGGER.info("Answering query {} on demand with {} rules{}.", query, transformation.getRules().size(),
+				transformation.isMagicSetsApplied() ? " rewritten with magic sets" : "");
+		if (this.demandReasoner == null) {
+			this.demandReasoner = new VLogReasoner(this.knowledgeBase, false);
+			this.demandReasoner.setLogLevel(this.internalLogLevel);
+			this.demandReasoner.loadDemandData();
+		}
+		this.demandReasoner.setAlgorithm(this.algorithm);
+		this.demandReasoner.setReasoningTimeout(this.timeoutAfterSeconds);
+		this.demandReasoner.setRuleRewriteStrategy(this.ruleRewriteStrategy);
+		this.demandReasoner.setLogLevel(this.internalLogLevel);
+		return this.demandReasoner.answerDemandQuery(transformation, includeNulls);
+	}
+
+	/**
+	 * Returns the rewriting for the given query, reusing the rules of an earlier
+	 * query with the same predicate and adornment.
+	 */
+	private MagicSetTransformation getDemandProgram(final PositiveLiteral query) {
+		final Entry<Predicate, String> key = new SimpleImmutableEntry<>(query.getPredicate(),
+				MagicSetTransformation.getAdornment(query));
+		final MagicSetTransformation program = this.demandPrograms.get(key);
+		if (program != null) {
+			return program.forQuery(query);
+		}
+
+		final MagicSetTransformation transformation = MagicSetTransformation.rewrite(this.knowledgeBase, query);
+		final PredicateDependencyGraph dependencyGraph = new PredicateDependencyGraph(transformation.getRules());
+		if (!dependencyGraph.isStratified()) {
+			throw new RulewerkRuntimeException("The rules use negation but cannot be stratified: "
+					+ getUnstratifiedPredicates(dependencyGraph) + " depend negatively on each other.");
+		}
+		this.demandPrograms.put(key, transformation);
+		return transformation;
+	}
+
+	/**
+	 * Loads the data of the knowledge base, but none of its rules, into a reasoner
+	 * for answering queries on demand.
+	 */
+	private void loadDemandData() throws IOException {
+		LOGGER.info("Started loading data for answering queries on demand ...");
+		final VLogKnowledgeBase vLogKB = new VLogKnowledgeBase(this.knowledgeBase);
+		this.loadVLogDataSources(vLogKB);
+		this.loadInMemoryDataSources(vLogKB);
+		this.validateDataSourcePredicateArities(vLogKB);
+		this.loadFacts(vLogKB);
+		try {
+			// VLog does not accept data once rules have been set
+			this.vLog.addData(ModelToVLogConverter.toVLogPredicate(DEMAND_UNIT_FACT.getPredicate()),
+					ModelToVLogConverter.toVLogFactTuples(Collections.singletonList(DEMAND_UNIT_FACT)));
+		} catch (final EDBConfigurationException e) {
+			throw new RulewerkRuntimeException("Invalid data sources configuration!", e);
+		}
+
+		this.demandDataRules = new ArrayList<>(vLogKB.getRules());
+		this.demandDataRules.removeAll(this.knowledgeBase.getRules());
+		this.reasonerState = ReasonerState.KB_LOADED;
+		LOGGER.info("Finished loading data for answering queries on demand.");
+	}
+
+	/**
+	 * Materialises the rules of the given rewriting over the data loaded by
+	 * {@link #loadDemandData()}, replacing the rules and inferences of earlier
+	 * queries, and answers the rewritten query. The magic facts of the rewriting
+	 * are loaded as rules whose body always holds.
+	 */
+	private QueryResultIterator answerDemandQuery(final MagicSetTransformation transformation,
+			final boolean includeNulls) {
+		final List<Rule> rules = new ArrayList<>();
+		for (final Rule rule : this.demandDataRules) {
+			if (transformation.getDataPredicates().contains(rule.getHead().getLiterals().get(0).getPredicate())) {
+				rules.add(rule);
+			}
+		}
+		rules.addAll(transformation.getRules());
+		for (final Fact fact : transformation.getMagicFacts()) {
+			rules.add(toDemandRule(fact));
+		}
+		if (transformation.getMagicSeed() != null) {
+			rules.add(toDemandRule(transformation.getMagicSeed()));
+		}
+		this.loadRules(rules);
+		this.runChase();
+
+		final List<QueryResult> queryResults = new ArrayList<>();
+		try (final QueryResultIterator answers = this.answerQuery(transformation.getQuery(), includeNulls)) {
+			answers.forEachRemaining(queryResults::add);
+			return new ListQueryResultIterator(queryResults, answers.getCorrectness());
+		}
+	}
+
+	private static Rule toDemandRule(final Fact fact) {
+		return Expressions.makeRule(Expressions.makePositiveLiteral(fact.getPredicate(), fact.getArguments()),
+				Expressions.makePositiveLiteral(DEMAND_UNIT_FACT.getPredicate(), Expressions.makeUniversalVariable("X")));
+	}
+
+	private void closeDemandReasoner() {
+		if (this.demandReasoner != null) {
+			this.demandReasoner.close();
+			this.demandReasoner = null;
+		}
+		this.demandPrograms.clear();
+	}
+
+	@Override
+	public IdQueryResultIterator answerQueryIds(PositiveLiteral query, boolean includeNulls) {
+		this.validateBeforeQuerying(query);
+		final Correctness correctness = this.getCorrectness(query.getPredicate());
 
+		final long[][] cachedAnswers = this.getCachedAnswers(query, includeNulls);
+		if (cachedAnswers != null) {
+			this.logWarningOnCorrectness(correctness);
+			// copy cached answers, since callers may modify the returned arrays
+			return new VLogIdQueryResultIterator(Arrays.stream(cachedAnswers).map(long[]::clone).iterator(), () -> {
+			}, correctness);
+		}
+
+		final karmaresearch.vlog.QueryResultIterator queryResultIterator = this.queryVLog(query, includeNulls);
+		if (queryResultIterator == null) {
+			final Correctness answerCorrectness = this.getCorrectnessUnknownPredicate(query);
+			this.logWarningOnCorrectness(answerCorrectness);
+			return new EmptyIdQueryResultIterator(answerCorrectness);
+		}
+
+		this.logWarningOnCorrectness(correctness);
+		return new VLogIdQueryResultIterator(this.recordAnswers(query, includeNulls, queryResultIterator),
+				queryResultIterator::close, correctness);
+	}
+
+	/**
+	 * Looks up the answers of a query in the {@link #queryCache}.
+	 *
+	 * @return the cached answers, or null if there are none
+	 */
+	private long[][] getCachedAnswers(final PositiveLiteral query, final boolean includeNulls) {
+		final VLogQueryCache cache = this.queryCache;
+		return cache == null ? null : cache.getAnswers(new VLogQueryCache.Key(query, includeNulls));
+	}
+
+	/**
+	 * Returns an iterator over the given answers that stores them in the
+	 * {@link #queryCache} when all answers have been read.
+	 */
+	private Iterator<long[]> recordAnswers(final PositiveLiteral query, final boolean includeNulls,
+			final karmaresearch.vlog.QueryResultIterator answers) {
+		final VLogQueryCache cache = this.queryCache;
+		return cache == null ? answers : cache.record(new VLogQueryCache.Key(query, includeNulls), answers);
+	}
+
+	private void clearQueryCache() {
+		final VLogQueryCache cache = this.queryCache;
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+
+	@Override
+	public Term getTerm(long id) {
+		this.validateNotClosed();
+		if (this.reasonerState == ReasonerState.KB_NOT_LOADED) {
+			throw new ReasonerStateException(this.reasonerState,
+					"Term ids cannot be resolved before Reasoner#reason() was first called!");
+		}
+		return this.toTerm(id);
+	}
+
+	Term toTerm(final long id) {
+		Term term = this.termCache.get(id);
+		if (term == null) {
+			term = VLogToModelConverter.toTerm(id, this.vLog);
+			this.termCache.put(id, term);
+		}
+		return term;
+	}
+
+	/**
+	 * Runs the given query on VLog.
+	 *
+	 * @return VLog's result iterator, or null if the query predicate is unknown to
+	 *         VLog
+	 */
+	private karmaresearch.vlog.QueryResultIterator queryVLog(final PositiveLiteral query,
+			final boolean includeNulls) {
 		final boolean filterBlanks = !includeNulls;
 		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(query);
 
-		final karmaresearch.vlog.QueryResultIterator queryResultIterator;
-
 		try {
 			final int predicateId = this.vLog.getPredicateId(vLogAtom.getPredicate());
 			final long[] terms = this.extractTerms(vLogAtom.getTerms());
-			queryResultIterator = this.vLog.query(predicateId, terms, true, filterBlanks);
+			return this.vLog.query(predicateId, terms, true, filterBlanks);
 		} catch (final NotStartedException e) {
 			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
 		} catch (final NonExistingPredicateException e1) {
-			return this.createEmptyResultIterator(query);
+			return null;
 		}
-
-		this.logWarningOnCorrectness(this.correctness);
-		return new VLogFastQueryResultIterator(queryResultIterator, this.correctness, this.vLog);
 	}
 
 	private QueryResultIterator createEmptyResultIterator(final PositiveLiteral query) {
@@ -415,7 +1080,8 @@ public class VLogReasoner implements Reasoner {
 		final Correctness answerCorrectness;
 		if (this.reasonerState == ReasonerState.MATERIALISED) {
 			this.warnUnknownPredicate(query);
-			answerCorrectness = Correctness.SOUND_AND_COMPLETE;
+			answerCorrectness = this.isPruned(query.getPredicate()) ? Correctness.SOUND_BUT_INCOMPLETE
+					: Correctness.SOUND_AND_COMPLETE;
 		} else {
 			answerCorrectness = Correctness.SOUND_BUT_INCOMPLETE;
 		}
@@ -437,6 +1103,17 @@ public class VLogReasoner implements Reasoner {
 	 * @throws NotStartedException
 	 */
 	private long[] extractTerms(karmaresearch.vlog.Term[] terms) throws NotStartedException {
+		return this.extractTerms(terms, null);
+	}
+
+	/**
+	 * Like {@link #extractTerms(karmaresearch.vlog.Term[])}, but looks up the ids
+	 * of constants in the given map first, and adds ids obtained from VLog to it.
+	 *
+	 * @param constantIds map from VLog constant names to ids, or null
+	 */
+	private long[] extractTerms(karmaresearch.vlog.Term[] terms, final Map<String, Long> constantIds)
+			throws NotStartedException {
 		ArrayList<String> variables = new ArrayList<>();
 		long[] longTerms = new long[terms.length];
 		for (int i = 0; i < terms.length; i++) {
@@ -453,8 +1130,15 @@ public class VLogReasoner implements Reasoner {
 					variables.add(terms[i].getName());
 					longTerms[i] = -variables.size();
 				}
-			} else {
+			} else if (constantIds == null) {
 				longTerms[i] = this.vLog.getOrAddConstantId(terms[i].getName());
+			} else {
+				Long constantId = constantIds.get(terms[i].getName());
+				if (constantId == null) {
+					constantId = this.vLog.getOrAddConstantId(terms[i].getName());
+					constantIds.put(terms[i].getName(), constantId);
+				}
+				longTerms[i] = constantId;
 			}
 		}
 		return longTerms;
@@ -463,6 +1147,17 @@ public class VLogReasoner implements Reasoner {
 	@Override
 	public QueryAnswerCount countQueryAnswers(PositiveLiteral query, boolean includeNulls) {
 		this.validateBeforeQuerying(query);
+		final Correctness correctness = this.getCorrectness(query.getPredicate());
+
+		final VLogQueryCache cache = this.queryCache;
+		final VLogQueryCache.Key cacheKey = cache == null ? null : new VLogQueryCache.Key(query, includeNulls);
+		if (cacheKey != null) {
+			final long cachedCount = cache.getCount(cacheKey);
+			if (cachedCount >= 0) {
+				this.logWarningOnCorrectness(correctness);
+				return new QueryAnswerCountImpl(correctness, cachedCount);
+			}
+		}
 
 		final boolean filterBlanks = !includeNulls;
 		final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(query);
@@ -475,8 +1170,11 @@ public class VLogReasoner implements Reasoner {
 		} catch (NonExistingPredicateException e) {
 			return this.createEmptyResultCount(query);
 		}
-		this.logWarningOnCorrectness(this.correctness);
-		return new QueryAnswerCountImpl(this.correctness, result);
+		if (cacheKey != null) {
+			cache.putCount(cacheKey, result);
+		}
+		this.logWarningOnCorrectness(correctness);
+		return new QueryAnswerCountImpl(correctness, result);
 	}
 
 	private QueryAnswerCount createEmptyResultCount(final PositiveLiteral query) {
@@ -485,6 +1183,257 @@ public class VLogReasoner implements Reasoner {
 		return new QueryAnswerCountImpl(correctness, 0);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Queries that are equal up to renaming of variables are evaluated only once,
+	 * and predicates and constants that occur in several queries are converted to
+	 * VLog ids only once.
+	 */
+	@Override
+	public List<QueryResultIterator> answerQueries(final Collection<? extends PositiveLiteral> queries,
+			final boolean includeNulls) {
+		return this.answerQueriesInBatch(queries, includeNulls, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Each distinct query is evaluated by a separate task.
+	 */
+	@Override
+	public List<QueryResultIterator> answerQueries(final Collection<? extends PositiveLiteral> queries,
+			final boolean includeNulls, final ExecutorService executor) {
+		Validate.notNull(executor, "Executor cannot be null.");
+		return this.answerQueriesInBatch(queries, includeNulls, executor);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Queries that are equal up to renaming of variables are evaluated only once,
+	 * and predicates and constants that occur in several queries are converted to
+	 * VLog ids only once.
+	 */
+	@Override
+	public List<QueryAnswerCount> countQueryAnswers(final Collection<? extends PositiveLiteral> queries,
+			final boolean includeNulls) {
+		return this.countQueryAnswersInBatch(queries, includeNulls, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Each distinct query is evaluated by a separate task.
+	 */
+	@Override
+	public List<QueryAnswerCount> countQueryAnswers(final Collection<? extends PositiveLiteral> queries,
+			final boolean includeNulls, final ExecutorService executor) {
+		Validate.notNull(executor, "Executor cannot be null.");
+		return this.countQueryAnswersInBatch(queries, includeNulls, executor);
+	}
+
+	/**
+	 * A distinct query of a batch, converted to VLog ids.
+	 */
+	private static final class BatchQuery {
+		final PositiveLiteral query;
+		final VLogQueryCache.Key key;
+		int predicateId;
+		long[] terms;
+		/**
+		 * Answers, or null if VLog does not know the predicate.
+		 */
+		long[][] answers;
+		/**
+		 * Number of answers, or -1 if VLog does not know the predicate.
+		 */
+		long count = -1;
+
+		BatchQuery(final PositiveLiteral query, final VLogQueryCache.Key key) {
+			this.query = query;
+			this.key = key;
+		}
+	}
+
+	private List<QueryResultIterator> answerQueriesInBatch(final Collection<? extends PositiveLiteral> queries,
+			final boolean includeNulls, final ExecutorService executor) {
+		final int[] batchIndexes = new int[queries.size()];
+		final List<BatchQuery> batch = this.prepareBatch(queries, includeNulls, batchIndexes);
+		final VLogQueryCache cache = this.queryCache;
+		final boolean filterBlanks = !includeNulls;
+
+		final List<Runnable> tasks = new ArrayList<>();
+		for (final BatchQuery batchQuery : batch) {
+			if (cache != null) {
+				batchQuery.answers = cache.getAnswers(batchQuery.key);
+			}
+			if (batchQuery.answers == null) {
+				tasks.add(() -> batchQuery.answers = this.readAnswers(batchQuery, filterBlanks, cache));
+			}
+		}
+		this.runBatchTasks(tasks, executor);
+
+		final List<QueryResultIterator> results = new ArrayList<>(batchIndexes.length);
+		for (final int batchIndex : batchIndexes) {
+			final BatchQuery batchQuery = batch.get(batchIndex);
+			if (batchQuery.answers == null) {
+				results.add(this.createEmptyResultIterator(batchQuery.query));
+			} else {
+				final Correctness correctness = this.getCorrectness(batchQuery.query.getPredicate());
+				this.logWarningOnCorrectness(correctness);
+				results.add(new VLogFastQueryResultIterator(Arrays.asList(batchQuery.answers).iterator(), () -> {
+				}, correctness, this.vLog, this.termCache));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Reads all answers of a query of a batch.
+	 *
+	 * @return the answers, or null if VLog does not know the query predicate
+	 */
+	private long[][] readAnswers(final BatchQuery batchQuery, final boolean filterBlanks,
+			final VLogQueryCache cache) {
+		final List<long[]> answers = new ArrayList<>();
+		try (final karmaresearch.vlog.QueryResultIterator queryResultIterator = this.vLog
+				.query(batchQuery.predicateId, batchQuery.terms, true, filterBlanks)) {
+			final Iterator<long[]> iterator = cache == null ? queryResultIterator
+					: cache.record(batchQuery.key, queryResultIterator);
+			iterator.forEachRemaining(answers::add);
+		} catch (final NotStartedException e) {
+			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+		} catch (final NonExistingPredicateException e) {
+			return null;
+		}
+		return answers.toArray(new long[answers.size()][]);
+	}
+
+	private List<QueryAnswerCount> countQueryAnswersInBatch(final Collection<? extends PositiveLiteral> queries,
+			final boolean includeNulls, final ExecutorService executor) {
+		final int[] batchIndexes = new int[queries.size()];
+		final List<BatchQuery> batch = this.prepareBatch(queries, includeNulls, batchIndexes);
+		final VLogQueryCache cache = this.queryCache;
+		final boolean filterBlanks = !includeNulls;
+
+		final List<Runnable> tasks = new ArrayList<>();
+		for (final BatchQuery batchQuery : batch) {
+			if (cache != null) {
+				batchQuery.count = cache.getCount(batchQuery.key);
+			}
+			if (batchQuery.count < 0) {
+				tasks.add(() -> {
+					try {
+						batchQuery.count = this.vLog.nativeQuerySize(batchQuery.predicateId, batchQuery.terms, true,
+								filterBlanks);
+					} catch (final NotStartedException e) {
+						throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+					} catch (final NonExistingPredicateException e) {
+						return;
+					}
+					if (cache != null) {
+						cache.putCount(batchQuery.key, batchQuery.count);
+					}
+				});
+			}
+		}
+		this.runBatchTasks(tasks, executor);
+
+		final List<QueryAnswerCount> results = new ArrayList<>(batchIndexes.length);
+		for (final int batchIndex : batchIndexes) {
+			final BatchQuery batchQuery = batch.get(batchIndex);
+			if (batchQuery.count < 0) {
+				results.add(this.createEmptyResultCount(batchQuery.query));
+			} else {
+				final Correctness correctness = this.getCorrectness(batchQuery.query.getPredicate());
+				this.logWarningOnCorrectness(correctness);
+				results.add(new QueryAnswerCountImpl(correctness, batchQuery.count));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Validates the given queries, removes duplicates, and converts the distinct
+	 * queries to VLog ids.
+	 *
+	 * @param batchIndexes filled with the index of the distinct query for each of
+	 *                     the given queries
+	 * @return the distinct queries
+	 */
+	private List<BatchQuery> prepareBatch(final Collection<? extends PositiveLiteral> queries,
+			final boolean includeNulls, final int[] batchIndexes) {
+		Validate.notNull(queries, "Queries must not be null!");
+		final Map<VLogQueryCache.Key, Integer> distinctQueries = new HashMap<>();
+		final List<BatchQuery> batch = new ArrayList<>();
+		int i = 0;
+		for (final PositiveLiteral query : queries) {
+			this.validateBeforeQuerying(query);
+			final VLogQueryCache.Key key = new VLogQueryCache.Key(query, includeNulls);
+			Integer batchIndex = distinctQueries.get(key);
+			if (batchIndex == null) {
+				batchIndex = batch.size();
+				distinctQueries.put(key, batchIndex);
+				batch.add(new BatchQuery(query, key));
+			}
+			batchIndexes[i++] = batchIndex;
+		}
+
+		final Map<Predicate, Integer> predicateIds = new HashMap<>();
+		final Map<String, Long> constantIds = new HashMap<>();
+		try {
+			for (final BatchQuery batchQuery : batch) {
+				final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(batchQuery.query);
+				Integer predicateId = predicateIds.get(batchQuery.query.getPredicate());
+				if (predicateId == null) {
+					predicateId = this.vLog.getPredicateId(vLogAtom.getPredicate());
+					predicateIds.put(batchQuery.query.getPredicate(), predicateId);
+				}
+				batchQuery.predicateId = predicateId;
+				batchQuery.terms = this.extractTerms(vLogAtom.getTerms(), constantIds);
+			}
+		} catch (final NotStartedException e) {
+			throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
+		}
+		return batch;
+	}
+
+	/**
+	 * Runs the given tasks of a batch query, using the executor if it is not
+	 * null.
+	 */
+	private void runBatchTasks(final List<Runnable> tasks, final ExecutorService executor) {
+		if (executor == null) {
+			tasks.forEach(Runnable::run);
+			return;
+		}
+
+		final List<Future<?>> futures = new ArrayList<>(tasks.size());
+		for (final Runnable task : tasks) {
+			futures.add(executor.submit(task));
+		}
+		try {
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RulewerkRuntimeException("Interrupted while answering queries.", e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else {
+				throw new RulewerkRuntimeException(cause);
+			}
+		} finally {
+			for (final Future<?> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
+
 	@Override
 	public Correctness exportQueryAnswersToCsv(final PositiveLiteral query, final String csvFilePath,
 			final boolean includeBlanks) throws IOException {
@@ -504,8 +1453,9 @@ public class VLogReasoner implements Reasoner {
 			this.logWarningOnCorrectness(correctness);
 			return correctness;
 		}
-		this.logWarningOnCorrectness(this.correctness);
-		return this.correctness;
+		final Correctness correctness = this.getCorrectness(query.getPredicate());
+		this.logWarningOnCorrectness(correctness);
+		return correctness;
 	}
 
 	private void validateBeforeQuerying(final PositiveLiteral query) {
@@ -519,36 +1469,125 @@ public class VLogReasoner implements Reasoner {
 
 	@Override
 	public Correctness forEachInference(InferenceAction action) throws IOException {
+		this.validateBeforeExportingInferences();
+
+		for (final Predicate predicate : this.getInferencePredicates()) {
+			this.forEachInference(predicate, action);
+		}
+
+		this.logWarningOnCorrectness(this.getCorrectness());
+		return this.getCorrectness();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The inferences of each predicate are obtained by a separate task, so that up
+	 * to one thread per predicate can be used.
+	 */
+	@Override
+	public Correctness forEachInference(InferenceAction action, ExecutorService executor) throws IOException {
+		this.validateBeforeExportingInferences();
+		Validate.notNull(executor, "Executor cannot be null.");
+
+		final List<Future<?>> futures = new ArrayList<>();
+		for (final Predicate predicate : this.getInferencePredicates()) {
+			futures.add(executor.submit(() -> {
+				this.forEachInference(predicate, action);
+				return null;
+			}));
+		}
+
+		try {
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RulewerkRuntimeException("Interrupted while obtaining inferences.", e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else {
+				throw new RulewerkRuntimeException(cause);
+			}
+		} finally {
+			for (final Future<?> future : futures) {
+				future.cancel(true);
+			}
+		}
+
+		this.logWarningOnCorrectness(this.getCorrectness());
+		return this.getCorrectness();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The stream is lazy: inferences are read from VLog predicate by predicate
+	 * while the stream is consumed, and parallel streams split the work by
+	 * predicates. The stream should be closed after use to release VLog
+	 * resources, and must not be used after the reasoner has been reset, closed,
+	 * or has reloaded its knowledge base.
+	 */
+	@Override
+	public Stream<Fact> getInferences() {
+		this.validateBeforeExportingInferences();
+		this.logWarningOnCorrectness(this.getCorrectness());
+
+		final VLogInferenceSpliterator spliterator = new VLogInferenceSpliterator(this,
+				new ArrayList<>(this.getInferencePredicates()));
+		return StreamSupport.stream(spliterator, false).onClose(spliterator::closeAll);
+	}
+
+	/**
+	 * Runs a VLog query for all facts of the given predicate.
+	 *
+	 * @param predicate a predicate of the knowledge base
+	 * @return VLog's result iterator
+	 */
+	karmaresearch.vlog.QueryResultIterator queryInferences(final Predicate predicate) {
+		final karmaresearch.vlog.QueryResultIterator answers = this.queryVLog(this.getQueryAtom(predicate), true);
+		if (answers == null) {
+			throw new RulewerkRuntimeException("Inconsistent knowledge base state.");
+		}
+		return answers;
+	}
+
+	private void validateBeforeExportingInferences() {
 		this.validateNotClosed();
 		if (this.reasonerState == ReasonerState.KB_NOT_LOADED) {
 			throw new ReasonerStateException(this.reasonerState,
 					"Obtaining inferences is not alowed before reasoner is loaded!");
 		}
-		final Set<Predicate> toBeQueriedHeadPredicates = this.getKnowledgeBasePredicates();
+	}
 
-		for (final Predicate predicate : toBeQueriedHeadPredicates) {
-			final PositiveLiteral queryAtom = this.getQueryAtom(predicate);
-			final karmaresearch.vlog.Atom vLogAtom = ModelToVLogConverter.toVLogAtom(queryAtom);
-			try (final TermQueryResultIterator answers = this.vLog.query(vLogAtom, true, false)) {
-				while (answers.hasNext()) {
-					final karmaresearch.vlog.Term[] vlogTerms = answers.next();
-					final List<Term> termList = VLogToModelConverter.toTermList(vlogTerms);
-					action.accept(predicate, termList);
+	/**
+	 * Performs the given action for each inference of one predicate, converting
+	 * VLog ids to terms via the {@link #termCache}.
+	 */
+	private void forEachInference(final Predicate predicate, final InferenceAction action) throws IOException {
+		final karmaresearch.vlog.QueryResultIterator answers = this.queryInferences(predicate);
+		try {
+			while (answers.hasNext()) {
+				final long[] ids = answers.next();
+				final Term[] terms = new Term[ids.length];
+				for (int i = 0; i < ids.length; i++) {
+					terms[i] = this.toTerm(ids[i]);
 				}
-			} catch (final NotStartedException e) {
-				throw new RulewerkRuntimeException("Inconsistent reasoner state.", e);
-			} catch (final NonExistingPredicateException e1) {
-				throw new RulewerkRuntimeException("Inconsistent knowledge base state.", e1);
+				action.accept(predicate, Arrays.asList(terms));
 			}
+		} finally {
+			answers.close();
 		}
-
-		this.logWarningOnCorrectness(this.correctness);
-		return this.correctness;
 	}
 
 	private void logWarningOnCorrectness(final Correctness correctness) {
 		if (correctness != Correctness.SOUND_AND_COMPLETE) {
-			LOGGER.warn("Query answers may be {} with respect to the current Knowledge Base!", this.correctness);
+			LOGGER.warn("Query answers may be {} with respect to the current Knowledge Base!", correctness);
 		}
 	}
 
@@ -556,7 +1595,12 @@ public class VLogReasoner implements Reasoner {
 	public void resetReasoner() {
 		this.validateNotClosed();
 		this.reasonerState = ReasonerState.KB_NOT_LOADED;
+		this.materialisationRestored = false;
+		this.relevantPredicates = null;
+		this.clearPendingChanges(Collections.emptySet());
 		this.vLog.stop();
+		this.termCache.clear();
+		this.clearQueryCache();
 		LOGGER.info("Reasoner has been reset. All inferences computed during reasoning have been discarded.");
 	}
 
@@ -567,7 +1611,10 @@ public class VLogReasoner implements Reasoner {
 		} else {
 			this.reasonerState = ReasonerState.CLOSED;
 			this.knowledgeBase.deleteListener(this);
+			this.closeDemandReasoner();
 			this.vLog.stop();
+			this.termCache.clear();
+			this.clearQueryCache();
 			LOGGER.info("Reasoner closed.");
 		}
 	}
@@ -619,13 +1666,7 @@ public class VLogReasoner implements Reasoner {
 					"Checking rules acyclicity is not allowed before loading!");
 		}
 
-		CyclicCheckResult checkCyclic;
-		try {
-			checkCyclic = this.vLog.checkCyclic("MFC");
-		} catch (final NotStartedException e) {
-			throw new RulewerkRuntimeException(e.getMessage(), e); // should be impossible
-		}
-		return checkCyclic.equals(CyclicCheckResult.CYCLIC);
+		return this.checkCyclic("MFC").equals(CyclicCheckResult.CYCLIC);
 	}
 
 	@Override
@@ -644,49 +1685,44 @@ public class VLogReasoner implements Reasoner {
 
 	@Override
 	public void onStatementsAdded(List<Statement> statementsAdded) {
-		// TODO more elaborate materialisation state handling
-
-		this.updateReasonerToKnowledgeBaseChanged();
-
-		// updateCorrectnessOnStatementsAdded(statementsAdded);
-		this.updateCorrectnessOnStatementsAdded();
+		this.updateOnKnowledgeBaseChanged(statementsAdded, Collections.emptyList());
 	}
 
 	@Override
 	public void onStatementAdded(Statement statementAdded) {
-		// TODO more elaborate materialisation state handling
-
-		this.updateReasonerToKnowledgeBaseChanged();
-
-		// updateCorrectnessOnStatementAdded(statementAdded);
-		this.updateCorrectnessOnStatementsAdded();
+		this.updateOnKnowledgeBaseChanged(Collections.singletonList(statementAdded), Collections.emptyList());
 	}
 
 	@Override
 	public void onStatementRemoved(Statement statementRemoved) {
-		this.updateReasonerToKnowledgeBaseChanged();
-		this.updateCorrectnessOnStatementsRemoved();
+		this.updateOnKnowledgeBaseChanged(Collections.emptyList(), Collections.singletonList(statementRemoved));
 	}
 
 	@Override
 	public void onStatementsRemoved(List<Statement> statementsRemoved) {
-		this.updateReasonerToKnowledgeBaseChanged();
-		this.updateCorrectnessOnStatementsRemoved();
+		this.updateOnKnowledgeBaseChanged(Collections.emptyList(), statementsRemoved);
 	}
 
-	Set<Predicate> getKnowledgeBasePredicates() {
-		final Set<Predicate> toBeQueriedHeadPredicates = new HashSet<>();
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Head predicates of rules that have been pruned for the queried predicates
+	 * are left out, since VLog does not know them.
+	 */
+	@Override
+	public Set<Predicate> getInferencePredicates() {
+		final Set<Predicate> toBeQueriedHeadPredicates = new LinkedHashSet<>();
 		for (final Rule rule : this.knowledgeBase.getRules()) {
 			for (final Literal literal : rule.getHead()) {
-				toBeQueriedHeadPredicates.add(literal.getPredicate());
+				if (!this.isPruned(literal.getPredicate())) {
+					toBeQueriedHeadPredicates.add(literal.getPredicate());
+				}
 			}
 		}
 		for (final DataSourceDeclaration dataSourceDeclaration : this.knowledgeBase.getDataSourceDeclarations()) {
 			toBeQueriedHeadPredicates.add(dataSourceDeclaration.getPredicate());
 		}
-		for (final Fact fact : this.knowledgeBase.getFacts()) {
-			toBeQueriedHeadPredicates.add(fact.getPredicate());
-		}
+		toBeQueriedHeadPredicates.addAll(this.knowledgeBase.getFactPredicates());
 		return toBeQueriedHeadPredicates;
 	}
 
@@ -708,35 +1744,115 @@ public class VLogReasoner implements Reasoner {
 			}
 		}
 
-		CyclicCheckResult checkCyclic;
+		return this.checkCyclic(acyclNotion.name()).equals(CyclicCheckResult.NON_CYCLIC);
+	}
+
+	/**
+	 * Runs the given VLog cyclicity check on the rules of the knowledge base. A
+	 * restored materialisation is held in VLog as facts only, since loading the
+	 * rules would hide the restored facts of their head predicates. In this case,
+	 * the check is run on a separate VLog instance that holds only the rules.
+	 */
+	private CyclicCheckResult checkCyclic(final String notion) {
 		try {
-			checkCyclic = this.vLog.checkCyclic(acyclNotion.name());
-		} catch (final NotStartedException e) {
+			if (!this.materialisationRestored) {
+				return this.vLog.checkCyclic(notion);
+			}
+			final VLog rulesVLog = new VLog();
+			try {
+				rulesVLog.start("", false);
+				rulesVLog.setRules(ModelToVLogConverter.toVLogRuleArray(this.knowledgeBase.getRules()),
+						ModelToVLogConverter.toVLogRuleRewriteStrategy(this.ruleRewriteStrategy));
+				return rulesVLog.checkCyclic(notion);
+			} finally {
+				rulesVLog.stop();
+			}
+		} catch (final NotStartedException | AlreadyStartedException | EDBConfigurationException | IOException e) {
 			throw new RulewerkRuntimeException(e.getMessage(), e); // should be impossible
 		}
-		return checkCyclic.equals(CyclicCheckResult.NON_CYCLIC);
 	}
 
-	private void updateReasonerToKnowledgeBaseChanged() {
-		if (this.reasonerState.equals(ReasonerState.KB_LOADED)
-				|| this.reasonerState.equals(ReasonerState.MATERIALISED)) {
+	/**
+	 * Records changes of the knowledge base that happened after loading, and
+	 * updates reasoner state and correctness accordingly. Changes that undo
+	 * earlier pending changes cancel out, and if no pending changes remain, the
+	 * state and correctness from before the first change are restored.
+	 *
+	 * Otherwise, the reasoner state becomes {@link ReasonerState#KB_CHANGED}. As
+	 * long as statements were only added and no rule uses negation, all answers
+	 * obtained from the current VLog state remain sound, so that correctness is
+	 * at most {@link Correctness#SOUND_BUT_INCOMPLETE}. Removing statements, or
+	 * adding statements to a program with negation, may invalidate earlier
+	 * inferences, so that correctness becomes {@link Correctness#INCORRECT}.
+	 *
+	 * @param statementsAdded   statements added to the knowledge base
+	 * @param statementsRemoved statements removed from the knowledge base
+	 */
+	private void updateOnKnowledgeBaseChanged(final List<Statement> statementsAdded,
+			final List<Statement> statementsRemoved) {
+		this.closeDemandReasoner();
+		if (this.reasonerState != ReasonerState.KB_LOADED && this.reasonerState != ReasonerState.MATERIALISED
+				&& this.reasonerState != ReasonerState.KB_CHANGED) {
+			return;
+		}
+		if (this.reasonerState != ReasonerState.KB_CHANGED) {
+			this.reasonerStateBeforeChange = this.reasonerState;
+			this.correctnessBeforeChange = this.correctness;
+		}
 
+		for (final Statement statement : statementsAdded) {
+			if (!this.pendingRemovedStatements.remove(statement)) {
+				this.pendingAddedStatements.add(statement);
+				this.rulesUseNegation |= usesNegation(statement);
+			}
+		}
+		boolean removedAddedNegation = false;
+		for (final Statement statement : statementsRemoved) {
+			if (this.pendingAddedStatements.remove(statement)) {
+				removedAddedNegation |= usesNegation(statement);
+			} else {
+				this.pendingRemovedStatements.add(statement);
+			}
+		}
+		if (removedAddedNegation) {
+			this.rulesUseNegation = this.loadedRulesUseNegation
+					|| this.pendingAddedStatements.stream().anyMatch(VLogReasoner::usesNegation);
+		}
+
+		if (this.pendingAddedStatements.isEmpty() && this.pendingRemovedStatements.isEmpty()) {
+			this.reasonerState = this.reasonerStateBeforeChange;
+			this.correctness = this.correctnessBeforeChange;
+		} else {
 			this.reasonerState = ReasonerState.KB_CHANGED;
+			this.clearQueryCache();
+			if (this.correctnessBeforeChange == Correctness.INCORRECT || !this.pendingRemovedStatements.isEmpty()
+					|| this.rulesUseNegation) {
+				this.correctness = Correctness.INCORRECT;
+			} else {
+				this.correctness = Correctness.SOUND_BUT_INCOMPLETE;
+			}
 		}
 	}
 
-	private void updateCorrectnessOnStatementsAdded() {
-		if (this.reasonerState == ReasonerState.KB_CHANGED) {
-			// TODO refine
-			this.correctness = Correctness.INCORRECT;
+	private void clearPendingChanges(final Collection<Rule> loadedRules) {
+		this.pendingAddedStatements.clear();
+		this.pendingRemovedStatements.clear();
+		this.loadedRulesUseNegation = false;
+		for (final Rule rule : loadedRules) {
+			this.loadedRulesUseNegation |= usesNegation(rule);
 		}
+		this.rulesUseNegation = this.loadedRulesUseNegation;
 	}
 
-	private void updateCorrectnessOnStatementsRemoved() {
-		if (this.reasonerState == ReasonerState.KB_CHANGED) {
-			// TODO refine
-			this.correctness = Correctness.INCORRECT;
+	private static boolean usesNegation(final Statement statement) {
+		if (statement instanceof Rule) {
+			for (final Literal literal : ((Rule) statement).getBody()) {
+				if (literal.isNegated()) {
+					return true;
+				}
+			}
 		}
+		return false;
 	}
 
 	/**
@@ -0,0 +1,175 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.Validate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+
+/**
+ * Bounded cache for finding {@link Term}s for VLog ids, which can be shared by
+ * all queries on one {@link VLogReasoner} and used from several threads
+ * without locking.
+ *
+ * The cache is set-associative: each id can only be stored in one of
+ * {@link #WAYS} neighbouring slots, and a CLOCK strategy decides which entry of
+ * a full set is replaced. Entries are immutable objects, so that concurrent
+ * readers always see complete entries. Races between writers may lose an
+ * insertion or a reference bit, which only affects the hit rate.
+ *
+ * Ids are only meaningful for one VLog materialisation, so the cache must be
+ * cleared whenever VLog is stopped.
+ */
+public class VLogTermCache {
+
+	/**
+	 * Number of slots that are available for each id.
+	 */
+	static final int WAYS = 4;
+
+	/**
+	 * Default capacity.
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 18;
+
+	static final class Entry {
+		final long id;
+		final Term term;
+
+		Entry(final long id, final Term term) {
+			this.id = id;
+			this.term = term;
+		}
+	}
+
+	private final Entry[] entries;
+	/**
+	 * CLOCK reference bits, one per slot, set when an entry is read after it has
+	 * been stored.
+	 */
+	private final boolean[] referenced;
+	/**
+	 * CLOCK hand for each set, as offset from the first slot of the set.
+	 */
+	private final byte[] hands;
+	private final int setMask;
+
+	/**
+	 * Creates a cache with {@link #DEFAULT_CAPACITY}.
+	 */
+	public VLogTermCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity maximal number of cached terms; rounded up to a power of
+	 *                 two that is at least {@link #WAYS}
+	 */
+	public VLogTermCache(final int capacity) {
+		Validate.isTrue(capacity > 0 && capacity <= (1 << 30), "Cache capacity must be between 1 and 2^30: %d",
+				capacity);
+		final int slots = Math.max(WAYS, Integer.highestOneBit(capacity - 1) << 1);
+		this.entries = new Entry[slots];
+		this.referenced = new boolean[slots];
+		this.hands = new byte[slots / WAYS];
+		this.setMask = slots / WAYS - 1;
+	}
+
+	/**
+	 * Returns the cached term for the given id.
+	 *
+	 * @param id a VLog id
+	 * @return the cached {@link Term}, or null if the id is not in the cache
+	 */
+	public Term get(final long id) {
+		final int first = firstSlot(id);
+		for (int slot = first; slot < first + WAYS; slot++) {
+			final Entry entry = this.entries[slot];
+			if (entry != null && entry.id == id) {
+				this.referenced[slot] = true;
+				return entry.term;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Stores the term for the given id, replacing another entry of the same set if
+	 * necessary.
+	 *
+	 * @param id   a VLog id
+	 * @param term the {@link Term} for this id
+	 */
+	public void put(final long id, final Term term) {
+		final int set = setIndex(id);
+		final int first = set * WAYS;
+		for (int slot = first; slot < first + WAYS; slot++) {
+			final Entry entry = this.entries[slot];
+			if (entry == null || entry.id == id) {
+				this.entries[slot] = new Entry(id, term);
+				this.referenced[slot] = false;
+				return;
+			}
+		}
+		// CLOCK: skip (and unmark) referenced entries, for at most one round
+		int hand = this.hands[set];
+		for (int i = 0; i < WAYS && this.referenced[first + hand]; i++) {
+			this.referenced[first + hand] = false;
+			hand = (hand + 1) % WAYS;
+		}
+		this.entries[first + hand] = new Entry(id, term);
+		this.referenced[first + hand] = false;
+		this.hands[set] = (byte) ((hand + 1) % WAYS);
+	}
+
+	/**
+	 * Removes all entries. Must not be called while the cache is used by other
+	 * threads.
+	 */
+	public void clear() {
+		Arrays.fill(this.entries, null);
+		Arrays.fill(this.referenced, false);
+		Arrays.fill(this.hands, (byte) 0);
+	}
+
+	/**
+	 * Returns the maximal number of entries of this cache.
+	 *
+	 * @return capacity
+	 */
+	public int getCapacity() {
+		return this.entries.length;
+	}
+
+	private int firstSlot(final long id) {
+		return setIndex(id) * WAYS;
+	}
+
+	private int setIndex(final long id) {
+		long h = id * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 32;
+		return (int) h & this.setMask;
+	}
+
+}
@@ -28,12 +28,13 @@ import org.semanticweb.rulewerk.core.model.api.Constant;
 import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
 import org.semanticweb.rulewerk.core.model.api.QueryResult;
 import org.semanticweb.rulewerk.core.model.api.Term;
-import org.semanticweb.rulewerk.core.model.implementation.AbstractConstantImpl;
-import org.semanticweb.rulewerk.core.model.implementation.DatatypeConstantImpl;
-import org.semanticweb.rulewerk.core.model.implementation.LanguageStringConstantImpl;
-import org.semanticweb.rulewerk.core.model.implementation.NamedNullImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.model.implementation.TermPool;
 import org.semanticweb.rulewerk.core.reasoner.implementation.QueryResultImpl;
 
+import karmaresearch.vlog.NotStartedException;
+import karmaresearch.vlog.VLog;
+
 /**
  * Utility class with static methods for converting from VLog internal model
  * ({@code karmaresearch.vlog} objects) to VLog API model
@@ -87,7 +88,7 @@ class VLogToModelConverter {
 		case CONSTANT:
 			return toConstant(name);
 		case BLANK:
-			return new NamedNullImpl(name);
+			return TermPool.getGlobalPool().getNamedNull(name);
 		case VARIABLE:
 			throw new IllegalArgumentException(
 					"VLog variables cannot be converted without knowing if they are universally or existentially quantified.");
@@ -96,6 +97,31 @@ class VLogToModelConverter {
 		}
 	}
 
+	/**
+	 * Finds the VLog API model {@link Term} for a numeric VLog id. Ids for which
+	 * VLog has no constant are named nulls, whose names are derived from the id.
+	 *
+	 * @param id   a numeric VLog id, as returned in VLog query results
+	 * @param vLog the VLog instance that returned the id
+	 * @return the {@link Term} for this id
+	 */
+	static Term toTerm(long id, VLog vLog) {
+		try {
+			final String name = vLog.getConstant(id);
+			if (name == null) {
+				// This string operation extracts the internal rule number (val >> 40),
+				// the internal variable number ((val >> 32) & 0377), and
+				// a counter (val & 0xffffffffL)
+				return TermPool.getGlobalPool()
+						.getNamedNull("null" + (id >> 40) + "_" + ((id >> 32) & 0377) + "_" + (id & 0xffffffffL));
+			} else {
+				return toConstant(name);
+			}
+		} catch (final NotStartedException e) { // Should never happen, ids come from a query
+			throw new RulewerkRuntimeException(e);
+		}
+	}
+
 	/**
 	 * Creates a {@link Constant} from the given VLog constant name.
 	 *
@@ -106,24 +132,24 @@ class VLogToModelConverter {
 		final Constant constant;
 		if (vLogConstantName.charAt(0) == '<' && vLogConstantName.charAt(vLogConstantName.length() - 1) == '>') {
 			// strip <> off of IRIs
-			constant = new AbstractConstantImpl(vLogConstantName.substring(1, vLogConstantName.length() - 1));
+			constant = Expressions.makeAbstractConstant(vLogConstantName.substring(1, vLogConstantName.length() - 1));
 		} else if (vLogConstantName.charAt(0) == '"') {
 			if (vLogConstantName.charAt(vLogConstantName.length() - 1) == '>') {
 				final int startTypeIdx = vLogConstantName.lastIndexOf('<', vLogConstantName.length() - 2);
 				final String datatype = vLogConstantName.substring(startTypeIdx + 1, vLogConstantName.length() - 1);
 				final String lexicalValue = vLogConstantName.substring(1, startTypeIdx - 3);
-				constant = new DatatypeConstantImpl(lexicalValue, datatype);
+				constant = Expressions.makeDatatypeConstant(lexicalValue, datatype);
 			} else {
 				final int startTypeIdx = vLogConstantName.lastIndexOf('@', vLogConstantName.length() - 2);
 				if (startTypeIdx > -1) {
 					final String languageTag = vLogConstantName.substring(startTypeIdx + 1, vLogConstantName.length());
 					final String string = vLogConstantName.substring(1, startTypeIdx - 1);
-					constant = new LanguageStringConstantImpl(string, languageTag);
+					constant = Expressions.makeLanguageStringConstant(string, languageTag);
 				} else if (vLogConstantName.charAt(vLogConstantName.length() - 1) == '"'
 						&& vLogConstantName.length() > 1) {
 					// This is already an unexpceted case. Untyped strings "constant" should not
 					// occur. But if they do, this is our best guess on how to interpret them.
-					constant = new DatatypeConstantImpl(vLogConstantName.substring(1, vLogConstantName.length() - 1),
+					constant = Expressions.makeDatatypeConstant(vLogConstantName.substring(1, vLogConstantName.length() - 1),
 							PrefixDeclarationRegistry.XSD_STRING);
 				} else {
 					throw new RulewerkRuntimeException("VLog returned a constant name '" + vLogConstantName
@@ -131,7 +157,7 @@ class VLogToModelConverter {
 				}
 			}
 		} else {
-			constant = new AbstractConstantImpl(vLogConstantName);
+			constant = Expressions.makeAbstractConstant(vLogConstantName);
 		}
 		return constant;
 	}
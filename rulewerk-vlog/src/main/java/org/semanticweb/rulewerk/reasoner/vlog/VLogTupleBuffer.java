@@ -0,0 +1,87 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Collects the batches of tuples of one predicate that are read in parallel
+ * into a single array, since VLog expects all tuples of a predicate in one
+ * call. Batches are copied into the array as they arrive, which grows as
+ * needed, so that they are not kept until all batches have been read.
+ *
+ * This class is thread-safe.
+ */
+class VLogTupleBuffer {
+
+	static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+	private static final String[][] EMPTY = new String[0][];
+
+	private String[][] tuples = EMPTY;
+	private int size = 0;
+
+	/**
+	 * Appends the given tuples.
+	 *
+	 * @param batch tuples, which may be reused by the caller afterwards
+	 */
+	synchronized void add(final String[][] batch) {
+		if (batch.length > this.tuples.length - this.size) {
+			this.tuples = Arrays.copyOf(this.tuples, grownLength(this.tuples.length, this.size + (long) batch.length));
+		}
+		System.arraycopy(batch, 0, this.tuples, this.size, batch.length);
+		this.size += batch.length;
+	}
+
+	/**
+	 * @return the number of tuples added so far
+	 */
+	synchronized int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns all tuples added so far. Unused capacity is trimmed, since VLog
+	 * takes the length of the array as the number of tuples.
+	 *
+	 * @return array of all tuples, in the order in which they were added
+	 */
+	synchronized String[][] toArray() {
+		if (this.size < this.tuples.length) {
+			this.tuples = Arrays.copyOf(this.tuples, this.size);
+		}
+		return this.tuples;
+	}
+
+	/**
+	 * Returns the length of an array that is grown to hold at least the required
+	 * number of tuples, by half of its current length if possible.
+	 */
+	static int grownLength(final int length, final long required) {
+		Validate.validState(required <= MAX_ARRAY_LENGTH, "Too many tuples for one predicate: %d", required);
+		final long grown = length + (length >> 1);
+		return (int) Math.min(MAX_ARRAY_LENGTH, Math.max(grown, required));
+	}
+
+}
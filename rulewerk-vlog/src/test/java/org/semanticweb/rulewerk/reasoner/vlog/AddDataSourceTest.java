@@ -134,7 +134,7 @@ public class AddDataSourceTest {
 			try (final QueryResultIterator queryResult = reasoner.answerQuery(
 					Expressions.makePositiveLiteral(predicateP, Expressions.makeUniversalVariable("x")), true)) {
 				assertEquals(this.csvFile_c1_c2_Content, QueryResultsUtils.collectQueryResults(queryResult));
-				assertEquals(Correctness.INCORRECT, queryResult.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, queryResult.getCorrectness());
 			}
 
 			// there is no fact for predicate Q loaded in the reasoner
@@ -165,7 +165,7 @@ public class AddDataSourceTest {
 			try (final QueryResultIterator queryResult = reasoner.answerQuery(
 					Expressions.makePositiveLiteral(predicateP, Expressions.makeUniversalVariable("x")), true)) {
 				assertEquals(this.csvFile_c1_c2_Content, QueryResultsUtils.collectQueryResults(queryResult));
-				assertEquals(Correctness.INCORRECT, queryResult.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, queryResult.getCorrectness());
 			}
 // there is no fact for predicate Q loaded in the reasoner
 			try (final QueryResultIterator queryResult = reasoner.answerQuery(
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -46,6 +47,9 @@ import org.semanticweb.rulewerk.core.model.api.TermType;
 import org.semanticweb.rulewerk.core.model.api.Variable;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.reasoner.Algorithm;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.FactStorage;
+import org.semanticweb.rulewerk.core.reasoner.IdQueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
 import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
 import org.semanticweb.rulewerk.core.reasoner.RuleRewriteStrategy;
@@ -338,4 +342,76 @@ public class AnswerQueryTest {
 		}
 	}
 
+	@Test
+	public void queryColumnarFacts() throws IOException {
+		final Constant c = Expressions.makeAbstractConstant("http://example.org/c");
+		final Constant d = Expressions.makeAbstractConstant("d");
+		final Constant lit = Expressions.makeDatatypeConstant("1", "http://www.w3.org/2001/XMLSchema#integer");
+		final Variable x = Expressions.makeUniversalVariable("X");
+		final Variable y = Expressions.makeUniversalVariable("Y");
+		final Rule rule = Expressions.makeRule(Expressions.makePositiveLiteral("q", y, x),
+				Expressions.makePositiveLiteral("p", x, y));
+
+		final KnowledgeBase kb = new KnowledgeBase(FactStorage.COLUMNAR);
+		kb.addStatements(rule, Expressions.makeFact("p", c, d), Expressions.makeFact("p", d, lit));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			try (final QueryResultIterator answers = reasoner
+					.answerQuery(Expressions.makePositiveLiteral("q", x, y), true)) {
+				assertEquals(Sets.newSet(Arrays.asList(d, c), Arrays.asList(lit, d)),
+						QueryResultsUtils.collectQueryResults(answers));
+			}
+		}
+	}
+
+	@Test
+	public void testAnswerQueryIds() throws IOException {
+		final Constant constantC = Expressions.makeAbstractConstant("c");
+		final Constant constantD = Expressions.makeAbstractConstant("d");
+		final Variable x = Expressions.makeUniversalVariable("X");
+		final Variable y = Expressions.makeUniversalVariable("Y");
+		final Rule rule = Expressions.makeRule(Expressions.makePositiveLiteral("q", x, y),
+				Expressions.makePositiveLiteral("p", x, y));
+
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(rule, Expressions.makeFact("p", constantC, constantD),
+				Expressions.makeFact("p", constantD, constantD));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final PositiveLiteral query = Expressions.makePositiveLiteral("q", x, y);
+			final Set<List<Term>> expected;
+			try (final QueryResultIterator queryResultIterator = reasoner.answerQuery(query, true)) {
+				expected = QueryResultsUtils.collectQueryResults(queryResultIterator);
+			}
+
+			final Set<List<Term>> answers = new HashSet<>();
+			final Correctness correctness = reasoner.forEachAnswer(query, true, ids -> {
+				assertEquals(2, ids.length);
+				answers.add(Arrays.asList(reasoner.getTerm(ids[0]), reasoner.getTerm(ids[1])));
+			});
+			assertEquals(Correctness.SOUND_AND_COMPLETE, correctness);
+			assertEquals(expected, answers);
+			assertEquals(2, answers.size());
+		}
+	}
+
+	@Test
+	public void testAnswerQueryIdsUnknownPredicate() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact("p", Expressions.makeAbstractConstant("c")));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			try (final IdQueryResultIterator ids = reasoner
+					.answerQueryIds(Expressions.makePositiveLiteral("r", Expressions.makeUniversalVariable("X")), true)) {
+				assertFalse(ids.hasNext());
+				assertEquals(Correctness.SOUND_AND_COMPLETE, ids.getCorrectness());
+			}
+		}
+	}
+
 }
@@ -24,11 +24,14 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.junit.Test;
@@ -47,6 +50,7 @@ import org.semanticweb.rulewerk.core.model.implementation.PositiveLiteralImpl;
 import org.semanticweb.rulewerk.core.model.implementation.RenamedNamedNull;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.reasoner.RuleRewriteStrategy;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ColumnarFactStore;
 import org.semanticweb.rulewerk.core.reasoner.implementation.Skolemization;
 
 public class ModelToVLogConverterTest {
@@ -196,6 +200,40 @@ public class ModelToVLogConverterTest {
 		assertArrayEquals(expectedTuples, vLogTuples);
 	}
 
+	@Test
+	public void testToVLogFactTuplesSharesNames() {
+		final Constant c = Expressions.makeAbstractConstant("http://example.org/c");
+		final Fact atom1 = Expressions.makeFact("p1", Arrays.asList(c));
+		final Fact atom2 = Expressions.makeFact("p2", Arrays.asList(c, c));
+
+		final Map<Term, String> vLogNameCache = new HashMap<>();
+		final String[][] vLogTuples1 = ModelToVLogConverter.toVLogFactTuples(Arrays.asList(atom1), vLogNameCache);
+		final String[][] vLogTuples2 = ModelToVLogConverter.toVLogFactTuples(Arrays.asList(atom2), vLogNameCache);
+
+		assertEquals("<http://example.org/c>", vLogTuples1[0][0]);
+		assertSame(vLogTuples1[0][0], vLogTuples2[0][0]);
+		assertSame(vLogTuples1[0][0], vLogTuples2[0][1]);
+		assertEquals(1, vLogNameCache.size());
+	}
+
+	@Test
+	public void testToVLogFactTuplesFromFactTable() {
+		final Constant c = Expressions.makeAbstractConstant("http://example.org/c");
+		final Constant d = Expressions.makeAbstractConstant("d");
+		final Predicate p = Expressions.makePredicate("p", 2);
+		final ColumnarFactStore store = new ColumnarFactStore();
+		store.add(Expressions.makeFact(p, c, d));
+		store.add(Expressions.makeFact(p, d, c));
+		store.add(Expressions.makeFact("q", c));
+
+		final String[][] vLogTuples = ModelToVLogConverter.toVLogFactTuples(store.getFactTable(p),
+				store.getTermDictionary());
+
+		final String[][] expectedTuples = { { "<http://example.org/c>", "d" }, { "d", "<http://example.org/c>" } };
+		assertArrayEquals(expectedTuples, vLogTuples);
+		assertSame(vLogTuples[0][0], vLogTuples[1][1]);
+	}
+
 	@Test
 	public void testToVLogFactTupleNulls() {
 		final Skolemization skolemization = new Skolemization();
@@ -47,6 +47,7 @@ import org.semanticweb.rulewerk.core.reasoner.Correctness;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
 import org.semanticweb.rulewerk.core.reasoner.QueryAnswerCount;
 import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.ReasonerState;
 import org.semanticweb.rulewerk.core.reasoner.implementation.InMemoryDataSource;
 
 public class QueryAnsweringCorrectnessTest {
@@ -121,7 +122,7 @@ public class QueryAnsweringCorrectnessTest {
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_g, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			reasoner.reason();
@@ -140,7 +141,7 @@ public class QueryAnsweringCorrectnessTest {
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_g_h, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			reasoner.reason();
@@ -166,13 +167,13 @@ public class QueryAnsweringCorrectnessTest {
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_g_h_c_d, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_c_d, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			reasoner.reason();
@@ -199,13 +200,13 @@ public class QueryAnsweringCorrectnessTest {
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_g_h_c_d_e_f, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_c_d_e_f, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			reasoner.reason();
@@ -261,7 +262,7 @@ public class QueryAnsweringCorrectnessTest {
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_c, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			reasoner.reason();
@@ -291,7 +292,7 @@ public class QueryAnsweringCorrectnessTest {
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_c_d, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 
 			reasoner.reason();
@@ -317,7 +318,7 @@ public class QueryAnsweringCorrectnessTest {
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
 				final Set<List<Term>> queryAnswers = QueryResultsUtils.collectQueryResults(resultIterator);
 				assertEquals(expectedAnswers_c_d_e_f, queryAnswers);
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
 			}
 		}
 
@@ -767,7 +768,7 @@ public class QueryAnsweringCorrectnessTest {
 			kb.removeStatements(factPc);
 			kb.addStatement(factPc);
 			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleBodyPx, true)) {
-				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+				assertEquals(Correctness.SOUND_AND_COMPLETE, resultIterator.getCorrectness());
 			}
 		}
 	}
@@ -786,4 +787,64 @@ public class QueryAnsweringCorrectnessTest {
 		}
 	}
 
+	@Test
+	public void testAddFactsNoNegation() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(ruleQxPx, factPc);
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			kb.addStatement(factPd);
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
+			}
+		}
+	}
+
+	@Test
+	public void testAddFactsWithNegation() throws IOException {
+		final Rule ruleQxPxNotRx = Expressions.makeRule(Expressions.makePositiveConjunction(ruleHeadQx),
+				Expressions.makeConjunction(ruleBodyPx, Expressions.makeNegativeLiteral("predR", x)));
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(ruleQxPxNotRx, factPc);
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			kb.addStatement(Expressions.makeFact("predR", c));
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
+				assertEquals(Correctness.INCORRECT, resultIterator.getCorrectness());
+			}
+		}
+	}
+
+	@Test
+	public void testAddAndRemoveSameStatement() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(ruleQxPx, factPc);
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			kb.addStatement(factPd);
+			kb.removeStatement(factPd);
+			assertEquals(ReasonerState.MATERIALISED, reasoner.getReasonerState());
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
+				assertEquals(Correctness.SOUND_AND_COMPLETE, resultIterator.getCorrectness());
+			}
+		}
+	}
+
+	@Test
+	public void testAddAndRemoveRuleWithNegationThenAddFacts() throws IOException {
+		final Rule ruleQxPxNotRx = Expressions.makeRule(Expressions.makePositiveConjunction(ruleHeadQx),
+				Expressions.makeConjunction(ruleBodyPx, Expressions.makeNegativeLiteral("predR", x)));
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatements(ruleQxPx, factPc);
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			kb.addStatement(ruleQxPxNotRx);
+			kb.removeStatement(ruleQxPxNotRx);
+			kb.addStatement(factPd);
+			try (final QueryResultIterator resultIterator = reasoner.answerQuery(ruleHeadQx, true)) {
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, resultIterator.getCorrectness());
+			}
+		}
+	}
+
 }
@@ -0,0 +1,177 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryAnswerCount;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+
+public class VLogBatchQueryTest {
+
+	private static final Predicate edge = Expressions.makePredicate("edge", 2);
+	private static final Predicate path = Expressions.makePredicate("path", 2);
+	private static final Predicate unknown = Expressions.makePredicate("unknown", 1);
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Variable z = Expressions.makeUniversalVariable("Z");
+	private static final Constant a = Expressions.makeAbstractConstant("a");
+	private static final Constant b = Expressions.makeAbstractConstant("b");
+	private static final Constant c = Expressions.makeAbstractConstant("c");
+
+	private static final List<PositiveLiteral> queries = Arrays.asList(Expressions.makePositiveLiteral(path, a, x),
+			Expressions.makePositiveLiteral(path, x, y), Expressions.makePositiveLiteral(unknown, x),
+			Expressions.makePositiveLiteral(path, a, y), Expressions.makePositiveLiteral(path, c, x),
+			Expressions.makePositiveLiteral(path, x, x));
+
+	private static KnowledgeBase createKnowledgeBase() {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact(edge, a, b));
+		kb.addStatement(Expressions.makeFact(edge, b, c));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, y),
+				Expressions.makePositiveLiteral(edge, x, y)));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, z),
+				Expressions.makePositiveLiteral(path, x, y), Expressions.makePositiveLiteral(edge, y, z)));
+		return kb;
+	}
+
+	private static void assertSameAnswers(final VLogReasoner reasoner, final List<QueryResultIterator> results) {
+		assertEquals(queries.size(), results.size());
+		for (int i = 0; i < queries.size(); i++) {
+			try (final QueryResultIterator expected = reasoner.answerQuery(queries.get(i), true)) {
+				assertEquals(expected.getCorrectness(), results.get(i).getCorrectness());
+				assertEquals(QueryResultsUtils.collectQueryResults(expected),
+						QueryResultsUtils.collectQueryResults(results.get(i)));
+			}
+		}
+	}
+
+	@Test
+	public void answerQueries_sameAnswersAsSingleQueries() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.reason();
+			assertSameAnswers(reasoner, reasoner.answerQueries(queries, true));
+		}
+	}
+
+	@Test
+	public void answerQueries_executor_sameAnswersAsSingleQueries() throws IOException {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.reason();
+			assertSameAnswers(reasoner, reasoner.answerQueries(queries, true, executor));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void answerQueries_renamedQueries_evaluatedOnce() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			final VLogQueryCache cache = new VLogQueryCache();
+			reasoner.setQueryCache(cache);
+			reasoner.reason();
+
+			final List<QueryResultIterator> results = reasoner.answerQueries(queries, true);
+			// path(a, ?X) and path(a, ?Y) are answered by one scan
+			assertEquals(4, cache.size());
+			assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(a, b), Arrays.asList(a, c))),
+					QueryResultsUtils.collectQueryResults(results.get(0)));
+			assertEquals(QueryResultsUtils.collectQueryResults(reasoner.answerQuery(queries.get(0), true)),
+					QueryResultsUtils.collectQueryResults(results.get(3)));
+		}
+	}
+
+	@Test
+	public void answerQueries_unknownPredicate_empty() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.reason();
+			final QueryResultIterator result = reasoner
+					.answerQueries(Collections.singletonList(Expressions.makePositiveLiteral(unknown, x)), true)
+					.get(0);
+			assertFalse(result.hasNext());
+			assertEquals(Correctness.SOUND_AND_COMPLETE, result.getCorrectness());
+		}
+	}
+
+	@Test
+	public void countQueryAnswers_sameCountsAsSingleQueries() throws IOException {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.reason();
+			final List<QueryAnswerCount> counts = reasoner.countQueryAnswers(queries);
+			final List<QueryAnswerCount> parallelCounts = reasoner.countQueryAnswers(queries, true, executor);
+			assertEquals(queries.size(), counts.size());
+			for (int i = 0; i < queries.size(); i++) {
+				final QueryAnswerCount expected = reasoner.countQueryAnswers(queries.get(i));
+				assertEquals(expected.getCount(), counts.get(i).getCount());
+				assertEquals(expected.getCorrectness(), counts.get(i).getCorrectness());
+				assertEquals(expected.getCount(), parallelCounts.get(i).getCount());
+			}
+			assertEquals(3, counts.get(1).getCount());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void countQueryAnswers_manyPointLookups() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.reason();
+			final List<PositiveLiteral> lookups = new ArrayList<>();
+			final Constant[] constants = { a, b, c };
+			for (int i = 0; i < 1000; i++) {
+				lookups.add(Expressions.makePositiveLiteral(path, constants[i % 3], constants[(i / 3) % 3]));
+			}
+			final List<QueryAnswerCount> counts = reasoner.countQueryAnswers(lookups, false);
+			for (int i = 0; i < lookups.size(); i++) {
+				assertEquals(reasoner.countQueryAnswers(lookups.get(i), false).getCount(), counts.get(i).getCount());
+			}
+		}
+	}
+
+	@Test(expected = ReasonerStateException.class)
+	public void answerQueries_notReasoned_throwsException() {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.answerQueries(queries, true);
+		}
+	}
+
+}
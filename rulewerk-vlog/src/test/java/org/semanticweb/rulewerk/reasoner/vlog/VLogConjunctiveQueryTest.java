@@ -0,0 +1,180 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Conjunction;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.TermType;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.ReasonerState;
+
+public class VLogConjunctiveQueryTest {
+
+	private static final Predicate edge = Expressions.makePredicate("edge", 2);
+	private static final Predicate node = Expressions.makePredicate("node", 1);
+	private static final Predicate hasParent = Expressions.makePredicate("hasParent", 2);
+	private static final Predicate unknown = Expressions.makePredicate("unknown", 1);
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Variable z = Expressions.makeUniversalVariable("Z");
+	private static final Constant a = Expressions.makeAbstractConstant("a");
+	private static final Constant b = Expressions.makeAbstractConstant("b");
+	private static final Constant c = Expressions.makeAbstractConstant("c");
+	private static final Constant d = Expressions.makeAbstractConstant("d");
+
+	private static KnowledgeBase createKnowledgeBase() {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact(edge, a, b));
+		kb.addStatement(Expressions.makeFact(edge, b, c));
+		kb.addStatement(Expressions.makeFact(edge, b, d));
+		kb.addStatement(Expressions.makeFact(edge, c, c));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(node, x),
+				Expressions.makePositiveLiteral(edge, x, y)));
+		return kb;
+	}
+
+	private static Conjunction<PositiveLiteral> conjunction(final PositiveLiteral... literals) {
+		return Expressions.makePositiveConjunction(literals);
+	}
+
+	private static Set<List<Term>> answers(final VLogReasoner reasoner, final Conjunction<PositiveLiteral> query,
+			final List<? extends Term> answerTerms, final boolean includeNulls) {
+		try (final QueryResultIterator answers = reasoner.answerConjunctiveQuery(query, answerTerms, includeNulls)) {
+			return QueryResultsUtils.collectQueryResults(answers);
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_join_answersWithoutReasoningAgain() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.reason();
+			final Conjunction<PositiveLiteral> query = conjunction(Expressions.makePositiveLiteral(edge, x, y),
+					Expressions.makePositiveLiteral(edge, y, z), Expressions.makePositiveLiteral(node, y));
+
+			try (final QueryResultIterator answers = reasoner.answerConjunctiveQuery(query, Arrays.asList(x, z),
+					true)) {
+				assertEquals(Correctness.SOUND_AND_COMPLETE, answers.getCorrectness());
+				assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(a, c), Arrays.asList(a, d),
+						Arrays.asList(b, c), Arrays.asList(c, c))), QueryResultsUtils.collectQueryResults(answers));
+			}
+			assertEquals(ReasonerState.MATERIALISED, reasoner.getReasonerState());
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_constantsAndRepeatedVariables() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.reason();
+			assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(c, c))), answers(reasoner,
+					conjunction(Expressions.makePositiveLiteral(edge, b, x), Expressions.makePositiveLiteral(edge, x, x)),
+					Arrays.asList(x, x), true));
+			assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(a, b))),
+					answers(reasoner, conjunction(Expressions.makePositiveLiteral(edge, x, b)), Arrays.asList(x, b),
+							true));
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_noSharedVariables_crossProduct() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.reason();
+			final Set<List<Term>> answers = answers(reasoner,
+					conjunction(Expressions.makePositiveLiteral(edge, a, x), Expressions.makePositiveLiteral(edge, y, c)),
+					Arrays.asList(x, y), true);
+			assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(b, b), Arrays.asList(b, c))), answers);
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_namedNulls() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact(node, a));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(hasParent, x,
+				Expressions.makeExistentialVariable("P")), Expressions.makePositiveLiteral(node, x)));
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final Conjunction<PositiveLiteral> query = conjunction(Expressions.makePositiveLiteral(node, x),
+					Expressions.makePositiveLiteral(hasParent, x, y));
+
+			assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(a))),
+					answers(reasoner, query, Arrays.asList(x), false));
+			assertTrue(answers(reasoner, query, Arrays.asList(x, y), false).isEmpty());
+			final Set<List<Term>> answersWithNulls = answers(reasoner, query, Arrays.asList(y), true);
+			assertEquals(1, answersWithNulls.size());
+			assertEquals(TermType.NAMED_NULL, answersWithNulls.iterator().next().get(0).getType());
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_unknownPredicate_empty() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.reason();
+			try (final QueryResultIterator answers = reasoner.answerConjunctiveQuery(
+					conjunction(Expressions.makePositiveLiteral(edge, x, y), Expressions.makePositiveLiteral(unknown, y)),
+					Arrays.asList(x), true)) {
+				assertFalse(answers.hasNext());
+				assertEquals(Correctness.SOUND_AND_COMPLETE, answers.getCorrectness());
+			}
+		}
+	}
+
+	@Test
+	public void answerConjunctiveQuery_knowledgeBaseChanged_incomplete() throws IOException {
+		final KnowledgeBase kb = createKnowledgeBase();
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			kb.addStatement(Expressions.makeFact(edge, d, a));
+			try (final QueryResultIterator answers = reasoner.answerConjunctiveQuery(
+					conjunction(Expressions.makePositiveLiteral(edge, x, y)), Arrays.asList(x), true)) {
+				assertEquals(Correctness.SOUND_BUT_INCOMPLETE, answers.getCorrectness());
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void answerConjunctiveQuery_unboundAnswerVariable_throwsException() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.reason();
+			reasoner.answerConjunctiveQuery(conjunction(Expressions.makePositiveLiteral(edge, x, y)),
+					Collections.singletonList(z), true);
+		}
+	}
+
+}
@@ -75,6 +75,12 @@ public class VLogDataSourceConfigurationVisitorTest {
 		assertEquals(expectedConfigString, toConfigString(zippedRdfFileDataSource));
 	}
 
+	@Test
+	public void visit_RdfFileDataSourceWithProperty_returnsNull() throws IOException {
+		final RdfFileDataSource rdfFileDataSource = new RdfFileDataSource(unzippedRdfFile, "http://example.org/p");
+		assertEquals(null, toConfigString(rdfFileDataSource));
+	}
+
 	@Test
 	public void visit_SparqlQueryResultDataSource_succeeds() throws IOException, MalformedURLException {
 		final SparqlQueryResultDataSource simpleDataSource = new SparqlQueryResultDataSource(endpoint, "b,a",
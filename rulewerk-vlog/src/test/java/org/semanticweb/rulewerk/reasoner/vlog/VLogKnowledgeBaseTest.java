@@ -20,18 +20,24 @@ package org.semanticweb.rulewerk.reasoner.vlog;
  * #L%
  */
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+
 import org.junit.Test;
 import org.semanticweb.rulewerk.core.model.api.AbstractConstant;
 import org.semanticweb.rulewerk.core.model.api.Fact;
 import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
 import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
 import org.semanticweb.rulewerk.core.model.api.Rule;
 import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.implementation.TridentDataSource;
 
 public class VLogKnowledgeBaseTest {
 	private KnowledgeBase knowledgeBase = new KnowledgeBase();
@@ -72,4 +78,55 @@ public class VLogKnowledgeBaseTest {
 		VLogKnowledgeBase vKB = new VLogKnowledgeBase(knowledgeBase);
 		assertTrue(vKB.hasData());
 	}
+
+	@Test
+	public void tridentSelections_shareDatabasePredicate() throws IOException {
+		final Predicate edge = Expressions.makePredicate("edge", 2);
+		knowledgeBase.addStatement(new DataSourceDeclarationImpl(edge,
+				new TridentDataSource("trident/path", "http://example.org/edge")));
+		knowledgeBase.addStatement(new DataSourceDeclarationImpl(p,
+				new TridentDataSource("trident/path", PrefixDeclarationRegistry.RDF_TYPE, "http://example.org/P")));
+		VLogKnowledgeBase vKB = new VLogKnowledgeBase(knowledgeBase);
+
+		assertEquals(1, vKB.getEdbPredicates().size());
+		final Predicate triplePredicate = vKB.getEdbPredicates().keySet().iterator().next();
+		assertEquals(3, triplePredicate.getArity());
+		assertEquals(new TridentDataSource("trident/path"),
+				vKB.getEdbPredicates().get(triplePredicate).getDataSource());
+
+		final UniversalVariable x1 = Expressions.makeUniversalVariable("X1");
+		final UniversalVariable x2 = Expressions.makeUniversalVariable("X2");
+		assertEquals(2, vKB.getRules().size());
+		assertTrue(vKB.getRules().contains(Expressions.makeRule(Expressions.makePositiveLiteral(edge, x1, x2),
+				Expressions.makePositiveLiteral(triplePredicate, x1,
+						Expressions.makeAbstractConstant("http://example.org/edge"), x2))));
+		assertTrue(vKB.getRules().contains(Expressions.makeRule(Expressions.makePositiveLiteral(p, x1),
+				Expressions.makePositiveLiteral(triplePredicate, x1,
+						Expressions.makeAbstractConstant(PrefixDeclarationRegistry.RDF_TYPE),
+						Expressions.makeAbstractConstant("http://example.org/P")))));
+	}
+
+	@Test
+	public void tridentSelection_withFacts_aliasesFacts() throws IOException {
+		knowledgeBase.addStatement(fact);
+		knowledgeBase.addStatement(new DataSourceDeclarationImpl(p,
+				new TridentDataSource("trident/path", PrefixDeclarationRegistry.RDF_TYPE, "http://example.org/P")));
+		VLogKnowledgeBase vKB = new VLogKnowledgeBase(knowledgeBase);
+
+		assertFalse(vKB.getEdbPredicates().containsKey(p));
+		assertEquals(1, vKB.getAliasesForEdbPredicates().size());
+		assertEquals(2, vKB.getRules().size());
+	}
+
+	@Test
+	public void makeRdfConstant_succeeds() {
+		assertEquals(Expressions.makeAbstractConstant("http://example.org/a"),
+				VLogKnowledgeBase.makeRdfConstant("http://example.org/a"));
+		assertEquals(Expressions.makeLanguageStringConstant("chat", "fr"),
+				VLogKnowledgeBase.makeRdfConstant("\"chat\"@fr"));
+		assertEquals(Expressions.makeDatatypeConstant("4", PrefixDeclarationRegistry.XSD_INTEGER),
+				VLogKnowledgeBase.makeRdfConstant("\"4\"^^<" + PrefixDeclarationRegistry.XSD_INTEGER + ">"));
+		assertEquals(Expressions.makeDatatypeConstant("a", PrefixDeclarationRegistry.XSD_STRING),
+				VLogKnowledgeBase.makeRdfConstant("\"a\""));
+	}
 }
@@ -0,0 +1,191 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+
+public class VLogQueryCacheTest {
+
+	private static final Predicate p = Expressions.makePredicate("p", 3);
+	private static final Predicate q = Expressions.makePredicate("q", 2);
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Constant c = Expressions.makeAbstractConstant("c");
+	private static final Constant d = Expressions.makeAbstractConstant("d");
+
+	private static long[][] consume(final Iterator<long[]> iterator) {
+		final long[][] result = new long[3][];
+		int i = 0;
+		while (iterator.hasNext()) {
+			result[i++] = iterator.next();
+		}
+		return Arrays.copyOf(result, i);
+	}
+
+	@Test
+	public void key_renamedVariables_equal() {
+		assertEquals(new VLogQueryCache.Key(Expressions.makePositiveLiteral(p, x, c, x), true),
+				new VLogQueryCache.Key(Expressions.makePositiveLiteral(p, y, c, y), true));
+		assertEquals(new VLogQueryCache.Key(Expressions.makePositiveLiteral(p, x, c, x), true).hashCode(),
+				new VLogQueryCache.Key(Expressions.makePositiveLiteral(p, y, c, y), true).hashCode());
+	}
+
+	@Test
+	public void key_differentVariablePattern_notEqual() {
+		assertNotEquals(new VLogQueryCache.Key(Expressions.makePositiveLiteral(p, x, c, x), true),
+				new VLogQueryCache.Key(Expressions.makePositiveLiteral(p, x, c, y), true));
+		assertNotEquals(new VLogQueryCache.Key(Expressions.makePositiveLiteral(p, x, c, x), true),
+				new VLogQueryCache.Key(Expressions.makePositiveLiteral(p, x, d, x), true));
+		assertNotEquals(new VLogQueryCache.Key(Expressions.makePositiveLiteral(p, x, c, x), true),
+				new VLogQueryCache.Key(Expressions.makePositiveLiteral(p, x, c, x), false));
+	}
+
+	@Test
+	public void record_consumedCompletely_cached() {
+		final VLogQueryCache cache = new VLogQueryCache();
+		final VLogQueryCache.Key key = new VLogQueryCache.Key(Expressions.makePositiveLiteral(q, x, y), true);
+		assertNull(cache.getAnswers(key));
+
+		final List<long[]> answers = Arrays.asList(new long[] { 1, 2 }, new long[] { 3, 4 });
+		consume(cache.record(key, answers.iterator()));
+
+		final long[][] cached = cache.getAnswers(key);
+		assertEquals(2, cached.length);
+		assertEquals(3, cached[1][0]);
+		assertEquals(2, cache.getCount(key));
+		assertEquals(4, cache.getCachedIds());
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void record_notConsumedCompletely_notCached() {
+		final VLogQueryCache cache = new VLogQueryCache();
+		final VLogQueryCache.Key key = new VLogQueryCache.Key(Expressions.makePositiveLiteral(q, x, y), true);
+		final Iterator<long[]> iterator = cache.record(key,
+				Arrays.asList(new long[] { 1, 2 }, new long[] { 3, 4 }).iterator());
+		iterator.next();
+
+		assertNull(cache.getAnswers(key));
+	}
+
+	@Test
+	public void record_clearedWhileRecording_notCached() {
+		final VLogQueryCache cache = new VLogQueryCache();
+		final VLogQueryCache.Key key = new VLogQueryCache.Key(Expressions.makePositiveLiteral(q, x, y), true);
+		final Iterator<long[]> iterator = cache.record(key, Arrays.asList(new long[] { 1, 2 }).iterator());
+		cache.clear();
+		consume(iterator);
+
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void put_boundsExceeded_evictsLeastRecentlyUsed() {
+		final VLogQueryCache cache = new VLogQueryCache(2, 5);
+		final VLogQueryCache.Key key1 = new VLogQueryCache.Key(Expressions.makePositiveLiteral(q, c, x), true);
+		final VLogQueryCache.Key key2 = new VLogQueryCache.Key(Expressions.makePositiveLiteral(q, d, x), true);
+		final VLogQueryCache.Key key3 = new VLogQueryCache.Key(Expressions.makePositiveLiteral(q, x, c), true);
+		cache.putCount(key1, 10);
+		cache.putCount(key2, 20);
+		cache.getCount(key1);
+		cache.putCount(key3, 30);
+
+		assertEquals(2, cache.size());
+		assertEquals(10, cache.getCount(key1));
+		assertEquals(-1, cache.getCount(key2));
+		assertEquals(1, cache.getEvictions());
+
+		// 3 answers of 2 ids exceed the bound of 5 ids
+		consume(cache.record(key2,
+				Arrays.asList(new long[] { 1, 2 }, new long[] { 3, 4 }, new long[] { 5, 6 }).iterator()));
+		assertNull(cache.getAnswers(key2));
+	}
+
+	@Test
+	public void answerQuery_repeatedQuery_answeredFromCache() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact(q, c, d));
+		kb.addStatement(Expressions.makeFact(q, d, d));
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			final VLogQueryCache cache = new VLogQueryCache();
+			reasoner.setQueryCache(cache);
+			reasoner.reason();
+
+			final Set<List<Term>> expected = new HashSet<>(Arrays.asList(Arrays.asList(c, d), Arrays.asList(d, d)));
+			final PositiveLiteral query = Expressions.makePositiveLiteral(q, x, y);
+			try (final QueryResultIterator answers = reasoner.answerQuery(query, true)) {
+				assertEquals(expected, QueryResultsUtils.collectQueryResults(answers));
+			}
+			assertEquals(0, cache.getHits());
+
+			final PositiveLiteral renamedQuery = Expressions.makePositiveLiteral(q, y, x);
+			try (final QueryResultIterator answers = reasoner.answerQuery(renamedQuery, true)) {
+				assertEquals(expected, QueryResultsUtils.collectQueryResults(answers));
+			}
+			assertEquals(2, reasoner.countQueryAnswers(query, true).getCount());
+			assertEquals(2, cache.getHits());
+
+			kb.addStatement(Expressions.makeFact(q, c, c));
+			assertEquals(0, cache.size());
+
+			reasoner.reason();
+			assertEquals(3, reasoner.countQueryAnswers(query, true).getCount());
+			assertEquals(3, reasoner.countQueryAnswers(renamedQuery, true).getCount());
+			assertEquals(3, cache.getHits());
+		}
+	}
+
+	@Test
+	public void resetReasoner_clearsCache() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact(q, c, d));
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.setQueryCache(new VLogQueryCache());
+			reasoner.reason();
+			reasoner.countQueryAnswers(Expressions.makePositiveLiteral(q, x, y), true);
+			assertEquals(1, reasoner.getQueryCache().size());
+
+			reasoner.resetReasoner();
+			assertEquals(0, reasoner.getQueryCache().size());
+		}
+	}
+
+}
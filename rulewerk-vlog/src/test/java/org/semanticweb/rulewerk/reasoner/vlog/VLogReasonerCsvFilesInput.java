@@ -0,0 +1,104 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.CsvFilesDataSource;
+
+public class VLogReasonerCsvFilesInput {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static final Predicate edge = Expressions.makePredicate("edge", 2);
+	private static final Predicate path = Expressions.makePredicate("path", 2);
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Variable z = Expressions.makeUniversalVariable("Z");
+
+	private void writeShard(final String name, final String content) throws IOException {
+		final File file = this.tempFolder.newFile(name);
+		try (OutputStream out = name.endsWith(".gz") ? new GZIPOutputStream(new FileOutputStream(file))
+				: new FileOutputStream(file); Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+			writer.write(content);
+		}
+	}
+
+	@Test
+	public void reason_shardedCsvFiles_loadedAndJoinedWithRules() throws IOException {
+		this.tempFolder.newFolder("edges");
+		writeShard("edges/part-0.csv.gz", "a,b\nb,c\n");
+		writeShard("edges/part-1.csv.gz", "c,http://example.org/d\n");
+		writeShard("edges/part-2.tsv", "\"q\"\ta\n");
+
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(edge,
+				new CsvFilesDataSource(new File(this.tempFolder.getRoot(), "edges").getPath())));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, y),
+				Expressions.makePositiveLiteral(edge, x, y)));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, z),
+				Expressions.makePositiveLiteral(path, x, y), Expressions.makePositiveLiteral(edge, y, z)));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			assertEquals(4, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(edge, x, y)).getCount());
+			assertEquals(10, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(path, x, y)).getCount());
+
+			final Constant a = Expressions.makeAbstractConstant("a");
+			final Constant d = Expressions.makeAbstractConstant("http://example.org/d");
+			final PositiveLiteral query = Expressions.makePositiveLiteral(path, a, x);
+			final Set<List<Term>> expected = new HashSet<>(Arrays.asList(
+					Arrays.asList(a, Expressions.makeAbstractConstant("b")),
+					Arrays.asList(a, Expressions.makeAbstractConstant("c")), Arrays.asList(a, d)));
+			try (final QueryResultIterator answers = reasoner.answerQuery(query, true)) {
+				assertEquals(expected, QueryResultsUtils.collectQueryResults(answers));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.HdtDataSource;
+
+public class VLogReasonerHdtInput {
+
+	private static final String hdtFile = FileDataSourceTestUtils.INPUT_FOLDER + "edges.hdt";
+	private static final String ex = "http://example.org/";
+
+	private static final Predicate edge = Expressions.makePredicate("edge", 2);
+	private static final Predicate path = Expressions.makePredicate("path", 2);
+	private static final Predicate node = Expressions.makePredicate("node", 1);
+	private static final Predicate triple = Expressions.makePredicate("triple", 3);
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Variable z = Expressions.makeUniversalVariable("Z");
+	private static final Constant a = Expressions.makeAbstractConstant(ex + "a");
+	private static final Constant b = Expressions.makeAbstractConstant(ex + "b");
+	private static final Constant d = Expressions.makeAbstractConstant(ex + "d");
+
+	@Test
+	public void reason_hdtProperty_joinedWithRules() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(edge, new HdtDataSource(hdtFile, ex + "edge")));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, y),
+				Expressions.makePositiveLiteral(edge, x, y)));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, z),
+				Expressions.makePositiveLiteral(path, x, y), Expressions.makePositiveLiteral(edge, y, z)));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			assertEquals(3, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(edge, x, y)).getCount());
+			assertEquals(6, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(path, x, y)).getCount());
+			try (final QueryResultIterator answers = reasoner
+					.answerQuery(Expressions.makePositiveLiteral(path, x, d), true)) {
+				assertEquals(3, QueryResultsUtils.collectQueryResults(answers).size());
+			}
+		}
+	}
+
+	@Test
+	public void reason_hdtClass_unaryFacts() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(node,
+				new HdtDataSource(hdtFile, PrefixDeclarationRegistry.RDF_TYPE, ex + "Node")));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final Set<List<Term>> expected = new HashSet<>(
+					Arrays.asList(Collections.singletonList(a), Collections.singletonList(b)));
+			try (final QueryResultIterator answers = reasoner.answerQuery(Expressions.makePositiveLiteral(node, x),
+					true)) {
+				assertEquals(expected, QueryResultsUtils.collectQueryResults(answers));
+			}
+		}
+	}
+
+	@Test
+	public void reason_hdtAllTriples_literals() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(triple, new HdtDataSource(hdtFile)));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			assertEquals(8, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(triple, x, y, z)).getCount());
+			final Constant four = Expressions.makeDatatypeConstant("4", PrefixDeclarationRegistry.XSD_INTEGER);
+			final Constant start = Expressions.makeLanguageStringConstant("start", "en");
+			assertEquals(1, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(triple, d, y, four)).getCount());
+			assertEquals(1, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(triple, a, y, start)).getCount());
+		}
+	}
+
+}
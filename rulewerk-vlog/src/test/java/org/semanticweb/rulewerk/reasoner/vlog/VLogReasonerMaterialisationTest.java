@@ -0,0 +1,206 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Algorithm;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.CyclicityResult;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.ReasonerState;
+
+public class VLogReasonerMaterialisationTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static final Predicate edge = Expressions.makePredicate("edge", 2);
+	private static final Predicate path = Expressions.makePredicate("path", 2);
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Variable z = Expressions.makeUniversalVariable("Z");
+	private static final Constant a = Expressions.makeAbstractConstant("a");
+	private static final Constant b = Expressions.makeAbstractConstant("b");
+	private static final Constant c = Expressions.makeAbstractConstant("c");
+	private static final PositiveLiteral pathQuery = Expressions.makePositiveLiteral(path, x, y);
+
+	private static KnowledgeBase createKnowledgeBase() {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact(edge, a, b));
+		kb.addStatement(Expressions.makeFact(edge, b, c));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, y),
+				Expressions.makePositiveLiteral(edge, x, y)));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, z),
+				Expressions.makePositiveLiteral(path, x, y), Expressions.makePositiveLiteral(edge, y, z)));
+		return kb;
+	}
+
+	private Path saveMaterialisation(final KnowledgeBase kb) throws IOException {
+		final Path directory = tempFolder.getRoot().toPath().resolve("materialisation");
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			reasoner.saveMaterialisation(directory);
+		}
+		return directory;
+	}
+
+	@Test
+	public void restoreMaterialisation_unchangedKnowledgeBase_materialised() throws IOException {
+		final Path directory = saveMaterialisation(createKnowledgeBase());
+
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			assertTrue(reasoner.restoreMaterialisation(directory));
+			assertEquals(ReasonerState.MATERIALISED, reasoner.getReasonerState());
+			assertEquals(Correctness.SOUND_AND_COMPLETE, reasoner.getCorrectness());
+
+			final Set<List<Term>> expected = new HashSet<>(Arrays.asList(Arrays.asList(a, b), Arrays.asList(b, c),
+					Arrays.asList(a, c)));
+			try (final QueryResultIterator answers = reasoner.answerQuery(pathQuery, true)) {
+				assertEquals(Correctness.SOUND_AND_COMPLETE, answers.getCorrectness());
+				assertEquals(expected, QueryResultsUtils.collectQueryResults(answers));
+			}
+			final Set<Fact> inferences = reasoner.getInferences().collect(Collectors.toSet());
+			assertEquals(5, inferences.size());
+		}
+	}
+
+	@Test
+	public void restoreMaterialisation_reorderedKnowledgeBase_materialised() throws IOException {
+		final KnowledgeBase kb = createKnowledgeBase();
+		final Path directory = saveMaterialisation(kb);
+
+		final KnowledgeBase reordered = new KnowledgeBase();
+		reordered.addStatements(kb.getRules());
+		reordered.addStatement(Expressions.makeFact(edge, b, c));
+		reordered.addStatement(Expressions.makeFact(edge, a, b));
+		try (final VLogReasoner reasoner = new VLogReasoner(reordered)) {
+			assertTrue(reasoner.restoreMaterialisation(directory));
+		}
+	}
+
+	@Test
+	public void restoreMaterialisation_changedKnowledgeBase_notRestored() throws IOException {
+		final Path directory = saveMaterialisation(createKnowledgeBase());
+
+		final KnowledgeBase kb = createKnowledgeBase();
+		kb.addStatement(Expressions.makeFact(edge, c, a));
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			assertFalse(reasoner.restoreMaterialisation(directory));
+			assertEquals(ReasonerState.KB_NOT_LOADED, reasoner.getReasonerState());
+		}
+	}
+
+	@Test
+	public void restoreMaterialisation_otherAlgorithm_notRestored() throws IOException {
+		final Path directory = saveMaterialisation(createKnowledgeBase());
+
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.setAlgorithm(Algorithm.SKOLEM_CHASE);
+			assertFalse(reasoner.restoreMaterialisation(directory));
+		}
+	}
+
+	@Test
+	public void restoreMaterialisation_namedNulls_notRestored() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact(edge, a, b));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, y, Expressions.makeExistentialVariable("W")),
+				Expressions.makePositiveLiteral(edge, x, y)));
+		final Path directory = saveMaterialisation(kb);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			assertFalse(reasoner.restoreMaterialisation(directory));
+		}
+	}
+
+	@Test
+	public void restoreMaterialisation_cyclicRules_checkForCyclesUsesRules() throws IOException {
+		final Predicate p = Expressions.makePredicate("p", 1);
+		final Predicate q = Expressions.makePredicate("q", 2);
+		final KnowledgeBase kb = createKnowledgeBase();
+		kb.addStatement(Expressions.makeRule(
+				Expressions.makePositiveLiteral(q, x, Expressions.makeExistentialVariable("W")),
+				Expressions.makePositiveLiteral(p, x)));
+		kb.addStatement(
+				Expressions.makeRule(Expressions.makePositiveLiteral(p, y), Expressions.makePositiveLiteral(q, x, y)));
+		final Path directory = saveMaterialisation(kb);
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			assertTrue(reasoner.restoreMaterialisation(directory));
+			assertEquals(CyclicityResult.CYCLIC, reasoner.checkForCycles());
+			assertFalse(reasoner.isJA());
+			assertEquals(ReasonerState.MATERIALISED, reasoner.getReasonerState());
+			try (final QueryResultIterator answers = reasoner.answerQuery(pathQuery, true)) {
+				assertEquals(3, QueryResultsUtils.collectQueryResults(answers).size());
+			}
+		}
+	}
+
+	@Test
+	public void restoreMaterialisation_addFactAfterRestore_reasonsAgain() throws IOException {
+		final Path directory = saveMaterialisation(createKnowledgeBase());
+
+		final KnowledgeBase kb = createKnowledgeBase();
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			assertTrue(reasoner.restoreMaterialisation(directory));
+			kb.addStatement(Expressions.makeFact(edge, c, a));
+			assertEquals(Correctness.SOUND_BUT_INCOMPLETE, reasoner.getCorrectness());
+
+			reasoner.reason();
+			try (final QueryResultIterator answers = reasoner
+					.answerQuery(Expressions.makePositiveLiteral(path, c, x), true)) {
+				assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(c, a), Arrays.asList(c, b), Arrays.asList(c, c))),
+						QueryResultsUtils.collectQueryResults(answers));
+			}
+		}
+	}
+
+	@Test(expected = ReasonerStateException.class)
+	public void saveMaterialisation_notMaterialised_throwsException() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.saveMaterialisation(tempFolder.getRoot().toPath());
+		}
+	}
+
+}
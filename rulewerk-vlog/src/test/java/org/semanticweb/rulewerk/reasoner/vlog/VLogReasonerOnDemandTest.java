@@ -0,0 +1,179 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.ReasonerState;
+
+public class VLogReasonerOnDemandTest {
+
+	private static final Predicate edge = Expressions.makePredicate("edge", 2);
+	private static final Predicate path = Expressions.makePredicate("path", 2);
+	private static final Predicate sameGeneration = Expressions.makePredicate("sameGeneration", 2);
+	private static final Predicate node = Expressions.makePredicate("node", 1);
+	private static final Predicate hasParent = Expressions.makePredicate("hasParent", 2);
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Variable z = Expressions.makeUniversalVariable("Z");
+	private static final Variable w = Expressions.makeUniversalVariable("W");
+	private static final Constant a = Expressions.makeAbstractConstant("a");
+	private static final Constant b = Expressions.makeAbstractConstant("b");
+	private static final Constant c = Expressions.makeAbstractConstant("c");
+	private static final Constant d = Expressions.makeAbstractConstant("d");
+	private static final Constant e = Expressions.makeAbstractConstant("e");
+
+	private static KnowledgeBase createKnowledgeBase() {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact(edge, a, b));
+		kb.addStatement(Expressions.makeFact(edge, b, c));
+		kb.addStatement(Expressions.makeFact(edge, c, d));
+		kb.addStatement(Expressions.makeFact(edge, a, e));
+		// explicit fact for a predicate with rules
+		kb.addStatement(Expressions.makeFact(path, d, a));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveConjunction(
+				Expressions.makePositiveLiteral(path, x, y), Expressions.makePositiveLiteral(node, x)),
+				Expressions.makeConjunction(Expressions.makePositiveLiteral(edge, x, y))));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, z),
+				Expressions.makePositiveLiteral(edge, x, y), Expressions.makePositiveLiteral(path, y, z)));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(sameGeneration, x, x),
+				Expressions.makePositiveLiteral(node, x)));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(sameGeneration, x, y),
+				Expressions.makePositiveLiteral(edge, z, x), Expressions.makePositiveLiteral(sameGeneration, z, w),
+				Expressions.makePositiveLiteral(edge, w, y)));
+		return kb;
+	}
+
+	private static Set<List<Term>> collect(final QueryResultIterator answers) {
+		try (final QueryResultIterator iterator = answers) {
+			return QueryResultsUtils.collectQueryResults(iterator);
+		}
+	}
+
+	private static void assertSameAnswers(final KnowledgeBase kb, final PositiveLiteral query) throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			final QueryResultIterator onDemand = reasoner.answerQueryOnDemand(query, true);
+			assertEquals(Correctness.SOUND_AND_COMPLETE, onDemand.getCorrectness());
+			final Set<List<Term>> onDemandAnswers = collect(onDemand);
+			assertEquals(ReasonerState.KB_NOT_LOADED, reasoner.getReasonerState());
+
+			reasoner.reason();
+			assertEquals(collect(reasoner.answerQuery(query, true)), onDemandAnswers);
+		}
+	}
+
+	@Test
+	public void answerQueryOnDemand_sameAnswersAsMaterialisation() throws IOException {
+		final KnowledgeBase kb = createKnowledgeBase();
+		assertSameAnswers(kb, Expressions.makePositiveLiteral(path, a, x));
+		assertSameAnswers(kb, Expressions.makePositiveLiteral(path, x, a));
+		assertSameAnswers(kb, Expressions.makePositiveLiteral(path, b, d));
+		assertSameAnswers(kb, Expressions.makePositiveLiteral(path, x, y));
+		assertSameAnswers(kb, Expressions.makePositiveLiteral(sameGeneration, b, x));
+		assertSameAnswers(kb, Expressions.makePositiveLiteral(sameGeneration, x, e));
+		assertSameAnswers(kb, Expressions.makePositiveLiteral(node, c));
+	}
+
+	@Test
+	public void answerQueryOnDemand_severalQueries_sameAnswersAsMaterialisation() throws IOException {
+		final List<PositiveLiteral> queries = Arrays.asList(Expressions.makePositiveLiteral(path, a, x),
+				Expressions.makePositiveLiteral(path, c, x), Expressions.makePositiveLiteral(path, x, y),
+				Expressions.makePositiveLiteral(sameGeneration, b, x), Expressions.makePositiveLiteral(path, d, x),
+				Expressions.makePositiveLiteral(path, e, x), Expressions.makePositiveLiteral(sameGeneration, e, x));
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			final List<Set<List<Term>>> onDemandAnswers = new ArrayList<>();
+			for (final PositiveLiteral query : queries) {
+				onDemandAnswers.add(collect(reasoner.answerQueryOnDemand(query, true)));
+			}
+			reasoner.reason();
+			for (int i = 0; i < queries.size(); i++) {
+				assertEquals(collect(reasoner.answerQuery(queries.get(i), true)), onDemandAnswers.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void answerQueryOnDemand_knowledgeBaseChanged_answersOfChangedKnowledgeBase() throws IOException {
+		final KnowledgeBase kb = createKnowledgeBase();
+		final PositiveLiteral query = Expressions.makePositiveLiteral(path, e, x);
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			assertEquals(0, collect(reasoner.answerQueryOnDemand(query, true)).size());
+
+			kb.addStatement(Expressions.makeFact(edge, e, d));
+			assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(e, d), Arrays.asList(e, a))),
+					collect(reasoner.answerQueryOnDemand(query, true)));
+		}
+	}
+
+	@Test
+	public void answerQueryOnDemand_boundQuery_expectedAnswers() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			assertEquals(
+					new HashSet<>(Arrays.asList(Arrays.asList(b, c), Arrays.asList(b, d), Arrays.asList(b, a))),
+					collect(reasoner.answerQueryOnDemand(Expressions.makePositiveLiteral(path, b, x), true)));
+		}
+	}
+
+	@Test
+	public void answerQueryOnDemand_existentialRules_sameAnswersAsMaterialisation() throws IOException {
+		final KnowledgeBase kb = createKnowledgeBase();
+		kb.addStatement(Expressions.makeRule(
+				Expressions.makePositiveLiteral(hasParent, x, Expressions.makeExistentialVariable("P")),
+				Expressions.makePositiveLiteral(node, x)));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, y),
+				Expressions.makePositiveLiteral(hasParent, x, y)));
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			final Set<List<Term>> onDemandAnswers = collect(
+					reasoner.answerQueryOnDemand(Expressions.makePositiveLiteral(path, c, x), false));
+			reasoner.reason();
+			assertEquals(collect(reasoner.answerQuery(Expressions.makePositiveLiteral(path, c, x), false)),
+					onDemandAnswers);
+		}
+	}
+
+	@Test
+	public void answerQueryOnDemand_unknownPredicate_empty() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			final QueryResultIterator answers = reasoner
+					.answerQueryOnDemand(Expressions.makePositiveLiteral("unknown", x), true);
+			assertEquals(Correctness.SOUND_AND_COMPLETE, answers.getCorrectness());
+			assertEquals(0, collect(answers).size());
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.PrefixDeclarationRegistry;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.implementation.ParquetFileDataSource;
+
+public class VLogReasonerParquetInput {
+
+	private static final String parquetFile = FileDataSourceTestUtils.INPUT_FOLDER + "edges.parquet";
+
+	private static final Predicate edge = Expressions.makePredicate("edge", 2);
+	private static final Predicate path = Expressions.makePredicate("path", 2);
+	private static final Predicate weight = Expressions.makePredicate("weight", 2);
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Variable z = Expressions.makeUniversalVariable("Z");
+	private static final Constant a = Expressions.makeAbstractConstant("a");
+	private static final Constant c = Expressions.makeAbstractConstant("c");
+
+	@Test
+	public void reason_parquetColumnsWithFilter_joinedWithRules() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(edge, new ParquetFileDataSource(parquetFile,
+				Arrays.asList("subject", "object"), Collections.singletonMap("relation", "edge"))));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, y),
+				Expressions.makePositiveLiteral(edge, x, y)));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, z),
+				Expressions.makePositiveLiteral(path, x, y), Expressions.makePositiveLiteral(edge, y, z)));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			assertEquals(3, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(edge, x, y)).getCount());
+			assertEquals(6, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(path, x, y)).getCount());
+
+			final Set<List<Term>> expected = new HashSet<>(Arrays.asList(
+					Arrays.asList(a, Expressions.makeAbstractConstant("b")), Arrays.asList(a, c),
+					Arrays.asList(a, Expressions.makeAbstractConstant("http://example.org/d"))));
+			try (final QueryResultIterator answers = reasoner
+					.answerQuery(Expressions.makePositiveLiteral(path, a, x), true)) {
+				assertEquals(expected, QueryResultsUtils.collectQueryResults(answers));
+			}
+		}
+	}
+
+	@Test
+	public void reason_parquetIntegerColumn_datatypeConstants() throws IOException {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(weight,
+				new ParquetFileDataSource(parquetFile, "subject", "weight")));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+
+			final Constant four = Expressions.makeDatatypeConstant("4", PrefixDeclarationRegistry.XSD_INTEGER);
+			assertEquals(5, reasoner.countQueryAnswers(Expressions.makePositiveLiteral(weight, x, y)).getCount());
+			try (final QueryResultIterator answers = reasoner
+					.answerQuery(Expressions.makePositiveLiteral(weight, x, four), true)) {
+				assertEquals(Collections.singleton(Arrays.asList(c, four)),
+						QueryResultsUtils.collectQueryResults(answers));
+			}
+		}
+	}
+
+}
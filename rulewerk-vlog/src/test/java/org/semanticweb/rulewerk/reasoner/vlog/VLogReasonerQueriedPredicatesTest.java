@@ -0,0 +1,241 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*-
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.rulewerk.core.exceptions.ReasonerStateException;
+import org.semanticweb.rulewerk.core.exceptions.RulewerkRuntimeException;
+import org.semanticweb.rulewerk.core.model.api.Constant;
+import org.semanticweb.rulewerk.core.model.api.Fact;
+import org.semanticweb.rulewerk.core.model.api.PositiveLiteral;
+import org.semanticweb.rulewerk.core.model.api.Predicate;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.api.Variable;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.Correctness;
+import org.semanticweb.rulewerk.core.reasoner.InferenceExporter;
+import org.semanticweb.rulewerk.core.reasoner.InferenceExporter.ExportStatistics;
+import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
+import org.semanticweb.rulewerk.core.reasoner.QueryResultIterator;
+import org.semanticweb.rulewerk.core.reasoner.ReasonerState;
+
+public class VLogReasonerQueriedPredicatesTest {
+
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private static final Predicate edge = Expressions.makePredicate("edge", 2);
+	private static final Predicate path = Expressions.makePredicate("path", 2);
+	private static final Predicate node = Expressions.makePredicate("node", 1);
+	private static final Variable x = Expressions.makeUniversalVariable("X");
+	private static final Variable y = Expressions.makeUniversalVariable("Y");
+	private static final Variable z = Expressions.makeUniversalVariable("Z");
+	private static final Constant a = Expressions.makeAbstractConstant("a");
+	private static final Constant b = Expressions.makeAbstractConstant("b");
+	private static final Constant c = Expressions.makeAbstractConstant("c");
+	private static final PositiveLiteral pathQuery = Expressions.makePositiveLiteral(path, x, y);
+	private static final PositiveLiteral nodeQuery = Expressions.makePositiveLiteral(node, x);
+
+	private static KnowledgeBase createKnowledgeBase() {
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(Expressions.makeFact(edge, a, b));
+		kb.addStatement(Expressions.makeFact(edge, b, c));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, y),
+				Expressions.makePositiveLiteral(edge, x, y)));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(path, x, z),
+				Expressions.makePositiveLiteral(path, x, y), Expressions.makePositiveLiteral(edge, y, z)));
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(node, x),
+				Expressions.makePositiveLiteral(edge, x, y)));
+		return kb;
+	}
+
+	@Test
+	public void reason_queriedPredicates_irrelevantRulesPruned() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.setQueriedPredicates(Collections.singleton(path));
+			reasoner.reason();
+
+			final Set<List<Term>> expected = new HashSet<>(
+					Arrays.asList(Arrays.asList(a, b), Arrays.asList(b, c), Arrays.asList(a, c)));
+			try (final QueryResultIterator answers = reasoner.answerQuery(pathQuery, true)) {
+				assertEquals(Correctness.SOUND_AND_COMPLETE, answers.getCorrectness());
+				assertEquals(expected, QueryResultsUtils.collectQueryResults(answers));
+			}
+			assertEquals(Correctness.SOUND_AND_COMPLETE,
+					reasoner.countQueryAnswers(Expressions.makePositiveLiteral(edge, x, y)).getCorrectness());
+
+			assertEquals(0, reasoner.countQueryAnswers(nodeQuery).getCount());
+			assertEquals(Correctness.SOUND_BUT_INCOMPLETE, reasoner.countQueryAnswers(nodeQuery).getCorrectness());
+			assertEquals(Correctness.SOUND_BUT_INCOMPLETE,
+					reasoner.countQueryAnswers(Arrays.asList(pathQuery, nodeQuery)).get(1).getCorrectness());
+			assertEquals(Correctness.SOUND_BUT_INCOMPLETE, reasoner.getCorrectness());
+		}
+	}
+
+	@Test
+	public void reason_allRulesRelevant_complete() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.setQueriedPredicates(Arrays.asList(path, node));
+			reasoner.reason();
+
+			assertEquals(Correctness.SOUND_AND_COMPLETE, reasoner.getCorrectness());
+			assertEquals(2, reasoner.countQueryAnswers(nodeQuery).getCount());
+		}
+	}
+
+	@Test
+	public void setQueriedPredicatesNull_afterReset_allRulesLoaded() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.setQueriedPredicates(Collections.singleton(path));
+			reasoner.reason();
+			assertEquals(0, reasoner.countQueryAnswers(nodeQuery).getCount());
+
+			reasoner.resetReasoner();
+			reasoner.setQueriedPredicates(null);
+			reasoner.reason();
+			assertEquals(Correctness.SOUND_AND_COMPLETE, reasoner.getCorrectness());
+			assertEquals(2, reasoner.countQueryAnswers(nodeQuery).getCount());
+		}
+	}
+
+	private static Set<Fact> expectedInferences() {
+		return new HashSet<>(Arrays.asList(Expressions.makeFact(edge, a, b), Expressions.makeFact(edge, b, c),
+				Expressions.makeFact(path, a, b), Expressions.makeFact(path, b, c), Expressions.makeFact(path, a, c)));
+	}
+
+	@Test
+	public void getInferences_rulesPruned_prunedPredicatesEmpty() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.setQueriedPredicates(Collections.singleton(path));
+			reasoner.reason();
+
+			assertEquals(expectedInferences(), reasoner.getInferences().collect(Collectors.toSet()));
+		}
+	}
+
+	@Test
+	public void forEachInference_rulesPruned_prunedPredicatesEmpty() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.setQueriedPredicates(Collections.singleton(path));
+			reasoner.reason();
+
+			final Set<Fact> inferences = new HashSet<>();
+			final Correctness correctness = reasoner.forEachInference(
+					(predicate, terms) -> inferences.add(Expressions.makeFact(predicate, terms)));
+			assertEquals(Correctness.SOUND_BUT_INCOMPLETE, correctness);
+			assertEquals(expectedInferences(), inferences);
+		}
+	}
+
+	@Test
+	public void writeInferences_rulesPruned_prunedPredicatesEmpty() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.setQueriedPredicates(Collections.singleton(path));
+			reasoner.reason();
+
+			final StringWriter writer = new StringWriter();
+			assertEquals(Correctness.SOUND_BUT_INCOMPLETE, reasoner.writeInferences(writer));
+			final Set<String> expected = expectedInferences().stream().map(Fact::toString).collect(Collectors.toSet());
+			final Set<String> actual = Arrays.stream(writer.toString().split("\n")).filter(line -> !line.isEmpty())
+					.collect(Collectors.toSet());
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void getInferencePredicates_rulesPruned_prunedPredicatesLeftOut() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.setQueriedPredicates(Collections.singleton(path));
+			reasoner.reason();
+
+			assertEquals(new HashSet<>(Arrays.asList(path, edge)), reasoner.getInferencePredicates());
+		}
+	}
+
+	@Test
+	public void inferenceExporter_rulesPruned_prunedPredicatesEmpty() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.setQueriedPredicates(Collections.singleton(path));
+			reasoner.reason();
+
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			final ExportStatistics statistics = new InferenceExporter(reasoner).export(outputStream);
+			assertEquals(Correctness.SOUND_BUT_INCOMPLETE, statistics.getCorrectness());
+			assertEquals(expectedInferences().size(), statistics.getFactCount());
+			final Set<String> expected = expectedInferences().stream().map(Fact::toString).collect(Collectors.toSet());
+			final Set<String> actual = Arrays.stream(outputStream.toString("UTF-8").split("\n"))
+					.filter(line -> !line.isEmpty()).collect(Collectors.toSet());
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test(expected = ReasonerStateException.class)
+	public void saveMaterialisation_rulesPruned_throwsException() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(createKnowledgeBase())) {
+			reasoner.setQueriedPredicates(Collections.singleton(path));
+			reasoner.reason();
+			reasoner.saveMaterialisation(this.tempFolder.getRoot().toPath());
+		}
+	}
+
+	@Test
+	public void reason_notStratifiable_failsBeforeLoading() throws IOException {
+		final KnowledgeBase kb = createKnowledgeBase();
+		final Predicate unreachable = Expressions.makePredicate("unreachable", 2);
+		final org.semanticweb.rulewerk.core.model.api.Rule cyclicRule = Expressions.makeRule(
+				Expressions.makePositiveLiteral(path, x, y), Expressions.makePositiveLiteral(node, x),
+				Expressions.makePositiveLiteral(node, y),
+				Expressions.makeNegativeLiteral(unreachable, x, y));
+		kb.addStatement(cyclicRule);
+		kb.addStatement(Expressions.makeRule(Expressions.makePositiveLiteral(unreachable, x, y),
+				Expressions.makePositiveLiteral(node, x), Expressions.makePositiveLiteral(node, y),
+				Expressions.makeNegativeLiteral(path, x, y)));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			try {
+				reasoner.reason();
+				fail("Unstratifiable rules should not be loaded.");
+			} catch (final RulewerkRuntimeException e) {
+				assertEquals(ReasonerState.KB_NOT_LOADED, reasoner.getReasonerState());
+			}
+
+			kb.removeStatement(cyclicRule);
+			reasoner.reason();
+			assertEquals(3, reasoner.countQueryAnswers(pathQuery).getCount());
+		}
+	}
+
+}
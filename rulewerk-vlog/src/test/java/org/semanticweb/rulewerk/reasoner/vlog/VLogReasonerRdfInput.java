@@ -131,6 +131,49 @@ public class VLogReasonerRdfInput {
 		}
 	}
 
+	@Test
+	public void testLoadSelectionsFromRdfFile() throws IOException {
+		testLoadSelectionsFromSingleRdfFile(
+				FileDataSourceTestUtils.INPUT_FOLDER + FileDataSourceTestUtils.unzippedNtFileRoot + ".nt");
+	}
+
+	@Test
+	public void testLoadSelectionsFromRdfFileGz() throws IOException {
+		testLoadSelectionsFromSingleRdfFile(
+				FileDataSourceTestUtils.INPUT_FOLDER + FileDataSourceTestUtils.zippedNtFileRoot + ".nt.gz");
+	}
+
+	public void testLoadSelectionsFromSingleRdfFile(final String rdfFile) throws IOException {
+		final Predicate binaryPredicate = Expressions.makePredicate("p", 2);
+		final Predicate unaryPredicate = Expressions.makePredicate("q", 1);
+		final Predicate emptyPredicate = Expressions.makePredicate("r", 2);
+		final KnowledgeBase kb = new KnowledgeBase();
+		kb.addStatement(new DataSourceDeclarationImpl(binaryPredicate,
+				new RdfFileDataSource(rdfFile, "http://example.org/p")));
+		kb.addStatement(new DataSourceDeclarationImpl(unaryPredicate,
+				new RdfFileDataSource(rdfFile, "http://example.org/q", "\"test string\"")));
+		kb.addStatement(new DataSourceDeclarationImpl(emptyPredicate,
+				new RdfFileDataSource(rdfFile, "http://example.org/r")));
+
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.load();
+
+			final Set<List<Term>> binaryResult = QueryResultsUtils.collectQueryResults(
+					reasoner.answerQuery(Expressions.makePositiveLiteral(binaryPredicate,
+							Expressions.makeUniversalVariable("s"), Expressions.makeUniversalVariable("o")), true));
+			assertEquals(Sets.newSet(Arrays.asList(Expressions.makeAbstractConstant("http://example.org/c1"),
+					Expressions.makeAbstractConstant("http://example.org/c2"))), binaryResult);
+
+			final Set<List<Term>> unaryResult = QueryResultsUtils.collectQueryResults(reasoner.answerQuery(
+					Expressions.makePositiveLiteral(unaryPredicate, Expressions.makeUniversalVariable("s")), true));
+			assertEquals(Sets.newSet(Arrays.asList(Expressions.makeAbstractConstant("http://example.org/c1"))),
+					unaryResult);
+
+			FileDataSourceTestUtils.testNoFactsOverPredicate(reasoner, Expressions.makePositiveLiteral(
+					emptyPredicate, Expressions.makeUniversalVariable("s"), Expressions.makeUniversalVariable("o")));
+		}
+	}
+
 	@Test(expected = IOException.class)
 	public void testLoadNonexistingRdfFile() throws IOException {
 		final File nonexistingFile = new File("nonexistingFile.nt");
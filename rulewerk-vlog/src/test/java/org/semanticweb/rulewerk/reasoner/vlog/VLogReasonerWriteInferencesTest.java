@@ -23,13 +23,19 @@ package org.semanticweb.rulewerk.reasoner.vlog;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -51,6 +57,8 @@ import org.semanticweb.rulewerk.core.model.api.Term;
 import org.semanticweb.rulewerk.core.model.api.UniversalVariable;
 import org.semanticweb.rulewerk.core.model.implementation.DataSourceDeclarationImpl;
 import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+import org.semanticweb.rulewerk.core.reasoner.InferenceExporter;
+import org.semanticweb.rulewerk.core.reasoner.InferenceExporter.ExportStatistics;
 import org.semanticweb.rulewerk.core.reasoner.KnowledgeBase;
 import org.semanticweb.rulewerk.core.reasoner.Reasoner;
 import org.semanticweb.rulewerk.core.reasoner.Reasoner.InferenceAction;
@@ -139,6 +147,52 @@ public class VLogReasonerWriteInferencesTest {
 		}
 	}
 
+	@Test
+	public void getInferences_parallel_succeeds() throws IOException {
+		final List<String> inferences = getInferences();
+		try (final Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			try (final Stream<Fact> stream = reasoner.getInferences()) {
+				final List<String> fromStream = stream.parallel().map(Fact::toString).collect(Collectors.toList());
+				assertEquals(inferences, fromStream);
+			}
+		}
+	}
+
+	@Test
+	public void getInferences_closedEarly_succeeds() throws IOException {
+		try (final Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			try (final Stream<Fact> stream = reasoner.getInferences()) {
+				assertEquals(2, stream.limit(2).count());
+			}
+			assertEquals(getInferences().size(), reasoner.getInferences().count());
+		}
+	}
+
+	@Test
+	public void getInferences_splitAfterPartialTraversal_keepsOrder() throws IOException {
+		try (final VLogReasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final List<Predicate> predicates = new ArrayList<>(reasoner.getInferencePredicates());
+			// start with a predicate that has more than one fact
+			predicates.remove(locatedInPred);
+			predicates.add(0, locatedInPred);
+			final List<Fact> expected = new ArrayList<>();
+			final VLogInferenceSpliterator sequential = new VLogInferenceSpliterator(reasoner, predicates);
+			sequential.forEachRemaining(expected::add);
+
+			final List<Fact> actual = new ArrayList<>();
+			final VLogInferenceSpliterator spliterator = new VLogInferenceSpliterator(reasoner, predicates);
+			assertTrue(spliterator.tryAdvance(actual::add));
+			final Spliterator<Fact> prefix = spliterator.trySplit();
+			assertNotNull(prefix);
+			prefix.forEachRemaining(actual::add);
+			spliterator.forEachRemaining(actual::add);
+			assertEquals(expected, actual);
+		}
+	}
+
 	@Test
 	public void unsafeForEachInference_example_succeeds() throws IOException {
 		final List<String> inferences = getInferences();
@@ -164,6 +218,56 @@ public class VLogReasonerWriteInferencesTest {
 		}
 	}
 
+	@Test
+	public void forEachInference_withExecutor_succeeds() throws IOException {
+		final List<String> inferences = getInferences();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try (final Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final List<String> fromParallel = Collections.synchronizedList(new ArrayList<>());
+
+			reasoner.forEachInference((predicate, terms) -> {
+				fromParallel.add(Expressions.makeFact(predicate, terms).toString());
+			}, executor);
+
+			assertEquals(new HashSet<>(inferences), new HashSet<>(fromParallel));
+			assertEquals(inferences.size(), fromParallel.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void forEachInference_withExecutorThrowingAction_throws() throws IOException {
+		InferenceAction action = mock(InferenceAction.class);
+		doThrow(IOException.class).when(action).accept(any(Predicate.class), anyList());
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try (final Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			reasoner.forEachInference(action, executor);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void inferenceExporter_parallel_matchesWriteInferences() throws IOException {
+		final List<String> inferences = getInferences();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try (final Reasoner reasoner = new VLogReasoner(kb)) {
+			reasoner.reason();
+			final ByteArrayOutputStream output = new ByteArrayOutputStream();
+			final ExportStatistics statistics = new InferenceExporter(reasoner).setExecutor(executor).export(output);
+
+			final List<String> exported = Arrays.stream(output.toString("UTF-8").split("(?<=[>)]\\s?)\\.\\s*"))
+					.map((String inference) -> inference + ".").collect(Collectors.toList());
+			assertEquals(new HashSet<>(inferences), new HashSet<>(exported));
+			assertEquals(inferences.size(), statistics.getFactCount());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 	private class ThrowingConsumer implements BiConsumer<Predicate, List<Term>> {
 		@Override
 		public void accept(Predicate predicate, List<Term> terms) {
@@ -0,0 +1,88 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.semanticweb.rulewerk.core.model.api.Term;
+import org.semanticweb.rulewerk.core.model.implementation.Expressions;
+
+public class VLogTermCacheTest {
+
+	@Test
+	public void testPutAndGet() {
+		final VLogTermCache cache = new VLogTermCache(16);
+		final Term c = Expressions.makeAbstractConstant("c");
+		assertNull(cache.get(42));
+		cache.put(42, c);
+		assertEquals(c, cache.get(42));
+		assertNull(cache.get(43));
+	}
+
+	@Test
+	public void testClear() {
+		final VLogTermCache cache = new VLogTermCache(16);
+		cache.put(1, Expressions.makeAbstractConstant("c"));
+		cache.clear();
+		assertNull(cache.get(1));
+	}
+
+	@Test
+	public void testCapacityIsBounded() {
+		final VLogTermCache cache = new VLogTermCache(100);
+		assertEquals(128, cache.getCapacity());
+		for (long id = 0; id < 10000; id++) {
+			cache.put(id, Expressions.makeAbstractConstant("c" + id));
+		}
+		int cached = 0;
+		for (long id = 0; id < 10000; id++) {
+			final Term term = cache.get(id);
+			if (term != null) {
+				assertEquals(Expressions.makeAbstractConstant("c" + id), term);
+				cached++;
+			}
+		}
+		assertTrue(cached <= cache.getCapacity());
+		// the most recently added id is always kept
+		assertEquals(Expressions.makeAbstractConstant("c9999"), cache.get(9999));
+	}
+
+	@Test
+	public void testReferencedEntriesSurvive() {
+		final VLogTermCache cache = new VLogTermCache(VLogTermCache.WAYS);
+		final Term hot = Expressions.makeAbstractConstant("hot");
+		cache.put(0, hot);
+		for (long id = 1; id < 100; id++) {
+			cache.get(0);
+			cache.put(id, Expressions.makeAbstractConstant("c" + id));
+		}
+		assertEquals(hot, cache.get(0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new VLogTermCache(0);
+	}
+
+}
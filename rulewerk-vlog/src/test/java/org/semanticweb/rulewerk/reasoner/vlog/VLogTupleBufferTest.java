@@ -0,0 +1,68 @@
+package org.semanticweb.rulewerk.reasoner.vlog;
+
+/*
+ * #%L
+ * Rulewerk VLog Reasoner Support
+ * %%
+ * Copyright (C) 2018 - 2020 Rulewerk Developers
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class VLogTupleBufferTest {
+
+	@Test
+	public void testAddAndToArray() {
+		final VLogTupleBuffer buffer = new VLogTupleBuffer();
+		assertEquals(0, buffer.toArray().length);
+
+		final String[] t1 = { "a", "b" };
+		final String[] t2 = { "c", "d" };
+		final String[] t3 = { "e", "f" };
+		buffer.add(new String[][] { t1 });
+		buffer.add(new String[][] { t2, t3 });
+		assertEquals(3, buffer.size());
+		assertArrayEquals(new String[][] { t1, t2, t3 }, buffer.toArray());
+	}
+
+	@Test
+	public void testManyBatches() {
+		final VLogTupleBuffer buffer = new VLogTupleBuffer();
+		for (int i = 0; i < 1000; i++) {
+			buffer.add(new String[][] { { "c" + i } });
+		}
+		final String[][] tuples = buffer.toArray();
+		assertEquals(1000, tuples.length);
+		assertEquals("c999", tuples[999][0]);
+	}
+
+	@Test
+	public void testGrownLength() {
+		assertEquals(15, VLogTupleBuffer.grownLength(10, 11));
+		assertEquals(100, VLogTupleBuffer.grownLength(10, 100));
+		assertEquals(VLogTupleBuffer.MAX_ARRAY_LENGTH,
+				VLogTupleBuffer.grownLength(VLogTupleBuffer.MAX_ARRAY_LENGTH - 1, VLogTupleBuffer.MAX_ARRAY_LENGTH));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testGrownLength_tooManyTuples_fails() {
+		VLogTupleBuffer.grownLength(VLogTupleBuffer.MAX_ARRAY_LENGTH, VLogTupleBuffer.MAX_ARRAY_LENGTH + 1L);
+	}
+
+}